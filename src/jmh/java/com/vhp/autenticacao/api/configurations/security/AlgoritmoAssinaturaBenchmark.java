@@ -0,0 +1,72 @@
+package com.vhp.autenticacao.api.configurations.security;
+
+import com.vhp.autenticacao.api.configurations.property.AutenticacaoProperty;
+import com.vhp.autenticacao.api.configurations.property.JwtProperty;
+import com.vhp.autenticacao.api.document.Usuario;
+import org.openjdk.jmh.annotations.*;
+
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.NoSuchAlgorithmException;
+import java.time.Clock;
+import java.util.Base64;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compara o custo por token da geração e verificação para cada algoritmo de assinatura suportado.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class AlgoritmoAssinaturaBenchmark {
+
+    @Param({"HS256", "RS256", "ES256"})
+    private String algoritmo;
+
+    private TokenService tokenService;
+
+    private Usuario usuario;
+
+    private String token;
+
+    @Setup
+    public void setup() throws NoSuchAlgorithmException {
+        AutenticacaoProperty autenticacaoProperty = new AutenticacaoProperty();
+        JwtProperty jwtProperty = autenticacaoProperty.getJwt();
+        jwtProperty.setAlgoritmo(algoritmo);
+        jwtProperty.setSecret("Yn2kjibddFAWtnPJ2AFlL8WXmohJMCvigQggaEypa5E=");
+        jwtProperty.setAudience("Autenticacao.API");
+        jwtProperty.setIssuer("http://localhost:8080");
+
+        if(!"HS256".equals(algoritmo)) {
+            KeyPairGenerator generator = KeyPairGenerator.getInstance("RS256".equals(algoritmo) ? "RSA" : "EC");
+            generator.initialize("RS256".equals(algoritmo) ? 2048 : 256);
+            KeyPair keyPair = generator.generateKeyPair();
+            jwtProperty.setChavePrivada(Base64.getEncoder().encodeToString(keyPair.getPrivate().getEncoded()));
+            jwtProperty.setChavePublica(Base64.getEncoder().encodeToString(keyPair.getPublic().getEncoded()));
+        }
+
+        tokenService = new TokenService(autenticacaoProperty, Clock.systemUTC());
+        tokenService.inicializar();
+
+        usuario = new Usuario();
+        usuario.setId(UUID.randomUUID());
+        usuario.setNome("Benchmark");
+
+        token = tokenService.gerarAccessToken(usuario);
+    }
+
+    @Benchmark
+    public String gerarToken() {
+        return tokenService.gerarAccessToken(usuario);
+    }
+
+    @Benchmark
+    public boolean verificarToken() {
+        return tokenService.isTokenValido(token);
+    }
+}
@@ -0,0 +1,83 @@
+package com.vhp.autenticacao.api.configurations.security;
+
+import com.vhp.autenticacao.api.configurations.property.AutenticacaoProperty;
+import com.vhp.autenticacao.api.configurations.property.JwtProperty;
+import com.vhp.autenticacao.api.document.Usuario;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.io.IOException;
+import java.time.Clock;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Mede o custo por requisição da autenticação via access token no filtro, com o usuário carregado
+ * por um serviço em memória (sem MongoDB) ou construído a partir das claims do token.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class AutenticacaoViaTokenFilterBenchmark {
+
+    @Param({"false", "true"})
+    private boolean principalSemEstado;
+
+    private AutenticacaoViaTokenFilter filter;
+
+    private MockHttpServletRequest request;
+
+    private MockHttpServletResponse response;
+
+    private final FilterChain filterChain = (request, response) -> { };
+
+    @Setup
+    public void setup() {
+        AutenticacaoProperty autenticacaoProperty = new AutenticacaoProperty();
+        JwtProperty jwtProperty = autenticacaoProperty.getJwt();
+        jwtProperty.setSecret("Yn2kjibddFAWtnPJ2AFlL8WXmohJMCvigQggaEypa5E=");
+        jwtProperty.setAudience("Autenticacao.API");
+        jwtProperty.setIssuer("http://localhost:8080");
+        jwtProperty.setPrincipalSemEstado(principalSemEstado);
+
+        TokenService tokenService = new TokenService(autenticacaoProperty, Clock.systemUTC());
+        tokenService.inicializar();
+
+        Usuario usuario = new Usuario();
+        usuario.setId(UUID.randomUUID());
+        usuario.setNome("Benchmark");
+        usuario.setEmail("benchmark@email.com");
+        usuario.setAtivo(true);
+
+        AutenticacaoService autenticacaoService = new AutenticacaoService(null) {
+            @Override
+            public Usuario loadUserById(UUID id) {
+                return usuario;
+            }
+        };
+
+        filter = new AutenticacaoViaTokenFilter(tokenService, autenticacaoService);
+
+        request = new MockHttpServletRequest("GET", "/usuarios");
+        request.addHeader(HttpHeaders.AUTHORIZATION, "Bearer " + tokenService.gerarAccessToken(usuario));
+        response = new MockHttpServletResponse();
+    }
+
+    @TearDown(Level.Invocation)
+    public void limparContexto() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Benchmark
+    public void doFilterInternal() throws ServletException, IOException {
+        filter.doFilterInternal(request, response, filterChain);
+    }
+}
@@ -0,0 +1,90 @@
+package com.vhp.autenticacao.api.configurations.security;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtParser;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.impl.TextCodec;
+import org.openjdk.jmh.annotations.*;
+
+import javax.crypto.spec.SecretKeySpec;
+import java.security.Key;
+import java.time.Instant;
+import java.util.Date;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compara tempo e bytes alocados por operação do {@link CodecJwtHs256} contra o jjwt 0.9.1.
+ * Os bytes alocados são obtidos com o profiler de GC do JMH:
+ * {@code -Djmh.args="CodecJwtHs256Benchmark -prof gc"} ({@code gc.alloc.rate.norm}).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CodecJwtHs256Benchmark {
+
+    private static final String ISSUER = "http://localhost:8080";
+
+    private static final String AUDIENCE = "Autenticacao.API";
+
+    private Key chave;
+
+    private CodecJwtHs256 codec;
+
+    private JwtParser parser;
+
+    private UUID usuarioId;
+
+    private Instant emissao;
+
+    private Instant expiracao;
+
+    private String token;
+
+    @Setup
+    public void setup() {
+        chave = new SecretKeySpec(TextCodec.BASE64.decode("Yn2kjibddFAWtnPJ2AFlL8WXmohJMCvigQggaEypa5E="), "HmacSHA256");
+        codec = new CodecJwtHs256(null, chave, ISSUER, AUDIENCE);
+        parser = Jwts.parser()
+                .setSigningKey(chave)
+                .requireAudience(AUDIENCE)
+                .requireIssuer(ISSUER);
+
+        usuarioId = UUID.randomUUID();
+        emissao = Instant.now();
+        expiracao = emissao.plusSeconds(1800);
+        token = codec.gerar(usuarioId, "Benchmark", emissao, expiracao);
+    }
+
+    @Benchmark
+    public String gerarCodec() {
+        return codec.gerar(usuarioId, "Benchmark", emissao, expiracao);
+    }
+
+    @Benchmark
+    public String gerarJjwt() {
+        return Jwts.builder()
+                .setIssuer(ISSUER)
+                .setAudience(AUDIENCE)
+                .setSubject(usuarioId.toString())
+                .claim("name", "Benchmark")
+                .setIssuedAt(Date.from(emissao))
+                .setExpiration(Date.from(expiracao))
+                .signWith(SignatureAlgorithm.HS256, chave)
+                .compact();
+    }
+
+    @Benchmark
+    public Claims verificarCodec() {
+        return codec.verificar(token, emissao);
+    }
+
+    @Benchmark
+    public Claims verificarJjwt() {
+        return parser.parseClaimsJws(token).getBody();
+    }
+}
@@ -0,0 +1,54 @@
+package com.vhp.autenticacao.api.configurations.security;
+
+import com.vhp.autenticacao.api.configurations.property.SenhaProperty;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Mede a vazão de verificações de senha (logins por segundo) para cada algoritmo e conjunto de parâmetros.
+ * O número de threads concorrentes é definido com a opção {@code -t} do JMH, por exemplo {@code -t max}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 3, time = 2)
+@Fork(1)
+public class PasswordEncoderDelegadoBenchmark {
+
+    /**
+     * Algoritmo e parâmetros: {@code bcrypt:forca}, {@code argon2:memoriaKb:iteracoes} ou {@code pbkdf2:iteracoes}.
+     */
+    @Param({"bcrypt:10", "bcrypt:12", "argon2:19456:2", "argon2:47104:1", "pbkdf2:310000", "pbkdf2:600000"})
+    private String configuracao;
+
+    private PasswordEncoder passwordEncoder;
+
+    private String hash;
+
+    @Setup
+    public void setup() {
+        String[] partes = configuracao.split(":");
+        SenhaProperty senhaProperty = new SenhaProperty();
+        senhaProperty.setAlgoritmo(partes[0]);
+
+        switch (partes[0]) {
+            case PasswordEncoderDelegado.BCRYPT -> senhaProperty.getBcrypt().setForca(Integer.parseInt(partes[1]));
+            case PasswordEncoderDelegado.ARGON2 -> {
+                senhaProperty.getArgon2().setMemoriaKb(Integer.parseInt(partes[1]));
+                senhaProperty.getArgon2().setIteracoes(Integer.parseInt(partes[2]));
+            }
+            default -> senhaProperty.getPbkdf2().setIteracoes(Integer.parseInt(partes[1]));
+        }
+
+        passwordEncoder = PasswordEncoderDelegado.criar(senhaProperty);
+        hash = passwordEncoder.encode("senha-benchmark");
+    }
+
+    @Benchmark
+    public boolean matches() {
+        return passwordEncoder.matches("senha-benchmark", hash);
+    }
+}
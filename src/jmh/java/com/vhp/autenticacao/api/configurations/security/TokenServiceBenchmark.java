@@ -0,0 +1,95 @@
+package com.vhp.autenticacao.api.configurations.security;
+
+import com.vhp.autenticacao.api.configurations.property.AutenticacaoProperty;
+import com.vhp.autenticacao.api.configurations.property.JwtProperty;
+import com.vhp.autenticacao.api.document.Usuario;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jws;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.impl.TextCodec;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.Date;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compara o custo por token da geração/verificação com motor pré-computado
+ * contra a reconstrução da chave e do parser a cada chamada.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TokenServiceBenchmark {
+
+    private JwtProperty jwtProperty;
+
+    private TokenService tokenService;
+
+    private Usuario usuario;
+
+    private String token;
+
+    @Setup
+    public void setup() {
+        AutenticacaoProperty autenticacaoProperty = new AutenticacaoProperty();
+        jwtProperty = autenticacaoProperty.getJwt();
+        jwtProperty.setSecret("Yn2kjibddFAWtnPJ2AFlL8WXmohJMCvigQggaEypa5E=");
+        jwtProperty.setAudience("Autenticacao.API");
+        jwtProperty.setIssuer("http://localhost:8080");
+
+        tokenService = new TokenService(autenticacaoProperty, Clock.systemUTC());
+        tokenService.inicializar();
+
+        usuario = new Usuario();
+        usuario.setId(UUID.randomUUID());
+        usuario.setNome("Benchmark");
+
+        token = tokenService.gerarAccessToken(usuario);
+    }
+
+    @Benchmark
+    public String gerarTokenMotorPreComputado() {
+        return tokenService.gerarAccessToken(usuario);
+    }
+
+    @Benchmark
+    public String gerarTokenReconstruindoChave() {
+        Instant hoje = Instant.now();
+        return Jwts.builder()
+                .setIssuer(jwtProperty.getIssuer())
+                .setAudience(jwtProperty.getAudience())
+                .setSubject(usuario.getId().toString())
+                .claim("name", usuario.getNome())
+                .setIssuedAt(Date.from(hoje))
+                .setExpiration(Date.from(hoje.plus(jwtProperty.getAccessTokenValiditySeconds(), ChronoUnit.SECONDS)))
+                .signWith(SignatureAlgorithm.HS256, TextCodec.BASE64.decode(jwtProperty.getSecret()))
+                .compact();
+    }
+
+    @Benchmark
+    public boolean verificarTokenMotorPreComputado() {
+        return tokenService.isTokenValido(token);
+    }
+
+    @Benchmark
+    public UUID getIdUsuario() {
+        return tokenService.getIdUsuario(token);
+    }
+
+    @Benchmark
+    public Jws<Claims> verificarTokenReconstruindoParser() {
+        return Jwts.parser()
+                .setSigningKey(TextCodec.BASE64.decode(jwtProperty.getSecret()))
+                .requireAudience(jwtProperty.getAudience())
+                .requireIssuer(jwtProperty.getIssuer())
+                .parseClaimsJws(token);
+    }
+}
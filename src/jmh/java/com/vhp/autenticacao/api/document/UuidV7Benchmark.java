@@ -0,0 +1,29 @@
+package com.vhp.autenticacao.api.document;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compara a geração de UUID versão 7 com {@link UUID#randomUUID()}, que compartilha um único {@code SecureRandom}.
+ * Execute com {@code -t max} para observar a contenção entre threads.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 3, time = 2)
+@Fork(1)
+public class UuidV7Benchmark {
+
+    @Benchmark
+    public UUID uuidV7() {
+        return UuidV7.gerar();
+    }
+
+    @Benchmark
+    public UUID randomUUID() {
+        return UUID.randomUUID();
+    }
+}
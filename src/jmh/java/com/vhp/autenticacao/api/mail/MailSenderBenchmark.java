@@ -0,0 +1,73 @@
+package com.vhp.autenticacao.api.mail;
+
+import jakarta.mail.MessagingException;
+import jakarta.mail.internet.InternetAddress;
+import jakarta.mail.internet.MimeMessage;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compara a vazão de envio de emails abrindo uma conexão SMTP por mensagem ({@link JavaMailSenderImpl}) e reutilizando
+ * conexões do pool ({@link JavaMailSenderComPool}), com quatro threads enviando ao mesmo tempo. O servidor SMTP é
+ * simulado localmente, com atraso de {@code atrasoSaudacaoMillis} na abertura de cada conexão para representar o
+ * handshake TCP, o STARTTLS e a autenticação de um servidor real.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 3, time = 2)
+@Threads(4)
+@Fork(1)
+public class MailSenderBenchmark {
+
+    @Param({"20"})
+    private long atrasoSaudacaoMillis;
+
+    private ServidorSmtpFalso servidor;
+
+    private JavaMailSenderImpl conexaoPorMensagem;
+
+    private JavaMailSenderComPool comPool;
+
+    @Setup
+    public void setup() throws IOException {
+        servidor = new ServidorSmtpFalso(atrasoSaudacaoMillis);
+
+        conexaoPorMensagem = new JavaMailSenderImpl();
+        conexaoPorMensagem.setHost("localhost");
+        conexaoPorMensagem.setPort(servidor.getPorta());
+
+        comPool = new JavaMailSenderComPool(4, 30_000);
+        comPool.setHost("localhost");
+        comPool.setPort(servidor.getPorta());
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        comPool.close();
+        servidor.close();
+    }
+
+    private static MimeMessage mensagem(JavaMailSenderImpl mailSender) throws MessagingException {
+        MimeMessage mensagem = mailSender.createMimeMessage();
+        mensagem.setFrom(new InternetAddress("remetente@email.com"));
+        mensagem.setRecipient(MimeMessage.RecipientType.TO, new InternetAddress("destinatario@email.com"));
+        mensagem.setSubject("Recuperação de senha");
+        mensagem.setText("Corpo do email de recuperação de senha.");
+        return mensagem;
+    }
+
+    @Benchmark
+    public void conexaoPorMensagem() throws MessagingException {
+        conexaoPorMensagem.send(mensagem(conexaoPorMensagem));
+    }
+
+    @Benchmark
+    public void comPool() throws MessagingException {
+        comPool.send(mensagem(comPool));
+    }
+}
@@ -0,0 +1,40 @@
+package com.vhp.autenticacao.api.messages;
+
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.support.ResourceBundleMessageSource;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Mede o custo da obtenção de mensagens traduzidas, com e sem interpolação de argumentos.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MessageServiceBenchmark {
+
+    private MessageService messageService;
+
+    @Setup
+    public void setup() {
+        ResourceBundleMessageSource messageSource = new ResourceBundleMessageSource();
+        messageSource.setBasename("i18n/messages");
+        messageSource.setDefaultEncoding(StandardCharsets.UTF_8.name());
+
+        messageService = new MessageService(messageSource);
+    }
+
+    @Benchmark
+    public String getMessageSemArgumentos() {
+        return messageService.getMessage("error.usuario-nao-autenticado");
+    }
+
+    @Benchmark
+    public String getMessageComArgumentos() {
+        return messageService.getMessage("error.email-x-ja-foi-cadastrado", "benchmark@email.com");
+    }
+}
@@ -0,0 +1,100 @@
+package com.vhp.autenticacao.api.repository;
+
+import com.mongodb.ConnectionString;
+import com.mongodb.MongoClientSettings;
+import com.mongodb.client.MongoClient;
+import com.mongodb.client.MongoClients;
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.model.IndexOptions;
+import com.mongodb.client.model.Indexes;
+import com.mongodb.client.model.InsertManyOptions;
+import com.vhp.autenticacao.api.document.UuidV7;
+import org.bson.Document;
+import org.bson.UuidRepresentation;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Mede a vazão de inserção de usuários em uma coleção já populada, comparando ids UUID versão 4 (aleatórios) e versão 7
+ * (ordenados por tempo), em um MongoDB local. A coleção é populada com {@code usuariosIniciais} usuários antes da medição,
+ * para que o índice {@code _id} seja maior que o cache, e o tamanho dos índices é exibido ao final.
+ * A URI é definida pela propriedade {@code -Dmongodb.uri} (padrão: {@code mongodb://localhost:27017}) e os dados são
+ * gravados no banco temporário {@code autenticacao-benchmark}, removido ao final.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 10)
+@Measurement(iterations = 3, time = 10)
+@Fork(1)
+public class UsuarioInsercaoBenchmark {
+
+    private static final String BANCO = "autenticacao-benchmark";
+
+    private static final int TAMANHO_LOTE = 1000;
+
+    @Param({"v4", "v7"})
+    private String versaoUuid;
+
+    @Param({"10000000"})
+    private long usuariosIniciais;
+
+    private MongoClient mongoClient;
+
+    private MongoCollection<Document> usuarios;
+
+    private final AtomicLong sequencia = new AtomicLong();
+
+    @Setup
+    public void setup() {
+        String uri = System.getProperty("mongodb.uri", "mongodb://localhost:27017");
+        mongoClient = MongoClients.create(MongoClientSettings.builder()
+                .applyConnectionString(new ConnectionString(uri))
+                .uuidRepresentation(UuidRepresentation.STANDARD)
+                .build());
+
+        usuarios = mongoClient.getDatabase(BANCO).getCollection("usuarios");
+        usuarios.drop();
+        usuarios.createIndex(Indexes.ascending("emailNormalizado"), new IndexOptions().unique(true).sparse(true));
+
+        while(sequencia.get() < usuariosIniciais) {
+            usuarios.insertMany(criarLote(), new InsertManyOptions().ordered(false));
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        Document estatisticas = mongoClient.getDatabase(BANCO).runCommand(new Document("collStats", "usuarios"));
+        System.out.printf("%nUUID %s: %s usuários, índices (bytes): %s%n", versaoUuid, estatisticas.get("count"),
+                estatisticas.get("indexSizes"));
+
+        mongoClient.getDatabase(BANCO).drop();
+        mongoClient.close();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(TAMANHO_LOTE)
+    public void inserir() {
+        usuarios.insertMany(criarLote(), new InsertManyOptions().ordered(false));
+    }
+
+    private List<Document> criarLote() {
+        List<Document> lote = new ArrayList<>(TAMANHO_LOTE);
+        for(int i = 0; i < TAMANHO_LOTE; i++) {
+            long numero = sequencia.getAndIncrement();
+            String email = "usuario" + numero + "@email.com";
+            lote.add(new Document("_id", "v7".equals(versaoUuid) ? UuidV7.gerar() : UUID.randomUUID())
+                    .append("nome", "Usuário " + numero)
+                    .append("email", email)
+                    .append("emailNormalizado", email)
+                    .append("senha", "{bcrypt}$2a$10$7EqJtq98hPqEX7fNZaFWoOhi5BWX4Z7Cs6P8WqS2xYPvuXOkD6zS6")
+                    .append("ativo", true));
+        }
+        return lote;
+    }
+}
@@ -0,0 +1,111 @@
+package com.vhp.autenticacao.api.repository;
+
+import com.mongodb.ConnectionString;
+import com.mongodb.MongoClientSettings;
+import com.mongodb.client.MongoClient;
+import com.mongodb.client.MongoClients;
+import com.vhp.autenticacao.api.configurations.mongodb.IndicesMongoDBInitializer;
+import com.vhp.autenticacao.api.document.Usuario;
+import org.bson.Document;
+import org.bson.UuidRepresentation;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.mapping.MongoMappingContext;
+import org.springframework.data.mongodb.repository.support.MongoRepositoryFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compara a consulta de usuário por email com documento completo e as consultas com projeção, em um MongoDB local.
+ * A URI é definida pela propriedade {@code -Dmongodb.uri} (padrão: {@code mongodb://localhost:27017}) e os dados são
+ * gravados no banco temporário {@code autenticacao-benchmark}, removido ao final.
+ * Os documentos e chaves de índice lidos por consulta (explain executionStats) são exibidos na preparação.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 3, time = 2)
+@Fork(1)
+public class UsuarioRepositoryBenchmark {
+
+    private static final String BANCO = "autenticacao-benchmark";
+
+    @Param({"findByEmail", "existsByEmail", "findResumoByEmail"})
+    private String consulta;
+
+    @Param({"10000"})
+    private int usuarios;
+
+    private MongoClient mongoClient;
+
+    private UsuarioRepository usuarioRepository;
+
+    @Setup
+    public void setup() {
+        String uri = System.getProperty("mongodb.uri", "mongodb://localhost:27017");
+        mongoClient = MongoClients.create(MongoClientSettings.builder()
+                .applyConnectionString(new ConnectionString(uri))
+                .uuidRepresentation(UuidRepresentation.STANDARD)
+                .build());
+
+        MongoTemplate mongoTemplate = new MongoTemplate(mongoClient, BANCO);
+        mongoTemplate.dropCollection(Usuario.class);
+        new IndicesMongoDBInitializer(mongoTemplate, (MongoMappingContext) mongoTemplate.getConverter().getMappingContext())
+                .criarIndices();
+
+        List<Usuario> lote = new ArrayList<>();
+        for(int i = 0; i < usuarios; i++) {
+            Usuario usuario = new Usuario();
+            usuario.setId(UUID.randomUUID());
+            usuario.setNome("Usuário " + i);
+            usuario.setEmail(email(i));
+            usuario.setEmailNormalizado(Usuario.normalizarEmail(email(i)));
+            usuario.setSenha("{bcrypt}$2a$10$7EqJtq98hPqEX7fNZaFWoOhi5BWX4Z7Cs6P8WqS2xYPvuXOkD6zS6");
+            lote.add(usuario);
+        }
+        mongoTemplate.insertAll(lote);
+
+        usuarioRepository = new MongoRepositoryFactory(mongoTemplate).getRepository(UsuarioRepository.class);
+
+        exibirPlano(mongoTemplate, "findByEmail", null);
+        exibirPlano(mongoTemplate, "existsByEmail", new Document("_id", 0).append("emailNormalizado", 1));
+        exibirPlano(mongoTemplate, "findResumoByEmail", new Document("nome", 1).append("email", 1));
+    }
+
+    @TearDown
+    public void tearDown() {
+        mongoClient.getDatabase(BANCO).drop();
+        mongoClient.close();
+    }
+
+    @Benchmark
+    public Object consultar() {
+        String email = email(ThreadLocalRandom.current().nextInt(usuarios));
+        return switch (consulta) {
+            case "existsByEmail" -> usuarioRepository.existsByEmail(email);
+            case "findResumoByEmail" -> usuarioRepository.findResumoByEmail(email).map(ResumoUsuario::getId);
+            default -> usuarioRepository.findByEmail(email);
+        };
+    }
+
+    private static String email(int i) {
+        return "usuario" + i + "@email.com";
+    }
+
+    private void exibirPlano(MongoTemplate mongoTemplate, String nome, Document projecao) {
+        Document find = new Document("find", "usuarios").append("filter", new Document("emailNormalizado", email(0)));
+        if(projecao != null) {
+            find.append("projection", projecao);
+        }
+
+        Document explain = mongoTemplate.getDb().runCommand(new Document("explain", find).append("verbosity", "executionStats"));
+        Document estatisticas = explain.get("executionStats", Document.class);
+        System.out.printf("%n%s: documentos lidos=%s, chaves lidas=%s%n", nome,
+                estatisticas.get("totalDocsExamined"), estatisticas.get("totalKeysExamined"));
+    }
+}
@@ -0,0 +1,151 @@
+package com.vhp.autenticacao.api.service;
+
+import com.mongodb.ConnectionString;
+import com.mongodb.MongoClientSettings;
+import com.mongodb.MongoException;
+import com.mongodb.client.MongoClient;
+import com.mongodb.client.MongoClients;
+import com.mongodb.event.CommandListener;
+import com.mongodb.event.CommandStartedEvent;
+import com.vhp.autenticacao.api.configurations.property.AutenticacaoProperty;
+import com.vhp.autenticacao.api.document.EmailDocument;
+import com.vhp.autenticacao.api.document.EmailStatus;
+import org.bson.BsonTimestamp;
+import org.bson.Document;
+import org.bson.RawBsonDocument;
+import org.bson.codecs.BsonDocumentCodec;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.data.mongodb.core.MongoTemplate;
+
+import java.time.Clock;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Compara a gravação do estado de lotes de emails enviados regravando os documentos completos ({@code saveAll} do
+ * repositório, que executa um {@code save} por email) e com atualizações {@code $set} em lote
+ * ({@link EmailService#atualizarEstados(List)}), em uma coleção com {@code emailsPendentes} emails em um MongoDB local.
+ * Ao final são exibidos os bytes enviados ao servidor em comandos de atualização e, se o MongoDB for um replica set,
+ * os bytes gravados no oplog, por email atualizado.
+ * A URI é definida pela propriedade {@code -Dmongodb.uri} (padrão: {@code mongodb://localhost:27017}) e os dados são
+ * gravados no banco temporário {@code autenticacao-benchmark}, removido ao final.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 5)
+@Fork(1)
+public class EmailAtualizacaoEstadoBenchmark {
+
+    private static final String BANCO = "autenticacao-benchmark";
+
+    private static final int TAMANHO_LOTE = 50;
+
+    @Param({"saveAll", "atualizarEstados"})
+    private String estrategia;
+
+    @Param({"10000"})
+    private int emailsPendentes;
+
+    @Param({"8192"})
+    private int tamanhoCorpo;
+
+    private MongoClient mongoClient;
+
+    private MongoTemplate mongoTemplate;
+
+    private EmailService emailService;
+
+    private List<EmailDocument> emails;
+
+    private int posicao;
+
+    private BsonTimestamp inicio;
+
+    private final LongAdder bytesEnviados = new LongAdder();
+    private final LongAdder emailsAtualizados = new LongAdder();
+
+    @Setup
+    public void setup() {
+        String uri = System.getProperty("mongodb.uri", "mongodb://localhost:27017");
+        mongoClient = MongoClients.create(MongoClientSettings.builder()
+                .applyConnectionString(new ConnectionString(uri))
+                .addCommandListener(new CommandListener() {
+                    @Override
+                    public void commandStarted(CommandStartedEvent event) {
+                        if("update".equals(event.getCommandName())) {
+                            bytesEnviados.add(new RawBsonDocument(event.getCommand(), new BsonDocumentCodec()).getByteBuffer().remaining());
+                        }
+                    }
+                })
+                .build());
+
+        mongoTemplate = new MongoTemplate(mongoClient, BANCO);
+        mongoTemplate.dropCollection(EmailDocument.class);
+        emailService = new EmailService(null, mongoTemplate, new AutenticacaoProperty(), Clock.systemDefaultZone());
+
+        String corpo = "<p>" + "x".repeat(Math.max(tamanhoCorpo - 7, 0)) + "</p>";
+        List<EmailDocument> pendentes = new ArrayList<>(emailsPendentes);
+        for(int i = 0; i < emailsPendentes; i++) {
+            EmailDocument email = new EmailDocument();
+            email.setEmailRemetente("remetente@email.com");
+            email.setRemetente("Autenticacao");
+            email.setDestinatario("usuario" + i + "@email.com");
+            email.setAssunto("Recuperação de senha");
+            email.setCorpo(corpo);
+            email.setStatus(EmailStatus.NAO_PROCESSADO);
+            email.setDataCriacao(LocalDateTime.now());
+            email.setProximaTentativa(email.getDataCriacao());
+            pendentes.add(email);
+        }
+        emails = new ArrayList<>(mongoTemplate.insertAll(pendentes));
+
+        inicio = new BsonTimestamp((int) (System.currentTimeMillis() / 1000), 0);
+        bytesEnviados.reset();
+    }
+
+    @TearDown
+    public void tearDown() {
+        long atualizados = Math.max(emailsAtualizados.sum(), 1);
+        System.out.printf("%n%s: %d emails atualizados, %d bytes enviados por email", estrategia, emailsAtualizados.sum(),
+                bytesEnviados.sum() / atualizados);
+        try {
+            Document oplog = mongoClient.getDatabase("local").getCollection("oplog.rs").aggregate(List.of(
+                    new Document("$match", new Document("ns", BANCO + ".email").append("op", "u").append("ts", new Document("$gt", inicio))),
+                    new Document("$group", new Document("_id", null).append("bytes", new Document("$sum", new Document("$bsonSize", "$$ROOT"))))))
+                    .first();
+            long bytesOplog = oplog != null ? ((Number) oplog.get("bytes")).longValue() : 0;
+            System.out.printf(", %d bytes de oplog por email%n", bytesOplog / atualizados);
+        } catch (MongoException e) {
+            System.out.printf(", oplog indisponível (o MongoDB não é um replica set)%n");
+        }
+
+        mongoClient.getDatabase(BANCO).drop();
+        mongoClient.close();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(TAMANHO_LOTE)
+    public void atualizarLote() {
+        List<EmailDocument> lote = new ArrayList<>(TAMANHO_LOTE);
+        for(int i = 0; i < TAMANHO_LOTE; i++) {
+            EmailDocument email = emails.get(posicao);
+            posicao = (posicao + 1) % emails.size();
+            email.setStatus(EmailStatus.PROCESSADO);
+            email.setTentativas(email.getTentativas() + 1);
+            email.setDataProcessamento(LocalDateTime.now());
+            lote.add(email);
+        }
+
+        if("saveAll".equals(estrategia)) {
+            lote.forEach(mongoTemplate::save);
+        } else {
+            emailService.atualizarEstados(lote);
+        }
+        emailsAtualizados.add(TAMANHO_LOTE);
+    }
+}
@@ -0,0 +1,51 @@
+package com.vhp.autenticacao.api.template;
+
+import org.openjdk.jmh.annotations.*;
+import org.thymeleaf.spring6.SpringTemplateEngine;
+import org.thymeleaf.templatemode.TemplateMode;
+import org.thymeleaf.templateresolver.ClassLoaderTemplateResolver;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Mede o custo da renderização do template de recuperação de senha, com o cache de templates habilitado,
+ * como na configuração padrão do Spring Boot.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TemplateHelperBenchmark {
+
+    private TemplateHelper templateHelper;
+
+    private Map<String, Object> variaveis;
+
+    @Setup
+    public void setup() {
+        ClassLoaderTemplateResolver templateResolver = new ClassLoaderTemplateResolver();
+        templateResolver.setPrefix("templates/");
+        templateResolver.setSuffix(".html");
+        templateResolver.setTemplateMode(TemplateMode.HTML);
+        templateResolver.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        templateResolver.setCacheable(true);
+
+        SpringTemplateEngine templateEngine = new SpringTemplateEngine();
+        templateEngine.setTemplateResolver(templateResolver);
+
+        templateHelper = new TemplateHelper(templateEngine);
+        variaveis = Map.of(
+                "nomeUsuario", "Benchmark",
+                "urlRecuperacao", "http://localhost:4200/recuperar-senha",
+                "token", "0b7f5c1e-6a35-4c7e-9d5e-3f1b2a4c6d8e");
+    }
+
+    @Benchmark
+    public String getConteudoTemplate() {
+        return templateHelper.getConteudoTemplate("mail/recuperar-senha", variaveis);
+    }
+}
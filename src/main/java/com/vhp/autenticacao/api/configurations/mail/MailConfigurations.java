@@ -4,8 +4,7 @@ import com.vhp.autenticacao.api.configurations.property.AutenticacaoProperty;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
-import org.springframework.mail.javamail.JavaMailSender;
-import org.springframework.mail.javamail.JavaMailSenderImpl;
+import com.vhp.autenticacao.api.mail.JavaMailSenderComPool;
 
 import java.util.Properties;
 
@@ -21,15 +20,20 @@ public class MailConfigurations {
         this.property = property;
     }
 
-    @Bean
-    public JavaMailSender getJavaMailSender() {
+    /**
+     * Cria o envio de emails com pool de conexões SMTP, limitado a {@code autenticacao.mail.conexoes} conexões.
+     * As conexões ociosas são encerradas no desligamento da aplicação.
+     */
+    @Bean(destroyMethod = "close")
+    public JavaMailSenderComPool getJavaMailSender() {
         Properties props = new Properties();
         props.put("mail.transport.protocol", "smtp");
         props.put("mail.smtp.auth", true);
         props.put("mail.smtp.starttls.enable", true);
         props.put("mail.smtp.connectiontimeout", 10000);
 
-        JavaMailSenderImpl mailSender = new JavaMailSenderImpl();
+        JavaMailSenderComPool mailSender = new JavaMailSenderComPool(property.getMail().getConexoes(),
+                property.getMail().getValidacaoConexaoOciosaMillis());
         mailSender.setJavaMailProperties(props);
         mailSender.setHost(property.getMail().getHost());
         mailSender.setPort(property.getMail().getPort());
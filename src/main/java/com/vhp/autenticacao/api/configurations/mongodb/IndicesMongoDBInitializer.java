@@ -0,0 +1,72 @@
+package com.vhp.autenticacao.api.configurations.mongodb;
+
+import com.vhp.autenticacao.api.document.EmailDocument;
+import com.vhp.autenticacao.api.document.RecuperacaoSenha;
+import com.vhp.autenticacao.api.document.Usuario;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.mongodb.core.MongoOperations;
+import org.springframework.data.mongodb.core.index.IndexOperations;
+import org.springframework.data.mongodb.core.index.IndexResolver;
+import org.springframework.data.mongodb.core.index.MongoPersistentEntityIndexResolver;
+import org.springframework.data.mongodb.core.mapping.MongoMappingContext;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Cria os índices declarados nos documentos ({@code @Indexed}, {@code @CompoundIndex}) na inicialização da aplicação,
+ * já que a criação automática de índices do Spring Data MongoDB vem desabilitada por padrão. Os índices são criados
+ * após a criação dos beans e antes de a aplicação começar a receber requisições.
+ */
+@Component
+public class IndicesMongoDBInitializer implements SmartInitializingSingleton {
+
+    private static final List<Class<?>> DOCUMENTOS = List.of(Usuario.class, RecuperacaoSenha.class, EmailDocument.class);
+
+    private final MongoOperations mongoOperations;
+    private final MongoMappingContext mappingContext;
+
+    private boolean indicesGarantidos;
+
+    private final Logger logger = LoggerFactory.getLogger(IndicesMongoDBInitializer.class);
+
+    @Autowired
+    public IndicesMongoDBInitializer(MongoOperations mongoOperations, MongoMappingContext mappingContext) {
+        this.mongoOperations = mongoOperations;
+        this.mappingContext = mappingContext;
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        garantirIndices();
+    }
+
+    /**
+     * Garante a existência dos índices dos documentos uma única vez, para a inicialização da aplicação e para as
+     * migrações que dependem dos índices únicos, independentemente da ordem em que são executadas.
+     */
+    public synchronized void garantirIndices() {
+        if(!indicesGarantidos) {
+            criarIndices();
+            indicesGarantidos = true;
+        }
+    }
+
+    /**
+     * Garante a existência dos índices dos documentos. Índices já existentes não são alterados.
+     */
+    public void criarIndices() {
+        IndexResolver indexResolver = new MongoPersistentEntityIndexResolver(mappingContext);
+
+        for(Class<?> documento : DOCUMENTOS) {
+            IndexOperations indexOperations = mongoOperations.indexOps(documento);
+            indexResolver.resolveIndexFor(documento).forEach(indice -> {
+                String nome = indexOperations.ensureIndex(indice);
+                logger.info("Índice {} garantido para {}.", nome, documento.getSimpleName());
+            });
+        }
+    }
+}
@@ -0,0 +1,131 @@
+package com.vhp.autenticacao.api.configurations.mongodb;
+
+import com.mongodb.bulk.BulkWriteResult;
+import com.vhp.autenticacao.api.document.Usuario;
+import com.vhp.autenticacao.api.repository.ResumoUsuario;
+import com.vhp.autenticacao.api.repository.UsuarioRepository;
+import org.bson.Document;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.mongodb.BulkOperationException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoOperations;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Component;
+
+import java.time.Clock;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+import static org.springframework.data.mongodb.core.query.Query.query;
+
+/**
+ * Migração que preenche o email normalizado dos usuários gravados antes da sua criação.
+ * É executada após a criação dos índices e antes de a aplicação começar a receber requisições, já que as buscas por
+ * email utilizam apenas o email normalizado. Os usuários são lidos em stream e atualizados em lotes. Ao terminar sem
+ * conflitos, a migração é registrada na coleção {@code migracoes} e não é executada novamente. Caso o email normalizado
+ * de algum usuário conflite com o de outro usuário, os conflitos são registrados no log e a inicialização da aplicação
+ * é interrompida, até que os emails sejam corrigidos manualmente.
+ */
+@Component
+public class MigracaoEmailNormalizado implements SmartInitializingSingleton {
+
+    static final String COLECAO_MIGRACOES = "migracoes";
+
+    static final String ID_MIGRACAO = "usuarios-email-normalizado";
+
+    private static final int TAMANHO_LOTE = 500;
+
+    private static final int CODIGO_CHAVE_DUPLICADA = 11000;
+
+    private final MongoOperations mongoOperations;
+    private final UsuarioRepository usuarioRepository;
+    private final IndicesMongoDBInitializer indicesMongoDBInitializer;
+    private final Clock clock;
+
+    private final Logger logger = LoggerFactory.getLogger(MigracaoEmailNormalizado.class);
+
+    @Autowired
+    public MigracaoEmailNormalizado(MongoOperations mongoOperations, UsuarioRepository usuarioRepository,
+                                    IndicesMongoDBInitializer indicesMongoDBInitializer, Clock clock) {
+        this.mongoOperations = mongoOperations;
+        this.usuarioRepository = usuarioRepository;
+        this.indicesMongoDBInitializer = indicesMongoDBInitializer;
+        this.clock = clock;
+    }
+
+    /**
+     * Executa a migração após garantir o índice único do email normalizado, que detecta os conflitos.
+     */
+    @Override
+    public void afterSingletonsInstantiated() {
+        indicesMongoDBInitializer.garantirIndices();
+        migrar();
+    }
+
+    /**
+     * Executa a migração, caso ainda não tenha sido concluída.
+     * @throws IllegalStateException Caso o email normalizado de algum usuário conflite com o de outro usuário.
+     */
+    public void migrar() {
+        if(mongoOperations.exists(query(where("_id").is(ID_MIGRACAO)), COLECAO_MIGRACOES)) {
+            return;
+        }
+
+        logger.info("Iniciando a migração do email normalizado dos usuários.");
+
+        long atualizados = 0;
+        long conflitos = 0;
+        List<ResumoUsuario> lote = new ArrayList<>(TAMANHO_LOTE);
+
+        try(Stream<ResumoUsuario> usuarios = usuarioRepository.streamByEmailNormalizadoAusente()) {
+            var iterator = usuarios.iterator();
+            while(iterator.hasNext()) {
+                lote.add(iterator.next());
+                if(lote.size() == TAMANHO_LOTE || !iterator.hasNext()) {
+                    ResultadoLote resultado = atualizarLote(lote);
+                    atualizados += resultado.atualizados();
+                    conflitos += resultado.conflitos();
+                    lote.clear();
+                }
+            }
+        }
+
+        if(conflitos > 0) {
+            throw new IllegalStateException(String.format("Migração do email normalizado interrompida: %d usuários atualizados "
+                    + "e %d usuários com email normalizado igual ao de outro usuário. Corrija os emails listados no log "
+                    + "e reinicie a aplicação.", atualizados, conflitos));
+        }
+
+        mongoOperations.insert(new Document("_id", ID_MIGRACAO).append("dataExecucao", Date.from(clock.instant())), COLECAO_MIGRACOES);
+        logger.info("Migração do email normalizado concluída com {} usuários atualizados.", atualizados);
+    }
+
+    private ResultadoLote atualizarLote(List<ResumoUsuario> lote) {
+        BulkOperations bulkOperations = mongoOperations.bulkOps(BulkOperations.BulkMode.UNORDERED, Usuario.class);
+        for(ResumoUsuario usuario : lote) {
+            bulkOperations.updateOne(query(where("_id").is(usuario.getId())),
+                    Update.update("emailNormalizado", Usuario.normalizarEmail(usuario.getEmail())));
+        }
+
+        try {
+            BulkWriteResult resultado = bulkOperations.execute();
+            return new ResultadoLote(resultado.getModifiedCount(), 0);
+        } catch (BulkOperationException e) {
+            if(e.getErrors().stream().anyMatch(erro -> erro.getCode() != CODIGO_CHAVE_DUPLICADA)) {
+                throw e;
+            }
+            e.getErrors().forEach(erro -> logger.error("Email normalizado do usuário {} ({}) conflita com o de outro usuário: {}",
+                    lote.get(erro.getIndex()).getId(), lote.get(erro.getIndex()).getEmail(), erro.getMessage()));
+            return new ResultadoLote(e.getResult().getModifiedCount(), e.getErrors().size());
+        }
+    }
+
+    private record ResultadoLote(long atualizados, long conflitos) {
+    }
+}
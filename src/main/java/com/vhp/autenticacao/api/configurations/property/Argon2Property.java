@@ -0,0 +1,19 @@
+package com.vhp.autenticacao.api.configurations.property;
+
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * Classe de propriedades do Argon2id.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+public class Argon2Property {
+    private int tamanhoSalt = 16;
+    private int tamanhoHash = 32;
+    private int paralelismo = 1;
+    private int memoriaKb = 19456;
+    private int iteracoes = 2;
+}
@@ -12,5 +12,10 @@ public class AutenticacaoProperty {
     private final JwtProperty jwt = new JwtProperty();
     private final CorsProperty cors = new CorsProperty();
     private final MailProperty mail = new MailProperty();
+    private final EnvioEmailProperty envioEmail = new EnvioEmailProperty();
     private final RecuperacaoSenhaProperty recuperacaoSenha = new RecuperacaoSenhaProperty();
+    private final SenhaProperty senha = new SenhaProperty();
+    private final LoginProperty login = new LoginProperty();
+    private final FiltroEmailProperty filtroEmail = new FiltroEmailProperty();
+    private final ImportacaoProperty importacao = new ImportacaoProperty();
 }
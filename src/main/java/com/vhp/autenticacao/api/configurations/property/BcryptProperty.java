@@ -0,0 +1,19 @@
+package com.vhp.autenticacao.api.configurations.property;
+
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * Classe de propriedades do custo (strength) do BCrypt.
+ * Quando {@code forca} não é informada, o custo é calibrado na inicialização para atingir {@code tempoAlvoMillis} por hash.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+public class BcryptProperty {
+    private Integer forca;
+    private int tempoAlvoMillis = 250;
+    private int forcaMinima = 10;
+    private int forcaMaxima = 16;
+}
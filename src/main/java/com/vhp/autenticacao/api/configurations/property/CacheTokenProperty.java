@@ -0,0 +1,16 @@
+package com.vhp.autenticacao.api.configurations.property;
+
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * Classe de propriedades do cache de tokens JWT verificados.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+public class CacheTokenProperty {
+    private boolean habilitado = false;
+    private int tamanhoMaximo = 10_000;
+}
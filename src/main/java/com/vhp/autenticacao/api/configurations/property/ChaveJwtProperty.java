@@ -0,0 +1,22 @@
+package com.vhp.autenticacao.api.configurations.property;
+
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.Instant;
+
+/**
+ * Classe de propriedades de uma chave do chaveiro de assinatura de tokens JWT.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+public class ChaveJwtProperty {
+    private String kid;
+    private String algoritmo = "HS256";
+    private String secret;
+    private String chavePrivada;
+    private String chavePublica;
+    private Instant aposentadaAte;
+}
@@ -0,0 +1,22 @@
+package com.vhp.autenticacao.api.configurations.property;
+
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * Classe de propriedades do envio contínuo de emails pendentes.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+public class EnvioEmailProperty {
+    private boolean habilitado = true;
+    private int tamanhoLote = 50;
+    private long intervaloMinimoMillis = 200;
+    private long intervaloMaximoMillis = 30_000;
+    private long duracaoReservaMillis = 300_000;
+    private int tentativasMaximas = 6;
+    private long intervaloTentativaMillis = 30_000;
+    private long intervaloMaximoTentativaMillis = 3_600_000;
+}
@@ -0,0 +1,17 @@
+package com.vhp.autenticacao.api.configurations.property;
+
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * Classe de propriedades do executor dedicado ao hash e à verificação de senhas.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+public class ExecutorSenhaProperty {
+    private int threads = Runtime.getRuntime().availableProcessors();
+    private int tamanhoFila = 100;
+    private int retryAfterSeconds = 1;
+}
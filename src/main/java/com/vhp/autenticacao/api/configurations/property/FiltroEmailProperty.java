@@ -0,0 +1,18 @@
+package com.vhp.autenticacao.api.configurations.property;
+
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * Classe de propriedades do filtro de emails cadastrados utilizado na verificação de email disponível.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+public class FiltroEmailProperty {
+    private boolean habilitado = true;
+    private long capacidade = 100_000;
+    private double taxaFalsosPositivos = 0.01;
+    private long intervaloSincronizacaoMillis = 3_600_000L;
+}
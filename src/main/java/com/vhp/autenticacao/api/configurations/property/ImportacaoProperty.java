@@ -0,0 +1,15 @@
+package com.vhp.autenticacao.api.configurations.property;
+
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * Classe de propriedades da importação de usuários em lote.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+public class ImportacaoProperty {
+    private int tamanhoLote = 500;
+}
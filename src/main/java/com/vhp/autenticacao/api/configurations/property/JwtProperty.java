@@ -4,6 +4,9 @@ import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
 
+import java.util.ArrayList;
+import java.util.List;
+
 /**
  * Classe de propriedades de token JWT da aplicação.
  */
@@ -15,6 +18,13 @@ public class JwtProperty {
     private String issuer;
     private int accessTokenValiditySeconds = 1800;
     private int refreshTokenValiditySeconds = 3600 * 24;
+    private String algoritmo = "HS256";
     private String secret;
+    private String chavePrivada;
+    private String chavePublica;
+    private String chaveAtiva;
+    private List<ChaveJwtProperty> chaves = new ArrayList<>();
     private boolean secure;
+    private boolean principalSemEstado = false;
+    private final CacheTokenProperty cache = new CacheTokenProperty();
 }
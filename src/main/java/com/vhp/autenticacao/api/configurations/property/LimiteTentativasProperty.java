@@ -0,0 +1,18 @@
+package com.vhp.autenticacao.api.configurations.property;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * Classe de propriedades do limite de tentativas de login por janela de tempo.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class LimiteTentativasProperty {
+    private int tentativas;
+    private int janelaSeconds;
+}
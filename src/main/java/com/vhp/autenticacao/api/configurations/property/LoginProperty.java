@@ -0,0 +1,18 @@
+package com.vhp.autenticacao.api.configurations.property;
+
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * Classe de propriedades do limite de tentativas de login por email e por endereço do cliente.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+public class LoginProperty {
+    private boolean limitarTentativas = true;
+    private int slots = 65536;
+    private final LimiteTentativasProperty email = new LimiteTentativasProperty(10, 300);
+    private final LimiteTentativasProperty ip = new LimiteTentativasProperty(100, 60);
+}
@@ -17,4 +17,6 @@ public class MailProperty {
    private String username;
    private String password;
    private String remetente;
+   private int conexoes = 4;
+   private long validacaoConexaoOciosaMillis = 30_000;
 }
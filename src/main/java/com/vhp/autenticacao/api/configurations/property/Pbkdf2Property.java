@@ -0,0 +1,17 @@
+package com.vhp.autenticacao.api.configurations.property;
+
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * Classe de propriedades do PBKDF2.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+public class Pbkdf2Property {
+    private String algoritmo = "PBKDF2WithHmacSHA256";
+    private int tamanhoSalt = 16;
+    private int iteracoes = 310000;
+}
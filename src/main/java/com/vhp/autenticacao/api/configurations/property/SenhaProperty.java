@@ -0,0 +1,19 @@
+package com.vhp.autenticacao.api.configurations.property;
+
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * Classe de propriedades de processamento de senhas da aplicação.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+public class SenhaProperty {
+    private String algoritmo = "bcrypt";
+    private final ExecutorSenhaProperty executor = new ExecutorSenhaProperty();
+    private final BcryptProperty bcrypt = new BcryptProperty();
+    private final Argon2Property argon2 = new Argon2Property();
+    private final Pbkdf2Property pbkdf2 = new Pbkdf2Property();
+}
@@ -4,6 +4,7 @@ import com.vhp.autenticacao.api.service.UsuarioService;
 import com.vhp.autenticacao.api.document.Usuario;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.stereotype.Service;
 
@@ -13,7 +14,7 @@ import java.util.UUID;
  * Serviço de autenticação de usuário no sistema.
  */
 @Service
-public class AutenticacaoService implements UserDetailsService {
+public class AutenticacaoService implements UserDetailsService, UserDetailsPasswordService {
 
     private final UsuarioService usuarioService;
 
@@ -41,4 +42,16 @@ public class AutenticacaoService implements UserDetailsService {
     public Usuario loadUserById(UUID id) {
         return usuarioService.findPorId(id);
     }
+
+    /**
+     * Atualiza o hash da senha do usuário após login bem sucedido, quando o hash armazenado utiliza
+     * parâmetros diferentes dos atuais.
+     * @param user - Usuário autenticado.
+     * @param newPassword - Novo hash da senha.
+     * @return Usuário com o hash atualizado.
+     */
+    @Override
+    public UserDetails updatePassword(UserDetails user, String newPassword) {
+        return usuarioService.atualizarHashSenha((Usuario) user, newPassword);
+    }
 }
@@ -7,11 +7,12 @@ import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import org.springframework.http.HttpHeaders;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
-import java.util.UUID;
+import java.util.Collection;
 
 /**
  * Filtro utilizado para autenticar usuário a partir do header Authorization.
@@ -30,30 +31,49 @@ public class AutenticacaoViaTokenFilter extends OncePerRequestFilter {
     @Override
     protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain) throws ServletException, IOException {
         String token = recuperarToken(request);
-        boolean isTokenValido = tokenService.isTokenValido(token);
+        ValidacaoToken validacao = tokenService.verificarToken(token);
 
-        if(isTokenValido) {
-            autenticarUsuario(token);
+        if(validacao.isValido()) {
+            autenticarUsuario(validacao);
         }
 
         filterChain.doFilter(request, response);
     }
 
     /**
-     * Autentica usuário a partir de access token.
-     * @param token - Access token.
+     * Autentica usuário a partir de access token já verificado.
+     * Caso o modo de principal sem estado esteja habilitado e o token possua as claims do principal, o usuário é
+     * construído a partir do token, sem consulta ao banco de dados.
+     * @param validacao - Resultado da verificação do access token.
      */
-    private void autenticarUsuario(String token) {
-        UUID idUsuario = tokenService.getIdUsuario(token);
-        Usuario usuario = autenticacaoService.loadUserById(idUsuario);
-
-       if(usuario != null) {
-            UsernamePasswordAuthenticationToken authentication =
-                    new UsernamePasswordAuthenticationToken(usuario, null, usuario.getAuthorities());
-            SecurityContextHolder.getContext().setAuthentication(authentication);
+    private void autenticarUsuario(ValidacaoToken validacao) {
+        Usuario usuarioDasClaims = tokenService.getUsuarioDasClaims(validacao);
+
+        if(usuarioDasClaims != null) {
+            if(usuarioDasClaims.isEnabled()) {
+                autenticar(usuarioDasClaims, tokenService.getAuthoritiesDasClaims(validacao));
+            }
+            return;
+        }
+
+        Usuario usuario = autenticacaoService.loadUserById(validacao.getIdUsuario());
+
+        if(usuario != null) {
+            autenticar(usuario, usuario.getAuthorities());
         }
     }
 
+    /**
+     * Registra usuário autenticado no contexto de segurança.
+     * @param usuario - Usuário autenticado.
+     * @param authorities - Permissões do usuário.
+     */
+    private void autenticar(Usuario usuario, Collection<? extends GrantedAuthority> authorities) {
+        UsernamePasswordAuthenticationToken authentication =
+                new UsernamePasswordAuthenticationToken(usuario, null, authorities);
+        SecurityContextHolder.getContext().setAuthentication(authentication);
+    }
+
     /**
      * Extrai access token do header Authorization da requisição.
      * @param request - Requisição atual.
@@ -0,0 +1,111 @@
+package com.vhp.autenticacao.api.configurations.security;
+
+import com.vhp.autenticacao.api.configurations.property.BcryptProperty;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.IntToLongFunction;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Codificador BCrypt com custo (strength) calibrado na inicialização de acordo com o hardware.
+ * Hashes armazenados com custo menor que o atual são marcados para atualização, que é feita de forma transparente
+ * após um login bem sucedido.
+ */
+public class BCryptPasswordEncoderCalibrado extends BCryptPasswordEncoder {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(BCryptPasswordEncoderCalibrado.class);
+
+    private static final Pattern HASH_BCRYPT = Pattern.compile("^\\$2[aby]?\\$(\\d\\d)\\$[./0-9A-Za-z]{53}$");
+
+    private static final int AMOSTRAS_CALIBRACAO = 3;
+
+    private final int forca;
+
+    public BCryptPasswordEncoderCalibrado(int forca) {
+        super(forca);
+        this.forca = forca;
+    }
+
+    /**
+     * Cria codificador com o custo configurado ou, caso não configurado, com o maior custo cujo hash não ultrapasse o tempo alvo.
+     * @param bcryptProperty - Propriedades do BCrypt.
+     * @return Codificador BCrypt calibrado.
+     */
+    public static BCryptPasswordEncoderCalibrado calibrar(BcryptProperty bcryptProperty) {
+        if(bcryptProperty.getForca() != null) {
+            return new BCryptPasswordEncoderCalibrado(bcryptProperty.getForca());
+        }
+
+        int forca = calcularForca(bcryptProperty, BCryptPasswordEncoderCalibrado::medirHashNanos);
+        LOGGER.info("Custo do BCrypt calibrado em {} para o tempo alvo de {} ms por hash.", forca, bcryptProperty.getTempoAlvoMillis());
+        return new BCryptPasswordEncoderCalibrado(forca);
+    }
+
+    /**
+     * Calcula o maior custo cujo hash não ultrapasse o tempo alvo, a partir do tempo medido no custo mínimo.
+     * Cada incremento no custo dobra o tempo de hash.
+     * @param bcryptProperty - Propriedades do BCrypt.
+     * @param medidor - Mede o tempo, em nanossegundos, de um hash com o custo informado.
+     * @return Custo calculado, entre o custo mínimo e o máximo.
+     */
+    static int calcularForca(BcryptProperty bcryptProperty, IntToLongFunction medidor) {
+        int forcaMinima = bcryptProperty.getForcaMinima();
+        int forcaMaxima = Math.max(forcaMinima, bcryptProperty.getForcaMaxima());
+        long alvoNanos = TimeUnit.MILLISECONDS.toNanos(bcryptProperty.getTempoAlvoMillis());
+
+        long tempoNanos = Long.MAX_VALUE;
+        for(int i = 0; i < AMOSTRAS_CALIBRACAO; i++) {
+            tempoNanos = Math.min(tempoNanos, medidor.applyAsLong(forcaMinima));
+        }
+
+        int forca = forcaMinima;
+        while(forca < forcaMaxima && tempoNanos * 2 <= alvoNanos) {
+            tempoNanos *= 2;
+            forca++;
+        }
+
+        return forca;
+    }
+
+    /**
+     * Obtém o custo utilizado por um hash BCrypt armazenado.
+     * @param hash - Hash BCrypt.
+     * @return Custo do hash, ou -1 caso não seja um hash BCrypt válido.
+     */
+    public static int getForca(String hash) {
+        if(hash == null) {
+            return -1;
+        }
+
+        Matcher matcher = HASH_BCRYPT.matcher(hash);
+        return matcher.matches() ? Integer.parseInt(matcher.group(1)) : -1;
+    }
+
+    public int getForca() {
+        return forca;
+    }
+
+    /**
+     * Indica se o hash deve ser refeito por utilizar custo menor que o atual. Hashes com custo maior são mantidos, já que
+     * instâncias calibradas em hardwares diferentes podem chegar a custos diferentes e, caso contrário, refariam o mesmo
+     * hash alternadamente a cada login.
+     * @param encodedPassword - Hash armazenado.
+     * @return true caso o hash seja BCrypt com custo menor que o atual, caso contrário, false.
+     */
+    @Override
+    public boolean upgradeEncoding(String encodedPassword) {
+        int forcaHash = getForca(encodedPassword);
+        return forcaHash != -1 && forcaHash < forca;
+    }
+
+    private static long medirHashNanos(int forca) {
+        BCryptPasswordEncoder encoder = new BCryptPasswordEncoder(forca);
+        long inicio = System.nanoTime();
+        encoder.encode("calibracao-bcrypt");
+        return System.nanoTime() - inicio;
+    }
+}
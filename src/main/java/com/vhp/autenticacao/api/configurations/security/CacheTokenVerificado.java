@@ -0,0 +1,162 @@
+package com.vhp.autenticacao.api.configurations.security;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Cache limitado de tokens JWT já verificados, indexado pelo SHA-256 do token compacto e pela geração do {@link JwtEngine}
+ * que o verificou, de forma que tokens verificados com chaves anteriores nunca sejam retornados após a troca de chave.
+ * Os resultados armazenados são imutáveis ({@link ValidacaoToken}) e compartilhados entre as requisições.
+ * Entradas deixam de ser retornadas ao atingir a expiração do token ou, caso o token tenha sido verificado por uma chave
+ * aposentada, a data de aposentadoria da chave ({@code aposentada_ate}), o que ocorrer primeiro, e são removidas no
+ * acesso ou na limpeza executada quando o cache está cheio. Seguro para acesso concorrente.
+ */
+class CacheTokenVerificado {
+
+    private static final long INTERVALO_MINIMO_LIMPEZA_NANOS = TimeUnit.SECONDS.toNanos(1);
+
+    private static final ThreadLocal<MessageDigest> SHA_256 = ThreadLocal.withInitial(() -> {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("Algoritmo SHA-256 não disponível.", e);
+        }
+    });
+
+    private final ConcurrentHashMap<ChaveToken, Entrada> tokens = new ConcurrentHashMap<>();
+
+    private final LongAdder acertos = new LongAdder();
+    private final LongAdder falhas = new LongAdder();
+    private final LongAdder remocoes = new LongAdder();
+
+    private final AtomicBoolean limpando = new AtomicBoolean();
+    private final AtomicLong ultimaLimpeza = new AtomicLong(System.nanoTime() - INTERVALO_MINIMO_LIMPEZA_NANOS);
+
+    /**
+     * Busca token verificado no cache.
+     * @param token - Token JWT compacto.
+     * @param geracao - Geração do motor de verificação atual.
+     * @param agora - Instante atual.
+     * @return Resultado da verificação armazenado, ou null caso o token não esteja no cache, esteja expirado ou a chave
+     * que o verificou esteja aposentada.
+     */
+    ValidacaoToken obter(String token, long geracao, Instant agora) {
+        ChaveToken chave = ChaveToken.de(token, geracao);
+        Entrada entrada = tokens.get(chave);
+
+        if(entrada == null) {
+            falhas.increment();
+            return null;
+        }
+
+        if(!agora.isBefore(entrada.validoAte())) {
+            if(tokens.remove(chave, entrada)) {
+                remocoes.increment();
+            }
+            falhas.increment();
+            return null;
+        }
+
+        acertos.increment();
+        return entrada.validacao();
+    }
+
+    /**
+     * Armazena token verificado no cache. Tokens inválidos ou sem expiração não são armazenados.
+     * @param token - Token JWT compacto.
+     * @param geracao - Geração do motor que verificou o token.
+     * @param validacao - Resultado da verificação do token.
+     * @param aposentadaAte - Data de aposentadoria da chave que verificou o token, ou null caso não esteja aposentada.
+     * @param agora - Instante atual.
+     * @param tamanhoMaximo - Número máximo de tokens no cache.
+     */
+    void armazenar(String token, long geracao, ValidacaoToken validacao, Instant aposentadaAte, Instant agora, int tamanhoMaximo) {
+        if(validacao.isInvalido() || validacao.getDataExpiracao() == null || tamanhoMaximo <= 0) {
+            return;
+        }
+
+        if(tokens.size() >= tamanhoMaximo) {
+            removerExpirados(agora);
+
+            if(tokens.size() >= tamanhoMaximo) {
+                return;
+            }
+        }
+
+        Instant validoAte = aposentadaAte != null && aposentadaAte.isBefore(validacao.getDataExpiracao())
+                ? aposentadaAte
+                : validacao.getDataExpiracao();
+        tokens.put(ChaveToken.de(token, geracao), new Entrada(validacao, validoAte));
+    }
+
+    /**
+     * Remove todos os tokens do cache.
+     */
+    void limpar() {
+        tokens.clear();
+    }
+
+    long getAcertos() {
+        return acertos.sum();
+    }
+
+    long getFalhas() {
+        return falhas.sum();
+    }
+
+    long getRemocoes() {
+        return remocoes.sum();
+    }
+
+    int getTamanho() {
+        return tokens.size();
+    }
+
+    /**
+     * Remove tokens expirados. Apenas uma thread executa a limpeza por vez, no máximo uma vez por segundo.
+     * @param agora - Instante atual.
+     */
+    private void removerExpirados(Instant agora) {
+        long inicio = System.nanoTime();
+        if(inicio - ultimaLimpeza.get() < INTERVALO_MINIMO_LIMPEZA_NANOS || !limpando.compareAndSet(false, true)) {
+            return;
+        }
+
+        try {
+            tokens.forEach((chave, entrada) -> {
+                if(!agora.isBefore(entrada.validoAte()) && tokens.remove(chave, entrada)) {
+                    remocoes.increment();
+                }
+            });
+        } finally {
+            ultimaLimpeza.set(System.nanoTime());
+            limpando.set(false);
+        }
+    }
+
+    /**
+     * Entrada do cache: resultado da verificação e data até a qual pode ser retornado.
+     */
+    private record Entrada(ValidacaoToken validacao, Instant validoAte) {
+    }
+
+    /**
+     * Chave do cache: geração do motor e SHA-256 do token compacto.
+     */
+    private record ChaveToken(long geracao, long p1, long p2, long p3, long p4) {
+
+        static ChaveToken de(String token, long geracao) {
+            MessageDigest digest = SHA_256.get();
+            ByteBuffer hash = ByteBuffer.wrap(digest.digest(token.getBytes(StandardCharsets.US_ASCII)));
+            return new ChaveToken(geracao, hash.getLong(), hash.getLong(), hash.getLong(), hash.getLong());
+        }
+    }
+}
@@ -0,0 +1,214 @@
+package com.vhp.autenticacao.api.configurations.security;
+
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.impl.TextCodec;
+
+import javax.crypto.spec.SecretKeySpec;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.Key;
+import java.security.KeyFactory;
+import java.security.MessageDigest;
+import java.security.PrivateKey;
+import java.security.PublicKey;
+import java.security.interfaces.ECPublicKey;
+import java.security.interfaces.RSAPublicKey;
+import java.security.spec.PKCS8EncodedKeySpec;
+import java.security.spec.X509EncodedKeySpec;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Chave imutável de assinatura/verificação de tokens JWT.
+ * Suporta HMAC (HS256) com segredo compartilhado e RSA (RS256) ou curva elíptica P-256 (ES256) com par de chaves,
+ * cuja chave pública é publicada como JWK.
+ */
+final class ChaveJwt {
+
+    private final String kid;
+    private final SignatureAlgorithm algoritmo;
+    private final Key chaveAssinatura;
+    private final Key chaveVerificacao;
+    private final Map<String, Object> jwk;
+
+    private ChaveJwt(String kid, SignatureAlgorithm algoritmo, Key chaveAssinatura, Key chaveVerificacao) {
+        this.algoritmo = algoritmo;
+        this.chaveAssinatura = chaveAssinatura;
+        this.chaveVerificacao = chaveVerificacao;
+
+        Map<String, Object> membrosObrigatorios = getMembrosObrigatoriosJwk(chaveVerificacao);
+        this.kid = kid != null || membrosObrigatorios.isEmpty() ? kid : calcularThumbprint(membrosObrigatorios);
+        this.jwk = membrosObrigatorios.isEmpty() ? null : criarJwk(membrosObrigatorios);
+    }
+
+    /**
+     * Cria chave a partir das propriedades de configuração.
+     * @param kid - Identificador da chave. Quando nulo, chaves assimétricas são identificadas pelo thumbprint da JWK
+     *            e chaves simétricas ficam sem identificador.
+     * @param algoritmo - Nome do algoritmo JWS (HS256, RS256 ou ES256).
+     * @param secret - Segredo em Base64, utilizado pelo HS256.
+     * @param chavePrivada - Chave privada PKCS#8 em PEM ou Base64, utilizada pelo RS256 e ES256.
+     * @param chavePublica - Chave pública X.509 em PEM ou Base64, utilizada pelo RS256 e ES256.
+     * @return Chave de assinatura/verificação.
+     */
+    static ChaveJwt de(String kid, String algoritmo, String secret, String chavePrivada, String chavePublica) {
+        SignatureAlgorithm signatureAlgorithm = SignatureAlgorithm.forName(algoritmo == null ? "HS256" : algoritmo);
+
+        return switch (signatureAlgorithm) {
+            case HS256 -> {
+                if(secret == null || secret.isBlank()) {
+                    throw new IllegalStateException("O secret deve ser informado para o algoritmo HS256.");
+                }
+                Key chave = new SecretKeySpec(TextCodec.BASE64.decode(secret), signatureAlgorithm.getJcaName());
+                yield new ChaveJwt(kid, signatureAlgorithm, chave, chave);
+            }
+            case RS256 -> new ChaveJwt(kid, signatureAlgorithm,
+                    lerChavePrivada("RSA", chavePrivada),
+                    lerChavePublica("RSA", chavePublica));
+            case ES256 -> {
+                PublicKey publica = lerChavePublica("EC", chavePublica);
+                if(((ECPublicKey) publica).getParams().getCurve().getField().getFieldSize() != 256) {
+                    throw new IllegalStateException("O algoritmo ES256 exige chave da curva P-256.");
+                }
+                yield new ChaveJwt(kid, signatureAlgorithm, lerChavePrivada("EC", chavePrivada), publica);
+            }
+            default -> throw new IllegalStateException(
+                    String.format("Algoritmo JWT '%s' não suportado.", signatureAlgorithm.getValue()));
+        };
+    }
+
+    /**
+     * Obtém o identificador da chave, enviado no cabeçalho {@code kid} dos tokens assinados por ela.
+     * @return Identificador da chave, ou null caso a chave seja simétrica e não tenha identificador configurado.
+     */
+    String getKid() {
+        return kid;
+    }
+
+    SignatureAlgorithm getAlgoritmo() {
+        return algoritmo;
+    }
+
+    Key getChaveAssinatura() {
+        return chaveAssinatura;
+    }
+
+    Key getChaveVerificacao() {
+        return chaveVerificacao;
+    }
+
+    /**
+     * Obtém a representação JWK da chave pública.
+     * @return JWK da chave pública, ou null caso a chave seja simétrica e não possa ser publicada.
+     */
+    Map<String, Object> getJwk() {
+        return jwk;
+    }
+
+    private static PrivateKey lerChavePrivada(String tipo, String chave) {
+        try {
+            return KeyFactory.getInstance(tipo).generatePrivate(new PKCS8EncodedKeySpec(decodificarChave(chave)));
+        } catch (GeneralSecurityException | IllegalArgumentException e) {
+            throw new IllegalStateException(String.format("Chave privada %s inválida.", tipo), e);
+        }
+    }
+
+    private static PublicKey lerChavePublica(String tipo, String chave) {
+        try {
+            return KeyFactory.getInstance(tipo).generatePublic(new X509EncodedKeySpec(decodificarChave(chave)));
+        } catch (GeneralSecurityException | IllegalArgumentException e) {
+            throw new IllegalStateException(String.format("Chave pública %s inválida.", tipo), e);
+        }
+    }
+
+    /**
+     * Decodifica chave em PEM ou Base64, removendo cabeçalhos e quebras de linha.
+     * @param chave - Chave em PEM ou Base64.
+     * @return Chave em DER.
+     */
+    private static byte[] decodificarChave(String chave) {
+        if(chave == null || chave.isBlank()) {
+            throw new IllegalArgumentException("Chave não informada.");
+        }
+
+        String base64 = chave
+                .replaceAll("-----(BEGIN|END) [A-Z ]+-----", "")
+                .replaceAll("\\s", "");
+        return Base64.getDecoder().decode(base64);
+    }
+
+    /**
+     * Obtém os membros obrigatórios da JWK (RFC 7517), em ordem lexicográfica conforme o cálculo do thumbprint (RFC 7638).
+     * @param chave - Chave pública.
+     * @return Membros obrigatórios da JWK, ou mapa vazio caso a chave não seja pública.
+     */
+    private static Map<String, Object> getMembrosObrigatoriosJwk(Key chave) {
+        Map<String, Object> membros = new LinkedHashMap<>();
+
+        if(chave instanceof RSAPublicKey rsa) {
+            membros.put("e", base64Url(rsa.getPublicExponent()));
+            membros.put("kty", "RSA");
+            membros.put("n", base64Url(rsa.getModulus()));
+        } else if(chave instanceof ECPublicKey ec) {
+            int tamanho = (ec.getParams().getCurve().getField().getFieldSize() + 7) / 8;
+            membros.put("crv", "P-256");
+            membros.put("kty", "EC");
+            membros.put("x", base64Url(ec.getW().getAffineX(), tamanho));
+            membros.put("y", base64Url(ec.getW().getAffineY(), tamanho));
+        }
+
+        return membros;
+    }
+
+    private Map<String, Object> criarJwk(Map<String, Object> membrosObrigatorios) {
+        Map<String, Object> chave = new LinkedHashMap<>();
+        chave.put("kid", kid);
+        chave.put("use", "sig");
+        chave.put("alg", algoritmo.getValue());
+        chave.putAll(membrosObrigatorios);
+        return Collections.unmodifiableMap(chave);
+    }
+
+    /**
+     * Calcula o thumbprint SHA-256 da JWK (RFC 7638), utilizado como identificador da chave.
+     * @param membrosObrigatorios - Membros obrigatórios da JWK em ordem lexicográfica.
+     * @return Thumbprint em Base64 URL.
+     */
+    private static String calcularThumbprint(Map<String, Object> membrosObrigatorios) {
+        StringBuilder json = new StringBuilder("{");
+        membrosObrigatorios.forEach((nome, valor) -> {
+            if(json.length() > 1) {
+                json.append(',');
+            }
+            json.append('"').append(nome).append("\":\"").append(valor).append('"');
+        });
+        json.append('}');
+
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(json.toString().getBytes(StandardCharsets.UTF_8));
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(hash);
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("Algoritmo SHA-256 não disponível.", e);
+        }
+    }
+
+    private static String base64Url(BigInteger valor) {
+        byte[] bytes = valor.toByteArray();
+        if(bytes.length > 1 && bytes[0] == 0) {
+            bytes = Arrays.copyOfRange(bytes, 1, bytes.length);
+        }
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+    }
+
+    private static String base64Url(BigInteger valor, int tamanho) {
+        byte[] bytes = valor.toByteArray();
+        byte[] ajustado = new byte[tamanho];
+        int copiar = Math.min(bytes.length, tamanho);
+        System.arraycopy(bytes, bytes.length - copiar, ajustado, tamanho - copiar, copiar);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(ajustado);
+    }
+}
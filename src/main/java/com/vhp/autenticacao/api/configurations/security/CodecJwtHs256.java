@@ -0,0 +1,591 @@
+package com.vhp.autenticacao.api.configurations.security;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.ExpiredJwtException;
+import io.jsonwebtoken.IncorrectClaimException;
+import io.jsonwebtoken.MissingClaimException;
+import io.jsonwebtoken.SignatureException;
+import io.jsonwebtoken.impl.DefaultClaims;
+
+import javax.crypto.Mac;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.Key;
+import java.security.MessageDigest;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Codificador de tokens JWT HS256 restrito às claims emitidas pela aplicação (iss, aud, sub, name, iat e exp, além de
+ * email, ativo e authorities dos access tokens com principal sem estado, apenas na verificação).
+ * <p>
+ * Os tokens gerados são idênticos, byte a byte, aos gerados pelo jjwt 0.9.1 com as mesmas claims, e tokens emitidos pelo
+ * jjwt são verificados normalmente. O cabeçalho e o início do payload (iss e aud) são codificados uma única vez,
+ * o payload e a assinatura são escritos em Base64 URL diretamente em buffers reutilizados por thread, cada thread
+ * possui sua própria instância de {@link Mac} e a assinatura é comparada em tempo constante.
+ * <p>
+ * Tokens fora do formato suportado (outro cabeçalho, claims adicionais, caracteres inválidos) não são tratados:
+ * os métodos retornam null e a operação deve ser delegada ao jjwt. Na verificação, o formato do payload é conferido
+ * antes do cálculo da assinatura, de forma que tokens delegados ao jjwt não tenham a assinatura verificada duas vezes.
+ */
+final class CodecJwtHs256 {
+
+    private static final byte[] BASE64_URL = "ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz0123456789-_"
+            .getBytes(StandardCharsets.US_ASCII);
+
+    private static final byte[] BASE64_URL_INVERSO = new byte[128];
+
+    private static final byte[] HEXADECIMAL = "0123456789abcdef".getBytes(StandardCharsets.US_ASCII);
+
+    private static final byte[] HEXADECIMAL_ESCAPE = "0123456789ABCDEF".getBytes(StandardCharsets.US_ASCII);
+
+    private static final String CLAIM_NOME = "name";
+
+    private static final String CLAIM_EMAIL = "email";
+
+    private static final String CLAIM_ATIVO = "ativo";
+
+    private static final String CLAIM_AUTHORITIES = "authorities";
+
+    private static final int TAMANHO_ASSINATURA = 32;
+
+    private static final int TAMANHO_ASSINATURA_CODIFICADA = 43;
+
+    private static final JsonFactory JSON_FACTORY = new JsonFactory();
+
+    private static final ThreadLocal<Buffers> BUFFERS = ThreadLocal.withInitial(Buffers::new);
+
+    static {
+        Arrays.fill(BASE64_URL_INVERSO, (byte) -1);
+        for(int i = 0; i < BASE64_URL.length; i++) {
+            BASE64_URL_INVERSO[BASE64_URL[i]] = (byte) i;
+        }
+    }
+
+    private final String kid;
+    private final String issuer;
+    private final String audience;
+
+    private final String cabecalho;
+    private final byte[] cabecalhoCodificado;
+    private final byte[] inicioPayloadCodificado;
+    private final byte[] restoInicioPayload;
+
+    private final ThreadLocal<Mac> mac;
+
+    /**
+     * Cria codificador para uma chave HS256.
+     * @param kid - Identificador da chave, enviado no cabeçalho, ou null.
+     * @param chave - Chave HMAC-SHA256.
+     * @param issuer - Issuer dos tokens.
+     * @param audience - Audience dos tokens.
+     */
+    CodecJwtHs256(String kid, Key chave, String issuer, String audience) {
+        this.kid = kid;
+        this.issuer = issuer;
+        this.audience = audience;
+
+        byte[] cabecalhoJson = kid == null
+                ? bytes("{\"alg\":\"HS256\"}")
+                : concatenar(bytes("{\"kid\":"), escaparJson(kid), bytes(",\"alg\":\"HS256\"}"));
+        this.cabecalho = new String(codificarBase64Url(cabecalhoJson), StandardCharsets.US_ASCII) + ".";
+        this.cabecalhoCodificado = cabecalho.getBytes(StandardCharsets.US_ASCII);
+
+        byte[] inicioPayload = concatenar(bytes("{\"iss\":"), escaparJson(issuer), bytes(",\"aud\":"), escaparJson(audience),
+                bytes(",\"sub\":\""));
+        int tamanhoCodificavel = inicioPayload.length - inicioPayload.length % 3;
+        this.inicioPayloadCodificado = codificarBase64Url(Arrays.copyOf(inicioPayload, tamanhoCodificavel));
+        this.restoInicioPayload = Arrays.copyOfRange(inicioPayload, tamanhoCodificavel, inicioPayload.length);
+
+        this.mac = ThreadLocal.withInitial(() -> {
+            try {
+                Mac instancia = Mac.getInstance("HmacSHA256");
+                instancia.init(chave);
+                return instancia;
+            } catch (GeneralSecurityException e) {
+                throw new IllegalStateException("Algoritmo HmacSHA256 não disponível.", e);
+            }
+        });
+    }
+
+    String getKid() {
+        return kid;
+    }
+
+    /**
+     * Verifica se o token possui o cabeçalho gerado por este codificador.
+     * @param token - Token JWT compacto.
+     * @return true caso o cabeçalho seja o desta chave, caso contrário, false.
+     */
+    boolean isCabecalhoDo(String token) {
+        return token.startsWith(cabecalho);
+    }
+
+    /**
+     * Gera e assina token com as claims padrão.
+     * @param idUsuario - Id do usuário (sub).
+     * @param nome - Nome do usuário (name), omitido quando nulo.
+     * @param emissao - Data de emissão (iat).
+     * @param expiracao - Data de expiração (exp).
+     * @return Token JWT, ou null caso os valores não sejam suportados e a geração deva ser delegada ao jjwt.
+     */
+    String gerar(UUID idUsuario, String nome, Instant emissao, Instant expiracao) {
+        if(idUsuario == null || emissao.getEpochSecond() < 0 || expiracao.getEpochSecond() < 0) {
+            return null;
+        }
+
+        Buffers buffers = BUFFERS.get();
+        int tamanhoNome = nome == null ? 0 : nome.length() * 6 + 10;
+        byte[] json = buffers.json(restoInicioPayload.length + 36 + tamanhoNome + 64);
+
+        int posicao = restoInicioPayload.length;
+        System.arraycopy(restoInicioPayload, 0, json, 0, posicao);
+        posicao = escreverUuid(idUsuario, json, posicao);
+        json[posicao++] = '"';
+
+        if(nome != null) {
+            posicao = escreverAscii(",\"" + CLAIM_NOME + "\":", json, posicao);
+            posicao = escreverStringJson(nome, json, posicao);
+            if(posicao < 0) {
+                return null;
+            }
+        }
+
+        posicao = escreverAscii(",\"iat\":", json, posicao);
+        posicao = escreverNumero(emissao.getEpochSecond(), json, posicao);
+        posicao = escreverAscii(",\"exp\":", json, posicao);
+        posicao = escreverNumero(expiracao.getEpochSecond(), json, posicao);
+        json[posicao++] = '}';
+
+        byte[] saida = buffers.saida(cabecalhoCodificado.length + inicioPayloadCodificado.length
+                + (posicao + 2) / 3 * 4 + 1 + TAMANHO_ASSINATURA_CODIFICADA);
+
+        int tamanho = 0;
+        System.arraycopy(cabecalhoCodificado, 0, saida, tamanho, cabecalhoCodificado.length);
+        tamanho += cabecalhoCodificado.length;
+        System.arraycopy(inicioPayloadCodificado, 0, saida, tamanho, inicioPayloadCodificado.length);
+        tamanho += inicioPayloadCodificado.length;
+        tamanho = codificarBase64Url(json, posicao, saida, tamanho);
+
+        Mac instancia = mac.get();
+        instancia.update(saida, 0, tamanho);
+        assinar(instancia, buffers.assinatura);
+
+        saida[tamanho++] = '.';
+        tamanho = codificarBase64Url(buffers.assinatura, TAMANHO_ASSINATURA, saida, tamanho);
+
+        return new String(saida, 0, tamanho, StandardCharsets.ISO_8859_1);
+    }
+
+    /**
+     * Verifica assinatura, expiração, issuer e audience do token, com as mesmas regras e exceções do jjwt.
+     * O payload é lido antes do cálculo da assinatura e, caso não esteja no formato suportado, a assinatura não é calculada.
+     * @param token - Token JWT compacto com o cabeçalho deste codificador.
+     * @param agora - Instante atual.
+     * @return Payload do token, ou null caso o token não esteja no formato suportado e a verificação deva ser delegada ao jjwt.
+     * @throws SignatureException Caso a assinatura não corresponda.
+     * @throws ExpiredJwtException Caso o token esteja expirado.
+     * @throws io.jsonwebtoken.ClaimJwtException Caso issuer ou audience não correspondam.
+     */
+    Claims verificar(String token, Instant agora) {
+        int fimPayload = token.lastIndexOf('.');
+        if(fimPayload <= cabecalho.length() || token.length() - fimPayload - 1 != TAMANHO_ASSINATURA_CODIFICADA) {
+            return null;
+        }
+
+        Buffers buffers = BUFFERS.get();
+        byte[] conteudo = buffers.saida(fimPayload);
+        for(int i = 0; i < fimPayload; i++) {
+            char caractere = token.charAt(i);
+            if(caractere >= 128) {
+                return null;
+            }
+            conteudo[i] = (byte) caractere;
+        }
+
+        if(decodificarBase64Url(token, fimPayload + 1, token.length(), buffers.assinatura) != TAMANHO_ASSINATURA) {
+            return null;
+        }
+
+        byte[] json = buffers.json((fimPayload - cabecalho.length()) * 3 / 4 + 3);
+        int tamanhoJson = decodificarBase64Url(token, cabecalho.length(), fimPayload, json);
+        if(tamanhoJson < 0) {
+            return null;
+        }
+
+        Claims claims = lerClaims(json, tamanhoJson);
+        if(claims == null) {
+            return null;
+        }
+
+        Mac instancia = mac.get();
+        instancia.update(conteudo, 0, fimPayload);
+        assinar(instancia, buffers.assinaturaCalculada);
+
+        if(!MessageDigest.isEqual(buffers.assinatura, buffers.assinaturaCalculada)) {
+            throw new SignatureException("JWT signature does not match locally computed signature. "
+                    + "JWT validity cannot be asserted and should not be trusted.");
+        }
+
+        Object expiracao = claims.get(Claims.EXPIRATION);
+        if(expiracao != null && agora.toEpochMilli() > ((Number) expiracao).longValue() * 1000) {
+            throw new ExpiredJwtException(null, claims, String.format("JWT expired at %s. Current time: %s.",
+                    claims.getExpiration().toInstant(), agora));
+        }
+
+        validarClaim(claims, Claims.AUDIENCE, audience);
+        validarClaim(claims, Claims.ISSUER, issuer);
+
+        return claims;
+    }
+
+    private static void validarClaim(Claims claims, String nome, String esperado) {
+        Object valor = claims.get(nome);
+        if(valor == null) {
+            throw new MissingClaimException(null, claims,
+                    String.format("Expected %s claim to be: %s, but was not present in the JWT claims.", nome, esperado));
+        }
+        if(!esperado.equals(valor)) {
+            throw new IncorrectClaimException(null, claims,
+                    String.format("Expected %s claim to be: %s, but was: %s.", nome, esperado, valor));
+        }
+    }
+
+    /**
+     * Lê as claims do payload, aceitando apenas as claims emitidas pela aplicação com seus tipos esperados.
+     * @param json - Payload em JSON.
+     * @param tamanho - Tamanho do payload.
+     * @return Claims, ou null caso o payload possua outras claims ou não seja um objeto JSON válido. O payload ainda não
+     * teve a assinatura verificada e nenhuma decisão deve ser tomada a partir das claims antes dessa verificação.
+     */
+    private static Claims lerClaims(byte[] json, int tamanho) {
+        DefaultClaims claims = new DefaultClaims();
+
+        try (JsonParser parser = JSON_FACTORY.createParser(json, 0, tamanho)) {
+            if(parser.nextToken() != JsonToken.START_OBJECT) {
+                return null;
+            }
+
+            JsonToken token;
+            while((token = parser.nextToken()) == JsonToken.FIELD_NAME) {
+                String nome = parser.getCurrentName();
+                JsonToken valor = parser.nextToken();
+
+                switch (nome) {
+                    case Claims.ISSUER, Claims.AUDIENCE, Claims.SUBJECT, CLAIM_NOME, CLAIM_EMAIL -> {
+                        if(valor != JsonToken.VALUE_STRING) {
+                            return null;
+                        }
+                        claims.put(nome, parser.getText());
+                    }
+                    case Claims.ISSUED_AT, Claims.EXPIRATION -> {
+                        if(valor != JsonToken.VALUE_NUMBER_INT) {
+                            return null;
+                        }
+                        claims.put(nome, parser.getNumberValue());
+                    }
+                    case CLAIM_ATIVO -> {
+                        if(valor != JsonToken.VALUE_TRUE && valor != JsonToken.VALUE_FALSE) {
+                            return null;
+                        }
+                        claims.put(nome, parser.getBooleanValue());
+                    }
+                    case CLAIM_AUTHORITIES -> {
+                        List<String> authorities = lerListaStrings(parser, valor);
+                        if(authorities == null) {
+                            return null;
+                        }
+                        claims.put(nome, authorities);
+                    }
+                    default -> {
+                        return null;
+                    }
+                }
+            }
+
+            if(token != JsonToken.END_OBJECT || parser.nextToken() != null) {
+                return null;
+            }
+        } catch (IOException e) {
+            return null;
+        }
+
+        return claims;
+    }
+
+    /**
+     * Lê array JSON de strings.
+     * @param parser - Parser posicionado no início do array.
+     * @param valor - Token atual do parser.
+     * @return Strings do array, ou null caso o valor não seja um array de strings.
+     */
+    private static List<String> lerListaStrings(JsonParser parser, JsonToken valor) throws IOException {
+        if(valor != JsonToken.START_ARRAY) {
+            return null;
+        }
+
+        List<String> lista = new ArrayList<>();
+        JsonToken item;
+        while((item = parser.nextToken()) == JsonToken.VALUE_STRING) {
+            lista.add(parser.getText());
+        }
+        return item == JsonToken.END_ARRAY ? lista : null;
+    }
+
+    private static void assinar(Mac mac, byte[] assinatura) {
+        try {
+            mac.doFinal(assinatura, 0);
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("Não foi possível assinar o token.", e);
+        }
+    }
+
+    private static int escreverUuid(UUID uuid, byte[] destino, int posicao) {
+        long mais = uuid.getMostSignificantBits();
+        long menos = uuid.getLeastSignificantBits();
+        posicao = escreverHexadecimal(mais >>> 32, 8, destino, posicao);
+        destino[posicao++] = '-';
+        posicao = escreverHexadecimal(mais >>> 16, 4, destino, posicao);
+        destino[posicao++] = '-';
+        posicao = escreverHexadecimal(mais, 4, destino, posicao);
+        destino[posicao++] = '-';
+        posicao = escreverHexadecimal(menos >>> 48, 4, destino, posicao);
+        destino[posicao++] = '-';
+        return escreverHexadecimal(menos, 12, destino, posicao);
+    }
+
+    private static int escreverHexadecimal(long valor, int digitos, byte[] destino, int posicao) {
+        for(int i = digitos - 1; i >= 0; i--) {
+            destino[posicao + i] = HEXADECIMAL[(int) (valor & 0xF)];
+            valor >>>= 4;
+        }
+        return posicao + digitos;
+    }
+
+    private static int escreverNumero(long valor, byte[] destino, int posicao) {
+        if(valor == 0) {
+            destino[posicao] = '0';
+            return posicao + 1;
+        }
+
+        int digitos = 0;
+        for(long resto = valor; resto > 0; resto /= 10) {
+            digitos++;
+        }
+        for(int i = posicao + digitos - 1; i >= posicao; i--) {
+            destino[i] = (byte) ('0' + valor % 10);
+            valor /= 10;
+        }
+        return posicao + digitos;
+    }
+
+    private static int escreverAscii(String valor, byte[] destino, int posicao) {
+        for(int i = 0; i < valor.length(); i++) {
+            destino[posicao++] = (byte) valor.charAt(i);
+        }
+        return posicao;
+    }
+
+    /**
+     * Escreve string JSON em UTF-8, entre aspas, com o mesmo escape do Jackson utilizado pelo jjwt
+     * (caracteres de controle e pares de surrogates são escritos como escapes unicode).
+     * @param valor - Valor da string.
+     * @param destino - Buffer de destino, com pelo menos 6 bytes por caractere mais 2.
+     * @param posicao - Posição inicial.
+     * @return Posição final, ou -1 caso a string possua surrogate inválido.
+     */
+    private static int escreverStringJson(String valor, byte[] destino, int posicao) {
+        destino[posicao++] = '"';
+
+        for(int i = 0; i < valor.length(); i++) {
+            char caractere = valor.charAt(i);
+
+            if(caractere < 0x20) {
+                byte escape = switch (caractere) {
+                    case '\b' -> 'b';
+                    case '\t' -> 't';
+                    case '\n' -> 'n';
+                    case '\f' -> 'f';
+                    case '\r' -> 'r';
+                    default -> 0;
+                };
+                if(escape == 0) {
+                    posicao = escreverEscapeUnicode(caractere, destino, posicao);
+                } else {
+                    destino[posicao++] = '\\';
+                    destino[posicao++] = escape;
+                }
+            } else if(caractere == '"' || caractere == '\\') {
+                destino[posicao++] = '\\';
+                destino[posicao++] = (byte) caractere;
+            } else if(caractere < 0x80) {
+                destino[posicao++] = (byte) caractere;
+            } else if(caractere < 0x800) {
+                destino[posicao++] = (byte) (0xC0 | (caractere >> 6));
+                destino[posicao++] = (byte) (0x80 | (caractere & 0x3F));
+            } else if(Character.isSurrogate(caractere)) {
+                if(!Character.isHighSurrogate(caractere) || i + 1 >= valor.length()
+                        || !Character.isLowSurrogate(valor.charAt(i + 1))) {
+                    return -1;
+                }
+                posicao = escreverEscapeUnicode(caractere, destino, posicao);
+                posicao = escreverEscapeUnicode(valor.charAt(++i), destino, posicao);
+            } else {
+                destino[posicao++] = (byte) (0xE0 | (caractere >> 12));
+                destino[posicao++] = (byte) (0x80 | ((caractere >> 6) & 0x3F));
+                destino[posicao++] = (byte) (0x80 | (caractere & 0x3F));
+            }
+        }
+
+        destino[posicao++] = '"';
+        return posicao;
+    }
+
+    private static int escreverEscapeUnicode(char caractere, byte[] destino, int posicao) {
+        destino[posicao++] = '\\';
+        destino[posicao++] = 'u';
+        destino[posicao++] = HEXADECIMAL_ESCAPE[caractere >> 12];
+        destino[posicao++] = HEXADECIMAL_ESCAPE[(caractere >> 8) & 0xF];
+        destino[posicao++] = HEXADECIMAL_ESCAPE[(caractere >> 4) & 0xF];
+        destino[posicao++] = HEXADECIMAL_ESCAPE[caractere & 0xF];
+        return posicao;
+    }
+
+    private static int codificarBase64Url(byte[] origem, int tamanho, byte[] destino, int posicao) {
+        int i = 0;
+        for(; i + 2 < tamanho; i += 3) {
+            int bloco = (origem[i] & 0xFF) << 16 | (origem[i + 1] & 0xFF) << 8 | (origem[i + 2] & 0xFF);
+            destino[posicao++] = BASE64_URL[bloco >>> 18];
+            destino[posicao++] = BASE64_URL[(bloco >>> 12) & 0x3F];
+            destino[posicao++] = BASE64_URL[(bloco >>> 6) & 0x3F];
+            destino[posicao++] = BASE64_URL[bloco & 0x3F];
+        }
+
+        int resto = tamanho - i;
+        if(resto == 1) {
+            int bloco = (origem[i] & 0xFF) << 16;
+            destino[posicao++] = BASE64_URL[bloco >>> 18];
+            destino[posicao++] = BASE64_URL[(bloco >>> 12) & 0x3F];
+        } else if(resto == 2) {
+            int bloco = (origem[i] & 0xFF) << 16 | (origem[i + 1] & 0xFF) << 8;
+            destino[posicao++] = BASE64_URL[bloco >>> 18];
+            destino[posicao++] = BASE64_URL[(bloco >>> 12) & 0x3F];
+            destino[posicao++] = BASE64_URL[(bloco >>> 6) & 0x3F];
+        }
+
+        return posicao;
+    }
+
+    /**
+     * Decodifica trecho de texto em Base64 URL sem padding.
+     * @param origem - Texto.
+     * @param inicio - Início do trecho.
+     * @param fim - Fim do trecho (exclusivo).
+     * @param destino - Buffer de destino.
+     * @return Número de bytes decodificados, ou -1 caso o trecho não seja Base64 URL válido e canônico.
+     */
+    private static int decodificarBase64Url(String origem, int inicio, int fim, byte[] destino) {
+        int tamanho = fim - inicio;
+        if(tamanho % 4 == 1 || (tamanho + 3) / 4 * 3 > destino.length + 2) {
+            return -1;
+        }
+
+        int posicao = 0;
+        int bloco = 0;
+        int quantidade = 0;
+        for(int i = inicio; i < fim; i++) {
+            char caractere = origem.charAt(i);
+            int valor = caractere < 128 ? BASE64_URL_INVERSO[caractere] : -1;
+            if(valor < 0) {
+                return -1;
+            }
+
+            bloco = bloco << 6 | valor;
+            if(++quantidade == 4) {
+                destino[posicao++] = (byte) (bloco >> 16);
+                destino[posicao++] = (byte) (bloco >> 8);
+                destino[posicao++] = (byte) bloco;
+                bloco = 0;
+                quantidade = 0;
+            }
+        }
+
+        if((quantidade == 2 && (bloco & 0xF) != 0) || (quantidade == 3 && (bloco & 0x3) != 0)) {
+            return -1;
+        }
+
+        if(quantidade == 2) {
+            destino[posicao++] = (byte) (bloco >> 4);
+        } else if(quantidade == 3) {
+            destino[posicao++] = (byte) (bloco >> 10);
+            destino[posicao++] = (byte) (bloco >> 2);
+        }
+
+        return posicao;
+    }
+
+    private static byte[] codificarBase64Url(byte[] origem) {
+        byte[] destino = new byte[(origem.length * 4 + 2) / 3];
+        codificarBase64Url(origem, origem.length, destino, 0);
+        return destino;
+    }
+
+    private static byte[] escaparJson(String valor) {
+        byte[] destino = new byte[valor.length() * 6 + 2];
+        int tamanho = escreverStringJson(valor, destino, 0);
+        if(tamanho < 0) {
+            throw new IllegalStateException("Valor inválido para o token JWT.");
+        }
+        return Arrays.copyOf(destino, tamanho);
+    }
+
+    private static byte[] bytes(String valor) {
+        return valor.getBytes(StandardCharsets.US_ASCII);
+    }
+
+    private static byte[] concatenar(byte[]... partes) {
+        int tamanho = 0;
+        for(byte[] parte : partes) {
+            tamanho += parte.length;
+        }
+
+        byte[] resultado = new byte[tamanho];
+        int posicao = 0;
+        for(byte[] parte : partes) {
+            System.arraycopy(parte, 0, resultado, posicao, parte.length);
+            posicao += parte.length;
+        }
+        return resultado;
+    }
+
+    /**
+     * Buffers reutilizados por thread.
+     */
+    private static final class Buffers {
+        private byte[] json = new byte[512];
+        private byte[] saida = new byte[1024];
+        private final byte[] assinatura = new byte[TAMANHO_ASSINATURA];
+        private final byte[] assinaturaCalculada = new byte[TAMANHO_ASSINATURA];
+
+        byte[] json(int tamanho) {
+            if(json.length < tamanho) {
+                json = new byte[Math.max(tamanho, json.length * 2)];
+            }
+            return json;
+        }
+
+        byte[] saida(int tamanho) {
+            if(saida.length < tamanho) {
+                saida = new byte[Math.max(tamanho, saida.length * 2)];
+            }
+            return saida;
+        }
+    }
+}
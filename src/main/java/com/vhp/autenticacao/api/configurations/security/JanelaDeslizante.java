@@ -0,0 +1,141 @@
+package com.vhp.autenticacao.api.configurations.security;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Contador aproximado de tentativas por chave em janela deslizante, sem locks e com memória fixa.
+ * <p>
+ * As chaves são distribuídas em um vetor de tamanho fixo por duas funções de hash com sementes aleatórias (count-min):
+ * a contagem de uma chave é a menor entre as duas posições, de modo que colisões só podem superestimar a contagem.
+ * Cada posição guarda, em um único {@code long} atualizado por CAS, o índice da janela fixa atual e as contagens da
+ * janela atual e da anterior. A contagem na janela deslizante é estimada ponderando a janela anterior pela fração
+ * ainda coberta.
+ */
+class JanelaDeslizante {
+
+    private static final long MAXIMO_CONTAGEM = 0xFFFF;
+
+    private final int limite;
+    private final long janelaMillis;
+    private final AtomicLongArray posicoes;
+    private final int mascara;
+    private final int semente1;
+    private final int semente2;
+
+    JanelaDeslizante(int limite, long janelaMillis, int slots) {
+        this.limite = limite;
+        this.janelaMillis = Math.max(1, janelaMillis);
+
+        int tamanho = Integer.highestOneBit(Math.max(2, slots - 1)) << 1;
+        this.posicoes = new AtomicLongArray(tamanho);
+        this.mascara = tamanho - 1;
+
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        this.semente1 = random.nextInt();
+        this.semente2 = random.nextInt();
+    }
+
+    /**
+     * Verifica se o limite da janela foi atingido para a chave, sem registrar uma tentativa.
+     * @param chave - Chave da tentativa.
+     * @param agoraMillis - Instante atual em milissegundos.
+     * @return 0 caso uma tentativa seja permitida, caso contrário, o tempo em milissegundos até que uma nova tentativa seja permitida.
+     */
+    long espera(String chave, long agoraMillis) {
+        long janela = agoraMillis / janelaMillis;
+        long decorrido = agoraMillis % janelaMillis;
+
+        long estado1 = normalizar(posicoes.get(hash(chave, semente1) & mascara), janela);
+        long estado2 = normalizar(posicoes.get(hash(chave, semente2) & mascara), janela);
+        long estado = estimar(estado1, decorrido) <= estimar(estado2, decorrido) ? estado1 : estado2;
+
+        if(estimar(estado, decorrido) >= limite) {
+            return calcularEspera(anterior(estado), atual(estado), decorrido);
+        }
+        return 0;
+    }
+
+    /**
+     * Registra uma tentativa para a chave na janela atual.
+     * @param chave - Chave da tentativa.
+     * @param agoraMillis - Instante atual em milissegundos.
+     */
+    void registrar(String chave, long agoraMillis) {
+        int indice1 = hash(chave, semente1) & mascara;
+        int indice2 = hash(chave, semente2) & mascara;
+        long janela = agoraMillis / janelaMillis;
+
+        incrementar(indice1, janela);
+        if(indice2 != indice1) {
+            incrementar(indice2, janela);
+        }
+    }
+
+    private void incrementar(int indice, long janela) {
+        long atual;
+        long novo;
+        do {
+            atual = posicoes.get(indice);
+            long normalizado = normalizar(atual, janela);
+            novo = atual(normalizado) < MAXIMO_CONTAGEM ? normalizado + 1 : normalizado;
+        } while (!posicoes.compareAndSet(indice, atual, novo));
+    }
+
+    /**
+     * Desloca o estado da posição para a janela informada: a janela atual passa a ser a anterior ou ambas são zeradas.
+     */
+    private static long normalizar(long estado, long janela) {
+        long janelaEstado = estado >>> 32;
+        long janelaAtual = janela & 0xFFFFFFFFL;
+        if(janelaEstado == janelaAtual) {
+            return estado;
+        }
+        if(janelaEstado == ((janela - 1) & 0xFFFFFFFFL)) {
+            return (janelaAtual << 32) | (atual(estado) << 16);
+        }
+        return janelaAtual << 32;
+    }
+
+    private double estimar(long estado, long decorrido) {
+        return anterior(estado) * (double) (janelaMillis - decorrido) / janelaMillis + atual(estado);
+    }
+
+    /**
+     * Calcula o tempo até que a estimativa fique abaixo do limite, considerando que não haverá novas tentativas.
+     */
+    private long calcularEspera(long anterior, long atual, long decorrido) {
+        long espera;
+        if(atual >= limite) {
+            // Na próxima janela a contagem atual passa a ser a anterior, ponderada pela fração ainda coberta
+            espera = janelaMillis - decorrido;
+            if(atual > 0) {
+                espera += janelaMillis - limite * janelaMillis / atual;
+            }
+        } else {
+            espera = janelaMillis - (limite - atual) * janelaMillis / anterior - decorrido;
+        }
+        return Math.max(1, espera);
+    }
+
+    private static long anterior(long estado) {
+        return (estado >>> 16) & MAXIMO_CONTAGEM;
+    }
+
+    private static long atual(long estado) {
+        return estado & MAXIMO_CONTAGEM;
+    }
+
+    private static int hash(String chave, int semente) {
+        int h = semente;
+        for(int i = 0; i < chave.length(); i++) {
+            h = (h ^ chave.charAt(i)) * 0x01000193;
+        }
+        h ^= h >>> 16;
+        h *= 0x85EBCA6B;
+        h ^= h >>> 13;
+        h *= 0xC2B2AE35;
+        h ^= h >>> 16;
+        return h;
+    }
+}
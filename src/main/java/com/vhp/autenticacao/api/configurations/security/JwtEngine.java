@@ -0,0 +1,411 @@
+package com.vhp.autenticacao.api.configurations.security;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.vhp.autenticacao.api.configurations.property.ChaveJwtProperty;
+import com.vhp.autenticacao.api.configurations.property.JwtProperty;
+import com.vhp.autenticacao.api.controller.dto.JwksDTO;
+import com.vhp.autenticacao.api.document.Usuario;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jws;
+import io.jsonwebtoken.JwsHeader;
+import io.jsonwebtoken.JwtBuilder;
+import io.jsonwebtoken.JwtParser;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SignatureException;
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.SigningKeyResolverAdapter;
+
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.Key;
+import java.security.MessageDigest;
+import java.time.Clock;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Motor imutável de assinatura e verificação de tokens JWT.
+ * As chaves, o parser e o JWKS são construídos uma única vez a partir de {@link JwtProperty} e podem ser compartilhados entre threads.
+ * <p>
+ * O motor mantém um chaveiro indexado pelo {@code kid}: tokens são assinados pela chave ativa, que identifica a si mesma
+ * no cabeçalho {@code kid}, e verificados pela chave indicada no cabeçalho. Tokens sem {@code kid} são verificados pela
+ * chave padrão ({@code autenticacao.jwt.secret} ou {@code autenticacao.jwt.chave_privada}/{@code chave_publica}).
+ * Chaves configuradas com {@code aposentada_ate} são aposentadas: nunca assinam tokens e verificam tokens apenas
+ * até a data informada, que deve ser posterior à expiração dos últimos tokens assinados por elas.
+ * <p>
+ * Tokens HS256 com as claims padrão são gerados e verificados por {@link CodecJwtHs256}, que também verifica os access
+ * tokens com as claims do principal sem estado; os demais pelo jjwt.
+ */
+final class JwtEngine {
+
+    private static final AtomicLong GERACOES = new AtomicLong();
+
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+
+    private final long geracao = GERACOES.incrementAndGet();
+
+    private final Configuracao configuracao;
+    private final Clock clock;
+
+    private final ChaveJwt chavePadrao;
+    private final ChaveJwt chaveAssinatura;
+    private final Map<String, ChaveJwt> chaves;
+    private final Map<String, Instant> expiracaoChavesAposentadas;
+
+    private final CodecJwtHs256 codecAssinatura;
+    private final List<CodecJwtHs256> codecsVerificacao;
+
+    private final JwtParser parser;
+    private final JwksDTO jwks;
+
+    /**
+     * Cria motor a partir das propriedades JWT.
+     * @param jwtProperty - Propriedades JWT atuais.
+     * @param clock - Relógio da aplicação.
+     */
+    JwtEngine(JwtProperty jwtProperty, Clock clock) {
+        this.configuracao = Configuracao.de(jwtProperty);
+        this.clock = clock;
+
+        Map<String, ChaveJwt> chavesConfiguradas = new LinkedHashMap<>();
+        Map<String, Instant> aposentadas = new HashMap<>();
+
+        ConfiguracaoChave padrao = configuracao.padrao();
+        this.chavePadrao = padrao.isConfigurada() || configuracao.chaves().isEmpty()
+                ? ChaveJwt.de(null, padrao.algoritmo(), padrao.secret(), padrao.chavePrivada(), padrao.chavePublica())
+                : null;
+        if(chavePadrao != null && chavePadrao.getKid() != null) {
+            chavesConfiguradas.put(chavePadrao.getKid(), chavePadrao);
+        }
+
+        for(ConfiguracaoChave configuracaoChave : configuracao.chaves()) {
+            ChaveJwt chave = ChaveJwt.de(configuracaoChave.kid(), configuracaoChave.algoritmo(), configuracaoChave.secret(),
+                    configuracaoChave.chavePrivada(), configuracaoChave.chavePublica());
+            if(chave.getKid() == null) {
+                throw new IllegalStateException("As chaves simétricas do chaveiro JWT devem possuir kid.");
+            }
+            if(chavesConfiguradas.putIfAbsent(chave.getKid(), chave) != null) {
+                throw new IllegalStateException(String.format("Chave JWT '%s' configurada mais de uma vez.", chave.getKid()));
+            }
+            if(configuracaoChave.aposentadaAte() != null) {
+                aposentadas.put(chave.getKid(), configuracaoChave.aposentadaAte());
+            }
+        }
+
+        this.chaves = Collections.unmodifiableMap(chavesConfiguradas);
+        this.expiracaoChavesAposentadas = Collections.unmodifiableMap(aposentadas);
+        this.chaveAssinatura = selecionarChaveAssinatura();
+
+        this.codecsVerificacao = criarCodecs();
+        this.codecAssinatura = codecsVerificacao.stream()
+                .filter(codec -> Objects.equals(codec.getKid(), chaveAssinatura.getKid()))
+                .findFirst()
+                .orElse(null);
+
+        this.parser = Jwts.parser()
+                .setSigningKeyResolver(new SigningKeyResolverAdapter() {
+                    @Override
+                    public Key resolveSigningKey(JwsHeader header, Claims claims) {
+                        return resolverChaveVerificacao(header);
+                    }
+                })
+                .requireAudience(configuracao.audience())
+                .requireIssuer(configuracao.issuer())
+                .setClock(() -> Date.from(clock.instant()));
+        this.jwks = criarJwks(chaves.values());
+    }
+
+    /**
+     * Obtém a geração do motor, incrementada a cada reconstrução.
+     * @return Geração do motor.
+     */
+    long getGeracao() {
+        return geracao;
+    }
+
+    /**
+     * Obtém as chaves públicas de verificação, ativas e aposentadas, no formato JWKS.
+     * @return JWKS serializado e seu ETag.
+     */
+    JwksDTO getJwks() {
+        return jwks;
+    }
+
+    /**
+     * Obtém o identificador da chave que assina os novos tokens.
+     * @return Identificador da chave ativa, ou null caso a chave ativa seja a chave padrão simétrica.
+     */
+    String getKidAtivo() {
+        return chaveAssinatura.getKid();
+    }
+
+    /**
+     * Verifica se o motor foi construído com as mesmas propriedades informadas.
+     * @param jwtProperty - Propriedades JWT atuais.
+     * @return true caso chaves, issuer e audience sejam os mesmos, caso contrário, false.
+     */
+    boolean isConfiguradoPara(JwtProperty jwtProperty) {
+        return configuracao.isIgualA(jwtProperty);
+    }
+
+    /**
+     * Gera e assina novo token JWT com a chave ativa.
+     * @param usuario - Usuário do token.
+     * @param emissao - Data de emissão.
+     * @param expiracao - Data de expiração.
+     * @param claimsAdicionais - Claims adicionadas ao payload após as claims padrão.
+     * @return Token JWT.
+     */
+    String gerarToken(Usuario usuario, Instant emissao, Instant expiracao, Map<String, Object> claimsAdicionais) {
+        if(codecAssinatura != null && claimsAdicionais.isEmpty()) {
+            String token = codecAssinatura.gerar(usuario.getId(), usuario.getNome(), emissao, expiracao);
+            if(token != null) {
+                return token;
+            }
+        }
+
+        JwtBuilder builder = Jwts.builder();
+
+        if(chaveAssinatura.getKid() != null) {
+            builder.setHeaderParam(JwsHeader.KEY_ID, chaveAssinatura.getKid());
+        }
+
+        builder.setIssuer(configuracao.issuer())
+                .setAudience(configuracao.audience())
+                .setSubject(usuario.getId().toString())
+                .claim("name", usuario.getNome())
+                .setIssuedAt(Date.from(emissao))
+                .setExpiration(Date.from(expiracao));
+
+        claimsAdicionais.forEach(builder::claim);
+
+        return builder
+                .signWith(chaveAssinatura.getAlgoritmo(), chaveAssinatura.getChaveAssinatura())
+                .compact();
+    }
+
+    /**
+     * Verifica assinatura, issuer, audience e expiração do token.
+     * @param token - Token JWT.
+     * @return Payload do token JWT e data de aposentadoria da chave que o verificou.
+     */
+    TokenVerificado verificar(String token) {
+        for(CodecJwtHs256 codec : codecsVerificacao) {
+            if(codec.isCabecalhoDo(token)) {
+                verificarChaveAposentada(codec.getKid());
+                Claims claims = codec.verificar(token, clock.instant());
+                if(claims != null) {
+                    return new TokenVerificado(claims, getAposentadaAte(codec.getKid()));
+                }
+                break;
+            }
+        }
+
+        Jws<Claims> jws = parser.parseClaimsJws(token);
+        return new TokenVerificado(jws.getBody(), getAposentadaAte(jws.getHeader().getKeyId()));
+    }
+
+    /**
+     * Obtém a data até a qual a chave aposentada verifica tokens.
+     * @param kid - Identificador da chave.
+     * @return Data de aposentadoria, ou null caso a chave não esteja aposentada.
+     */
+    private Instant getAposentadaAte(String kid) {
+        return kid == null ? null : expiracaoChavesAposentadas.get(kid);
+    }
+
+    /**
+     * Obtém a chave de verificação indicada pelo cabeçalho {@code kid} do token.
+     * @param header - Cabeçalho do token.
+     * @return Chave de verificação.
+     * @throws SignatureException Caso a chave não exista, esteja aposentada e expirada ou não corresponda ao algoritmo do token.
+     */
+    private Key resolverChaveVerificacao(JwsHeader<?> header) {
+        String kid = header.getKeyId();
+        ChaveJwt chave = kid == null ? chavePadrao : chaves.get(kid);
+
+        if(chave == null) {
+            throw new SignatureException("Chave de verificação do token não encontrada.");
+        }
+
+        verificarChaveAposentada(kid);
+
+        if(!chave.getAlgoritmo().getValue().equals(header.getAlgorithm())) {
+            throw new SignatureException("Algoritmo do token não corresponde ao algoritmo da chave.");
+        }
+
+        return chave.getChaveVerificacao();
+    }
+
+    /**
+     * Verifica se a chave, caso aposentada, ainda pode verificar tokens.
+     * @param kid - Identificador da chave.
+     * @throws SignatureException Caso a chave esteja aposentada e expirada.
+     */
+    private void verificarChaveAposentada(String kid) {
+        Instant expiracaoAposentada = getAposentadaAte(kid);
+        if(expiracaoAposentada != null && !clock.instant().isBefore(expiracaoAposentada)) {
+            throw new SignatureException("Chave de verificação do token expirada.");
+        }
+    }
+
+    /**
+     * Cria os codificadores das chaves HS256 do chaveiro, começando pela chave padrão.
+     * @return Codificadores das chaves HS256, ou lista vazia caso issuer ou audience não estejam configurados.
+     */
+    private List<CodecJwtHs256> criarCodecs() {
+        List<CodecJwtHs256> codecs = new ArrayList<>();
+        if(configuracao.issuer() == null || configuracao.audience() == null) {
+            return codecs;
+        }
+
+        if(chavePadrao != null && chavePadrao.getKid() == null && chavePadrao.getAlgoritmo() == SignatureAlgorithm.HS256) {
+            codecs.add(new CodecJwtHs256(null, chavePadrao.getChaveVerificacao(), configuracao.issuer(), configuracao.audience()));
+        }
+
+        chaves.values().stream()
+                .filter(chave -> chave.getAlgoritmo() == SignatureAlgorithm.HS256)
+                .map(chave -> new CodecJwtHs256(chave.getKid(), chave.getChaveVerificacao(), configuracao.issuer(), configuracao.audience()))
+                .forEach(codecs::add);
+
+        return List.copyOf(codecs);
+    }
+
+    /**
+     * Seleciona a chave de assinatura: a chave indicada por {@code chave_ativa}, ou a chave padrão,
+     * ou a primeira chave não aposentada do chaveiro.
+     * @return Chave de assinatura.
+     */
+    private ChaveJwt selecionarChaveAssinatura() {
+        String chaveAtiva = configuracao.chaveAtiva();
+
+        if(chaveAtiva != null && !chaveAtiva.isBlank()) {
+            ChaveJwt chave = chaves.get(chaveAtiva);
+            if(chave == null) {
+                throw new IllegalStateException(String.format("Chave JWT ativa '%s' não encontrada.", chaveAtiva));
+            }
+            if(expiracaoChavesAposentadas.containsKey(chaveAtiva)) {
+                throw new IllegalStateException(String.format("Chave JWT ativa '%s' está aposentada.", chaveAtiva));
+            }
+            return chave;
+        }
+
+        if(chavePadrao != null) {
+            return chavePadrao;
+        }
+
+        return chaves.values().stream()
+                .filter(chave -> !expiracaoChavesAposentadas.containsKey(chave.getKid()))
+                .findFirst()
+                .orElseThrow(() -> new IllegalStateException("Nenhuma chave JWT não aposentada configurada para assinatura."));
+    }
+
+    /**
+     * Serializa as chaves públicas no formato JWKS (RFC 7517) e calcula o ETag do conteúdo.
+     * Chaves simétricas nunca são publicadas.
+     * @param chaves - Chaves de verificação.
+     * @return JWKS serializado e seu ETag.
+     */
+    private static JwksDTO criarJwks(Collection<ChaveJwt> chaves) {
+        List<Map<String, Object>> jwks = chaves.stream()
+                .map(ChaveJwt::getJwk)
+                .filter(Objects::nonNull)
+                .toList();
+
+        try {
+            String json = OBJECT_MAPPER.writeValueAsString(Map.of("keys", jwks));
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(json.getBytes(StandardCharsets.UTF_8));
+            String etag = "\"" + Base64.getUrlEncoder().withoutPadding().encodeToString(hash) + "\"";
+            return new JwksDTO(json, etag);
+        } catch (JsonProcessingException | GeneralSecurityException e) {
+            throw new IllegalStateException("Não foi possível gerar o JWKS.", e);
+        }
+    }
+
+    /**
+     * Cópia imutável das propriedades JWT utilizadas na construção do motor.
+     */
+    private record Configuracao(String issuer, String audience, String chaveAtiva,
+                                ConfiguracaoChave padrao, List<ConfiguracaoChave> chaves) {
+
+        static Configuracao de(JwtProperty jwtProperty) {
+            List<ChaveJwtProperty> chaves = jwtProperty.getChaves() == null ? List.of() : jwtProperty.getChaves();
+            return new Configuracao(
+                    jwtProperty.getIssuer(),
+                    jwtProperty.getAudience(),
+                    jwtProperty.getChaveAtiva(),
+                    new ConfiguracaoChave(null, jwtProperty.getAlgoritmo(), jwtProperty.getSecret(),
+                            jwtProperty.getChavePrivada(), jwtProperty.getChavePublica(), null),
+                    chaves.stream()
+                            .map(chave -> new ConfiguracaoChave(chave.getKid(), chave.getAlgoritmo(), chave.getSecret(),
+                                    chave.getChavePrivada(), chave.getChavePublica(), chave.getAposentadaAte()))
+                            .toList());
+        }
+
+        /**
+         * Compara a cópia com as propriedades atuais sem alocar uma nova cópia, pois é executado a cada verificação de token.
+         * @param jwtProperty - Propriedades JWT atuais.
+         * @return true caso as propriedades sejam iguais à cópia, caso contrário, false.
+         */
+        boolean isIgualA(JwtProperty jwtProperty) {
+            List<ChaveJwtProperty> chavesAtuais = jwtProperty.getChaves() == null ? List.of() : jwtProperty.getChaves();
+            if(!Objects.equals(issuer, jwtProperty.getIssuer())
+                    || !Objects.equals(audience, jwtProperty.getAudience())
+                    || !Objects.equals(chaveAtiva, jwtProperty.getChaveAtiva())
+                    || !padrao.isIgualA(null, jwtProperty.getAlgoritmo(), jwtProperty.getSecret(),
+                            jwtProperty.getChavePrivada(), jwtProperty.getChavePublica(), null)
+                    || chaves.size() != chavesAtuais.size()) {
+                return false;
+            }
+
+            for(int i = 0; i < chaves.size(); i++) {
+                ChaveJwtProperty chave = chavesAtuais.get(i);
+                if(!chaves.get(i).isIgualA(chave.getKid(), chave.getAlgoritmo(), chave.getSecret(),
+                        chave.getChavePrivada(), chave.getChavePublica(), chave.getAposentadaAte())) {
+                    return false;
+                }
+            }
+
+            return true;
+        }
+    }
+
+    /**
+     * Cópia imutável das propriedades de uma chave.
+     */
+    private record ConfiguracaoChave(String kid, String algoritmo, String secret, String chavePrivada, String chavePublica,
+                                     Instant aposentadaAte) {
+
+        boolean isIgualA(String kid, String algoritmo, String secret, String chavePrivada, String chavePublica,
+                         Instant aposentadaAte) {
+            return Objects.equals(this.kid, kid)
+                    && Objects.equals(this.algoritmo, algoritmo)
+                    && Objects.equals(this.secret, secret)
+                    && Objects.equals(this.chavePrivada, chavePrivada)
+                    && Objects.equals(this.chavePublica, chavePublica)
+                    && Objects.equals(this.aposentadaAte, aposentadaAte);
+        }
+
+        boolean isConfigurada() {
+            return (secret != null && !secret.isBlank()) || (chavePrivada != null && !chavePrivada.isBlank());
+        }
+    }
+
+    /**
+     * Token verificado: payload e data até a qual a chave que o verificou aceita tokens, ou null caso a chave não esteja
+     * aposentada.
+     */
+    record TokenVerificado(Claims claims, Instant aposentadaAte) {
+    }
+}
@@ -0,0 +1,133 @@
+package com.vhp.autenticacao.api.configurations.security;
+
+import com.vhp.autenticacao.api.configurations.property.AutenticacaoProperty;
+import com.vhp.autenticacao.api.configurations.property.LimiteTentativasProperty;
+import com.vhp.autenticacao.api.configurations.property.LoginProperty;
+import com.vhp.autenticacao.api.document.Usuario;
+import com.vhp.autenticacao.api.exceptions.MuitasTentativasLoginException;
+import com.vhp.autenticacao.api.messages.MessageService;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.time.Clock;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Limita as tentativas de login que falham por email normalizado e por endereço do cliente em janela deslizante.
+ * Ao atingir o limite, as tentativas seguintes são recusadas antes da consulta ao usuário e da verificação da senha.
+ */
+@Component
+public class LimitadorTentativasLogin implements MeterBinder {
+
+    private final MessageService messageService;
+    private final Clock clock;
+    private final boolean habilitado;
+    private final JanelaDeslizante porEmail;
+    private final JanelaDeslizante porIp;
+
+    private final LongAdder tentativas = new LongAdder();
+    private final LongAdder rejeicoesEmail = new LongAdder();
+    private final LongAdder rejeicoesIp = new LongAdder();
+
+    @Autowired
+    public LimitadorTentativasLogin(AutenticacaoProperty autenticacaoProperty, MessageService messageService, Clock clock) {
+        this.messageService = messageService;
+        this.clock = clock;
+
+        LoginProperty loginProperty = autenticacaoProperty.getLogin();
+        this.habilitado = loginProperty.isLimitarTentativas();
+        this.porEmail = criarJanela(loginProperty.getEmail(), loginProperty.getSlots());
+        this.porIp = criarJanela(loginProperty.getIp(), loginProperty.getSlots());
+    }
+
+    /**
+     * Verifica se uma tentativa de login é permitida, sem contá-la. Apenas as tentativas que falham, registradas por
+     * {@link #registrarFalha(String, String)}, contam para o limite, de forma que logins bem sucedidos de clientes
+     * atrás de um mesmo endereço não bloqueiam os demais.
+     * @param email - Email informado no login.
+     * @param enderecoCliente - Endereço do cliente que fez a requisição.
+     * @throws MuitasTentativasLoginException Caso o limite de falhas do email ou do endereço tenha sido atingido.
+     */
+    public void verificarTentativa(String email, String enderecoCliente) {
+        if(!habilitado) {
+            return;
+        }
+
+        tentativas.increment();
+        long agora = clock.millis();
+
+        if(enderecoCliente != null) {
+            long espera = porIp.espera(enderecoCliente, agora);
+            if(espera > 0) {
+                rejeicoesIp.increment();
+                throw new MuitasTentativasLoginException(messageService, TimeUnit.MILLISECONDS.toSeconds(espera + 999));
+            }
+        }
+
+        if(email != null) {
+            long espera = porEmail.espera(Usuario.normalizarEmail(email), agora);
+            if(espera > 0) {
+                rejeicoesEmail.increment();
+                throw new MuitasTentativasLoginException(messageService, TimeUnit.MILLISECONDS.toSeconds(espera + 999));
+            }
+        }
+    }
+
+    /**
+     * Registra uma tentativa de login que falhou por credenciais inválidas.
+     * @param email - Email informado no login.
+     * @param enderecoCliente - Endereço do cliente que fez a requisição.
+     */
+    public void registrarFalha(String email, String enderecoCliente) {
+        if(!habilitado) {
+            return;
+        }
+
+        long agora = clock.millis();
+        if(enderecoCliente != null) {
+            porIp.registrar(enderecoCliente, agora);
+        }
+        if(email != null) {
+            porEmail.registrar(Usuario.normalizarEmail(email), agora);
+        }
+    }
+
+    /**
+     * Registra as métricas de tentativas e recusas de login.
+     * @param registry - Registro de métricas da aplicação.
+     */
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder("autenticacao.login.tentativas", tentativas, LongAdder::sum)
+                .description("Tentativas de login recebidas")
+                .register(registry);
+        FunctionCounter.builder("autenticacao.login.rejeicoes", rejeicoesEmail, LongAdder::sum)
+                .description("Tentativas de login recusadas por limite")
+                .tag("chave", "email")
+                .register(registry);
+        FunctionCounter.builder("autenticacao.login.rejeicoes", rejeicoesIp, LongAdder::sum)
+                .description("Tentativas de login recusadas por limite")
+                .tag("chave", "ip")
+                .register(registry);
+    }
+
+    long getTentativas() {
+        return tentativas.sum();
+    }
+
+    long getRejeicoesEmail() {
+        return rejeicoesEmail.sum();
+    }
+
+    long getRejeicoesIp() {
+        return rejeicoesIp.sum();
+    }
+
+    private static JanelaDeslizante criarJanela(LimiteTentativasProperty limite, int slots) {
+        return new JanelaDeslizante(limite.getTentativas(), TimeUnit.SECONDS.toMillis(limite.getJanelaSeconds()), slots);
+    }
+}
@@ -1,14 +1,17 @@
 package com.vhp.autenticacao.api.configurations.security;
 
+import com.vhp.autenticacao.api.configurations.property.AutenticacaoProperty;
+import com.vhp.autenticacao.api.messages.MessageService;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
-import org.springframework.security.crypto.password.PasswordEncoder;
 
 @Configuration
 public class PasswordEncoderConfiguration {
     @Bean
-    public PasswordEncoder getPasswordEncoder() {
-        return new BCryptPasswordEncoder();
+    public PasswordEncoderLimitado getPasswordEncoder(AutenticacaoProperty autenticacaoProperty, MessageService messageService) {
+        return new PasswordEncoderLimitado(
+                PasswordEncoderDelegado.criar(autenticacaoProperty.getSenha()),
+                autenticacaoProperty.getSenha().getExecutor(),
+                messageService);
     }
 }
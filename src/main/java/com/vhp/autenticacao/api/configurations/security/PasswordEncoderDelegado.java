@@ -0,0 +1,88 @@
+package com.vhp.autenticacao.api.configurations.security;
+
+import com.vhp.autenticacao.api.configurations.property.Argon2Property;
+import com.vhp.autenticacao.api.configurations.property.BcryptProperty;
+import com.vhp.autenticacao.api.configurations.property.Pbkdf2Property;
+import com.vhp.autenticacao.api.configurations.property.SenhaProperty;
+import org.springframework.security.crypto.argon2.Argon2PasswordEncoder;
+import org.springframework.security.crypto.password.DelegatingPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.security.crypto.password.Pbkdf2PasswordEncoder;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Cria o codificador de senhas que identifica o algoritmo pelo prefixo do hash armazenado ({@code {bcrypt}},
+ * {@code {argon2}} ou {@code {pbkdf2}}) e delega ao codificador correspondente.
+ * Novos hashes utilizam o algoritmo configurado em {@code autenticacao.senha.algoritmo}. Hashes sem prefixo são
+ * tratados como BCrypt. Hashes de outro algoritmo são refeitos no próximo login bem sucedido, assim como hashes BCrypt
+ * com custo menor que o atual e hashes Argon2 com memória ou iterações menores que as atuais, que são lidas do próprio
+ * hash. O hash PBKDF2 armazena apenas o salt e o resultado, sem as iterações ou o algoritmo usados: a alteração dos
+ * parâmetros do PBKDF2 não é detectada, e os hashes existentes passam a ser verificados com os novos parâmetros, sem
+ * sucesso. Por isso, os parâmetros do PBKDF2 não devem ser alterados enquanto houver hashes PBKDF2 armazenados.
+ */
+public final class PasswordEncoderDelegado {
+
+    public static final String BCRYPT = "bcrypt";
+
+    public static final String ARGON2 = "argon2";
+
+    public static final String PBKDF2 = "pbkdf2";
+
+    private PasswordEncoderDelegado() {
+    }
+
+    /**
+     * Cria o codificador de senhas delegado.
+     * @param senhaProperty - Propriedades de processamento de senhas.
+     * @return Codificador de senhas delegado.
+     * @throws IllegalStateException Caso o algoritmo configurado não seja suportado.
+     */
+    public static DelegatingPasswordEncoder criar(SenhaProperty senhaProperty) {
+        String algoritmo = senhaProperty.getAlgoritmo();
+        if(!BCRYPT.equals(algoritmo) && !ARGON2.equals(algoritmo) && !PBKDF2.equals(algoritmo)) {
+            throw new IllegalStateException(String.format("Algoritmo de senha %s não suportado.", algoritmo));
+        }
+
+        PasswordEncoder bcrypt = criarBcrypt(senhaProperty.getBcrypt(), BCRYPT.equals(algoritmo));
+
+        Map<String, PasswordEncoder> encoders = new HashMap<>();
+        encoders.put(BCRYPT, bcrypt);
+        encoders.put(ARGON2, criarArgon2(senhaProperty.getArgon2()));
+        encoders.put(PBKDF2, criarPbkdf2(senhaProperty.getPbkdf2()));
+
+        DelegatingPasswordEncoder passwordEncoder = new DelegatingPasswordEncoder(algoritmo, encoders);
+        passwordEncoder.setDefaultPasswordEncoderForMatches(bcrypt);
+        return passwordEncoder;
+    }
+
+    /**
+     * Cria o codificador BCrypt. A calibração do custo só é feita quando o BCrypt é o algoritmo de novos hashes,
+     * caso contrário ele é utilizado apenas para verificar hashes existentes.
+     */
+    private static BCryptPasswordEncoderCalibrado criarBcrypt(BcryptProperty bcryptProperty, boolean padrao) {
+        if(padrao) {
+            return BCryptPasswordEncoderCalibrado.calibrar(bcryptProperty);
+        }
+
+        Integer forca = bcryptProperty.getForca();
+        return new BCryptPasswordEncoderCalibrado(forca != null ? forca : bcryptProperty.getForcaMinima());
+    }
+
+    private static Argon2PasswordEncoder criarArgon2(Argon2Property argon2Property) {
+        return new Argon2PasswordEncoder(argon2Property.getTamanhoSalt(), argon2Property.getTamanhoHash(),
+                argon2Property.getParalelismo(), argon2Property.getMemoriaKb(), argon2Property.getIteracoes());
+    }
+
+    private static Pbkdf2PasswordEncoder criarPbkdf2(Pbkdf2Property pbkdf2Property) {
+        Pbkdf2PasswordEncoder.SecretKeyFactoryAlgorithm algoritmo;
+        try {
+            algoritmo = Pbkdf2PasswordEncoder.SecretKeyFactoryAlgorithm.valueOf(pbkdf2Property.getAlgoritmo());
+        } catch (IllegalArgumentException e) {
+            throw new IllegalStateException(String.format("Algoritmo PBKDF2 %s não suportado.", pbkdf2Property.getAlgoritmo()), e);
+        }
+
+        return new Pbkdf2PasswordEncoder("", pbkdf2Property.getTamanhoSalt(), pbkdf2Property.getIteracoes(), algoritmo);
+    }
+}
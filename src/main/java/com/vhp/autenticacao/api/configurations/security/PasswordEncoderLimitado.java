@@ -0,0 +1,206 @@
+package com.vhp.autenticacao.api.configurations.security;
+
+import com.vhp.autenticacao.api.configurations.property.ExecutorSenhaProperty;
+import com.vhp.autenticacao.api.exceptions.ServicoSobrecarregadoException;
+import com.vhp.autenticacao.api.messages.MessageService;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.FunctionTimer;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Codificador de senhas que executa o hash e a verificação em um pool de threads dedicado, com fila limitada,
+ * liberando as threads de requisição de trabalho intensivo de CPU.
+ * Quando a fila está cheia a operação é recusada imediatamente com {@link ServicoSobrecarregadoException} (503 com Retry-After).
+ */
+public class PasswordEncoderLimitado implements PasswordEncoder, MeterBinder, AutoCloseable {
+
+    private final PasswordEncoder delegate;
+    private final MessageService messageService;
+    private final int retryAfterSeconds;
+    private final ThreadPoolExecutor executor;
+
+    private final LongAdder execucoes = new LongAdder();
+    private final LongAdder tempoEsperaNanos = new LongAdder();
+    private final LongAdder rejeicoes = new LongAdder();
+
+    public PasswordEncoderLimitado(PasswordEncoder delegate, ExecutorSenhaProperty executorProperty, MessageService messageService) {
+        this.delegate = delegate;
+        this.messageService = messageService;
+        this.retryAfterSeconds = executorProperty.getRetryAfterSeconds();
+
+        int threads = Math.max(1, executorProperty.getThreads());
+        this.executor = new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(Math.max(1, executorProperty.getTamanhoFila())),
+                criarThreadFactory(), new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    @Override
+    public String encode(CharSequence rawPassword) {
+        return executar(() -> delegate.encode(rawPassword));
+    }
+
+    @Override
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        return executar(() -> delegate.matches(rawPassword, encodedPassword));
+    }
+
+    @Override
+    public boolean upgradeEncoding(String encodedPassword) {
+        return delegate.upgradeEncoding(encodedPassword);
+    }
+
+    /**
+     * Codifica várias senhas em paralelo no executor dedicado, mantendo no máximo uma operação pendente por thread do
+     * executor, para que a fila continue disponível para as demais requisições. Caso a fila esteja cheia, aguarda a
+     * conclusão de uma operação pendente antes de submeter a próxima.
+     * @param senhas - Senhas a serem codificadas.
+     * @return Senhas codificadas, na mesma ordem das senhas informadas.
+     * @throws ServicoSobrecarregadoException Caso a fila esteja cheia e não haja operações pendentes deste lote.
+     */
+    public List<String> encodeLote(List<? extends CharSequence> senhas) {
+        List<String> codificadas = new ArrayList<>(senhas.size());
+        Deque<Future<String>> pendentes = new ArrayDeque<>();
+        int maximoPendentes = executor.getMaximumPoolSize();
+
+        for(CharSequence senha : senhas) {
+            while(true) {
+                if(pendentes.size() >= maximoPendentes) {
+                    codificadas.add(aguardar(pendentes.removeFirst()));
+                }
+                try {
+                    pendentes.addLast(submeter(() -> delegate.encode(senha)));
+                    break;
+                } catch (RejectedExecutionException e) {
+                    if(pendentes.isEmpty()) {
+                        rejeicoes.increment();
+                        throw new ServicoSobrecarregadoException(messageService, retryAfterSeconds);
+                    }
+                    codificadas.add(aguardar(pendentes.removeFirst()));
+                }
+            }
+        }
+
+        while(!pendentes.isEmpty()) {
+            codificadas.add(aguardar(pendentes.removeFirst()));
+        }
+        return codificadas;
+    }
+
+    /**
+     * Registra as métricas de fila, espera e rejeições do executor.
+     * @param registry - Registro de métricas da aplicação.
+     */
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("autenticacao.senha.executor.fila", executor, e -> e.getQueue().size())
+                .description("Operações de senha aguardando execução")
+                .register(registry);
+        Gauge.builder("autenticacao.senha.executor.ativas", executor, ThreadPoolExecutor::getActiveCount)
+                .description("Operações de senha em execução")
+                .register(registry);
+        FunctionTimer.builder("autenticacao.senha.executor.espera", this,
+                        PasswordEncoderLimitado::getExecucoes, PasswordEncoderLimitado::getTempoEsperaNanos, TimeUnit.NANOSECONDS)
+                .description("Tempo de espera na fila das operações de senha")
+                .register(registry);
+        FunctionCounter.builder("autenticacao.senha.executor.rejeicoes", this, PasswordEncoderLimitado::getRejeicoes)
+                .description("Operações de senha recusadas por fila cheia")
+                .register(registry);
+    }
+
+    /**
+     * Encerra o executor, aguardando as operações em andamento.
+     */
+    @Override
+    public void close() {
+        executor.shutdown();
+    }
+
+    long getExecucoes() {
+        return execucoes.sum();
+    }
+
+    double getTempoEsperaNanos() {
+        return tempoEsperaNanos.sum();
+    }
+
+    long getRejeicoes() {
+        return rejeicoes.sum();
+    }
+
+    int getTamanhoFila() {
+        return executor.getQueue().size();
+    }
+
+    /**
+     * Executa operação no executor dedicado e aguarda seu resultado.
+     * @param operacao - Operação de hash ou verificação de senha.
+     * @return Resultado da operação.
+     * @throws ServicoSobrecarregadoException Caso a fila do executor esteja cheia.
+     */
+    private <T> T executar(Callable<T> operacao) {
+        Future<T> resultado;
+
+        try {
+            resultado = submeter(operacao);
+        } catch (RejectedExecutionException e) {
+            rejeicoes.increment();
+            throw new ServicoSobrecarregadoException(messageService, retryAfterSeconds);
+        }
+
+        return aguardar(resultado);
+    }
+
+    private <T> Future<T> submeter(Callable<T> operacao) {
+        long submissao = System.nanoTime();
+        return executor.submit(() -> {
+            tempoEsperaNanos.add(System.nanoTime() - submissao);
+            execucoes.increment();
+            return operacao.call();
+        });
+    }
+
+    private static <T> T aguardar(Future<T> resultado) {
+        try {
+            return resultado.get();
+        } catch (InterruptedException e) {
+            resultado.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Operação de senha interrompida.", e);
+        } catch (ExecutionException e) {
+            if(e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            if(e.getCause() instanceof Error error) {
+                throw error;
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    private static ThreadFactory criarThreadFactory() {
+        AtomicInteger contador = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, "senha-" + contador.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+}
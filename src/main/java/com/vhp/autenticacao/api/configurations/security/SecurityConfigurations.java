@@ -1,5 +1,6 @@
 package com.vhp.autenticacao.api.configurations.security;
 
+import com.vhp.autenticacao.api.document.Usuario;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -38,7 +39,8 @@ public class SecurityConfigurations {
                 .and()
                 .authorizeHttpRequests((requests) -> requests
                         .requestMatchers(SWAGGER_PATHS).permitAll()
-                        .requestMatchers("/oauth/**", "/usuarios/**").permitAll()
+                        .requestMatchers("/admin/**").hasRole(Usuario.PERFIL_ADMIN)
+                        .requestMatchers("/oauth/**", "/usuarios/**", "/.well-known/**").permitAll()
                         .anyRequest()
                         .authenticated()
                 )
@@ -0,0 +1,13 @@
+package com.vhp.autenticacao.api.configurations.security;
+
+/**
+ * Resultado da verificação de um token JWT.
+ */
+public enum StatusToken {
+    VALIDO,
+    AUSENTE,
+    MALFORMADO,
+    ASSINATURA_INVALIDA,
+    EXPIRADO,
+    CLAIMS_INVALIDAS
+}
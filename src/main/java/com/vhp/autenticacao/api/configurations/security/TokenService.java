@@ -1,37 +1,67 @@
 package com.vhp.autenticacao.api.configurations.security;
 
 import com.vhp.autenticacao.api.configurations.property.AutenticacaoProperty;
+import com.vhp.autenticacao.api.configurations.property.CacheTokenProperty;
 import com.vhp.autenticacao.api.configurations.property.JwtProperty;
+import com.vhp.autenticacao.api.controller.dto.JwksDTO;
 import com.vhp.autenticacao.api.document.Usuario;
+import io.jsonwebtoken.ClaimJwtException;
 import io.jsonwebtoken.Claims;
-import io.jsonwebtoken.Jws;
-import io.jsonwebtoken.Jwts;
-import io.jsonwebtoken.SignatureAlgorithm;
-import io.jsonwebtoken.impl.TextCodec;
+import io.jsonwebtoken.ExpiredJwtException;
+import io.jsonwebtoken.SignatureException;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.annotation.PostConstruct;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.stereotype.Service;
 
 import java.time.Clock;
 import java.time.Instant;
 import java.time.temporal.ChronoUnit;
-import java.util.Date;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.UUID;
 
 /**
  * Serviço para manipulação e geração de token JWT.
  */
 @Service
-public class TokenService {
+public class TokenService implements MeterBinder {
+
+    private static final String CLAIM_NOME = "name";
+    private static final String CLAIM_EMAIL = "email";
+    private static final String CLAIM_ATIVO = "ativo";
+    private static final String CLAIM_AUTHORITIES = "authorities";
+
     private final AutenticacaoProperty carteiraProperty;
 
     private final Clock clock;
 
+    private final CacheTokenVerificado cacheTokens = new CacheTokenVerificado();
+
+    private volatile JwtEngine engine;
+
     @Autowired
     public TokenService(AutenticacaoProperty carteiraProperty, Clock clock) {
         this.carteiraProperty = carteiraProperty;
         this.clock = clock;
     }
 
+    /**
+     * Constrói o motor de assinatura e verificação na inicialização da aplicação.
+     */
+    @PostConstruct
+    public void inicializar() {
+        getEngine();
+    }
+
     /**
      * Gera novo access token a partir de usuário.
      * @param usuarioLogado - Usuário utilizado para gerar access token.
@@ -43,7 +73,11 @@ public class TokenService {
         }
 
         JwtProperty jwtProperty = getJwtApplicationConfiguration();
-        return gerarToken(jwtProperty.getAccessTokenValiditySeconds(), usuarioLogado);
+        Map<String, Object> claimsPrincipal = jwtProperty.isPrincipalSemEstado()
+                ? getClaimsPrincipal(usuarioLogado)
+                : Collections.emptyMap();
+
+        return gerarToken(jwtProperty.getAccessTokenValiditySeconds(), usuarioLogado, claimsPrincipal);
     }
 
     /**
@@ -57,7 +91,141 @@ public class TokenService {
         }
 
         JwtProperty jwtProperty = getJwtApplicationConfiguration();
-        return gerarToken(jwtProperty.getRefreshTokenValiditySeconds(), usuarioLogado);
+        return gerarToken(jwtProperty.getRefreshTokenValiditySeconds(), usuarioLogado, Collections.emptyMap());
+    }
+
+    /**
+     * Verifica o token uma única vez, validando assinatura, issuer, audience, expiração e subject.
+     * @param token - Token a ser verificado.
+     * @return Resultado da verificação com o motivo da invalidação ou, caso válido, o id do usuário, a expiração e os
+     * valores do payload utilizados pela aplicação.
+     */
+    public ValidacaoToken verificarToken(String token) {
+        if(token == null || token.isBlank()) {
+            return ValidacaoToken.invalido(StatusToken.AUSENTE);
+        }
+
+        JwtEngine engine = getEngine();
+        CacheTokenProperty cacheProperty = getJwtApplicationConfiguration().getCache();
+        if(!cacheProperty.isHabilitado()) {
+            return verificarToken(engine, token).validacao();
+        }
+
+        Instant agora = Instant.now(clock);
+        ValidacaoToken validacao = cacheTokens.obter(token, engine.getGeracao(), agora);
+        if(validacao == null) {
+            Verificacao verificacao = verificarToken(engine, token);
+            validacao = verificacao.validacao();
+            cacheTokens.armazenar(token, engine.getGeracao(), validacao, verificacao.aposentadaAte(), agora,
+                    cacheProperty.getTamanhoMaximo());
+        }
+
+        return validacao;
+    }
+
+    /**
+     * Constrói o usuário autenticado a partir das claims de um access token já verificado, sem consulta ao banco de dados.
+     * @param validacao - Resultado da verificação do access token.
+     * @return Usuário com id, nome, email e estado presentes no token, ou null caso o modo de principal sem estado
+     * esteja desabilitado ou o token não possua as claims do principal.
+     */
+    public Usuario getUsuarioDasClaims(ValidacaoToken validacao) {
+        if(!getJwtApplicationConfiguration().isPrincipalSemEstado() || validacao.isInvalido()) {
+            return null;
+        }
+
+        if(validacao.getEmail() == null || validacao.getAtivo() == null) {
+            return null;
+        }
+
+        Usuario usuario = new Usuario();
+        usuario.setId(validacao.getIdUsuario());
+        usuario.setNome(validacao.getNome());
+        usuario.setEmail(validacao.getEmail());
+        usuario.setAtivo(validacao.getAtivo());
+        return usuario;
+    }
+
+    /**
+     * Obtém as permissões presentes nas claims de um access token já verificado.
+     * @param validacao - Resultado da verificação do access token.
+     * @return Permissões do usuário, ou lista vazia caso o token não possua permissões.
+     */
+    public List<GrantedAuthority> getAuthoritiesDasClaims(ValidacaoToken validacao) {
+        if(validacao.isInvalido()) {
+            return Collections.emptyList();
+        }
+
+        return validacao.getAuthorities().stream()
+                .map(authority -> (GrantedAuthority) new SimpleGrantedAuthority(authority))
+                .toList();
+    }
+
+    /**
+     * Obtém as chaves públicas de verificação de tokens no formato JWKS.
+     * Quando o algoritmo é simétrico (HS256) o conjunto de chaves é vazio.
+     * @return JWKS serializado e seu ETag.
+     */
+    public JwksDTO getJwks() {
+        return getEngine().getJwks();
+    }
+
+    /**
+     * Registra as métricas do cache de tokens verificados.
+     * @param registry - Registro de métricas da aplicação.
+     */
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder("autenticacao.jwt.cache.requisicoes", cacheTokens, CacheTokenVerificado::getAcertos)
+                .tag("resultado", "acerto")
+                .description("Verificações de token atendidas pelo cache")
+                .register(registry);
+        FunctionCounter.builder("autenticacao.jwt.cache.requisicoes", cacheTokens, CacheTokenVerificado::getFalhas)
+                .tag("resultado", "falha")
+                .description("Verificações de token não encontradas no cache")
+                .register(registry);
+        FunctionCounter.builder("autenticacao.jwt.cache.remocoes", cacheTokens, CacheTokenVerificado::getRemocoes)
+                .description("Tokens expirados removidos do cache")
+                .register(registry);
+        Gauge.builder("autenticacao.jwt.cache.tamanho", cacheTokens, CacheTokenVerificado::getTamanho)
+                .description("Tokens verificados presentes no cache")
+                .register(registry);
+    }
+
+    /**
+     * Verifica assinatura e payload do token com o motor informado.
+     * @param engine - Motor de verificação.
+     * @param token - Token a ser verificado.
+     * @return Resultado da verificação.
+     */
+    private Verificacao verificarToken(JwtEngine engine, String token) {
+        JwtEngine.TokenVerificado tokenVerificado;
+        try {
+            tokenVerificado = engine.verificar(token);
+        } catch (ExpiredJwtException e) {
+            return Verificacao.invalida(StatusToken.EXPIRADO);
+        } catch (SignatureException e) {
+            return Verificacao.invalida(StatusToken.ASSINATURA_INVALIDA);
+        } catch (ClaimJwtException e) {
+            return Verificacao.invalida(StatusToken.CLAIMS_INVALIDAS);
+        } catch (Exception e) {
+            return Verificacao.invalida(StatusToken.MALFORMADO);
+        }
+
+        Claims claims = tokenVerificado.claims();
+        UUID idUsuario = getUUID(claims.getSubject());
+        if(idUsuario == null) {
+            return Verificacao.invalida(StatusToken.CLAIMS_INVALIDAS);
+        }
+
+        Instant dataExpiracao = claims.getExpiration() != null ? claims.getExpiration().toInstant() : null;
+        List<String> authorities = claims.get(CLAIM_AUTHORITIES) instanceof List<?> lista
+                ? lista.stream().map(String::valueOf).toList()
+                : null;
+
+        return new Verificacao(ValidacaoToken.valido(idUsuario, dataExpiracao, claims.get(CLAIM_NOME, String.class),
+                claims.get(CLAIM_EMAIL, String.class), claims.get(CLAIM_ATIVO, Boolean.class), authorities),
+                tokenVerificado.aposentadaAte());
     }
 
     /**
@@ -66,16 +234,7 @@ public class TokenService {
      * @return false caso token seja vazio, null ou inválido, caso contrário, true.
      */
     public boolean isTokenValido(String token) {
-        try{
-            if(token == null || token.isBlank()) {
-                return false;
-            }
-
-            getJws(token);
-            return true;
-        }catch (Exception e) {
-            return false;
-        }
+        return verificarToken(token).isValido();
     }
 
     /**
@@ -93,57 +252,85 @@ public class TokenService {
      * @return Id do usuário.
      */
     public UUID getIdUsuario(String token) {
-        if(isTokenInvalido(token)) {
+        ValidacaoToken validacao = verificarToken(token);
+        if(validacao.isInvalido()) {
             throw new IllegalArgumentException("O token fornecido é inválido.");
         }
 
-        Claims claims = getJws(token).getBody();
-        return UUID.fromString(claims.getSubject());
+        return validacao.getIdUsuario();
     }
 
     /**
      * Gera novo token JWT.
      * @param validadeToken - Validade do token em segundos
      * @param usuarioLogado - Usuário atual
+     * @param claimsAdicionais - Claims adicionais do token
      * @return Token JWT.
      */
-    private String gerarToken(int validadeToken, Usuario usuarioLogado) {
-        JwtProperty jwtProperty = getJwtApplicationConfiguration();
+    private String gerarToken(int validadeToken, Usuario usuarioLogado, Map<String, Object> claimsAdicionais) {
         Instant hoje = Instant.now(clock);
         Instant dataExpiracao = hoje.plus(validadeToken, ChronoUnit.SECONDS);
 
-        return Jwts.builder()
-                .setIssuer(jwtProperty.getIssuer())
-                .setAudience(jwtProperty.getAudience())
-                .setSubject(usuarioLogado.getId().toString())
-                .claim("name", usuarioLogado.getNome())
-                .setIssuedAt(Date.from(hoje))
-                .setExpiration(Date.from(dataExpiracao))
-                .signWith(SignatureAlgorithm.HS256, getKey())
-                .compact();
+        return getEngine().gerarToken(usuarioLogado, hoje, dataExpiracao, claimsAdicionais);
     }
 
     /**
-     * Obtém payload do token JWT.
-     * @param token
-     * @return Payload do token JWT.
+     * Obtém as claims necessárias para construir o principal sem consulta ao banco de dados.
+     * @param usuario - Usuário autenticado.
+     * @return Claims de email, estado e permissões do usuário.
      */
-    private Jws<Claims> getJws(String token) {
-        JwtProperty jwtProperty = getJwtApplicationConfiguration();
-        return Jwts.parser()
-                .setSigningKey(getKey())
-                .requireAudience(jwtProperty.getAudience())
-                .requireIssuer(jwtProperty.getIssuer())
-                .parseClaimsJws(token);
+    private Map<String, Object> getClaimsPrincipal(Usuario usuario) {
+        Collection<? extends GrantedAuthority> authorities = usuario.getAuthorities();
+        List<String> nomesAuthorities = authorities == null
+                ? Collections.emptyList()
+                : authorities.stream().map(GrantedAuthority::getAuthority).toList();
+
+        Map<String, Object> claims = new LinkedHashMap<>();
+        claims.put(CLAIM_EMAIL, usuario.getEmail());
+        claims.put(CLAIM_ATIVO, usuario.isEnabled());
+        claims.put(CLAIM_AUTHORITIES, nomesAuthorities);
+        return claims;
+    }
+
+    /**
+     * Converte o subject do token em UUID.
+     * @param subject - Subject do token.
+     * @return Id do usuário, ou null caso o subject não seja um UUID.
+     */
+    private UUID getUUID(String subject) {
+        if(subject == null) {
+            return null;
+        }
+
+        try {
+            return UUID.fromString(subject);
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
     }
 
     /**
-     * Obtém chave de assinatura do token JWT.
-     * @return Chave de assinatura do token.
+     * Obtém motor de assinatura e verificação de tokens, reconstruindo-o apenas quando as propriedades JWT forem alteradas.
+     * As chaves aposentadas são declaradas na configuração ({@code aposentada_ate}) e não dependem do motor anterior.
+     * @return Motor de assinatura e verificação de tokens.
      */
-    private byte[] getKey() {
+    private JwtEngine getEngine() {
         JwtProperty jwtProperty = getJwtApplicationConfiguration();
-        return TextCodec.BASE64.decode(jwtProperty.getSecret());
+        JwtEngine atual = this.engine;
+
+        if(atual != null && atual.isConfiguradoPara(jwtProperty)) {
+            return atual;
+        }
+
+        synchronized (this) {
+            atual = this.engine;
+            if(atual == null || !atual.isConfiguradoPara(jwtProperty)) {
+                atual = new JwtEngine(jwtProperty, clock);
+                this.engine = atual;
+                cacheTokens.limpar();
+            }
+            return atual;
+        }
     }
 
     /**
@@ -153,4 +340,15 @@ public class TokenService {
     private JwtProperty getJwtApplicationConfiguration() {
         return this.carteiraProperty.getJwt();
     }
+
+    /**
+     * Resultado da verificação acompanhado da data de aposentadoria da chave que verificou o token, usada para limitar
+     * a permanência do resultado no cache.
+     */
+    private record Verificacao(ValidacaoToken validacao, Instant aposentadaAte) {
+
+        static Verificacao invalida(StatusToken status) {
+            return new Verificacao(ValidacaoToken.invalido(status), null);
+        }
+    }
 }
@@ -0,0 +1,81 @@
+package com.vhp.autenticacao.api.configurations.security;
+
+import lombok.Getter;
+
+import java.time.Instant;
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Resultado imutável da verificação de um token JWT, obtido com uma única verificação de assinatura e leitura do payload.
+ * Armazena apenas os valores do payload utilizados pela aplicação, copiados das claims, para que possa ser compartilhado
+ * entre requisições pelo cache de tokens verificados.
+ */
+@Getter
+public final class ValidacaoToken {
+
+    private final StatusToken status;
+    private final UUID idUsuario;
+    private final Instant dataExpiracao;
+    private final String nome;
+    private final String email;
+    private final Boolean ativo;
+    private final List<String> authorities;
+
+    private ValidacaoToken(StatusToken status, UUID idUsuario, Instant dataExpiracao, String nome, String email,
+                           Boolean ativo, List<String> authorities) {
+        this.status = status;
+        this.idUsuario = idUsuario;
+        this.dataExpiracao = dataExpiracao;
+        this.nome = nome;
+        this.email = email;
+        this.ativo = ativo;
+        this.authorities = authorities != null ? List.copyOf(authorities) : Collections.emptyList();
+    }
+
+    /**
+     * Cria resultado de token válido sem as claims do principal.
+     * @param idUsuario - Id do usuário presente no subject do token.
+     * @param dataExpiracao - Data de expiração do token.
+     * @return Resultado de token válido.
+     */
+    public static ValidacaoToken valido(UUID idUsuario, Instant dataExpiracao) {
+        return valido(idUsuario, dataExpiracao, null, null, null, null);
+    }
+
+    /**
+     * Cria resultado de token válido.
+     * @param idUsuario - Id do usuário presente no subject do token.
+     * @param dataExpiracao - Data de expiração do token.
+     * @param nome - Nome do usuário presente no token.
+     * @param email - Email do usuário presente no token, ou null caso ausente.
+     * @param ativo - Estado do usuário presente no token, ou null caso ausente.
+     * @param authorities - Permissões do usuário presentes no token, copiadas para uma lista imutável.
+     * @return Resultado de token válido.
+     */
+    public static ValidacaoToken valido(UUID idUsuario, Instant dataExpiracao, String nome, String email, Boolean ativo,
+                                        List<String> authorities) {
+        return new ValidacaoToken(StatusToken.VALIDO, idUsuario, dataExpiracao, nome, email, ativo, authorities);
+    }
+
+    /**
+     * Cria resultado de token inválido.
+     * @param status - Motivo da invalidação do token.
+     * @return Resultado de token inválido.
+     */
+    public static ValidacaoToken invalido(StatusToken status) {
+        if(status == null || status == StatusToken.VALIDO) {
+            throw new IllegalArgumentException("Um motivo de invalidação deve ser informado.");
+        }
+        return new ValidacaoToken(status, null, null, null, null, null, null);
+    }
+
+    public boolean isValido() {
+        return status == StatusToken.VALIDO;
+    }
+
+    public boolean isInvalido() {
+        return !isValido();
+    }
+}
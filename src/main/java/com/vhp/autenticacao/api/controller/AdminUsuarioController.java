@@ -0,0 +1,112 @@
+package com.vhp.autenticacao.api.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.vhp.autenticacao.api.controller.dto.PaginaUsuariosDTO;
+import com.vhp.autenticacao.api.controller.dto.ResumoImportacaoDTO;
+import com.vhp.autenticacao.api.service.ConsultaUsuarioService;
+import com.vhp.autenticacao.api.service.ImportacaoUsuarioService;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.i18n.LocaleContextHolder;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.Locale;
+
+/**
+ * Controller para recursos administrativos de usuários.
+ */
+@RestController
+@RequestMapping("/admin/usuarios")
+public class AdminUsuarioController {
+
+    private static final String TEXT_CSV_VALUE = "text/csv";
+
+    @Autowired
+    private ImportacaoUsuarioService importacaoUsuarioService;
+
+    @Autowired
+    private ConsultaUsuarioService consultaUsuarioService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    /**
+     * Lista os usuários por data de criação, com paginação por cursor.
+     */
+    @GetMapping
+    public ResponseEntity<PaginaUsuariosDTO> listar(@RequestParam(required = false) String cursor,
+                                                    @RequestParam(defaultValue = "50") int tamanho) {
+        return ResponseEntity.ok(consultaUsuarioService.listar(cursor, tamanho));
+    }
+
+    /**
+     * Exporta todos os usuários em NDJSON, um usuário por linha, à medida que são lidos do banco de dados.
+     */
+    @GetMapping(value = "exportacao", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> exportar() {
+        StreamingResponseBody corpo = saida -> {
+            consultaUsuarioService.exportar(usuario -> escrever(saida, usuario));
+            flush(saida);
+        };
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_NDJSON).body(corpo);
+    }
+
+    /**
+     * Importa usuários de um arquivo NDJSON ou CSV (colunas name, email e password). A resposta é enviada em NDJSON
+     * à medida que os lotes são processados: uma linha com o resultado de cada linha do arquivo, seguida dos totais
+     * da importação.
+     */
+    @PostMapping(value = "importacao", consumes = {MediaType.APPLICATION_NDJSON_VALUE, TEXT_CSV_VALUE},
+            produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> importar(@RequestHeader("Content-Type") MediaType contentType,
+                                                          HttpServletRequest request) throws IOException {
+        ImportacaoUsuarioService.Formato formato = MediaType.valueOf(TEXT_CSV_VALUE).includes(contentType)
+                ? ImportacaoUsuarioService.Formato.CSV
+                : ImportacaoUsuarioService.Formato.NDJSON;
+        ImportacaoUsuarioService.LeitorImportacao leitor = importacaoUsuarioService.abrir(request.getInputStream(), formato);
+        Locale locale = LocaleContextHolder.getLocale();
+
+        StreamingResponseBody corpo = saida -> {
+            LocaleContextHolder.setLocale(locale);
+            try {
+                ResumoImportacaoDTO resumo = importacaoUsuarioService.importar(leitor, resultados -> {
+                    resultados.forEach(resultado -> escrever(saida, resultado));
+                    flush(saida);
+                });
+                escrever(saida, resumo);
+                flush(saida);
+            } finally {
+                LocaleContextHolder.resetLocaleContext();
+            }
+        };
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_NDJSON).body(corpo);
+    }
+
+    private void escrever(OutputStream saida, Object valor) {
+        try {
+            saida.write(objectMapper.writeValueAsBytes(valor));
+            saida.write('\n');
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static void flush(OutputStream saida) {
+        try {
+            saida.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
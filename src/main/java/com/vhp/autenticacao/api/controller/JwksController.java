@@ -0,0 +1,43 @@
+package com.vhp.autenticacao.api.controller;
+
+import com.vhp.autenticacao.api.configurations.security.TokenService;
+import com.vhp.autenticacao.api.controller.dto.JwksDTO;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Controller de publicação das chaves públicas de verificação de tokens.
+ */
+@RestController
+public class JwksController {
+
+    private static final CacheControl CACHE_CONTROL = CacheControl.maxAge(5, TimeUnit.MINUTES).cachePublic();
+
+    @Autowired
+    private TokenService tokenService;
+
+    @GetMapping(value = "/.well-known/jwks.json", produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<String> obterJwks(WebRequest request) {
+        JwksDTO jwks = tokenService.getJwks();
+
+        if(request.checkNotModified(jwks.getEtag())) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                    .eTag(jwks.getEtag())
+                    .cacheControl(CACHE_CONTROL)
+                    .build();
+        }
+
+        return ResponseEntity.ok()
+                .eTag(jwks.getEtag())
+                .cacheControl(CACHE_CONTROL)
+                .body(jwks.getJson());
+    }
+}
@@ -0,0 +1,17 @@
+package com.vhp.autenticacao.api.controller.dto;
+
+import lombok.Getter;
+
+/**
+ * Conjunto de chaves públicas (JWKS) serializado, com seu ETag.
+ */
+@Getter
+public class JwksDTO {
+    private String json;
+    private String etag;
+
+    public JwksDTO(String json, String etag) {
+        this.json = json;
+        this.etag = etag;
+    }
+}
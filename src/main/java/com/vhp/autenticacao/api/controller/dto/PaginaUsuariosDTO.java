@@ -0,0 +1,20 @@
+package com.vhp.autenticacao.api.controller.dto;
+
+import lombok.Getter;
+
+import java.util.List;
+
+/**
+ * Página da listagem de usuários. O cursor {@code proxima} deve ser informado para obter a página seguinte e é nulo
+ * na última página.
+ */
+@Getter
+public class PaginaUsuariosDTO {
+    private final List<UsuarioDTO> usuarios;
+    private final String proxima;
+
+    public PaginaUsuariosDTO(List<UsuarioDTO> usuarios, String proxima) {
+        this.usuarios = usuarios;
+        this.proxima = proxima;
+    }
+}
@@ -0,0 +1,26 @@
+package com.vhp.autenticacao.api.controller.dto;
+
+import lombok.Getter;
+
+/**
+ * Resultado da importação de uma linha do arquivo de usuários.
+ */
+@Getter
+public class ResultadoImportacaoDTO {
+
+    public enum Status {
+        CRIADO, DUPLICADO, INVALIDO, FALHA
+    }
+
+    private final long linha;
+    private final String email;
+    private final Status status;
+    private final String mensagem;
+
+    public ResultadoImportacaoDTO(long linha, String email, Status status, String mensagem) {
+        this.linha = linha;
+        this.email = email;
+        this.status = status;
+        this.mensagem = mensagem;
+    }
+}
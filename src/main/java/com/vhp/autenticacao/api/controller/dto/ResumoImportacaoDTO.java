@@ -0,0 +1,27 @@
+package com.vhp.autenticacao.api.controller.dto;
+
+import lombok.Getter;
+
+/**
+ * Totais da importação de usuários, enviados após o resultado da última linha.
+ */
+@Getter
+public class ResumoImportacaoDTO {
+    private final long linhas;
+    private final long criados;
+    private final long duplicados;
+    private final long invalidos;
+    private final long falhas;
+    private final long duracaoMillis;
+    private final long linhasPorSegundo;
+
+    public ResumoImportacaoDTO(long linhas, long criados, long duplicados, long invalidos, long falhas, long duracaoMillis) {
+        this.linhas = linhas;
+        this.criados = criados;
+        this.duplicados = duplicados;
+        this.invalidos = invalidos;
+        this.falhas = falhas;
+        this.duracaoMillis = duracaoMillis;
+        this.linhasPorSegundo = duracaoMillis == 0 ? linhas * 1000 : linhas * 1000 / duracaoMillis;
+    }
+}
@@ -0,0 +1,30 @@
+package com.vhp.autenticacao.api.controller.dto;
+
+import com.vhp.autenticacao.api.document.Usuario;
+import lombok.Getter;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Dados públicos do usuário, sem o hash da senha.
+ */
+@Getter
+public class UsuarioDTO {
+    private final UUID id;
+    private final String nome;
+    private final String email;
+    private final boolean ativo;
+    private final LocalDateTime dataCriacao;
+    private final List<String> perfis;
+
+    public UsuarioDTO(Usuario usuario) {
+        this.id = usuario.getId();
+        this.nome = usuario.getNome();
+        this.email = usuario.getEmail();
+        this.ativo = usuario.isAtivo();
+        this.dataCriacao = usuario.getDataCriacao();
+        this.perfis = usuario.getPerfis() == null ? List.of() : usuario.getPerfis();
+    }
+}
@@ -4,17 +4,21 @@ import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
 import org.bson.types.ObjectId;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
 import org.springframework.data.mongodb.core.index.Indexed;
 import org.springframework.data.mongodb.core.mapping.Document;
 import org.springframework.data.mongodb.core.mapping.MongoId;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
 
 @Getter
 @Setter
 @NoArgsConstructor
 @Document("email")
+@CompoundIndex(name = "status_dataCriacao_id", def = "{ 'status': 1, 'dataCriacao': 1, '_id': 1 }")
+@CompoundIndex(name = "status_proximaTentativa_dataCriacao_id", def = "{ 'status': 1, 'proximaTentativa': 1, 'dataCriacao': 1, '_id': 1 }")
 public class EmailDocument {
 
     @MongoId
@@ -24,14 +28,64 @@ public class EmailDocument {
     private List<String> destinatarios;
     private String assunto;
     private String corpo;
+
+    /**
+     * Template do corpo do email, renderizado no envio com {@link #locale} e {@link #variaveis}. Emails sem template
+     * possuem o corpo já renderizado em {@link #corpo}.
+     */
+    private String template;
+
+    /**
+     * Idioma do template (language tag).
+     */
+    private String locale;
+
+    /**
+     * Variáveis do template.
+     */
+    private Map<String, String> variaveis;
     private LocalDateTime dataCriacao;
     private LocalDateTime dataProcessamento;
 
-    @Indexed(unique = false)
     private EmailStatus status;
 
     private String mensagemErro;
 
+    /**
+     * Número de tentativas de envio já realizadas.
+     */
+    private int tentativas;
+
+    /**
+     * Momento a partir do qual o email pode ser enviado, adiado a cada tentativa com erro transitório.
+     */
+    private LocalDateTime proximaTentativa;
+
+    /**
+     * Instância da aplicação que reservou o email para envio.
+     */
+    private String responsavel;
+
+    /**
+     * Identificador da reserva que incluiu o email, utilizado para buscar os emails reservados.
+     */
+    @Indexed(sparse = true)
+    private String reserva;
+
+    /**
+     * Momento a partir do qual a reserva expira e o email pode ser reservado por outra instância.
+     */
+    private LocalDateTime expiracaoReserva;
+
+    /**
+     * Remove a reserva do email, ao final do seu processamento.
+     */
+    public void liberarReserva() {
+        responsavel = null;
+        reserva = null;
+        expiracaoReserva = null;
+    }
+
     public void setDestinatario(String destinatario) {
         destinatarios = List.of(destinatario);
     }
@@ -2,6 +2,14 @@ package com.vhp.autenticacao.api.document;
 
 public enum EmailStatus {
     NAO_PROCESSADO,
+    EM_PROCESSAMENTO,
     PROCESSADO,
-    ERRO
+    /**
+     * Envio recusado por erro permanente, como destinatário inexistente, sem novas tentativas.
+     */
+    ERRO,
+    /**
+     * Envio abandonado após esgotar as tentativas por erros transitórios.
+     */
+    DESCARTADO
 }
@@ -4,15 +4,21 @@ import lombok.AllArgsConstructor;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
 import org.springframework.data.mongodb.core.index.Indexed;
 import org.springframework.data.mongodb.core.mapping.Document;
 import org.springframework.data.mongodb.core.mapping.Field;
 import org.springframework.data.mongodb.core.mapping.MongoId;
 import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
 import java.util.UUID;
 
 @Getter
@@ -20,8 +26,11 @@ import java.util.UUID;
 @AllArgsConstructor
 @NoArgsConstructor
 @Document("usuarios")
+@CompoundIndex(name = "dataCriacao_id", def = "{ 'dataCriacao': 1, '_id': 1 }")
 public class Usuario implements UserDetails {
 
+    public static final String PERFIL_ADMIN = "ADMIN";
+
     @MongoId
     @Field("_id")
     private UUID id;
@@ -31,15 +40,29 @@ public class Usuario implements UserDetails {
     @Indexed(unique = true)
     private String email;
 
+    /**
+     * Email em minúsculas e sem espaços nas extremidades, utilizado nas buscas por email. Mantido pelo
+     * {@link com.vhp.autenticacao.api.document.listeners.UsuarioDocumentEventListener}.
+     */
+    @Indexed(unique = true, sparse = true)
+    private String emailNormalizado;
+
     private String senha;
 
     private boolean ativo = true;
 
     private LocalDateTime dataCriacao = LocalDateTime.now();
 
+    private List<String> perfis = new ArrayList<>();
+
     @Override
     public Collection<? extends GrantedAuthority> getAuthorities() {
-        return null;
+        if(perfis == null) {
+            return Collections.emptyList();
+        }
+        return perfis.stream()
+                .map(perfil -> new SimpleGrantedAuthority("ROLE_" + perfil))
+                .toList();
     }
 
     @Override
@@ -72,4 +95,12 @@ public class Usuario implements UserDetails {
         return ativo;
     }
 
+    /**
+     * Normaliza email para comparação, removendo espaços nas extremidades e convertendo para minúsculas.
+     * @param email - Email a ser normalizado.
+     * @return Email normalizado, ou null caso o email seja null.
+     */
+    public static String normalizarEmail(String email) {
+        return email != null ? email.strip().toLowerCase(Locale.ROOT) : null;
+    }
 }
@@ -0,0 +1,57 @@
+package com.vhp.autenticacao.api.document;
+
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Gerador de UUID versão 7 (RFC 9562), ordenado pelo instante de criação.
+ * <p>
+ * Os 48 bits iniciais contêm o timestamp Unix em milissegundos, de modo que novos ids são inseridos ao final do índice
+ * {@code _id}, mantendo a localidade de escrita. Os 12 bits seguintes ({@code rand_a}) são um contador iniciado com
+ * valor aleatório a cada milissegundo, garantindo ids crescentes na mesma thread, e os 62 bits finais são aleatórios.
+ * A aleatoriedade vem de {@link ThreadLocalRandom}, sem contenção entre threads. Os ids não são secretos, por isso não
+ * é utilizado gerador criptográfico.
+ */
+public final class UuidV7 {
+
+    private static final int MAXIMO_CONTADOR = 0xFFF;
+
+    private static final ThreadLocal<Estado> ESTADO = ThreadLocal.withInitial(Estado::new);
+
+    private UuidV7() {
+    }
+
+    /**
+     * Gera novo UUID versão 7 para o instante atual.
+     * @return UUID versão 7.
+     */
+    public static UUID gerar() {
+        return gerar(System.currentTimeMillis());
+    }
+
+    static UUID gerar(long agoraMillis) {
+        Estado estado = ESTADO.get();
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+
+        if(agoraMillis > estado.ultimoMillis) {
+            estado.ultimoMillis = agoraMillis;
+            // Inicia na metade inferior para deixar espaço para incrementos no mesmo milissegundo
+            estado.contador = random.nextInt(MAXIMO_CONTADOR / 2);
+        } else if(estado.contador < MAXIMO_CONTADOR) {
+            estado.contador++;
+        } else {
+            // Contador esgotado ou relógio retrocedeu: avança o timestamp para manter a ordem
+            estado.ultimoMillis++;
+            estado.contador = 0;
+        }
+
+        long maisSignificativos = (estado.ultimoMillis << 16) | 0x7000L | estado.contador;
+        long menosSignificativos = (random.nextLong() & 0x3FFFFFFFFFFFFFFFL) | 0x8000000000000000L;
+        return new UUID(maisSignificativos, menosSignificativos);
+    }
+
+    private static final class Estado {
+        private long ultimoMillis = -1;
+        private int contador;
+    }
+}
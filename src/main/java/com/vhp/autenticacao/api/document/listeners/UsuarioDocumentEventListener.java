@@ -1,13 +1,12 @@
 package com.vhp.autenticacao.api.document.listeners;
 
 import com.vhp.autenticacao.api.document.Usuario;
+import com.vhp.autenticacao.api.document.UuidV7;
 import org.springframework.data.mongodb.core.mapping.event.AbstractMongoEventListener;
 import org.springframework.data.mongodb.core.mapping.event.BeforeConvertEvent;
 
-import java.util.UUID;
-
 /**
- * Listener para geração de chave UUID antes de inserir registro no banco MongoDB.
+ * Listener para geração de chave UUID (versão 7, ordenada por tempo) e do email normalizado antes de gravar registro no banco MongoDB.
  */
 public class UsuarioDocumentEventListener extends AbstractMongoEventListener<Usuario> {
 
@@ -17,7 +16,9 @@ public class UsuarioDocumentEventListener extends AbstractMongoEventListener<Usu
         Usuario entity = event.getSource();
 
         if (entity.getId() == null) {
-            entity.setId(UUID.randomUUID());
+            entity.setId(UuidV7.gerar());
         }
+
+        entity.setEmailNormalizado(Usuario.normalizarEmail(entity.getEmail()));
     }
 }
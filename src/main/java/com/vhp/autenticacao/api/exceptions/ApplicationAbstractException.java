@@ -2,6 +2,7 @@ package com.vhp.autenticacao.api.exceptions;
 
 import com.vhp.autenticacao.api.exceptionshandler.ApplicationExceptionMessage;
 import com.vhp.autenticacao.api.messages.MessageService;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 
 import java.util.ArrayList;
@@ -14,6 +15,7 @@ public abstract class ApplicationAbstractException extends RuntimeException impl
 
     private List<ApplicationExceptionMessage> mensagens = new ArrayList<>();
     private HttpStatus status = HttpStatus.BAD_REQUEST;
+    private final HttpHeaders headers = new HttpHeaders();
 
     private MessageService messageService;
 
@@ -34,6 +36,10 @@ public abstract class ApplicationAbstractException extends RuntimeException impl
         }
     }
 
+    public void addHeader(String nome, String valor) {
+        headers.add(nome, valor);
+    }
+
     @Override
     public List<ApplicationExceptionMessage> getMensagens() {
         return mensagens;
@@ -43,4 +49,9 @@ public abstract class ApplicationAbstractException extends RuntimeException impl
     public HttpStatus getHttpStatusCode() {
         return status;
     }
+
+    @Override
+    public HttpHeaders getHeaders() {
+        return headers;
+    }
 }
@@ -1,6 +1,7 @@
 package com.vhp.autenticacao.api.exceptions;
 
 import com.vhp.autenticacao.api.exceptionshandler.ApplicationExceptionMessage;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 
 import java.util.List;
@@ -8,4 +9,5 @@ import java.util.List;
 public interface ApplicationException {
     List<ApplicationExceptionMessage> getMensagens();
     HttpStatus getHttpStatusCode();
+    HttpHeaders getHeaders();
 }
@@ -0,0 +1,13 @@
+package com.vhp.autenticacao.api.exceptions;
+
+import com.vhp.autenticacao.api.messages.MessageService;
+import org.springframework.http.HttpStatus;
+
+public class ArquivoImportacaoInvalidoException extends ApplicationAbstractException {
+
+    public ArquivoImportacaoInvalidoException(MessageService messageService) {
+        super(messageService);
+        addMensagem("error.cabecalho-importacao-invalido");
+        setStatus(HttpStatus.BAD_REQUEST);
+    }
+}
@@ -0,0 +1,13 @@
+package com.vhp.autenticacao.api.exceptions;
+
+import com.vhp.autenticacao.api.messages.MessageService;
+import org.springframework.http.HttpStatus;
+
+public class CursorPaginacaoInvalidoException extends ApplicationAbstractException {
+
+    public CursorPaginacaoInvalidoException(MessageService messageService) {
+        super(messageService);
+        addMensagem("error.cursor-paginacao-invalido");
+        setStatus(HttpStatus.BAD_REQUEST);
+    }
+}
@@ -0,0 +1,14 @@
+package com.vhp.autenticacao.api.exceptions;
+
+import com.vhp.autenticacao.api.messages.MessageService;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+
+public class MuitasTentativasLoginException extends ApplicationAbstractException{
+    public MuitasTentativasLoginException(MessageService messageService, long retryAfterSeconds) {
+        super(messageService);
+        addMensagem("error.muitas-tentativas-login");
+        addHeader(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfterSeconds));
+        setStatus(HttpStatus.TOO_MANY_REQUESTS);
+    }
+}
@@ -0,0 +1,14 @@
+package com.vhp.autenticacao.api.exceptions;
+
+import com.vhp.autenticacao.api.messages.MessageService;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+
+public class ServicoSobrecarregadoException extends ApplicationAbstractException{
+    public ServicoSobrecarregadoException(MessageService messageService, int retryAfterSeconds) {
+        super(messageService);
+        addMensagem("error.servico-sobrecarregado");
+        addHeader(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfterSeconds));
+        setStatus(HttpStatus.SERVICE_UNAVAILABLE);
+    }
+}
@@ -15,6 +15,7 @@ public class ApplicationExceptionHandler {
     public ResponseEntity<List<ApplicationExceptionMessage>> handleException(ApplicationException ex) {
         return ResponseEntity
                 .status(ex.getHttpStatusCode())
+                .headers(ex.getHeaders())
                 .body(ex.getMensagens());
     }
 }
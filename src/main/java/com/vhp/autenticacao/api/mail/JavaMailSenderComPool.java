@@ -0,0 +1,186 @@
+package com.vhp.autenticacao.api.mail;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.mail.MessagingException;
+import jakarta.mail.Transport;
+import jakarta.mail.internet.MimeMessage;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.mail.MailException;
+import org.springframework.mail.MailSendException;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.BlockingDeque;
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * {@link JavaMailSenderImpl} que mantém um pool limitado de conexões SMTP já autenticadas, reutilizadas entre os envios,
+ * evitando a abertura de conexão, o STARTTLS e a autenticação a cada email. Pode ser utilizado por várias threads ao
+ * mesmo tempo, cada uma com a sua conexão, até o limite de conexões do pool.
+ * Conexões ociosas por mais tempo que o configurado são verificadas antes do uso, e conexões que falham durante o envio
+ * são descartadas e substituídas.
+ * <p>
+ * Uma mensagem é transmitida no máximo uma vez por chamada: apenas falhas anteriores à transmissão (conexão ociosa
+ * encerrada pelo servidor, detectada na verificação, ou falha ao abrir a conexão) levam ao uso de outra conexão. Uma
+ * falha durante a transmissão é devolvida ao chamador sem repetição, já que o servidor pode ter aceitado a mensagem
+ * antes de a conexão ser perdida; a nova tentativa fica a cargo do agendador de envio, com intervalo entre tentativas.
+ * Como a resposta do servidor pode ser perdida após a aceitação, a entrega é garantida ao menos uma vez, e não
+ * exatamente uma vez.
+ */
+public class JavaMailSenderComPool extends JavaMailSenderImpl implements MeterBinder, AutoCloseable {
+
+    private final Logger logger = LoggerFactory.getLogger(JavaMailSenderComPool.class);
+
+    private final Semaphore conexoesDisponiveis;
+    private final BlockingDeque<ConexaoSmtp> ociosas = new LinkedBlockingDeque<>();
+    private final long validacaoConexaoOciosaMillis;
+
+    private final LongAdder conexoesAbertas = new LongAdder();
+    private final LongAdder conexoesDescartadas = new LongAdder();
+
+    public JavaMailSenderComPool(int conexoes, long validacaoConexaoOciosaMillis) {
+        this.conexoesDisponiveis = new Semaphore(Math.max(1, conexoes), true);
+        this.validacaoConexaoOciosaMillis = validacaoConexaoOciosaMillis;
+    }
+
+    @Override
+    protected void doSend(MimeMessage[] mimeMessages, Object[] originalMessages) throws MailException {
+        Map<Object, Exception> falhas = new LinkedHashMap<>();
+
+        for(int i = 0; i < mimeMessages.length; i++) {
+            try {
+                enviar(mimeMessages[i]);
+            } catch (MessagingException e) {
+                falhas.put(originalMessages != null ? originalMessages[i] : mimeMessages[i], e);
+            }
+        }
+
+        if(!falhas.isEmpty()) {
+            throw new MailSendException(falhas);
+        }
+    }
+
+    /**
+     * Envia a mensagem por uma conexão do pool, aguardando uma conexão disponível caso todas estejam em uso.
+     * Caso o envio falhe e a conexão continue aberta (mensagem recusada pelo servidor), a conexão é devolvida ao pool;
+     * caso a conexão tenha sido perdida, ela é descartada. Em ambos os casos o envio não é repetido.
+     * @param mensagem - Mensagem a ser enviada.
+     * @throws MessagingException Caso a conexão ou o envio falhe.
+     */
+    private void enviar(MimeMessage mensagem) throws MessagingException {
+        if(mensagem.getSentDate() == null) {
+            mensagem.setSentDate(new Date());
+        }
+        mensagem.saveChanges();
+
+        try {
+            conexoesDisponiveis.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new MessagingException("Envio de email interrompido.", e);
+        }
+
+        try {
+            ConexaoSmtp conexao = obterConexao();
+            try {
+                conexao.transport().sendMessage(mensagem, mensagem.getAllRecipients());
+            } catch (MessagingException e) {
+                if(conexao.transport().isConnected()) {
+                    devolver(conexao);
+                } else {
+                    descartar(conexao);
+                }
+                throw e;
+            }
+            devolver(conexao);
+        } finally {
+            conexoesDisponiveis.release();
+        }
+    }
+
+    /**
+     * Obtém a conexão ociosa usada mais recentemente, verificando-a caso esteja ociosa há mais tempo que o configurado,
+     * ou abre uma nova conexão.
+     */
+    private ConexaoSmtp obterConexao() throws MessagingException {
+        ConexaoSmtp conexao;
+        while((conexao = ociosas.pollFirst()) != null) {
+            boolean validar = System.currentTimeMillis() - conexao.ultimoUsoMillis() > validacaoConexaoOciosaMillis;
+            if(!validar || conexao.transport().isConnected()) {
+                return conexao;
+            }
+            descartar(conexao);
+        }
+        return conectar();
+    }
+
+    private ConexaoSmtp conectar() throws MessagingException {
+        Transport transport = connectTransport();
+        conexoesAbertas.increment();
+        return new ConexaoSmtp(transport, System.currentTimeMillis());
+    }
+
+    private void devolver(ConexaoSmtp conexao) {
+        ociosas.offerFirst(new ConexaoSmtp(conexao.transport(), System.currentTimeMillis()));
+    }
+
+    private void descartar(ConexaoSmtp conexao) {
+        conexoesDescartadas.increment();
+        try {
+            conexao.transport().close();
+        } catch (MessagingException e) {
+            logger.debug("Falha ao encerrar conexão SMTP descartada.", e);
+        }
+    }
+
+    /**
+     * Registra as métricas de conexões SMTP do pool.
+     * @param registry - Registro de métricas da aplicação.
+     */
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("autenticacao.email.smtp.conexoes.ociosas", ociosas, BlockingDeque::size)
+                .description("Conexões SMTP abertas aguardando envio")
+                .register(registry);
+        FunctionCounter.builder("autenticacao.email.smtp.conexoes.abertas", conexoesAbertas, LongAdder::sum)
+                .description("Conexões SMTP abertas")
+                .register(registry);
+        FunctionCounter.builder("autenticacao.email.smtp.conexoes.descartadas", conexoesDescartadas, LongAdder::sum)
+                .description("Conexões SMTP encerradas por falha ou inatividade")
+                .register(registry);
+    }
+
+    /**
+     * Encerra as conexões ociosas do pool.
+     */
+    @Override
+    public void close() {
+        ConexaoSmtp conexao;
+        while((conexao = ociosas.pollFirst()) != null) {
+            try {
+                conexao.transport().close();
+            } catch (MessagingException e) {
+                logger.debug("Falha ao encerrar conexão SMTP.", e);
+            }
+        }
+    }
+
+    long getConexoesAbertas() {
+        return conexoesAbertas.sum();
+    }
+
+    long getConexoesDescartadas() {
+        return conexoesDescartadas.sum();
+    }
+
+    private record ConexaoSmtp(Transport transport, long ultimoUsoMillis) {
+    }
+}
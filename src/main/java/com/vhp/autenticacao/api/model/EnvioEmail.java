@@ -6,6 +6,7 @@ import lombok.Setter;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 
 @Getter
 @Setter
@@ -13,6 +14,9 @@ public class EnvioEmail {
 
     private String assunto;
     private String corpo;
+    private String template;
+    private String locale;
+    private Map<String, String> variaveis;
     private List<String> destinatarios = new ArrayList<>();
 
     public void setDestinatario(String destinatario) {
@@ -3,18 +3,25 @@ package com.vhp.autenticacao.api.repository;
 import com.vhp.autenticacao.api.document.EmailDocument;
 import com.vhp.autenticacao.api.document.EmailStatus;
 import org.bson.types.ObjectId;
-import org.springframework.data.mongodb.repository.Aggregation;
 import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.data.mongodb.repository.Query;
+import org.springframework.data.mongodb.repository.Update;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 public interface EmailRepository extends MongoRepository<EmailDocument, ObjectId>{
 
-    @Aggregation(pipeline = {
-        "{ '$match': { 'status': ?0 } }",
-        "{ '$sort': { 'dataCriacao': 1 } }",
-        "{ '$skip': ?1 }",
-        "{ '$limit': ?2 }"
-    })
-    List<EmailDocument> findByStatus(EmailStatus status, int skip, int limit);
+    long countByStatus(EmailStatus status);
+
+    /**
+     * Reserva, em uma única atualização, os emails informados que continuam disponíveis. Emails reservados por outra
+     * instância entre a busca e a reserva não são alterados.
+     * @return Número de emails reservados.
+     */
+    @Query("{ _id: { $in: ?0 }, $or: [ { status: 'NAO_PROCESSADO', proximaTentativa: { $not: { $gt: ?1 } } }, { status: 'EM_PROCESSAMENTO', expiracaoReserva: { $lt: ?1 } } ] }")
+    @Update("{ $set: { status: 'EM_PROCESSAMENTO', responsavel: ?2, reserva: ?3, expiracaoReserva: ?4 } }")
+    long reservar(List<ObjectId> ids, LocalDateTime agora, String responsavel, String reserva, LocalDateTime expiracaoReserva);
+
+    List<EmailDocument> findByReservaOrderByDataCriacao(String reserva);
 }
@@ -0,0 +1,8 @@
+package com.vhp.autenticacao.api.repository;
+
+/**
+ * Projeção do usuário contendo apenas o email.
+ */
+public interface EmailUsuario {
+    String getEmail();
+}
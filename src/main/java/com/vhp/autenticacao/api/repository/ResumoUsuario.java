@@ -0,0 +1,12 @@
+package com.vhp.autenticacao.api.repository;
+
+import java.util.UUID;
+
+/**
+ * Projeção do usuário contendo apenas id, nome e email, sem o hash da senha.
+ */
+public interface ResumoUsuario {
+    UUID getId();
+    String getNome();
+    String getEmail();
+}
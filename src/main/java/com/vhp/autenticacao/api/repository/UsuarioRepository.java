@@ -3,12 +3,65 @@ package com.vhp.autenticacao.api.repository;
 import com.vhp.autenticacao.api.document.Usuario;
 import org.springframework.data.mongodb.repository.MongoRepository;
 import org.springframework.data.mongodb.repository.Query;
+import org.springframework.data.mongodb.repository.Update;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.stream.Stream;
 
+/**
+ * Repositório de usuários. As buscas por email utilizam o email normalizado ({@link Usuario#normalizarEmail(String)}),
+ * não diferenciando maiúsculas e minúsculas.
+ */
 public interface UsuarioRepository extends MongoRepository<Usuario, UUID> {
 
-    @Query("{ email: '?0' }")
-    Optional<Usuario> findByEmail(String email);
+    @Query("{ emailNormalizado: ?0 }")
+    Optional<Usuario> findByEmailNormalizado(String emailNormalizado);
+
+    /**
+     * Busca apenas o email normalizado, sem o campo _id, para que a consulta seja respondida somente pelo índice
+     * (covered query), sem leitura do documento.
+     */
+    @Query(value = "{ emailNormalizado: ?0 }", fields = "{ _id: 0, emailNormalizado: 1 }")
+    Optional<EmailNormalizadoUsuario> findEmailNormalizadoByEmailNormalizado(String emailNormalizado);
+
+    /**
+     * Busca, em uma única consulta coberta pelo índice, quais dos emails normalizados informados já estão cadastrados.
+     */
+    @Query(value = "{ emailNormalizado: { $in: ?0 } }", fields = "{ _id: 0, emailNormalizado: 1 }")
+    List<EmailNormalizadoUsuario> findEmailNormalizadoByEmailNormalizadoIn(Collection<String> emailsNormalizados);
+
+    @Query(value = "{ emailNormalizado: ?0 }", fields = "{ nome: 1, email: 1 }")
+    Optional<ResumoUsuario> findResumoByEmailNormalizado(String emailNormalizado);
+
+    default Optional<Usuario> findByEmail(String email) {
+        return findByEmailNormalizado(Usuario.normalizarEmail(email));
+    }
+
+    default Optional<ResumoUsuario> findResumoByEmail(String email) {
+        return findResumoByEmailNormalizado(Usuario.normalizarEmail(email));
+    }
+
+    default boolean existsByEmail(String email) {
+        return findEmailNormalizadoByEmailNormalizado(Usuario.normalizarEmail(email)).isPresent();
+    }
+
+    Stream<EmailUsuario> streamAllBy();
+
+    /**
+     * Substitui apenas o hash da senha do usuário, caso o hash armazenado ainda seja o informado, sem regravar os demais
+     * campos do documento. Alterações concorrentes (desativação, permissões, nome ou redefinição de senha) são mantidas.
+     * @return Número de usuários atualizados.
+     */
+    @Query("{ _id: ?0, senha: ?1 }")
+    @Update("{ $set: { senha: ?2 } }")
+    long atualizarHashSenha(UUID id, String hashAtual, String hashNovo);
+
+    /**
+     * Busca os usuários gravados antes da criação do email normalizado.
+     */
+    @Query(value = "{ emailNormalizado: { $exists: false } }", fields = "{ email: 1 }")
+    Stream<ResumoUsuario> streamByEmailNormalizadoAusente();
 }
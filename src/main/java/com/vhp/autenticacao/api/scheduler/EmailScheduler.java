@@ -1,28 +1,67 @@
 package com.vhp.autenticacao.api.scheduler;
 
+import com.sun.mail.smtp.SMTPAddressFailedException;
+import com.sun.mail.smtp.SMTPSendFailedException;
+import com.sun.mail.smtp.SMTPSenderFailedException;
+import com.vhp.autenticacao.api.configurations.property.AutenticacaoProperty;
+import com.vhp.autenticacao.api.configurations.property.EnvioEmailProperty;
 import com.vhp.autenticacao.api.document.EmailDocument;
 import com.vhp.autenticacao.api.document.EmailStatus;
+import com.vhp.autenticacao.api.mail.Email;
 import com.vhp.autenticacao.api.mail.MailSender;
 import com.vhp.autenticacao.api.mapper.EmailMapper;
 import com.vhp.autenticacao.api.service.EmailService;
+import com.vhp.autenticacao.api.template.TemplateHelper;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.FunctionTimer;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
 import jakarta.mail.MessagingException;
+import jakarta.mail.internet.AddressException;
 import org.apache.commons.lang3.exception.ExceptionUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.mail.MailSendException;
 import org.springframework.stereotype.Component;
+import org.thymeleaf.exceptions.TemplateEngineException;
 
 import java.io.UnsupportedEncodingException;
 import java.time.Clock;
+import java.time.Duration;
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
 
 /**
- * Classe responsável por organizar o envio de emails
+ * Classe responsável por organizar o envio de emails.
+ * O envio é contínuo: os emails pendentes são enviados em lotes até que não restem pendentes, e a busca seguinte é
+ * agendada com intervalo que dobra a cada busca sem emails, de {@code intervalo_minimo_millis} até
+ * {@code intervalo_maximo_millis}, voltando ao mínimo assim que um email é encontrado.
+ * Cada lote é reservado por esta instância antes do envio ({@link EmailService#reservarEmails(int)}), permitindo que
+ * várias instâncias da aplicação enviem emails em paralelo sem envios duplicados.
+ * Os emails de cada lote são enviados em paralelo por até {@code autenticacao.mail.conexoes} threads, uma por conexão
+ * do pool SMTP.
+ * Emails com erro transitório voltam a ficar pendentes, com a próxima tentativa adiada em intervalos exponenciais com
+ * variação aleatória, até {@code tentativas_maximas} tentativas, quando são descartados ({@link EmailStatus#DESCARTADO}).
+ * Emails com erro permanente não são reenviados ({@link EmailStatus#ERRO}).
+ * O corpo dos emails registrados com template é renderizado no envio, no idioma registrado com o email.
  */
 @Component
-public class EmailScheduler {
+public class EmailScheduler implements MeterBinder, AutoCloseable {
 
     private EmailService emailService;
 
@@ -30,68 +69,334 @@ public class EmailScheduler {
 
     private EmailMapper emailMapper;
 
+    private TemplateHelper templateHelper;
+
     private Clock clock;
 
+    private final EnvioEmailProperty envioEmailProperty;
+
+    private ScheduledExecutorService executor;
+
+    private final Object travaExecutorEnvio = new Object();
+
+    private ExecutorService executorEnvio;
+
+    private boolean envioEncerrado;
+
+    private final int enviosParalelos;
+
+    private long intervaloMillis;
+
+    private final LongAdder enviados = new LongAdder();
+    private final LongAdder erros = new LongAdder();
+    private final LongAdder descartados = new LongAdder();
+    private final LongAdder latenciaMillis = new LongAdder();
+
     private final Logger logger = LoggerFactory.getLogger(EmailScheduler.class);
 
     @Autowired
-    public EmailScheduler(EmailService emailService, MailSender mailSender, EmailMapper emailMapper, Clock clock) {
+    public EmailScheduler(EmailService emailService, MailSender mailSender, EmailMapper emailMapper, TemplateHelper templateHelper, Clock clock, AutenticacaoProperty autenticacaoProperty) {
         this.emailService = emailService;
         this.mailSender = mailSender;
         this.emailMapper = emailMapper;
+        this.templateHelper = templateHelper;
         this.clock = clock;
+        this.envioEmailProperty = autenticacaoProperty.getEnvioEmail();
+        this.intervaloMillis = envioEmailProperty.getIntervaloMinimoMillis();
+        this.enviosParalelos = Math.max(1, autenticacaoProperty.getMail().getConexoes());
     }
 
     /**
-     * Busca lista de emails não processados e os envia.
+     * Obtém o executor de envio paralelo, criado no primeiro lote enviado em paralelo, de forma que as threads de envio
+     * não são criadas quando o envio de emails está desabilitado.
+     * @return Executor de envio paralelo.
+     * @throws RejectedExecutionException Caso o envio de emails tenha sido encerrado.
      */
-    @Scheduled(fixedDelay = 3_600_000L)
-    public void envioEmail() {
+    private ExecutorService getExecutorEnvio() {
+        synchronized (travaExecutorEnvio) {
+            if(envioEncerrado) {
+                throw new RejectedExecutionException("Envio de emails encerrado.");
+            }
+            if(executorEnvio == null) {
+                executorEnvio = Executors.newFixedThreadPool(enviosParalelos, threadsDaemon("envio-email-smtp-"));
+            }
+            return executorEnvio;
+        }
+    }
 
-        logger.info("Iniciado processo de envio de emails.");
+    private static ThreadFactory threadsDaemon(String prefixo) {
+        AtomicInteger contador = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, prefixo + contador.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    /**
+     * Inicia o envio contínuo de emails em uma thread dedicada, sem ocupar o agendador das demais tarefas.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void iniciar() {
+        if(!envioEmailProperty.isHabilitado() || executor != null) {
+            return;
+        }
+        executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "envio-email");
+            thread.setDaemon(true);
+            return thread;
+        });
+        executor.schedule(this::executarCiclo, 0, TimeUnit.MILLISECONDS);
+    }
 
-        List<EmailDocument> emailsNaoProcessados = emailService.buscarEmaisNaoProcessados();
+    /**
+     * Encerra o envio contínuo de emails, aguardando o lote em andamento.
+     */
+    @Override
+    public synchronized void close() throws InterruptedException {
+        if(executor != null) {
+            executor.shutdown();
+            executor.awaitTermination(30, TimeUnit.SECONDS);
+        }
+        synchronized (travaExecutorEnvio) {
+            envioEncerrado = true;
+            if(executorEnvio != null) {
+                executorEnvio.shutdown();
+            }
+        }
+    }
 
-        if(emailsNaoProcessados != null && !emailsNaoProcessados.isEmpty()) {
-            logger.info("Número de emails a serem enviados: {}", emailsNaoProcessados.size());
+    boolean isExecutorEnvioCriado() {
+        synchronized (travaExecutorEnvio) {
+            return executorEnvio != null;
+        }
+    }
+
+    /**
+     * Registra as métricas de emails pendentes e de latência entre o registro e o envio de cada email.
+     * @param registry - Registro de métricas da aplicação.
+     */
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("autenticacao.email.pendentes", emailService, EmailService::contarEmailsNaoProcessados)
+                .description("Emails aguardando envio")
+                .register(registry);
+        FunctionTimer.builder("autenticacao.email.latencia", this,
+                        EmailScheduler::getEnviados, EmailScheduler::getLatenciaMillis, TimeUnit.MILLISECONDS)
+                .description("Tempo entre o registro e o envio dos emails")
+                .register(registry);
+        FunctionCounter.builder("autenticacao.email.erros", erros, LongAdder::sum)
+                .description("Tentativas de envio de email que falharam")
+                .register(registry);
+        FunctionCounter.builder("autenticacao.email.descartados", descartados, LongAdder::sum)
+                .description("Emails descartados após esgotar as tentativas de envio")
+                .register(registry);
+    }
+
+    long getEnviados() {
+        return enviados.sum();
+    }
+
+    double getLatenciaMillis() {
+        return latenciaMillis.sum();
+    }
+
+    /**
+     * Executa um ciclo de envio e agenda o próximo.
+     */
+    private void executarCiclo() {
+        int enviadosNoCiclo = 0;
+        try {
+            enviadosNoCiclo = envioEmail();
+        } catch (RuntimeException e) {
+            logger.error("Falha no envio de emails.", e);
+        }
+
+        try {
+            executor.schedule(this::executarCiclo, proximoIntervalo(enviadosNoCiclo > 0), TimeUnit.MILLISECONDS);
+        } catch (RejectedExecutionException e) {
+            logger.info("Envio de emails encerrado.");
+        }
+    }
+
+    /**
+     * Calcula o intervalo até a próxima busca de emails pendentes.
+     * @param encontrouEmails - Se o último ciclo encontrou emails pendentes.
+     * @return Intervalo em milissegundos.
+     */
+    long proximoIntervalo(boolean encontrouEmails) {
+        long minimo = envioEmailProperty.getIntervaloMinimoMillis();
+        intervaloMillis = encontrouEmails
+                ? minimo
+                : Math.min(Math.max(intervaloMillis * 2, Math.max(minimo, 1)), envioEmailProperty.getIntervaloMaximoMillis());
+        return intervaloMillis;
+    }
+
+    /**
+     * Reserva e envia os emails não processados em lotes, até que não restem emails pendentes.
+     * @return Número de emails processados.
+     */
+    public int envioEmail() {
+        int tamanhoLote = envioEmailProperty.getTamanhoLote();
+        int processados = 0;
+        List<EmailDocument> emailsNaoProcessados;
+
+        do {
+            emailsNaoProcessados = emailService.reservarEmails(tamanhoLote);
+            if(emailsNaoProcessados == null || emailsNaoProcessados.isEmpty()) {
+                break;
+            }
+
+            logger.debug("Número de emails a serem enviados: {}", emailsNaoProcessados.size());
             processarEmails(emailsNaoProcessados);
             atualizarEstadosEmails(emailsNaoProcessados);
-        } else {
-            logger.info("Nenhum email para ser enviado.");
-        }
+            processados += emailsNaoProcessados.size();
+        } while(emailsNaoProcessados.size() >= tamanhoLote);
 
-        logger.info("Finalizado processo de envio de emails.");
+        if(processados > 0) {
+            logger.info("Número de emails processados: {}", processados);
+        }
+        return processados;
     }
 
     /**
-     * Processa cada email não processado.
+     * Processa cada email não processado, em paralelo quando houver mais de uma conexão SMTP, aguardando o envio de
+     * todos os emails do lote.
      * @param emailsNaoProcessados Lista de emails não processados.
      */
     private void processarEmails(List<EmailDocument> emailsNaoProcessados) {
-        emailsNaoProcessados.forEach(e -> this.processarEmail(e));
+        if(enviosParalelos == 1 || emailsNaoProcessados.size() == 1) {
+            emailsNaoProcessados.forEach(e -> this.processarEmail(e));
+            return;
+        }
+
+        ExecutorService executorEnvio = getExecutorEnvio();
+        CompletableFuture.allOf(emailsNaoProcessados.stream()
+                        .map(e -> CompletableFuture.runAsync(() -> this.processarEmail(e), executorEnvio))
+                        .toArray(CompletableFuture[]::new))
+                .join();
     }
 
     /**
-     * Envia email informado.
+     * Envia email informado. Qualquer erro do envio é registrado no próprio email, para que o estado de todos os emails
+     * do lote seja gravado, inclusive dos já enviados.
      * @param emailDocumentNaoProcessado Email ainda não enviado.
      */
     private void processarEmail(EmailDocument emailDocumentNaoProcessado) {
+        emailDocumentNaoProcessado.setTentativas(emailDocumentNaoProcessado.getTentativas() + 1);
         try {
-            mailSender.enviarEmail(emailMapper.toEmail(emailDocumentNaoProcessado));
+            mailSender.enviarEmail(criarEmail(emailDocumentNaoProcessado));
             emailDocumentNaoProcessado.setStatus(EmailStatus.PROCESSADO);
             emailDocumentNaoProcessado.setDataProcessamento(LocalDateTime.now(clock));
-        } catch (MessagingException | UnsupportedEncodingException e) {
-            emailDocumentNaoProcessado.setStatus(EmailStatus.ERRO);
+            if(emailDocumentNaoProcessado.getDataCriacao() != null) {
+                enviados.increment();
+                latenciaMillis.add(Duration.between(emailDocumentNaoProcessado.getDataCriacao(), emailDocumentNaoProcessado.getDataProcessamento()).toMillis());
+            }
+        } catch (MessagingException | UnsupportedEncodingException | RuntimeException e) {
+            erros.increment();
             emailDocumentNaoProcessado.setMensagemErro(ExceptionUtils.getStackTrace(e));
             emailDocumentNaoProcessado.setDataProcessamento(LocalDateTime.now(clock));
+            registrarFalha(emailDocumentNaoProcessado, e);
+        }
+    }
+
+    /**
+     * Cria o email a ser enviado, renderizando o corpo caso o email tenha sido registrado com template.
+     * @param emailDocument Email registrado.
+     * @return Email a ser enviado.
+     */
+    private Email criarEmail(EmailDocument emailDocument) {
+        Email email = emailMapper.toEmail(emailDocument);
+        if(emailDocument.getTemplate() != null) {
+            Locale locale = emailDocument.getLocale() != null ? Locale.forLanguageTag(emailDocument.getLocale()) : Locale.getDefault();
+            email.setCorpo(templateHelper.getConteudoTemplate(emailDocument.getTemplate(), locale, emailDocument.getVariaveis()));
+        }
+        return email;
+    }
+
+    /**
+     * Define o estado do email após uma tentativa de envio com erro: erros permanentes encerram o envio, e erros
+     * transitórios agendam uma nova tentativa, até o limite de tentativas.
+     * @param emailDocument Email cujo envio falhou.
+     * @param erro Erro do envio.
+     */
+    private void registrarFalha(EmailDocument emailDocument, Exception erro) {
+        if(!isErroTransitorio(erro)) {
+            emailDocument.setStatus(EmailStatus.ERRO);
+        } else if(emailDocument.getTentativas() >= envioEmailProperty.getTentativasMaximas()) {
+            descartados.increment();
+            emailDocument.setStatus(EmailStatus.DESCARTADO);
+            logger.warn("Email {} descartado após {} tentativas de envio.", emailDocument.getId(), emailDocument.getTentativas());
+        } else {
+            emailDocument.setStatus(EmailStatus.NAO_PROCESSADO);
+            emailDocument.setProximaTentativa(emailDocument.getDataProcessamento()
+                    .plus(Duration.ofMillis(atrasoNovaTentativa(emailDocument.getTentativas()))));
+        }
+    }
+
+    /**
+     * Calcula o atraso até a próxima tentativa de envio: o intervalo base dobra a cada tentativa, até o intervalo
+     * máximo, e o atraso é sorteado entre a metade e o valor desse intervalo, para que emails que falharam juntos não
+     * sejam reenviados ao mesmo tempo.
+     * @param tentativas Número de tentativas já realizadas.
+     * @return Atraso em milissegundos.
+     */
+    long atrasoNovaTentativa(int tentativas) {
+        long maximo = envioEmailProperty.getIntervaloMaximoTentativaMillis();
+        long intervalo = Math.min(envioEmailProperty.getIntervaloTentativaMillis() << Math.min(Math.max(tentativas - 1, 0), 30), maximo);
+        long metade = Math.max(intervalo / 2, 0);
+        return metade + ThreadLocalRandom.current().nextLong(intervalo - metade + 1);
+    }
+
+    /**
+     * Classifica o erro de envio. São permanentes os erros de endereço, codificação ou template inválidos e as
+     * respostas SMTP 5xx; os demais, como falhas de conexão, tempo esgotado e respostas SMTP 4xx, são transitórios.
+     * @param erro Erro do envio.
+     * @return Se o envio pode ser repetido.
+     */
+    static boolean isErroTransitorio(Throwable erro) {
+        if(erro instanceof MailSendException mailSendException && !mailSendException.getFailedMessages().isEmpty()) {
+            return mailSendException.getFailedMessages().values().stream().allMatch(EmailScheduler::isErroTransitorio);
+        }
+
+        for(Throwable causa = erro; causa != null; causa = proximaCausa(causa)) {
+            if(causa instanceof UnsupportedEncodingException || causa instanceof AddressException
+                    || causa instanceof IllegalArgumentException || causa instanceof TemplateEngineException) {
+                return false;
+            }
+            int codigo = codigoRespostaSmtp(causa);
+            if(codigo > 0) {
+                return codigo < 500;
+            }
+        }
+        return true;
+    }
+
+    private static Throwable proximaCausa(Throwable erro) {
+        if(erro instanceof MessagingException messagingException && messagingException.getNextException() != null) {
+            return messagingException.getNextException();
+        }
+        return erro.getCause() != erro ? erro.getCause() : null;
+    }
+
+    private static int codigoRespostaSmtp(Throwable erro) {
+        if(erro instanceof SMTPAddressFailedException e) {
+            return e.getReturnCode();
+        }
+        if(erro instanceof SMTPSenderFailedException e) {
+            return e.getReturnCode();
+        }
+        if(erro instanceof SMTPSendFailedException e) {
+            return e.getReturnCode();
         }
+        return 0;
     }
 
     /**
-     * Atualiza estado dos emails processados ou com erros.
+     * Atualiza estado dos emails processados ou com erros, liberando a reserva.
      * @param emailsProcessados Emails processados ou com erros.
      */
     private void atualizarEstadosEmails(List<EmailDocument> emailsProcessados) {
-        this.emailService.salvarEmails(emailsProcessados);
+        this.emailService.atualizarEstados(emailsProcessados);
     }
 }
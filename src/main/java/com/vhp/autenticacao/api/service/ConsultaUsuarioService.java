@@ -0,0 +1,111 @@
+package com.vhp.autenticacao.api.service;
+
+import com.vhp.autenticacao.api.controller.dto.PaginaUsuariosDTO;
+import com.vhp.autenticacao.api.controller.dto.UsuarioDTO;
+import com.vhp.autenticacao.api.document.Usuario;
+import com.vhp.autenticacao.api.exceptions.CursorPaginacaoInvalidoException;
+import com.vhp.autenticacao.api.messages.MessageService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoOperations;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+
+/**
+ * Serviço de listagem e exportação de usuários. As consultas leem apenas os campos públicos do usuário, nunca o
+ * hash da senha.
+ */
+@Service
+public class ConsultaUsuarioService {
+
+    static final int TAMANHO_LOTE_CURSOR = 500;
+
+    public static final int TAMANHO_MAXIMO_PAGINA = 200;
+
+    private static final String SEPARADOR_CURSOR = "_";
+
+    private final MongoOperations mongoOperations;
+    private final MessageService messageService;
+
+    @Autowired
+    public ConsultaUsuarioService(MongoOperations mongoOperations, MessageService messageService) {
+        this.mongoOperations = mongoOperations;
+        this.messageService = messageService;
+    }
+
+    /**
+     * Percorre todos os usuários com um cursor do MongoDB, lendo um lote por vez. Como cada usuário é entregue à saída
+     * antes da leitura do próximo, uma saída lenta atrasa a leitura do cursor, e a memória utilizada não depende do
+     * número de usuários.
+     * @param saida - Receptor de cada usuário.
+     */
+    public void exportar(Consumer<UsuarioDTO> saida) {
+        Query query = incluirCamposPublicos(new Query()).cursorBatchSize(TAMANHO_LOTE_CURSOR);
+
+        try(Stream<Usuario> usuarios = mongoOperations.stream(query, Usuario.class)) {
+            usuarios.map(UsuarioDTO::new).forEach(saida);
+        }
+    }
+
+    /**
+     * Lista uma página de usuários ordenados por data de criação e id. A página seguinte é buscada a partir da posição
+     * do último usuário da página anterior (keyset), pelo índice {@code dataCriacao_id}, de forma que o custo de uma
+     * página não depende da sua distância do início.
+     * @param cursor - Cursor {@link PaginaUsuariosDTO#getProxima()} da página anterior, ou null para a primeira página.
+     * @param tamanho - Número de usuários da página, limitado a {@link #TAMANHO_MAXIMO_PAGINA}.
+     * @return Página de usuários.
+     * @throws CursorPaginacaoInvalidoException Caso o cursor informado não seja válido.
+     */
+    public PaginaUsuariosDTO listar(String cursor, int tamanho) {
+        int limite = Math.max(1, Math.min(tamanho, TAMANHO_MAXIMO_PAGINA));
+        Query query = incluirCamposPublicos(new Query())
+                .with(Sort.by("dataCriacao", "_id"))
+                .limit(limite);
+
+        if(cursor != null && !cursor.isBlank()) {
+            Usuario anterior = decodificarCursor(cursor);
+            query.addCriteria(new Criteria().orOperator(
+                    where("dataCriacao").gt(anterior.getDataCriacao()),
+                    where("dataCriacao").is(anterior.getDataCriacao()).and("_id").gt(anterior.getId())));
+        }
+
+        List<Usuario> usuarios = mongoOperations.find(query, Usuario.class);
+        String proxima = usuarios.size() == limite ? codificarCursor(usuarios.get(usuarios.size() - 1)) : null;
+        return new PaginaUsuariosDTO(usuarios.stream().map(UsuarioDTO::new).toList(), proxima);
+    }
+
+    private static Query incluirCamposPublicos(Query query) {
+        query.fields().include("nome", "email", "ativo", "dataCriacao", "perfis");
+        return query;
+    }
+
+    static String codificarCursor(Usuario usuario) {
+        String posicao = usuario.getDataCriacao() + SEPARADOR_CURSOR + usuario.getId();
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(posicao.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private Usuario decodificarCursor(String cursor) {
+        try {
+            String posicao = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separador = posicao.indexOf(SEPARADOR_CURSOR);
+            Usuario usuario = new Usuario();
+            usuario.setDataCriacao(LocalDateTime.parse(posicao.substring(0, separador)));
+            usuario.setId(UUID.fromString(posicao.substring(separador + 1)));
+            return usuario;
+        } catch (IllegalArgumentException | IndexOutOfBoundsException | DateTimeParseException e) {
+            throw new CursorPaginacaoInvalidoException(messageService);
+        }
+    }
+}
@@ -5,13 +5,29 @@ import com.vhp.autenticacao.api.model.EnvioEmail;
 import com.vhp.autenticacao.api.document.EmailDocument;
 import com.vhp.autenticacao.api.document.EmailStatus;
 import com.vhp.autenticacao.api.repository.EmailRepository;
+import org.bson.types.ObjectId;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoOperations;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
 import org.springframework.stereotype.Service;
 
+import java.lang.management.ManagementFactory;
 import java.time.Clock;
+import java.time.Duration;
 import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Objects;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.springframework.data.mongodb.core.query.Criteria.where;
 
 /**
  * Serviço responsável por buscar/salvar emails no repositório.
@@ -20,33 +36,123 @@ import java.util.Objects;
 public class EmailService {
 
     private final EmailRepository emailRepository;
+    private final MongoOperations mongoOperations;
     private final AutenticacaoProperty carteiraProperty;
 
     private final Clock clock;
 
+    private final String responsavel = ManagementFactory.getRuntimeMXBean().getName();
+
+    private final Logger logger = LoggerFactory.getLogger(EmailService.class);
+
     @Autowired
-    public EmailService(EmailRepository emailRepository, AutenticacaoProperty carteiraProperty, Clock clock) {
+    public EmailService(EmailRepository emailRepository, MongoOperations mongoOperations, AutenticacaoProperty carteiraProperty, Clock clock) {
         this.emailRepository = emailRepository;
+        this.mongoOperations = mongoOperations;
         this.carteiraProperty = carteiraProperty;
         this.clock = clock;
     }
 
     /**
-     * Busca lista de emails não processados no repositório.
+     * Busca o primeiro lote de emails não processados no repositório.
      * @return @{@link List<EmailDocument>} de emails não processados.
      */
     public List<EmailDocument> buscarEmaisNaoProcessados() {
-        return this.buscarEmaisNaoProcessados(0, 10);
+        return this.buscarEmaisNaoProcessados(null, 10);
     }
 
     /**
-     * Busca lista de emails não processados no repositório.
-     * @param skip Quantidade de registros a serem ignorados.
-     * @param limit Quantidade de registros a serem buscados.
+     * Busca o lote de emails não processados seguinte ao email informado, em ordem de data de criação e id. O lote é
+     * buscado a partir da posição do último email do lote anterior (keyset), pelo índice {@code status_dataCriacao_id},
+     * de forma que o custo de um lote não depende do número de emails anteriores a ele.
+     * @param ultimo Último email do lote anterior, ou null para o primeiro lote.
+     * @param limite Quantidade de registros a serem buscados.
      * @return {@link List<EmailDocument>} de emails não processados.
      */
-    public List<EmailDocument> buscarEmaisNaoProcessados(int skip, int limit) {
-        return emailRepository.findByStatus(EmailStatus.NAO_PROCESSADO, skip, limit);
+    public List<EmailDocument> buscarEmaisNaoProcessados(EmailDocument ultimo, int limite) {
+        Query query = new Query(where("status").is(EmailStatus.NAO_PROCESSADO))
+                .with(Sort.by("dataCriacao", "_id"))
+                .limit(limite);
+        if(ultimo != null) {
+            query.addCriteria(where("dataCriacao").gte(ultimo.getDataCriacao())
+                    .orOperator(where("dataCriacao").gt(ultimo.getDataCriacao()), where("_id").gt(ultimo.getId())));
+        }
+        return mongoOperations.find(query, EmailDocument.class);
+    }
+
+    /**
+     * Reserva emails disponíveis para envio por esta instância da aplicação. Os emails reservados passam ao estado
+     * {@link EmailStatus#EM_PROCESSAMENTO} até a expiração da reserva, de forma que instâncias concorrentes reservam
+     * lotes disjuntos, e os emails de uma instância interrompida voltam a ficar disponíveis quando a reserva expira.
+     * <p>
+     * Os emails com reserva expirada são buscados primeiro e o restante do lote é completado com emails não processados
+     * cuja próxima tentativa já chegou, pelo índice {@code status_proximaTentativa_dataCriacao_id}. Como os emails
+     * reservados deixam o estado {@link EmailStatus#NAO_PROCESSADO}, cada busca lê apenas o lote, e emails aguardando
+     * uma nova tentativa não são lidos.
+     * @param limite Quantidade máxima de emails a serem reservados.
+     * @return {@link List<EmailDocument>} de emails reservados, que pode ser menor que o limite caso outra instância
+     * tenha reservado parte dos emails disponíveis.
+     */
+    public List<EmailDocument> reservarEmails(int limite) {
+        LocalDateTime agora = LocalDateTime.now(clock);
+        Set<ObjectId> ids = new LinkedHashSet<>();
+        mongoOperations.find(consultaReservasExpiradas(agora, limite), EmailDocument.class)
+                .forEach(email -> ids.add(email.getId()));
+        if(ids.size() < limite) {
+            mongoOperations.find(consultaEmailsPendentes(agora, limite - ids.size()), EmailDocument.class)
+                    .forEach(email -> ids.add(email.getId()));
+        }
+        if(ids.isEmpty()) {
+            return Collections.emptyList();
+        }
+
+        String reserva = UUID.randomUUID().toString();
+        LocalDateTime expiracao = agora.plus(Duration.ofMillis(carteiraProperty.getEnvioEmail().getDuracaoReservaMillis()));
+        if(emailRepository.reservar(List.copyOf(ids), agora, responsavel, reserva, expiracao) == 0) {
+            return Collections.emptyList();
+        }
+        return emailRepository.findByReservaOrderByDataCriacao(reserva);
+    }
+
+    /**
+     * Consulta executada na reserva de emails para buscar os emails não processados cuja próxima tentativa já chegou,
+     * em ordem de próxima tentativa, data de criação e id, pelo índice {@code status_proximaTentativa_dataCriacao_id}.
+     * O intervalo do índice é limitado pelo status e pela próxima tentativa, sem ordenação em memória, de forma que
+     * emails aguardando uma nova tentativa não são lidos. Emails sem próxima tentativa, registrados antes da criação
+     * do campo, são considerados disponíveis.
+     * @param agora Instante atual.
+     * @param limite Quantidade máxima de emails.
+     * @return Consulta dos ids dos emails pendentes.
+     */
+    static Query consultaEmailsPendentes(LocalDateTime agora, int limite) {
+        Query query = new Query(where("status").is(EmailStatus.NAO_PROCESSADO).and("proximaTentativa").not().gt(agora))
+                .with(Sort.by("proximaTentativa", "dataCriacao", "_id"))
+                .limit(limite);
+        query.fields().include("_id");
+        return query;
+    }
+
+    /**
+     * Consulta executada na reserva de emails para buscar os emails com reserva expirada, pelo prefixo {@code status}
+     * do índice {@code status_dataCriacao_id}, que percorre apenas os emails em processamento.
+     * @param agora Instante atual.
+     * @param limite Quantidade máxima de emails.
+     * @return Consulta dos ids dos emails com reserva expirada.
+     */
+    static Query consultaReservasExpiradas(LocalDateTime agora, int limite) {
+        Query query = new Query(where("status").is(EmailStatus.EM_PROCESSAMENTO).and("expiracaoReserva").lt(agora))
+                .with(Sort.by("dataCriacao", "_id"))
+                .limit(limite);
+        query.fields().include("_id");
+        return query;
+    }
+
+    /**
+     * Conta os emails ainda não processados no repositório.
+     * @return Número de emails aguardando envio.
+     */
+    public long contarEmailsNaoProcessados() {
+        return emailRepository.countByStatus(EmailStatus.NAO_PROCESSADO);
     }
 
     /**
@@ -62,6 +168,45 @@ public class EmailService {
         return emailRepository.saveAll(emailDocuments);
     }
 
+    /**
+     * Grava o estado dos emails processados em uma única operação em lote não ordenada, alterando apenas os campos de
+     * estado de cada email ({@code $set} por {@code _id}), sem regravar o corpo e os destinatários. Cada atualização
+     * só é aplicada se o email ainda pertence à reserva em que foi processado, que é removida; emails cuja reserva
+     * expirou e foi assumida por outra instância não são alterados.
+     * @param emailDocuments Emails processados, ainda com a reserva em que foram enviados.
+     * @return Número de emails atualizados.
+     */
+    public int atualizarEstados(List<EmailDocument> emailDocuments) {
+        if(emailDocuments == null || emailDocuments.isEmpty()) {
+            throw new IllegalArgumentException("Não foi possível atualizar emails pois eles estão vazios.");
+        }
+
+        BulkOperations bulkOperations = mongoOperations.bulkOps(BulkOperations.BulkMode.UNORDERED, EmailDocument.class);
+        for(EmailDocument emailDocument : emailDocuments) {
+            Query query = new Query(where("_id").is(emailDocument.getId()).and("reserva").is(emailDocument.getReserva()));
+            Update update = new Update()
+                    .set("status", emailDocument.getStatus())
+                    .set("dataProcessamento", emailDocument.getDataProcessamento())
+                    .set("tentativas", emailDocument.getTentativas())
+                    .set("proximaTentativa", emailDocument.getProximaTentativa())
+                    .unset("responsavel")
+                    .unset("reserva")
+                    .unset("expiracaoReserva");
+            if(emailDocument.getMensagemErro() != null) {
+                update.set("mensagemErro", emailDocument.getMensagemErro());
+            }
+            bulkOperations.updateOne(query, update);
+            emailDocument.liberarReserva();
+        }
+
+        int atualizados = bulkOperations.execute().getMatchedCount();
+        if(atualizados < emailDocuments.size()) {
+            logger.warn("{} emails não foram atualizados pois sua reserva expirou antes do fim do envio.",
+                    emailDocuments.size() - atualizados);
+        }
+        return atualizados;
+    }
+
     /**
      * Salva no repositório o email enviado.
      * @param envioEmail Email enviado.
@@ -73,6 +218,9 @@ public class EmailService {
         emailDocument.setAssunto(envioEmail.getAssunto());
         emailDocument.setDestinatarios(envioEmail.getDestinatarios());
         emailDocument.setCorpo(envioEmail.getCorpo());
+        emailDocument.setTemplate(envioEmail.getTemplate());
+        emailDocument.setLocale(envioEmail.getLocale());
+        emailDocument.setVariaveis(envioEmail.getVariaveis());
 
         emailRepository.save(emailDocument);
     }
@@ -86,6 +234,7 @@ public class EmailService {
         emailDocument.setEmailRemetente(carteiraProperty.getMail().getUsername());
         emailDocument.setRemetente(carteiraProperty.getMail().getRemetente());
         emailDocument.setDataCriacao(LocalDateTime.now(clock));
+        emailDocument.setProximaTentativa(emailDocument.getDataCriacao());
         emailDocument.setStatus(EmailStatus.NAO_PROCESSADO);
         return emailDocument;
     }
@@ -102,7 +251,8 @@ public class EmailService {
         if(envioEmail.getAssunto() == null || envioEmail.getAssunto().isBlank())
             throw  new IllegalArgumentException("Assunto de email não pode ser vazio para registrar email para envio.");
 
-        if(envioEmail.getCorpo() == null || envioEmail.getCorpo().isBlank())
+        if((envioEmail.getCorpo() == null || envioEmail.getCorpo().isBlank())
+                && (envioEmail.getTemplate() == null || envioEmail.getTemplate().isBlank()))
             throw  new IllegalArgumentException("Corpo do email não pode ser vazio para registrar email para envio.");
 
         if(envioEmail.getDestinatarios() == null || envioEmail.getDestinatarios().isEmpty())
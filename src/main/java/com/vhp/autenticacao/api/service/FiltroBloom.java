@@ -0,0 +1,91 @@
+package com.vhp.autenticacao.api.service;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Filtro de Bloom de strings, seguro para inserções e consultas concorrentes sem locks.
+ * Uma consulta negativa garante que o valor não foi inserido, uma positiva indica que o valor pode ter sido inserido.
+ */
+class FiltroBloom {
+
+    private final AtomicLongArray bits;
+    private final long totalBits;
+    private final int funcoesHash;
+    private final LongAdder insercoes = new LongAdder();
+
+    /**
+     * Cria filtro dimensionado para a capacidade e taxa de falsos positivos informadas.
+     * @param capacidade - Número esperado de valores inseridos.
+     * @param taxaFalsosPositivos - Taxa de falsos positivos desejada ao atingir a capacidade.
+     */
+    FiltroBloom(long capacidade, double taxaFalsosPositivos) {
+        long n = Math.max(1, capacidade);
+        double ln2 = Math.log(2);
+        long m = (long) Math.ceil(-n * Math.log(taxaFalsosPositivos) / (ln2 * ln2));
+
+        this.bits = new AtomicLongArray((int) Math.max(1, (m + 63) / 64));
+        this.totalBits = bits.length() * 64L;
+        this.funcoesHash = (int) Math.max(1, Math.round((double) totalBits / n * ln2));
+    }
+
+    void adicionar(String valor) {
+        long hash1 = hash(valor, 0x9E3779B97F4A7C15L);
+        long hash2 = hash(valor, 0xC2B2AE3D27D4EB4FL) | 1;
+        for(int i = 0; i < funcoesHash; i++) {
+            long bit = Math.floorMod(hash1 + i * hash2, totalBits);
+            int indice = (int) (bit >>> 6);
+            long mascara = 1L << bit;
+
+            long atual = bits.get(indice);
+            while((atual & mascara) == 0 && !bits.compareAndSet(indice, atual, atual | mascara)) {
+                atual = bits.get(indice);
+            }
+        }
+        insercoes.increment();
+    }
+
+    boolean podeConter(String valor) {
+        long hash1 = hash(valor, 0x9E3779B97F4A7C15L);
+        long hash2 = hash(valor, 0xC2B2AE3D27D4EB4FL) | 1;
+        for(int i = 0; i < funcoesHash; i++) {
+            long bit = Math.floorMod(hash1 + i * hash2, totalBits);
+            if((bits.get((int) (bit >>> 6)) & (1L << bit)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * @return Memória ocupada pelos bits do filtro, em bytes.
+     */
+    long getTamanhoBytes() {
+        return totalBits / 8;
+    }
+
+    /**
+     * @return Taxa de falsos positivos estimada para o número de inserções feitas, (1 - e^(-kn/m))^k.
+     */
+    double getTaxaFalsosPositivosEstimada() {
+        return Math.pow(1 - Math.exp(-(double) funcoesHash * insercoes.sum() / totalBits), funcoesHash);
+    }
+
+    long getInsercoes() {
+        return insercoes.sum();
+    }
+
+    private static long hash(String valor, long semente) {
+        long h = semente;
+        for(byte b : valor.getBytes(StandardCharsets.UTF_8)) {
+            h = (h ^ (b & 0xFF)) * 0x100000001B3L;
+        }
+        h ^= h >>> 33;
+        h *= 0xFF51AFD7ED558CCDL;
+        h ^= h >>> 33;
+        h *= 0xC4CEB9FE1A85EC53L;
+        h ^= h >>> 33;
+        return h;
+    }
+}
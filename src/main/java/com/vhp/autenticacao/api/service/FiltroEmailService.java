@@ -0,0 +1,188 @@
+package com.vhp.autenticacao.api.service;
+
+import com.vhp.autenticacao.api.configurations.property.AutenticacaoProperty;
+import com.vhp.autenticacao.api.configurations.property.FiltroEmailProperty;
+import com.vhp.autenticacao.api.document.Usuario;
+import com.vhp.autenticacao.api.repository.EmailUsuario;
+import com.vhp.autenticacao.api.repository.UsuarioRepository;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.util.Objects;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Stream;
+
+/**
+ * Serviço que mantém em memória um filtro de Bloom dos emails cadastrados, permitindo responder que um email está
+ * disponível sem consultar o banco de dados. O filtro é construído na inicialização, atualizado a cada novo cadastro e
+ * reconstruído periodicamente em uma thread dedicada, sem ocupar o agendador das demais tarefas.
+ */
+@Service
+public class FiltroEmailService implements MeterBinder, AutoCloseable {
+
+    private final Logger logger = LoggerFactory.getLogger(FiltroEmailService.class);
+
+    private final UsuarioRepository usuarioRepository;
+    private final FiltroEmailProperty filtroEmailProperty;
+
+    private volatile FiltroBloom filtro;
+    private volatile FiltroBloom filtroEmConstrucao;
+
+    private final LongAdder consultas = new LongAdder();
+    private final LongAdder negativos = new LongAdder();
+    private final LongAdder falsosPositivos = new LongAdder();
+
+    private final ScheduledExecutorService executor;
+    private final AtomicBoolean iniciado = new AtomicBoolean();
+
+    @Autowired
+    public FiltroEmailService(UsuarioRepository usuarioRepository, AutenticacaoProperty autenticacaoProperty) {
+        this.usuarioRepository = usuarioRepository;
+        this.filtroEmailProperty = autenticacaoProperty.getFiltroEmail();
+        this.executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "sincronizacao-filtro-email");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Agenda a reconstrução do filtro, imediatamente e a cada {@code intervalo_sincronizacao_millis}, na thread dedicada.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void iniciar() {
+        if(!filtroEmailProperty.isHabilitado() || !iniciado.compareAndSet(false, true)) {
+            return;
+        }
+        executor.scheduleWithFixedDelay(this::executarSincronizacao, 0,
+                filtroEmailProperty.getIntervaloSincronizacaoMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Encerra a reconstrução periódica do filtro.
+     */
+    @Override
+    public void close() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * Verifica se o email pode estar cadastrado.
+     * @param email - Email a ser verificado.
+     * @return false caso o email com certeza não esteja cadastrado, caso contrário, true.
+     */
+    public boolean podeEstarCadastrado(String email) {
+        FiltroBloom atual = filtro;
+        if(atual == null) {
+            return true;
+        }
+
+        consultas.increment();
+        boolean podeConter = atual.podeConter(Usuario.normalizarEmail(email));
+        if(!podeConter) {
+            negativos.increment();
+        }
+        return podeConter;
+    }
+
+    /**
+     * Registra que uma resposta positiva do filtro não foi confirmada pelo banco de dados.
+     */
+    public void registrarFalsoPositivo() {
+        falsosPositivos.increment();
+    }
+
+    /**
+     * Adiciona email cadastrado ao filtro. Deve ser chamado após o usuário ser salvo.
+     * @param email - Email cadastrado.
+     */
+    public void adicionar(String email) {
+        String normalizado = Usuario.normalizarEmail(email);
+
+        FiltroBloom atual = filtro;
+        if(atual != null) {
+            atual.adicionar(normalizado);
+        }
+
+        FiltroBloom emConstrucao = filtroEmConstrucao;
+        if(emConstrucao != null) {
+            emConstrucao.adicionar(normalizado);
+        }
+    }
+
+    /**
+     * Reconstrói o filtro a partir dos emails cadastrados.
+     * Emails adicionados durante a reconstrução são incluídos tanto no filtro atual quanto no novo.
+     */
+    public synchronized void sincronizar() {
+        if(!filtroEmailProperty.isHabilitado()) {
+            return;
+        }
+
+        logger.info("Iniciando a sincronização do filtro de emails cadastrados.");
+
+        long capacidade = Math.max(filtroEmailProperty.getCapacidade(), usuarioRepository.count() * 2);
+        FiltroBloom novoFiltro = new FiltroBloom(capacidade, filtroEmailProperty.getTaxaFalsosPositivos());
+        filtroEmConstrucao = novoFiltro;
+
+        try(Stream<EmailUsuario> emails = usuarioRepository.streamAllBy()) {
+            emails.map(EmailUsuario::getEmail)
+                    .filter(Objects::nonNull)
+                    .forEach(email -> novoFiltro.adicionar(Usuario.normalizarEmail(email)));
+            filtro = novoFiltro;
+        } finally {
+            filtroEmConstrucao = null;
+        }
+
+        logger.info("Sincronização do filtro de emails cadastrados concluída com {} emails.", novoFiltro.getInsercoes());
+    }
+
+    /**
+     * Executa a reconstrução agendada, mantendo o filtro atual em caso de falha para que as próximas execuções
+     * continuem agendadas.
+     */
+    private void executarSincronizacao() {
+        try {
+            sincronizar();
+        } catch (RuntimeException e) {
+            logger.error("Falha na sincronização do filtro de emails cadastrados.", e);
+        }
+    }
+
+    /**
+     * Registra as métricas de memória, taxa de falsos positivos e consultas do filtro.
+     * @param registry - Registro de métricas da aplicação.
+     */
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("autenticacao.filtro.email.memoria", this, s -> s.filtro != null ? s.filtro.getTamanhoBytes() : 0)
+                .description("Memória ocupada pelo filtro de emails cadastrados")
+                .baseUnit("bytes")
+                .register(registry);
+        Gauge.builder("autenticacao.filtro.email.taxa.falsos.positivos", this,
+                        s -> s.filtro != null ? s.filtro.getTaxaFalsosPositivosEstimada() : 0)
+                .description("Taxa de falsos positivos estimada do filtro de emails cadastrados")
+                .register(registry);
+        FunctionCounter.builder("autenticacao.filtro.email.consultas", consultas, LongAdder::sum)
+                .description("Consultas ao filtro de emails cadastrados")
+                .register(registry);
+        FunctionCounter.builder("autenticacao.filtro.email.negativos", negativos, LongAdder::sum)
+                .description("Consultas respondidas pelo filtro sem acesso ao banco de dados")
+                .register(registry);
+        FunctionCounter.builder("autenticacao.filtro.email.falsos.positivos", falsosPositivos, LongAdder::sum)
+                .description("Respostas positivas do filtro não confirmadas pelo banco de dados")
+                .register(registry);
+    }
+}
@@ -0,0 +1,392 @@
+package com.vhp.autenticacao.api.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.vhp.autenticacao.api.configurations.property.AutenticacaoProperty;
+import com.vhp.autenticacao.api.configurations.property.ImportacaoProperty;
+import com.vhp.autenticacao.api.configurations.security.PasswordEncoderLimitado;
+import com.vhp.autenticacao.api.controller.dto.ResultadoImportacaoDTO;
+import com.vhp.autenticacao.api.controller.dto.ResultadoImportacaoDTO.Status;
+import com.vhp.autenticacao.api.controller.dto.ResumoImportacaoDTO;
+import com.vhp.autenticacao.api.controller.form.NovoUsuarioForm;
+import com.vhp.autenticacao.api.document.Usuario;
+import com.vhp.autenticacao.api.exceptions.ArquivoImportacaoInvalidoException;
+import com.vhp.autenticacao.api.exceptions.ServicoSobrecarregadoException;
+import com.vhp.autenticacao.api.messages.MessageService;
+import com.vhp.autenticacao.api.repository.UsuarioRepository;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.mongodb.BulkOperationException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoOperations;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+
+/**
+ * Serviço de importação de usuários em lote a partir de arquivos NDJSON ou CSV.
+ * O arquivo é lido linha a linha, sem ser carregado em memória, e processado em lotes: emails repetidos são
+ * descartados com uma única consulta por lote, as senhas são codificadas em paralelo no executor de senhas e os
+ * usuários são gravados com uma única operação em lote não ordenada.
+ */
+@Service
+public class ImportacaoUsuarioService {
+
+    /**
+     * Formatos de arquivo aceitos na importação.
+     */
+    public enum Formato {
+        NDJSON, CSV
+    }
+
+    static final int CODIGO_CHAVE_DUPLICADA = 11000;
+
+    private static final String COLUNA_NOME = "name";
+    private static final String COLUNA_EMAIL = "email";
+    private static final String COLUNA_SENHA = "password";
+
+    private final Logger logger = LoggerFactory.getLogger(ImportacaoUsuarioService.class);
+
+    private final UsuarioRepository usuarioRepository;
+    private final MongoOperations mongoOperations;
+    private final PasswordEncoderLimitado passwordEncoder;
+    private final FiltroEmailService filtroEmailService;
+    private final Validator validator;
+    private final ObjectMapper objectMapper;
+    private final MessageService messageService;
+    private final ImportacaoProperty importacaoProperty;
+
+    @Autowired
+    public ImportacaoUsuarioService(UsuarioRepository usuarioRepository, MongoOperations mongoOperations, PasswordEncoderLimitado passwordEncoder,
+                                    FiltroEmailService filtroEmailService, Validator validator, ObjectMapper objectMapper,
+                                    MessageService messageService, AutenticacaoProperty autenticacaoProperty) {
+        this.usuarioRepository = usuarioRepository;
+        this.mongoOperations = mongoOperations;
+        this.passwordEncoder = passwordEncoder;
+        this.filtroEmailService = filtroEmailService;
+        this.validator = validator;
+        this.objectMapper = objectMapper;
+        this.messageService = messageService;
+        this.importacaoProperty = autenticacaoProperty.getImportacao();
+    }
+
+    /**
+     * Prepara a leitura do arquivo de importação. No formato CSV o cabeçalho é lido e validado imediatamente, para
+     * que um arquivo inválido seja recusado antes do início da resposta.
+     * @param entrada - Conteúdo do arquivo, em UTF-8.
+     * @param formato - Formato do arquivo.
+     * @return Leitor das linhas do arquivo.
+     * @throws ArquivoImportacaoInvalidoException Caso o cabeçalho do CSV não possua as colunas obrigatórias.
+     */
+    public LeitorImportacao abrir(InputStream entrada, Formato formato) throws IOException {
+        BufferedReader reader = new BufferedReader(new InputStreamReader(entrada, StandardCharsets.UTF_8));
+        return formato == Formato.CSV ? new LeitorCsv(reader) : new LeitorNdjson(reader);
+    }
+
+    /**
+     * Importa os usuários do arquivo, enviando o resultado de cada linha ao final do processamento do seu lote.
+     * @param leitor - Leitor obtido em {@link #abrir(InputStream, Formato)}.
+     * @param saida - Receptor dos resultados de cada lote, na ordem das linhas do arquivo.
+     * @return Totais da importação.
+     */
+    public ResumoImportacaoDTO importar(LeitorImportacao leitor, Consumer<List<ResultadoImportacaoDTO>> saida) throws IOException {
+        long inicio = System.nanoTime();
+        Map<Status, Long> totais = new LinkedHashMap<>();
+        List<LinhaImportacao> lote = new ArrayList<>(importacaoProperty.getTamanhoLote());
+        long linhas = 0;
+
+        LinhaImportacao linha;
+        while((linha = leitor.proxima()) != null) {
+            lote.add(linha);
+            linhas++;
+            if(lote.size() >= importacaoProperty.getTamanhoLote()) {
+                enviarLote(lote, totais, saida);
+                logger.debug("{} linhas importadas a {} linhas/s.", linhas, linhasPorSegundo(linhas, inicio));
+            }
+        }
+        enviarLote(lote, totais, saida);
+
+        ResumoImportacaoDTO resumo = new ResumoImportacaoDTO(linhas, totais.getOrDefault(Status.CRIADO, 0L),
+                totais.getOrDefault(Status.DUPLICADO, 0L), totais.getOrDefault(Status.INVALIDO, 0L),
+                totais.getOrDefault(Status.FALHA, 0L), (System.nanoTime() - inicio) / 1_000_000);
+        logger.info("Importação de usuários concluída: {} linhas, {} criados, {} duplicados, {} inválidos, {} falhas, {} linhas/s.",
+                resumo.getLinhas(), resumo.getCriados(), resumo.getDuplicados(), resumo.getInvalidos(),
+                resumo.getFalhas(), resumo.getLinhasPorSegundo());
+        return resumo;
+    }
+
+    private void enviarLote(List<LinhaImportacao> lote, Map<Status, Long> totais, Consumer<List<ResultadoImportacaoDTO>> saida) {
+        if(lote.isEmpty()) {
+            return;
+        }
+        List<ResultadoImportacaoDTO> resultados = processarLote(lote);
+        resultados.forEach(resultado -> totais.merge(resultado.getStatus(), 1L, Long::sum));
+        saida.accept(resultados);
+        lote.clear();
+    }
+
+    /**
+     * Processa um lote de linhas: descarta linhas inválidas e emails repetidos, codifica as senhas e grava os usuários.
+     * @param lote - Linhas do lote.
+     * @return Resultados de cada linha, na ordem do lote.
+     */
+    private List<ResultadoImportacaoDTO> processarLote(List<LinhaImportacao> lote) {
+        ResultadoImportacaoDTO[] resultados = new ResultadoImportacaoDTO[lote.size()];
+        Map<String, Integer> pendentes = new LinkedHashMap<>();
+
+        for(int i = 0; i < lote.size(); i++) {
+            LinhaImportacao linha = lote.get(i);
+            if(linha.erro() != null) {
+                resultados[i] = resultado(linha, Status.INVALIDO, linha.erro());
+            } else if(pendentes.putIfAbsent(Usuario.normalizarEmail(linha.form().getEmail()), i) != null) {
+                resultados[i] = duplicado(linha);
+            }
+        }
+
+        if(!pendentes.isEmpty()) {
+            usuarioRepository.findEmailNormalizadoByEmailNormalizadoIn(pendentes.keySet()).forEach(cadastrado -> {
+                Integer indice = pendentes.remove(cadastrado.getEmailNormalizado());
+                if(indice != null) {
+                    resultados[indice] = duplicado(lote.get(indice));
+                }
+            });
+        }
+
+        if(!pendentes.isEmpty()) {
+            gravar(lote, new ArrayList<>(pendentes.values()), resultados);
+        }
+        return List.of(resultados);
+    }
+
+    /**
+     * Codifica as senhas e grava os usuários em uma única operação em lote não ordenada, de forma que a falha de um
+     * usuário não impeça a gravação dos demais.
+     */
+    private void gravar(List<LinhaImportacao> lote, List<Integer> indices, ResultadoImportacaoDTO[] resultados) {
+        List<String> hashes;
+        try {
+            hashes = passwordEncoder.encodeLote(indices.stream().map(i -> lote.get(i).form().getPassword()).toList());
+        } catch (ServicoSobrecarregadoException e) {
+            String mensagem = messageService.getMessage("error.servico-sobrecarregado");
+            indices.forEach(i -> resultados[i] = resultado(lote.get(i), Status.FALHA, mensagem));
+            return;
+        }
+
+        List<Usuario> usuarios = new ArrayList<>(indices.size());
+        for(int i = 0; i < indices.size(); i++) {
+            NovoUsuarioForm form = lote.get(indices.get(i)).form();
+            form.setPassword(hashes.get(i));
+            usuarios.add(form.toUsuario());
+        }
+
+        BulkOperations bulkOperations = mongoOperations.bulkOps(BulkOperations.BulkMode.UNORDERED, Usuario.class);
+        bulkOperations.insert(usuarios);
+        try {
+            bulkOperations.execute();
+        } catch (BulkOperationException e) {
+            String falhaGravacao = messageService.getMessage("error.importacao-falha-gravacao");
+            e.getErrors().forEach(erro -> {
+                LinhaImportacao linha = lote.get(indices.get(erro.getIndex()));
+                resultados[indices.get(erro.getIndex())] = erro.getCode() == CODIGO_CHAVE_DUPLICADA
+                        ? duplicado(linha)
+                        : resultado(linha, Status.FALHA, falhaGravacao);
+            });
+        }
+
+        for(int indice : indices) {
+            if(resultados[indice] == null) {
+                LinhaImportacao linha = lote.get(indice);
+                resultados[indice] = resultado(linha, Status.CRIADO, null);
+                filtroEmailService.adicionar(linha.form().getEmail());
+            }
+        }
+    }
+
+    private ResultadoImportacaoDTO duplicado(LinhaImportacao linha) {
+        return resultado(linha, Status.DUPLICADO, messageService.getMessage("error.email-x-ja-foi-cadastrado", linha.form().getEmail()));
+    }
+
+    private static ResultadoImportacaoDTO resultado(LinhaImportacao linha, Status status, String mensagem) {
+        return new ResultadoImportacaoDTO(linha.numero(), linha.form() == null ? null : linha.form().getEmail(), status, mensagem);
+    }
+
+    private static long linhasPorSegundo(long linhas, long inicio) {
+        long duracaoMillis = Math.max(1, (System.nanoTime() - inicio) / 1_000_000);
+        return linhas * 1000 / duracaoMillis;
+    }
+
+    /**
+     * Valida o formulário lido de uma linha.
+     * @return Linha com o formulário, ou com a descrição dos campos inválidos.
+     */
+    private LinhaImportacao validar(long numero, NovoUsuarioForm form) {
+        Set<ConstraintViolation<NovoUsuarioForm>> violacoes = validator.validate(form);
+        if(violacoes.isEmpty()) {
+            return new LinhaImportacao(numero, form, null);
+        }
+        String erro = violacoes.stream()
+                .sorted(Comparator.comparing(violacao -> violacao.getPropertyPath().toString()))
+                .map(violacao -> violacao.getPropertyPath() + ": " + violacao.getMessage())
+                .collect(Collectors.joining("; "));
+        return new LinhaImportacao(numero, form, erro);
+    }
+
+    private LinhaImportacao invalida(long numero) {
+        return new LinhaImportacao(numero, null, messageService.getMessage("error.dados-usuario-invalido"));
+    }
+
+    /**
+     * Linha lida do arquivo de importação, com o formulário do usuário ou a descrição do erro de leitura ou validação.
+     */
+    record LinhaImportacao(long numero, NovoUsuarioForm form, String erro) {
+    }
+
+    /**
+     * Leitor das linhas de um arquivo de importação. Linhas em branco são ignoradas.
+     */
+    public abstract class LeitorImportacao {
+
+        private final BufferedReader reader;
+        private long numero;
+
+        LeitorImportacao(BufferedReader reader) {
+            this.reader = reader;
+        }
+
+        /**
+         * Lê a próxima linha do arquivo.
+         * @return Próxima linha, ou null ao final do arquivo.
+         */
+        LinhaImportacao proxima() throws IOException {
+            String texto;
+            do {
+                texto = lerLinha();
+                if(texto == null) {
+                    return null;
+                }
+            } while(texto.isBlank());
+            return converter(numero, texto);
+        }
+
+        String lerLinha() throws IOException {
+            String texto = reader.readLine();
+            if(texto != null && numero++ == 0 && texto.startsWith("\uFEFF")) {
+                texto = texto.substring(1);
+            }
+            return texto;
+        }
+
+        abstract LinhaImportacao converter(long numero, String texto);
+    }
+
+    private class LeitorNdjson extends LeitorImportacao {
+
+        LeitorNdjson(BufferedReader reader) {
+            super(reader);
+        }
+
+        @Override
+        LinhaImportacao converter(long numero, String texto) {
+            try {
+                return validar(numero, objectMapper.readValue(texto, NovoUsuarioForm.class));
+            } catch (JsonProcessingException e) {
+                return invalida(numero);
+            }
+        }
+    }
+
+    /**
+     * Leitor de CSV com cabeçalho, separado por vírgulas, com suporte a campos entre aspas duplas em uma única linha.
+     */
+    private class LeitorCsv extends LeitorImportacao {
+
+        private final int colunas;
+        private final int colunaNome;
+        private final int colunaEmail;
+        private final int colunaSenha;
+
+        LeitorCsv(BufferedReader reader) throws IOException {
+            super(reader);
+            String texto = lerLinha();
+            List<String> cabecalho = texto == null ? List.of() : separarCampos(texto);
+            if(cabecalho == null) {
+                throw new ArquivoImportacaoInvalidoException(messageService);
+            }
+            List<String> nomes = cabecalho.stream().map(coluna -> coluna.strip().toLowerCase(Locale.ROOT)).toList();
+            this.colunas = nomes.size();
+            this.colunaNome = nomes.indexOf(COLUNA_NOME);
+            this.colunaEmail = nomes.indexOf(COLUNA_EMAIL);
+            this.colunaSenha = nomes.indexOf(COLUNA_SENHA);
+            if(colunaNome < 0 || colunaEmail < 0 || colunaSenha < 0) {
+                throw new ArquivoImportacaoInvalidoException(messageService);
+            }
+        }
+
+        @Override
+        LinhaImportacao converter(long numero, String texto) {
+            List<String> campos = separarCampos(texto);
+            if(campos == null || campos.size() != colunas) {
+                return invalida(numero);
+            }
+            NovoUsuarioForm form = new NovoUsuarioForm();
+            form.setName(campos.get(colunaNome));
+            form.setEmail(campos.get(colunaEmail));
+            form.setPassword(campos.get(colunaSenha));
+            return validar(numero, form);
+        }
+    }
+
+    /**
+     * Separa os campos de uma linha CSV. Campos entre aspas podem conter vírgulas e aspas duplicadas ("").
+     * @param texto - Linha do arquivo.
+     * @return Campos da linha, ou null caso alguma aspa não tenha sido fechada.
+     */
+    static List<String> separarCampos(String texto) {
+        List<String> campos = new ArrayList<>();
+        StringBuilder campo = new StringBuilder();
+        boolean entreAspas = false;
+
+        for(int i = 0; i < texto.length(); i++) {
+            char c = texto.charAt(i);
+            if(entreAspas) {
+                if(c != '"') {
+                    campo.append(c);
+                } else if(i + 1 < texto.length() && texto.charAt(i + 1) == '"') {
+                    campo.append('"');
+                    i++;
+                } else {
+                    entreAspas = false;
+                }
+            } else if(c == '"') {
+                entreAspas = true;
+            } else if(c == ',') {
+                campos.add(campo.toString());
+                campo.setLength(0);
+            } else {
+                campo.append(c);
+            }
+        }
+
+        if(entreAspas) {
+            return null;
+        }
+        campos.add(campo.toString());
+        return campos;
+    }
+}
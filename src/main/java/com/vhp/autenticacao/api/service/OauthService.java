@@ -2,7 +2,9 @@ package com.vhp.autenticacao.api.service;
 
 import com.vhp.autenticacao.api.configurations.property.AutenticacaoProperty;
 import com.vhp.autenticacao.api.configurations.security.AutenticacaoService;
+import com.vhp.autenticacao.api.configurations.security.LimitadorTentativasLogin;
 import com.vhp.autenticacao.api.configurations.security.TokenService;
+import com.vhp.autenticacao.api.configurations.security.ValidacaoToken;
 import com.vhp.autenticacao.api.controller.dto.TokenDTO;
 import com.vhp.autenticacao.api.controller.form.LoginForm;
 import com.vhp.autenticacao.api.document.Usuario;
@@ -13,11 +15,10 @@ import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.security.authentication.BadCredentialsException;
 import org.springframework.security.core.Authentication;
 import org.springframework.stereotype.Service;
 
-import java.util.UUID;
-
 /**
  * Serviço responsável pela autenticação oauth do usuário.
  */
@@ -29,14 +30,16 @@ public class OauthService {
     private final TokenService tokenService;
     private final AutenticacaoService autenticacaoService;
     private final MessageService messageService;
+    private final LimitadorTentativasLogin limitadorTentativasLogin;
 
     @Autowired
-    public OauthService(AutenticacaoProperty carteiraProperty, AuthenticationManager authManager, TokenService tokenService, AutenticacaoService autenticacaoService, MessageService messageService) {
+    public OauthService(AutenticacaoProperty carteiraProperty, AuthenticationManager authManager, TokenService tokenService, AutenticacaoService autenticacaoService, MessageService messageService, LimitadorTentativasLogin limitadorTentativasLogin) {
         this.carteiraProperty = carteiraProperty;
         this.authManager = authManager;
         this.tokenService = tokenService;
         this.autenticacaoService = autenticacaoService;
         this.messageService = messageService;
+        this.limitadorTentativasLogin = limitadorTentativasLogin;
     }
 
     /**
@@ -46,9 +49,17 @@ public class OauthService {
      * @param req Requisição atual.
      * @param res Resposta.
      * @return Token JWT para usuário autenticado.
+     * @throws com.vhp.autenticacao.api.exceptions.MuitasTentativasLoginException Caso o limite de falhas de login tenha sido atingido.
      */
     public TokenDTO logarUsuario(LoginForm loginForm, HttpServletRequest req, HttpServletResponse res) {
-        Authentication authentication = authManager.authenticate(loginForm.converter());
+        limitadorTentativasLogin.verificarTentativa(loginForm.getEmail(), req.getRemoteAddr());
+        Authentication authentication;
+        try {
+            authentication = authManager.authenticate(loginForm.converter());
+        } catch (BadCredentialsException e) {
+            limitadorTentativasLogin.registrarFalha(loginForm.getEmail(), req.getRemoteAddr());
+            throw e;
+        }
         Usuario usuarioLogado = (Usuario) authentication.getPrincipal();
 
         String token = tokenService.gerarAccessToken(usuarioLogado);
@@ -67,12 +78,12 @@ public class OauthService {
      */
     public TokenDTO renovarLogin(HttpServletRequest req, HttpServletResponse res) {
         String refreshToken = obterRefreshToken(req);
-        if(tokenService.isTokenInvalido(refreshToken)) {
+        ValidacaoToken validacao = tokenService.verificarToken(refreshToken);
+        if(validacao.isInvalido()) {
             throw new UsuarioNaoAutenticadoException(messageService);
         }
 
-        UUID idUsuario = tokenService.getIdUsuario(refreshToken);
-        Usuario usuario = autenticacaoService.loadUserById(idUsuario);
+        Usuario usuario = autenticacaoService.loadUserById(validacao.getIdUsuario());
         return renovarLoginUsuario(usuario, req, res);
     }
 
@@ -12,10 +12,13 @@ import com.vhp.autenticacao.api.exceptions.TokenRedefinicaoSenhaExpiradoExceptio
 import com.vhp.autenticacao.api.exceptions.UsuarioInvalidoException;
 import com.vhp.autenticacao.api.messages.MessageService;
 import com.vhp.autenticacao.api.model.EnvioEmail;
+import com.vhp.autenticacao.api.repository.ResumoUsuario;
 import com.vhp.autenticacao.api.repository.UsuarioRepository;
 import com.vhp.autenticacao.api.template.TemplateHelper;
 import lombok.NoArgsConstructor;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.i18n.LocaleContextHolder;
+import org.springframework.dao.DuplicateKeyException;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 
@@ -43,47 +46,62 @@ public class UsuarioService {
     @Autowired
     private EmailService emailService;
 
-    @Autowired
-    private TemplateHelper templateService;
-
     @Autowired
     private PasswordEncoder passwordEncoder;
 
     @Autowired
     private MessageService messageService;
 
-    public UsuarioService(AutenticacaoProperty carteiraProperty, UsuarioRepository usuarioRepository, RecuperacaoSenhaService recuperacaoSenhaService, EmailService emailService, TemplateHelper templateService, PasswordEncoder passwordEncoder, MessageService messageService) {
+    @Autowired
+    private FiltroEmailService filtroEmailService;
+
+    public UsuarioService(AutenticacaoProperty carteiraProperty, UsuarioRepository usuarioRepository, RecuperacaoSenhaService recuperacaoSenhaService, EmailService emailService, PasswordEncoder passwordEncoder, MessageService messageService, FiltroEmailService filtroEmailService) {
         this.carteiraProperty = carteiraProperty;
         this.usuarioRepository = usuarioRepository;
         this.recuperacaoSenhaService = recuperacaoSenhaService;
         this.emailService = emailService;
-        this.templateService = templateService;
         this.passwordEncoder = passwordEncoder;
         this.messageService = messageService;
+        this.filtroEmailService = filtroEmailService;
     }
 
     /**
-     * Verifica se o email já foi cadastrado para algum usuário.
+     * Verifica se o email já foi cadastrado para algum usuário, para a consulta de email disponível.
+     * Emails ausentes do filtro de emails cadastrados são respondidos sem consultar o banco de dados; como o filtro pode
+     * estar desatualizado (cadastros em outras instâncias), o resultado não deve ser usado para autorizar um cadastro.
      *
      * @param email Email a ser verificado.
      * @return true se nenhum usuário está cadastrado com este email, caso contrário, false.
      */
     public boolean isEmailDisponivel(String email) {
-        Optional<Usuario> usuarioOptional = usuarioRepository.findByEmail(email);
-        return usuarioOptional.isEmpty();
+        if(!filtroEmailService.podeEstarCadastrado(email)) {
+            return true;
+        }
+
+        boolean cadastrado = usuarioRepository.existsByEmail(email);
+        if(!cadastrado) {
+            filtroEmailService.registrarFalsoPositivo();
+        }
+        return !cadastrado;
     }
 
     /**
-     * Registra novo usuário.
+     * Registra novo usuário. A disponibilidade do email é sempre verificada no banco de dados, sem o filtro de emails
+     * cadastrados, e cadastros simultâneos com o mesmo email são recusados pelo índice único de email.
      *
      * @param usuarioForm - Informações para registro de novo usuário.
      */
     public void novoUsuario(NovoUsuarioForm usuarioForm) {
-        if(!isEmailDisponivel(usuarioForm.getEmail())) {
+        if(usuarioRepository.existsByEmail(usuarioForm.getEmail())) {
             throw new EmailJaCadastradoException(usuarioForm.getEmail(), messageService);
         }
         usuarioForm.setPassword(passwordEncoder.encode(usuarioForm.getPassword()));
-        usuarioRepository.save(usuarioForm.toUsuario());
+        try {
+            usuarioRepository.save(usuarioForm.toUsuario());
+        } catch (DuplicateKeyException e) {
+            throw new EmailJaCadastradoException(usuarioForm.getEmail(), messageService);
+        }
+        filtroEmailService.adicionar(usuarioForm.getEmail());
     }
 
     /**
@@ -126,20 +144,27 @@ public class UsuarioService {
      * @param recuperarSenhaForm Formulário de recuperação de senha.
      */
     public void recuperarSenha(RecuperarSenhaForm recuperarSenhaForm) {
-        Optional<Usuario> usuarioOptional = usuarioRepository.findByEmail(recuperarSenhaForm.getEmail());
+        ResumoUsuario resumoUsuario = usuarioRepository.findResumoByEmail(recuperarSenhaForm.getEmail())
+                .orElseThrow(() -> new EmailNaoCadastradoException(recuperarSenhaForm.getEmail(), messageService));
+
+        // Referência ao usuário sem o hash da senha, suficiente para o DBRef da recuperação de senha e para o email
+        Usuario usuario = new Usuario();
+        usuario.setId(resumoUsuario.getId());
+        usuario.setNome(resumoUsuario.getNome());
+        usuario.setEmail(resumoUsuario.getEmail());
 
-        Usuario usuario = usuarioOptional.orElseThrow(() -> new EmailNaoCadastradoException(recuperarSenhaForm.getEmail(), messageService));
         String token = UUID.randomUUID().toString();
         RecuperacaoSenha recuperacaoSenha = recuperacaoSenhaService.salvarRecuperacaoSenhaToken(usuario, token);
 
         String destinatario = usuario.getEmail();
         String assunto = this.messageService.getMessage("message.recuperacao-senha");
-        String corpo = getConteudoPaginaRecuperacaoSenha(recuperacaoSenha);
 
         EnvioEmail envioEmail = new EnvioEmail();
         envioEmail.setAssunto(assunto);
         envioEmail.setDestinatario(destinatario);
-        envioEmail.setCorpo(corpo);
+        envioEmail.setTemplate(TemplateHelper.TEMPLATE_RECUPERACAO_SENHA);
+        envioEmail.setLocale(LocaleContextHolder.getLocale().toLanguageTag());
+        envioEmail.setVariaveis(getVariaveisEmailRecuperacaoSenha(recuperacaoSenha));
 
         emailService.registrarEnvioEmail(envioEmail);
     }
@@ -166,16 +191,32 @@ public class UsuarioService {
     }
 
     /**
-     * Gera corpo de email de recuperação de senha.
+     * Substitui o hash da senha do usuário, mantendo a mesma senha. Apenas o campo da senha é atualizado, e somente se o
+     * hash armazenado ainda for o do usuário autenticado, de forma que alterações concorrentes do usuário não são
+     * sobrescritas pelo documento carregado na autenticação.
+     *
+     * @param usuario Usuário autenticado.
+     * @param hashSenha Novo hash da senha.
+     * @return Usuário com o hash atualizado, ou sem alteração caso a senha tenha sido alterada concorrentemente.
+     */
+    public Usuario atualizarHashSenha(Usuario usuario, String hashSenha) {
+        if(usuarioRepository.atualizarHashSenha(usuario.getId(), usuario.getSenha(), hashSenha) > 0) {
+            usuario.setSenha(hashSenha);
+        }
+        return usuario;
+    }
+
+    /**
+     * Gera as variáveis do template do email de recuperação de senha, renderizado no envio do email.
      *
      * @param recuperacaoSenha Registro de recuperação de senha.
-     * @return Corpo de email de recuperação de senha.
+     * @return Variáveis do template de recuperação de senha.
      */
-    private String getConteudoPaginaRecuperacaoSenha(RecuperacaoSenha recuperacaoSenha) {
-        Map<String, Object> variaveis = new HashMap<>();
+    private Map<String, String> getVariaveisEmailRecuperacaoSenha(RecuperacaoSenha recuperacaoSenha) {
+        Map<String, String> variaveis = new HashMap<>();
         variaveis.put("nomeUsuario", recuperacaoSenha.getUsuario().getNome());
         variaveis.put("token", recuperacaoSenha.getToken());
         variaveis.put("urlRecuperacao", carteiraProperty.getRecuperacaoSenha().getUrl());
-        return this.templateService.getConteudoTemplate("mail/recuperar-senha", variaveis);
+        return variaveis;
     }
 }
@@ -1,11 +1,18 @@
 package com.vhp.autenticacao.api.template;
 
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
 import org.springframework.context.i18n.LocaleContextHolder;
 import org.springframework.stereotype.Service;
 import org.thymeleaf.ITemplateEngine;
 import org.thymeleaf.context.Context;
+import org.thymeleaf.exceptions.TemplateEngineException;
 
+import java.util.List;
+import java.util.Locale;
 import java.util.Map;
 
 /**
@@ -14,8 +21,20 @@ import java.util.Map;
 @Service
 public class TemplateHelper {
 
+    /**
+     * Template do email de recuperação de senha.
+     */
+    public static final String TEMPLATE_RECUPERACAO_SENHA = "mail/recuperar-senha";
+
+    /**
+     * Templates de email renderizados no envio, carregados no cache na inicialização.
+     */
+    static final List<String> TEMPLATES_EMAIL = List.of(TEMPLATE_RECUPERACAO_SENHA);
+
     private final ITemplateEngine thymeleaf;
 
+    private final Logger logger = LoggerFactory.getLogger(TemplateHelper.class);
+
     @Autowired
     public TemplateHelper(ITemplateEngine thymeleaf) {
         this.thymeleaf = thymeleaf;
@@ -29,10 +48,22 @@ public class TemplateHelper {
      * @return Conteúdo da página HTML processada.
      */
     public String getConteudoTemplate(String template, Map<String, Object> variaveis) {
+        return getConteudoTemplate(template, LocaleContextHolder.getLocale(), variaveis);
+    }
+
+    /**
+     * Obtém página HTML processada pelo Thymeleaf no idioma informado.
+     *
+     * @param template Template HTML
+     * @param locale Idioma das mensagens do template.
+     * @param variaveis Variáveis a serem passadas para o HTML.
+     * @return Conteúdo da página HTML processada.
+     */
+    public String getConteudoTemplate(String template, Locale locale, Map<String, ?> variaveis) {
         if(template == null || template.isBlank())
             throw new IllegalArgumentException("É necessário informar um template válido.");
 
-        Context context = new Context(LocaleContextHolder.getLocale());
+        Context context = new Context(locale);
 
         if(variaveis != null ) {
             variaveis.forEach(context::setVariable);
@@ -40,4 +71,19 @@ public class TemplateHelper {
 
         return thymeleaf.process(template, context);
     }
+
+    /**
+     * Processa uma vez cada template de email na inicialização, para que a leitura e a análise dos templates sejam
+     * feitas antes do primeiro envio e fiquem no cache do Thymeleaf.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void aquecerCache() {
+        for(String template : TEMPLATES_EMAIL) {
+            try {
+                thymeleaf.process(template, new Context());
+            } catch (TemplateEngineException e) {
+                logger.warn("Falha ao carregar o template {} no cache.", template, e);
+            }
+        }
+    }
 }
@@ -0,0 +1,68 @@
+package com.vhp.autenticacao.api.configurations.mongodb;
+
+import com.vhp.autenticacao.api.document.EmailDocument;
+import com.vhp.autenticacao.api.document.RecuperacaoSenha;
+import com.vhp.autenticacao.api.document.Usuario;
+import org.bson.Document;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.MockitoAnnotations;
+import org.springframework.data.mongodb.core.MongoOperations;
+import org.springframework.data.mongodb.core.convert.MongoCustomConversions;
+import org.springframework.data.mongodb.core.index.IndexDefinition;
+import org.springframework.data.mongodb.core.index.IndexOperations;
+import org.springframework.data.mongodb.core.mapping.MongoMappingContext;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class IndicesMongoDBInitializerTest {
+
+    @Mock
+    private MongoOperations mongoOperations;
+
+    @Mock
+    private IndexOperations usuarioIndexOperations;
+
+    @Mock
+    private IndexOperations outrasIndexOperations;
+
+    private AutoCloseable autoCloseable;
+
+    @BeforeEach
+    public void beforeEach() {
+        autoCloseable = MockitoAnnotations.openMocks(this);
+    }
+
+    @AfterEach
+    public void afterEach() throws Exception {
+        autoCloseable.close();
+    }
+
+    @Test
+    @DisplayName("#criarIndices SHOULD ensure unique email index WHEN called.")
+    public void criarIndicesShouldEnsureUniqueEmailIndexWhenCalled() {
+        Mockito.when(mongoOperations.indexOps(Usuario.class)).thenReturn(usuarioIndexOperations);
+        Mockito.when(mongoOperations.indexOps(RecuperacaoSenha.class)).thenReturn(outrasIndexOperations);
+        Mockito.when(mongoOperations.indexOps(EmailDocument.class)).thenReturn(outrasIndexOperations);
+
+        MongoMappingContext mappingContext = new MongoMappingContext();
+        mappingContext.setSimpleTypeHolder(new MongoCustomConversions(List.of()).getSimpleTypeHolder());
+
+        new IndicesMongoDBInitializer(mongoOperations, mappingContext).criarIndices();
+
+        ArgumentCaptor<IndexDefinition> indiceCaptor = ArgumentCaptor.forClass(IndexDefinition.class);
+        Mockito.verify(usuarioIndexOperations, Mockito.atLeastOnce()).ensureIndex(indiceCaptor.capture());
+
+        List<IndexDefinition> indices = indiceCaptor.getAllValues();
+        assertTrue(indices.stream().anyMatch(indice -> indice.getIndexKeys().equals(new Document("email", 1))
+                && Boolean.TRUE.equals(indice.getIndexOptions().get("unique"))));
+        Mockito.verify(outrasIndexOperations, Mockito.atLeastOnce()).ensureIndex(Mockito.any());
+    }
+}
@@ -0,0 +1,138 @@
+package com.vhp.autenticacao.api.configurations.mongodb;
+
+import com.mongodb.MongoBulkWriteException;
+import com.mongodb.ServerAddress;
+import com.mongodb.bulk.BulkWriteError;
+import com.mongodb.bulk.BulkWriteResult;
+import com.vhp.autenticacao.api.document.Usuario;
+import com.vhp.autenticacao.api.repository.ResumoUsuario;
+import com.vhp.autenticacao.api.repository.UsuarioRepository;
+import org.bson.BsonDocument;
+import org.bson.Document;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.MockitoAnnotations;
+import org.springframework.data.mongodb.BulkOperationException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoOperations;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MigracaoEmailNormalizadoTest {
+
+    @Mock
+    private MongoOperations mongoOperations;
+
+    @Mock
+    private UsuarioRepository usuarioRepository;
+
+    @Mock
+    private BulkOperations bulkOperations;
+
+    @Mock
+    private IndicesMongoDBInitializer indicesMongoDBInitializer;
+
+    private MigracaoEmailNormalizado migracaoEmailNormalizado;
+
+    private AutoCloseable autoCloseable;
+
+    @BeforeEach
+    public void beforeEach() {
+        autoCloseable = MockitoAnnotations.openMocks(this);
+        Clock clock = Clock.fixed(Instant.parse("2023-05-06T14:45:05Z"), ZoneOffset.UTC);
+        migracaoEmailNormalizado = new MigracaoEmailNormalizado(mongoOperations, usuarioRepository, indicesMongoDBInitializer, clock);
+
+        Mockito.when(mongoOperations.bulkOps(BulkOperations.BulkMode.UNORDERED, Usuario.class)).thenReturn(bulkOperations);
+    }
+
+    @AfterEach
+    public void afterEach() throws Exception {
+        autoCloseable.close();
+    }
+
+    private static ResumoUsuario resumo(UUID id, String email) {
+        ResumoUsuario resumoUsuario = Mockito.mock(ResumoUsuario.class);
+        Mockito.when(resumoUsuario.getId()).thenReturn(id);
+        Mockito.when(resumoUsuario.getEmail()).thenReturn(email);
+        return resumoUsuario;
+    }
+
+    @Test
+    @DisplayName("#migrar SHOULD do nothing WHEN migration was already executed.")
+    public void migrarShouldDoNothingWhenMigrationWasAlreadyExecuted() {
+        Mockito.when(mongoOperations.exists(Mockito.any(Query.class), Mockito.eq(MigracaoEmailNormalizado.COLECAO_MIGRACOES)))
+                .thenReturn(true);
+
+        migracaoEmailNormalizado.migrar();
+
+        Mockito.verifyNoInteractions(usuarioRepository);
+    }
+
+    @Test
+    @DisplayName("#migrar SHOULD set normalized email AND record migration WHEN users have no normalized email.")
+    public void migrarShouldSetNormalizedEmailAndRecordMigrationWhenUsersHaveNoNormalizedEmail() {
+        UUID id = UUID.fromString("e621e1f8-c36c-495a-93fc-0c247a3e6e5f");
+        ResumoUsuario usuario = resumo(id, "Test@Email.com");
+        Mockito.when(usuarioRepository.streamByEmailNormalizadoAusente()).thenReturn(Stream.of(usuario));
+        Mockito.when(bulkOperations.execute()).thenReturn(BulkWriteResult.acknowledged(0, 1, 0, 1, Collections.emptyList(), Collections.emptyList()));
+
+        migracaoEmailNormalizado.migrar();
+
+        ArgumentCaptor<Update> updateCaptor = ArgumentCaptor.forClass(Update.class);
+        Mockito.verify(bulkOperations).updateOne(Mockito.any(Query.class), updateCaptor.capture());
+        assertEquals("test@email.com", updateCaptor.getValue().getUpdateObject().get("$set", Document.class).get("emailNormalizado"));
+
+        ArgumentCaptor<Document> migracaoCaptor = ArgumentCaptor.forClass(Document.class);
+        Mockito.verify(mongoOperations).insert(migracaoCaptor.capture(), Mockito.eq(MigracaoEmailNormalizado.COLECAO_MIGRACOES));
+        assertEquals(MigracaoEmailNormalizado.ID_MIGRACAO, migracaoCaptor.getValue().get("_id"));
+    }
+
+    @Test
+    @DisplayName("#migrar SHOULD fail startup without recording migration WHEN normalized email conflicts with another user.")
+    public void migrarShouldFailStartupWithoutRecordingMigrationWhenNormalizedEmailConflictsWithAnotherUser() {
+        ResumoUsuario usuario = resumo(UUID.randomUUID(), "test@email.com");
+        ResumoUsuario usuarioConflitante = resumo(UUID.randomUUID(), "TEST@email.com");
+        Mockito.when(usuarioRepository.streamByEmailNormalizadoAusente()).thenReturn(Stream.of(usuario, usuarioConflitante));
+
+        BulkWriteResult resultado = BulkWriteResult.acknowledged(0, 1, 0, 1, Collections.emptyList(), Collections.emptyList());
+        BulkWriteError erro = new BulkWriteError(11000, "E11000 duplicate key error", new BsonDocument(), 1);
+        Mockito.when(bulkOperations.execute()).thenThrow(new BulkOperationException("Erro",
+                new MongoBulkWriteException(resultado, List.of(erro), null, new ServerAddress(), Set.of())));
+
+        IllegalStateException exception = assertThrows(IllegalStateException.class, migracaoEmailNormalizado::migrar);
+
+        assertTrue(exception.getMessage().contains("1 usuários com email normalizado igual ao de outro usuário"), exception.getMessage());
+        Mockito.verify(bulkOperations, Mockito.times(2)).updateOne(Mockito.any(Query.class), Mockito.any(Update.class));
+        Mockito.verify(mongoOperations, Mockito.never()).insert(Mockito.any(Document.class), Mockito.anyString());
+    }
+
+    @Test
+    @DisplayName("#afterSingletonsInstantiated SHOULD ensure indexes before migrating WHEN context is initialized.")
+    public void afterSingletonsInstantiatedShouldEnsureIndexesBeforeMigratingWhenContextIsInitialized() {
+        Mockito.when(usuarioRepository.streamByEmailNormalizadoAusente()).thenReturn(Stream.empty());
+
+        migracaoEmailNormalizado.afterSingletonsInstantiated();
+
+        InOrder ordem = Mockito.inOrder(indicesMongoDBInitializer, usuarioRepository, mongoOperations);
+        ordem.verify(indicesMongoDBInitializer).garantirIndices();
+        ordem.verify(usuarioRepository).streamByEmailNormalizadoAusente();
+        ordem.verify(mongoOperations).insert(Mockito.any(Document.class), Mockito.eq(MigracaoEmailNormalizado.COLECAO_MIGRACOES));
+    }
+}
@@ -90,4 +90,19 @@ class AutenticacaoServiceTest {
         assertTrue(usuarioRetornado.isAtivo());
         assertEquals(now, usuarioRetornado.getDataCriacao());
     }
+
+    @Test
+    @DisplayName("#updatePassword SHOULD save new password hash WHEN called.")
+    public void shouldSaveNewPasswordHashWhenUpdatePasswordIsCalled() {
+        Usuario mockedUsuario = new Usuario();
+        mockedUsuario.setEmail("test@email.com");
+        mockedUsuario.setSenha("$2a$10$hash-antigo");
+
+        Mockito.when(usuarioService.atualizarHashSenha(mockedUsuario, "$2a$12$hash-novo"))
+                .thenReturn(mockedUsuario);
+
+        autenticacaoService.updatePassword(mockedUsuario, "$2a$12$hash-novo");
+
+        Mockito.verify(usuarioService).atualizarHashSenha(mockedUsuario, "$2a$12$hash-novo");
+    }
 }
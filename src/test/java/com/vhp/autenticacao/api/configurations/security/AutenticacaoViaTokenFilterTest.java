@@ -15,13 +15,17 @@ import org.springframework.http.HttpHeaders;
 import org.springframework.mock.web.MockHttpServletRequest;
 import org.springframework.mock.web.MockHttpServletResponse;
 import org.springframework.security.core.Authentication;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.context.SecurityContextHolder;
 
 import java.io.IOException;
+import java.time.Instant;
 import java.time.LocalDateTime;
+import java.util.List;
 import java.util.UUID;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 class AutenticacaoViaTokenFilterTest {
@@ -54,6 +58,7 @@ class AutenticacaoViaTokenFilterTest {
 
     @AfterEach
     public void afterEach() throws Exception {
+        SecurityContextHolder.clearContext();
         autoCloseable.close();
     }
 
@@ -63,14 +68,15 @@ class AutenticacaoViaTokenFilterTest {
 
         mockRequest.addHeader(HttpHeaders.AUTHORIZATION, "");
 
-        Mockito.when(tokenService.isTokenValido(""))
-                .thenReturn(false);
+        Mockito.when(tokenService.verificarToken(null))
+                .thenReturn(ValidacaoToken.invalido(StatusToken.AUSENTE));
 
         autenticacaoViaTokenFilter.doFilterInternal(mockRequest, mockResponse, mockFilterChain);
 
-        Mockito.verify(tokenService, Mockito.never())
-                .getIdUsuario("");
+        Mockito.verify(tokenService).verificarToken(null);
+        Mockito.verifyNoMoreInteractions(tokenService);
         Mockito.verifyNoInteractions(autenticacaoService);
+        Mockito.verify(mockFilterChain).doFilter(mockRequest, mockResponse);
 
         assertEquals("", "");
     }
@@ -91,16 +97,16 @@ class AutenticacaoViaTokenFilterTest {
         mockedUsuario.setDataCriacao(now);
         mockedUsuario.setAtivo(true);
 
-        Mockito.when(tokenService.isTokenValido("my-valid-token"))
-                .thenReturn(true);
-        Mockito.when(tokenService.getIdUsuario("my-valid-token"))
-                .thenReturn(uuid);
+        Mockito.when(tokenService.verificarToken("my-valid-token"))
+                .thenReturn(ValidacaoToken.valido(uuid, Instant.now().plusSeconds(60)));
 
         Mockito.when(autenticacaoService.loadUserById(uuid))
                 .thenReturn(mockedUsuario);
 
         autenticacaoViaTokenFilter.doFilterInternal(mockRequest, mockResponse, mockFilterChain);
 
+        Mockito.verify(tokenService, Mockito.times(1)).verificarToken("my-valid-token");
+
         Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
         Usuario usuarioAutenticado = (Usuario) authentication.getPrincipal();
 
@@ -111,4 +117,60 @@ class AutenticacaoViaTokenFilterTest {
         assertEquals(now, usuarioAutenticado.getDataCriacao());
         assertTrue(usuarioAutenticado.isAtivo());
     }
+
+    @Test
+    @DisplayName("#doFilterInternal SHOULD authenticate user from token claims without loading user WHEN stateless principal is available.")
+    public void doFilterInternalShouldAuthenticateUserFromClaimsWhenStatelessPrincipalIsAvailable() throws ServletException, IOException {
+
+        mockRequest.addHeader(HttpHeaders.AUTHORIZATION, "Bearer my-valid-token");
+        UUID uuid = UUID.fromString("e621e1f8-c36c-495a-93fc-0c247a3e6e5f");
+        ValidacaoToken validacao = ValidacaoToken.valido(uuid, Instant.now().plusSeconds(60));
+
+        Usuario usuarioDasClaims = new Usuario();
+        usuarioDasClaims.setId(uuid);
+        usuarioDasClaims.setNome("Test name");
+        usuarioDasClaims.setEmail("test@email.com");
+        usuarioDasClaims.setAtivo(true);
+
+        Mockito.when(tokenService.verificarToken("my-valid-token"))
+                .thenReturn(validacao);
+        Mockito.when(tokenService.getUsuarioDasClaims(validacao))
+                .thenReturn(usuarioDasClaims);
+        Mockito.when(tokenService.getAuthoritiesDasClaims(validacao))
+                .thenReturn(List.of(new SimpleGrantedAuthority("ROLE_TESTE")));
+
+        autenticacaoViaTokenFilter.doFilterInternal(mockRequest, mockResponse, mockFilterChain);
+
+        Mockito.verifyNoInteractions(autenticacaoService);
+
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        Usuario usuarioAutenticado = (Usuario) authentication.getPrincipal();
+
+        assertEquals(uuid, usuarioAutenticado.getId());
+        assertEquals("test@email.com", usuarioAutenticado.getEmail());
+        assertEquals("ROLE_TESTE", authentication.getAuthorities().iterator().next().getAuthority());
+    }
+
+    @Test
+    @DisplayName("#doFilterInternal SHOULD not authenticate user WHEN stateless principal is disabled.")
+    public void doFilterInternalShouldNotAuthenticateUserWhenStatelessPrincipalIsDisabled() throws ServletException, IOException {
+
+        mockRequest.addHeader(HttpHeaders.AUTHORIZATION, "Bearer my-valid-token");
+        UUID uuid = UUID.fromString("e621e1f8-c36c-495a-93fc-0c247a3e6e5f");
+        ValidacaoToken validacao = ValidacaoToken.valido(uuid, Instant.now().plusSeconds(60));
+
+        Usuario usuarioDasClaims = new Usuario();
+        usuarioDasClaims.setId(uuid);
+        usuarioDasClaims.setAtivo(false);
+
+        Mockito.when(tokenService.verificarToken("my-valid-token"))
+                .thenReturn(validacao);
+        Mockito.when(tokenService.getUsuarioDasClaims(validacao))
+                .thenReturn(usuarioDasClaims);
+
+        autenticacaoViaTokenFilter.doFilterInternal(mockRequest, mockResponse, mockFilterChain);
+
+        Mockito.verifyNoInteractions(autenticacaoService);
+        assertNull(SecurityContextHolder.getContext().getAuthentication());
+    }
 }
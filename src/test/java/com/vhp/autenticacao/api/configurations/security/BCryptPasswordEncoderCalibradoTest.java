@@ -0,0 +1,53 @@
+package com.vhp.autenticacao.api.configurations.security;
+
+import com.vhp.autenticacao.api.configurations.property.BcryptProperty;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BCryptPasswordEncoderCalibradoTest {
+
+    @Test
+    @DisplayName("#calcularForca SHOULD return highest cost under target time WHEN hash time at minimum cost is measured.")
+    public void calcularForcaShouldReturnHighestCostUnderTargetTimeWhenHashTimeAtMinimumCostIsMeasured() {
+        BcryptProperty bcryptProperty = new BcryptProperty();
+        bcryptProperty.setTempoAlvoMillis(250);
+        bcryptProperty.setForcaMinima(10);
+        bcryptProperty.setForcaMaxima(16);
+
+        // 40 ms no custo 10 -> 80 ms (11) -> 160 ms (12) -> 320 ms (13) ultrapassa o alvo
+        assertEquals(12, BCryptPasswordEncoderCalibrado.calcularForca(bcryptProperty, forca -> TimeUnit.MILLISECONDS.toNanos(40)));
+        // Hardware lento mantém o custo mínimo
+        assertEquals(10, BCryptPasswordEncoderCalibrado.calcularForca(bcryptProperty, forca -> TimeUnit.MILLISECONDS.toNanos(400)));
+        // Hardware rápido é limitado ao custo máximo
+        assertEquals(16, BCryptPasswordEncoderCalibrado.calcularForca(bcryptProperty, forca -> 1000));
+    }
+
+    @Test
+    @DisplayName("#calibrar SHOULD use configured cost WHEN forca is set.")
+    public void calibrarShouldUseConfiguredCostWhenForcaIsSet() {
+        BcryptProperty bcryptProperty = new BcryptProperty();
+        bcryptProperty.setForca(4);
+
+        BCryptPasswordEncoderCalibrado encoder = BCryptPasswordEncoderCalibrado.calibrar(bcryptProperty);
+
+        assertEquals(4, encoder.getForca());
+        assertEquals(4, BCryptPasswordEncoderCalibrado.getForca(encoder.encode("p4$$w0rd")));
+    }
+
+    @Test
+    @DisplayName("#upgradeEncoding SHOULD return true only WHEN stored hash cost is lower than current cost.")
+    public void upgradeEncodingShouldReturnTrueOnlyWhenStoredHashCostIsLowerThanCurrentCost() {
+        BCryptPasswordEncoderCalibrado encoder = new BCryptPasswordEncoderCalibrado(5);
+
+        assertTrue(encoder.upgradeEncoding(new BCryptPasswordEncoder(4).encode("p4$$w0rd")));
+        assertFalse(encoder.upgradeEncoding(new BCryptPasswordEncoder(6).encode("p4$$w0rd")));
+        assertFalse(encoder.upgradeEncoding(encoder.encode("p4$$w0rd")));
+        assertFalse(encoder.upgradeEncoding("hash-invalido"));
+        assertFalse(encoder.upgradeEncoding(null));
+    }
+}
@@ -0,0 +1,104 @@
+package com.vhp.autenticacao.api.configurations.security;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CacheTokenVerificadoTest {
+
+    private CacheTokenVerificado cacheTokenVerificado;
+
+    private Instant agora;
+
+    @BeforeEach
+    public void beforeEach() {
+        cacheTokenVerificado = new CacheTokenVerificado();
+        agora = Instant.parse("2023-05-06T14:45:05Z");
+    }
+
+    @Test
+    @DisplayName("#obter SHOULD return stored verification WHEN token is not expired.")
+    public void obterShouldReturnStoredVerificationWhenTokenIsNotExpired() {
+        ValidacaoToken validacao = ValidacaoToken.valido(UUID.randomUUID(), agora.plusSeconds(60));
+
+        cacheTokenVerificado.armazenar("token", 1, validacao, null, agora, 10);
+
+        assertSame(validacao, cacheTokenVerificado.obter("token", 1, agora.plusSeconds(30)));
+        assertEquals(1, cacheTokenVerificado.getAcertos());
+        assertEquals(0, cacheTokenVerificado.getFalhas());
+    }
+
+    @Test
+    @DisplayName("#obter SHOULD evict and return null WHEN token is expired.")
+    public void obterShouldEvictAndReturnNullWhenTokenIsExpired() {
+        ValidacaoToken validacao = ValidacaoToken.valido(UUID.randomUUID(), agora.plusSeconds(60));
+
+        cacheTokenVerificado.armazenar("token", 1, validacao, null, agora, 10);
+
+        assertNull(cacheTokenVerificado.obter("token", 1, agora.plusSeconds(60)));
+        assertEquals(0, cacheTokenVerificado.getTamanho());
+        assertEquals(1, cacheTokenVerificado.getRemocoes());
+        assertEquals(1, cacheTokenVerificado.getFalhas());
+    }
+
+    @Test
+    @DisplayName("#obter SHOULD evict and return null WHEN verifying key is retired before token expiration.")
+    public void obterShouldEvictAndReturnNullWhenVerifyingKeyIsRetiredBeforeTokenExpiration() {
+        ValidacaoToken validacao = ValidacaoToken.valido(UUID.randomUUID(), agora.plusSeconds(60));
+
+        cacheTokenVerificado.armazenar("token", 1, validacao, agora.plusSeconds(30), agora, 10);
+
+        assertSame(validacao, cacheTokenVerificado.obter("token", 1, agora.plusSeconds(29)));
+        assertNull(cacheTokenVerificado.obter("token", 1, agora.plusSeconds(30)));
+        assertEquals(0, cacheTokenVerificado.getTamanho());
+        assertEquals(1, cacheTokenVerificado.getRemocoes());
+    }
+
+    @Test
+    @DisplayName("#obter SHOULD return null WHEN token was verified by another engine generation.")
+    public void obterShouldReturnNullWhenTokenWasVerifiedByAnotherGeneration() {
+        ValidacaoToken validacao = ValidacaoToken.valido(UUID.randomUUID(), agora.plusSeconds(60));
+
+        cacheTokenVerificado.armazenar("token", 1, validacao, null, agora, 10);
+
+        assertNull(cacheTokenVerificado.obter("token", 2, agora));
+    }
+
+    @Test
+    @DisplayName("#armazenar SHOULD not store invalid tokens.")
+    public void armazenarShouldNotStoreInvalidTokens() {
+        cacheTokenVerificado.armazenar("token", 1, ValidacaoToken.invalido(StatusToken.EXPIRADO), null, agora, 10);
+
+        assertEquals(0, cacheTokenVerificado.getTamanho());
+    }
+
+    @Test
+    @DisplayName("#armazenar SHOULD not exceed maximum size.")
+    public void armazenarShouldNotExceedMaximumSize() {
+        for(int i = 0; i < 5; i++) {
+            ValidacaoToken validacao = ValidacaoToken.valido(UUID.randomUUID(), agora.plusSeconds(60));
+            cacheTokenVerificado.armazenar("token-" + i, 1, validacao, null, agora, 3);
+        }
+
+        assertEquals(3, cacheTokenVerificado.getTamanho());
+    }
+
+    @Test
+    @DisplayName("#armazenar SHOULD remove expired tokens WHEN cache is full.")
+    public void armazenarShouldRemoveExpiredTokensWhenCacheIsFull() {
+        cacheTokenVerificado.armazenar("token-1", 1, ValidacaoToken.valido(UUID.randomUUID(), agora.plusSeconds(10)), null, agora, 2);
+        cacheTokenVerificado.armazenar("token-2", 1, ValidacaoToken.valido(UUID.randomUUID(), agora.plusSeconds(10)), null, agora, 2);
+
+        Instant depois = agora.plusSeconds(20);
+        ValidacaoToken validacao = ValidacaoToken.valido(UUID.randomUUID(), depois.plusSeconds(60));
+        cacheTokenVerificado.armazenar("token-3", 1, validacao, null, depois, 2);
+
+        assertEquals(1, cacheTokenVerificado.getTamanho());
+        assertSame(validacao, cacheTokenVerificado.obter("token-3", 1, depois));
+    }
+}
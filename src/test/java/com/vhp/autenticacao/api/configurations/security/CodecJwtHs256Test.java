@@ -0,0 +1,187 @@
+package com.vhp.autenticacao.api.configurations.security;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.ExpiredJwtException;
+import io.jsonwebtoken.IncorrectClaimException;
+import io.jsonwebtoken.JwtBuilder;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.SignatureException;
+import io.jsonwebtoken.impl.TextCodec;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import javax.crypto.spec.SecretKeySpec;
+import java.security.Key;
+import java.time.Instant;
+import java.util.Date;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CodecJwtHs256Test {
+
+    private static final String ISSUER = "http://localhost:8080";
+
+    private static final String AUDIENCE = "TESTE.API";
+
+    private Key chave;
+
+    private CodecJwtHs256 codec;
+
+    private UUID usuarioId;
+
+    private Instant emissao;
+
+    private Instant expiracao;
+
+    @BeforeEach
+    public void beforeEach() {
+        chave = new SecretKeySpec(TextCodec.BASE64.decode("SW52aXN0YSBlbSB2b2NlLCB2b2NlIGUgbyBtZWxob3IK"), "HmacSHA256");
+        codec = new CodecJwtHs256(null, chave, ISSUER, AUDIENCE);
+        usuarioId = UUID.fromString("e621e1f8-c36c-495a-93fc-0c247a3e6e5f");
+        emissao = Instant.parse("2023-05-06T14:45:05Z");
+        expiracao = emissao.plusSeconds(1200);
+    }
+
+    private String gerarTokenJjwt(String kid, String nome) {
+        JwtBuilder builder = Jwts.builder();
+        if(kid != null) {
+            builder.setHeaderParam("kid", kid);
+        }
+        return builder
+                .setIssuer(ISSUER)
+                .setAudience(AUDIENCE)
+                .setSubject(usuarioId.toString())
+                .claim("name", nome)
+                .setIssuedAt(Date.from(emissao))
+                .setExpiration(Date.from(expiracao))
+                .signWith(SignatureAlgorithm.HS256, chave)
+                .compact();
+    }
+
+    @Test
+    @DisplayName("#gerar SHOULD generate the same token as jjwt WHEN name has escaped and non ASCII characters.")
+    public void gerarShouldGenerateSameTokenAsJjwtWhenNameHasEscapedAndNonAsciiCharacters() {
+        String[] nomes = {"test-name", "", "a", "ab", "João \"Zé\" d'Ávila", "barra\\invertida/normal",
+                "controle\n\t\r\b\f\u0001\u001f\u007f", "日本語 😀"};
+
+        for(String nome : nomes) {
+            assertEquals(gerarTokenJjwt(null, nome), codec.gerar(usuarioId, nome, emissao, expiracao), nome);
+        }
+        assertEquals(gerarTokenJjwt(null, null), codec.gerar(usuarioId, null, emissao, expiracao));
+    }
+
+    @Test
+    @DisplayName("#gerar SHOULD generate the same token as jjwt WHEN key has kid.")
+    public void gerarShouldGenerateSameTokenAsJjwtWhenKeyHasKid() {
+        CodecJwtHs256 codecComKid = new CodecJwtHs256("2024-01", chave, ISSUER, AUDIENCE);
+
+        String token = codecComKid.gerar(usuarioId, "test-name", emissao, expiracao);
+
+        assertEquals(gerarTokenJjwt("2024-01", "test-name"), token);
+        assertTrue(codecComKid.isCabecalhoDo(token));
+        assertFalse(codec.isCabecalhoDo(token));
+    }
+
+    @Test
+    @DisplayName("#gerar SHOULD return null WHEN name has unpaired surrogate.")
+    public void gerarShouldReturnNullWhenNameHasUnpairedSurrogate() {
+        assertNull(codec.gerar(usuarioId, "inválido \uD83D", emissao, expiracao));
+    }
+
+    @Test
+    @DisplayName("#verificar SHOULD return claims WHEN token was generated by jjwt.")
+    public void verificarShouldReturnClaimsWhenTokenWasGeneratedByJjwt() {
+        Claims claims = codec.verificar(gerarTokenJjwt(null, "João"), emissao.plusSeconds(10));
+
+        assertEquals(ISSUER, claims.getIssuer());
+        assertEquals(AUDIENCE, claims.getAudience());
+        assertEquals(usuarioId.toString(), claims.getSubject());
+        assertEquals("João", claims.get("name"));
+        assertEquals(Date.from(emissao), claims.getIssuedAt());
+        assertEquals(Date.from(expiracao), claims.getExpiration());
+    }
+
+    @Test
+    @DisplayName("#verificar SHOULD throw SignatureException WHEN signature does not match.")
+    public void verificarShouldThrowSignatureExceptionWhenSignatureDoesNotMatch() {
+        String token = codec.gerar(usuarioId, "test-name", emissao, expiracao);
+        String tokenAdulterado = token.substring(0, token.length() - 2) + (token.endsWith("AA") ? "BA" : "AA");
+
+        assertThrows(SignatureException.class, () -> codec.verificar(tokenAdulterado, emissao));
+    }
+
+    @Test
+    @DisplayName("#verificar SHOULD throw ExpiredJwtException WHEN token is expired.")
+    public void verificarShouldThrowExpiredJwtExceptionWhenTokenIsExpired() {
+        String token = codec.gerar(usuarioId, "test-name", emissao, expiracao);
+
+        assertNotNull(codec.verificar(token, expiracao));
+        assertThrows(ExpiredJwtException.class, () -> codec.verificar(token, expiracao.plusMillis(1)));
+    }
+
+    @Test
+    @DisplayName("#verificar SHOULD throw IncorrectClaimException WHEN audience does not match.")
+    public void verificarShouldThrowIncorrectClaimExceptionWhenAudienceDoesNotMatch() {
+        String token = new CodecJwtHs256(null, chave, ISSUER, "OUTRA.API").gerar(usuarioId, "test-name", emissao, expiracao);
+
+        assertThrows(IncorrectClaimException.class, () -> codec.verificar(token, emissao));
+    }
+
+    @Test
+    @DisplayName("#verificar SHOULD return principal claims WHEN token has stateless principal claims.")
+    public void verificarShouldReturnPrincipalClaimsWhenTokenHasStatelessPrincipalClaims() {
+        String token = Jwts.builder()
+                .setIssuer(ISSUER)
+                .setAudience(AUDIENCE)
+                .setSubject(usuarioId.toString())
+                .claim("name", "test-name")
+                .setIssuedAt(Date.from(emissao))
+                .setExpiration(Date.from(expiracao))
+                .claim("email", "test@email.com")
+                .claim("ativo", true)
+                .claim("authorities", List.of("ROLE_ADMIN", "ROLE_USUARIO"))
+                .signWith(SignatureAlgorithm.HS256, chave)
+                .compact();
+
+        Claims claims = codec.verificar(token, emissao);
+
+        assertEquals("test@email.com", claims.get("email"));
+        assertEquals(Boolean.TRUE, claims.get("ativo"));
+        assertEquals(List.of("ROLE_ADMIN", "ROLE_USUARIO"), claims.get("authorities"));
+    }
+
+    @Test
+    @DisplayName("#verificar SHOULD return null before checking signature WHEN token has unsupported claims.")
+    public void verificarShouldReturnNullBeforeCheckingSignatureWhenTokenHasUnsupportedClaims() {
+        Key outraChave = new SecretKeySpec(TextCodec.BASE64.decode("T3V0cmEgY2hhdmUgZGUgYXNzaW5hdHVyYSBkZSB0ZXN0ZQo="), "HmacSHA256");
+        String token = Jwts.builder()
+                .setIssuer(ISSUER)
+                .setAudience(AUDIENCE)
+                .setSubject(usuarioId.toString())
+                .claim("perfil", "ADMIN")
+                .setExpiration(Date.from(expiracao))
+                .signWith(SignatureAlgorithm.HS256, outraChave)
+                .compact();
+
+        assertNull(codec.verificar(token, emissao));
+    }
+
+    @Test
+    @DisplayName("#verificar SHOULD return null WHEN authorities claim is not an array of strings.")
+    public void verificarShouldReturnNullWhenAuthoritiesClaimIsNotAnArrayOfStrings() {
+        String token = Jwts.builder()
+                .setIssuer(ISSUER)
+                .setAudience(AUDIENCE)
+                .setSubject(usuarioId.toString())
+                .claim("authorities", List.of(1, 2))
+                .setExpiration(Date.from(expiracao))
+                .signWith(SignatureAlgorithm.HS256, chave)
+                .compact();
+
+        assertNull(codec.verificar(token, emissao));
+    }
+}
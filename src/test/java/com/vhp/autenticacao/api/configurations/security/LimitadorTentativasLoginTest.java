@@ -0,0 +1,140 @@
+package com.vhp.autenticacao.api.configurations.security;
+
+import com.vhp.autenticacao.api.configurations.property.AutenticacaoProperty;
+import com.vhp.autenticacao.api.exceptions.MuitasTentativasLoginException;
+import com.vhp.autenticacao.api.messages.MessageService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.MockitoAnnotations;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+
+import java.time.Clock;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LimitadorTentativasLoginTest {
+
+    @Mock
+    private MessageService messageService;
+
+    @Mock
+    private Clock clock;
+
+    private AutenticacaoProperty autenticacaoProperty;
+
+    private AutoCloseable autoCloseable;
+
+    @BeforeEach
+    public void beforeEach() {
+        autoCloseable = MockitoAnnotations.openMocks(this);
+
+        autenticacaoProperty = new AutenticacaoProperty();
+        autenticacaoProperty.getLogin().getEmail().setTentativas(3);
+        autenticacaoProperty.getLogin().getEmail().setJanelaSeconds(60);
+        autenticacaoProperty.getLogin().getIp().setTentativas(5);
+        autenticacaoProperty.getLogin().getIp().setJanelaSeconds(60);
+        autenticacaoProperty.getLogin().setSlots(1024);
+
+        Mockito.when(clock.millis()).thenReturn(600_000L);
+    }
+
+    @AfterEach
+    public void afterEach() throws Exception {
+        autoCloseable.close();
+    }
+
+    @Test
+    @DisplayName("#verificarTentativa SHOULD throw MuitasTentativasLoginException with Retry-After WHEN email failure limit is reached.")
+    public void verificarTentativaShouldThrowMuitasTentativasLoginExceptionWhenEmailFailureLimitIsReached() {
+        LimitadorTentativasLogin limitador = new LimitadorTentativasLogin(autenticacaoProperty, messageService, clock);
+
+        limitador.registrarFalha("test@email.com", "10.0.0.1");
+        limitador.registrarFalha(" Test@Email.com ", "10.0.0.2");
+        limitador.registrarFalha("TEST@EMAIL.COM", "10.0.0.3");
+
+        MuitasTentativasLoginException exception = assertThrows(MuitasTentativasLoginException.class,
+                () -> limitador.verificarTentativa("test@email.com", "10.0.0.4"));
+
+        assertEquals(HttpStatus.TOO_MANY_REQUESTS, exception.getHttpStatusCode());
+        assertEquals("60", exception.getHeaders().getFirst(HttpHeaders.RETRY_AFTER));
+        assertEquals(1, limitador.getRejeicoesEmail());
+        assertEquals(0, limitador.getRejeicoesIp());
+        Mockito.verify(messageService).getMessage("error.muitas-tentativas-login");
+
+        limitador.verificarTentativa("outro@email.com", "10.0.0.4");
+    }
+
+    @Test
+    @DisplayName("#verificarTentativa SHOULD throw MuitasTentativasLoginException WHEN client address failure limit is reached.")
+    public void verificarTentativaShouldThrowMuitasTentativasLoginExceptionWhenClientAddressFailureLimitIsReached() {
+        LimitadorTentativasLogin limitador = new LimitadorTentativasLogin(autenticacaoProperty, messageService, clock);
+
+        for(int i = 0; i < 5; i++) {
+            limitador.verificarTentativa("test" + i + "@email.com", "10.0.0.1");
+            limitador.registrarFalha("test" + i + "@email.com", "10.0.0.1");
+        }
+
+        assertThrows(MuitasTentativasLoginException.class, () -> limitador.verificarTentativa("novo@email.com", "10.0.0.1"));
+        assertEquals(1, limitador.getRejeicoesIp());
+        assertEquals(6, limitador.getTentativas());
+
+        limitador.verificarTentativa("novo@email.com", "10.0.0.2");
+    }
+
+    @Test
+    @DisplayName("#verificarTentativa SHOULD allow every attempt WHEN attempts from the same address do not fail.")
+    public void verificarTentativaShouldAllowEveryAttemptWhenAttemptsFromSameAddressDoNotFail() {
+        LimitadorTentativasLogin limitador = new LimitadorTentativasLogin(autenticacaoProperty, messageService, clock);
+
+        for(int i = 0; i < 50; i++) {
+            limitador.verificarTentativa("test" + i + "@email.com", "10.0.0.1");
+            limitador.verificarTentativa("test@email.com", "10.0.0.1");
+        }
+
+        assertEquals(100, limitador.getTentativas());
+        assertEquals(0, limitador.getRejeicoesIp());
+        assertEquals(0, limitador.getRejeicoesEmail());
+    }
+
+    @Test
+    @DisplayName("#verificarTentativa SHOULD weigh previous window failures WHEN window slides.")
+    public void verificarTentativaShouldWeighPreviousWindowFailuresWhenWindowSlides() {
+        LimitadorTentativasLogin limitador = new LimitadorTentativasLogin(autenticacaoProperty, messageService, clock);
+
+        for(int i = 0; i < 3; i++) {
+            limitador.registrarFalha("test@email.com", null);
+        }
+
+        // 10 segundos na janela seguinte: 3 * 50/60 = 2,5 falhas ainda contam
+        Mockito.when(clock.millis()).thenReturn(670_000L);
+        limitador.verificarTentativa("test@email.com", null);
+        limitador.registrarFalha("test@email.com", null);
+        // 3 * 50/60 + 1 = 3,5 falhas, abaixo do limite apenas após 20 segundos na janela
+        MuitasTentativasLoginException exception = assertThrows(MuitasTentativasLoginException.class,
+                () -> limitador.verificarTentativa("test@email.com", null));
+        assertEquals("10", exception.getHeaders().getFirst(HttpHeaders.RETRY_AFTER));
+
+        // 40 segundos na janela seguinte: 3 * 20/60 + 1 = 2 falhas
+        Mockito.when(clock.millis()).thenReturn(700_000L);
+        limitador.verificarTentativa("test@email.com", null);
+    }
+
+    @Test
+    @DisplayName("#verificarTentativa SHOULD allow every attempt WHEN limit is disabled.")
+    public void verificarTentativaShouldAllowEveryAttemptWhenLimitIsDisabled() {
+        autenticacaoProperty.getLogin().setLimitarTentativas(false);
+        LimitadorTentativasLogin limitador = new LimitadorTentativasLogin(autenticacaoProperty, messageService, clock);
+
+        for(int i = 0; i < 10; i++) {
+            limitador.registrarFalha("test@email.com", "10.0.0.1");
+            limitador.verificarTentativa("test@email.com", "10.0.0.1");
+        }
+
+        assertEquals(0, limitador.getTentativas());
+    }
+}
@@ -0,0 +1,94 @@
+package com.vhp.autenticacao.api.configurations.security;
+
+import com.vhp.autenticacao.api.configurations.property.SenhaProperty;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PasswordEncoderDelegadoTest {
+
+    private SenhaProperty senhaProperty;
+
+    @BeforeEach
+    public void beforeEach() {
+        senhaProperty = new SenhaProperty();
+        senhaProperty.getBcrypt().setForca(4);
+        senhaProperty.getArgon2().setMemoriaKb(1024);
+        senhaProperty.getArgon2().setIteracoes(1);
+        senhaProperty.getPbkdf2().setIteracoes(1000);
+    }
+
+    private PasswordEncoder criar(String algoritmo) {
+        senhaProperty.setAlgoritmo(algoritmo);
+        return PasswordEncoderDelegado.criar(senhaProperty);
+    }
+
+    @Test
+    @DisplayName("#criar SHOULD encode with configured algorithm prefix WHEN algorithm is supported.")
+    public void criarShouldEncodeWithConfiguredAlgorithmPrefixWhenAlgorithmIsSupported() {
+        assertTrue(criar("bcrypt").encode("p4$$w0rd").startsWith("{bcrypt}$2a$04$"));
+        assertTrue(criar("argon2").encode("p4$$w0rd").startsWith("{argon2}$argon2id$"));
+        assertTrue(criar("pbkdf2").encode("p4$$w0rd").startsWith("{pbkdf2}"));
+    }
+
+    @Test
+    @DisplayName("#matches SHOULD verify hashes of every algorithm WHEN stored hash has prefix or is legacy bcrypt.")
+    public void matchesShouldVerifyHashesOfEveryAlgorithmWhenStoredHashHasPrefixOrIsLegacyBcrypt() {
+        String hashBcrypt = criar("bcrypt").encode("p4$$w0rd");
+        String hashPbkdf2 = criar("pbkdf2").encode("p4$$w0rd");
+        PasswordEncoder argon2 = criar("argon2");
+        String hashLegado = new BCryptPasswordEncoder(4).encode("p4$$w0rd");
+
+        assertTrue(argon2.matches("p4$$w0rd", argon2.encode("p4$$w0rd")));
+        assertTrue(argon2.matches("p4$$w0rd", hashBcrypt));
+        assertTrue(argon2.matches("p4$$w0rd", hashPbkdf2));
+        assertTrue(argon2.matches("p4$$w0rd", hashLegado));
+        assertFalse(argon2.matches("outra-senha", hashLegado));
+    }
+
+    @Test
+    @DisplayName("#upgradeEncoding SHOULD return true WHEN stored hash uses another algorithm or has no prefix.")
+    public void upgradeEncodingShouldReturnTrueWhenStoredHashUsesAnotherAlgorithmOrHasNoPrefix() {
+        String hashBcrypt = criar("bcrypt").encode("p4$$w0rd");
+        PasswordEncoder argon2 = criar("argon2");
+
+        assertTrue(argon2.upgradeEncoding(hashBcrypt));
+        assertTrue(argon2.upgradeEncoding(new BCryptPasswordEncoder(4).encode("p4$$w0rd")));
+        assertFalse(argon2.upgradeEncoding(argon2.encode("p4$$w0rd")));
+    }
+
+    @Test
+    @DisplayName("#upgradeEncoding SHOULD return true WHEN stored argon2 hash uses fewer iterations or less memory than configured.")
+    public void upgradeEncodingShouldReturnTrueWhenStoredArgon2HashUsesFewerIterationsOrLessMemoryThanConfigured() {
+        String hashArgon2 = criar("argon2").encode("p4$$w0rd");
+
+        senhaProperty.getArgon2().setIteracoes(2);
+        assertTrue(criar("argon2").upgradeEncoding(hashArgon2));
+
+        senhaProperty.getArgon2().setIteracoes(1);
+        senhaProperty.getArgon2().setMemoriaKb(2048);
+        assertTrue(criar("argon2").upgradeEncoding(hashArgon2));
+    }
+
+    @Test
+    @DisplayName("#upgradeEncoding SHOULD return false WHEN pbkdf2 iterations change, since they are not stored in the hash.")
+    public void upgradeEncodingShouldReturnFalseWhenPbkdf2IterationsChange() {
+        String hashPbkdf2 = criar("pbkdf2").encode("p4$$w0rd");
+
+        senhaProperty.getPbkdf2().setIteracoes(2000);
+        PasswordEncoder pbkdf2 = criar("pbkdf2");
+
+        assertFalse(pbkdf2.upgradeEncoding(hashPbkdf2));
+        assertFalse(pbkdf2.matches("p4$$w0rd", hashPbkdf2));
+    }
+
+    @Test
+    @DisplayName("#criar SHOULD throw IllegalStateException WHEN algorithm is not supported.")
+    public void criarShouldThrowIllegalStateExceptionWhenAlgorithmIsNotSupported() {
+        assertThrows(IllegalStateException.class, () -> criar("scrypt"));
+    }
+}
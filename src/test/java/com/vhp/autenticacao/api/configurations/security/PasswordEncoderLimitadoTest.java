@@ -0,0 +1,132 @@
+package com.vhp.autenticacao.api.configurations.security;
+
+import com.vhp.autenticacao.api.configurations.property.ExecutorSenhaProperty;
+import com.vhp.autenticacao.api.exceptions.ServicoSobrecarregadoException;
+import com.vhp.autenticacao.api.messages.MessageService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.MockitoAnnotations;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PasswordEncoderLimitadoTest {
+
+    @Mock
+    private PasswordEncoder delegate;
+
+    @Mock
+    private MessageService messageService;
+
+    private PasswordEncoderLimitado passwordEncoder;
+
+    private AutoCloseable autoCloseable;
+
+    @BeforeEach
+    public void beforeEach() {
+        autoCloseable = MockitoAnnotations.openMocks(this);
+
+        ExecutorSenhaProperty executorProperty = new ExecutorSenhaProperty();
+        executorProperty.setThreads(1);
+        executorProperty.setTamanhoFila(1);
+        executorProperty.setRetryAfterSeconds(2);
+
+        passwordEncoder = new PasswordEncoderLimitado(delegate, executorProperty, messageService);
+    }
+
+    @AfterEach
+    public void afterEach() throws Exception {
+        passwordEncoder.close();
+        autoCloseable.close();
+    }
+
+    @Test
+    @DisplayName("#matches SHOULD delegate to password encoder on executor thread WHEN called.")
+    public void matchesShouldDelegateToPasswordEncoderOnExecutorThreadWhenCalled() {
+        String threadChamadora = Thread.currentThread().getName();
+        Mockito.when(delegate.matches("senha", "hash"))
+                .thenAnswer(invocation -> !Thread.currentThread().getName().equals(threadChamadora));
+
+        assertTrue(passwordEncoder.matches("senha", "hash"));
+        assertEquals(1, passwordEncoder.getExecucoes());
+    }
+
+    @Test
+    @DisplayName("#encode SHOULD rethrow delegate exception WHEN hashing fails.")
+    public void encodeShouldRethrowDelegateExceptionWhenHashingFails() {
+        Mockito.when(delegate.encode("senha"))
+                .thenThrow(new IllegalArgumentException("falha"));
+
+        assertThrows(IllegalArgumentException.class, () -> passwordEncoder.encode("senha"));
+    }
+
+    @Test
+    @DisplayName("#encode SHOULD throw ServicoSobrecarregadoException with Retry-After WHEN queue is full.")
+    public void encodeShouldThrowServicoSobrecarregadoExceptionWithRetryAfterWhenQueueIsFull() throws Exception {
+        CountDownLatch iniciado = new CountDownLatch(1);
+        CountDownLatch liberar = new CountDownLatch(1);
+        Mockito.when(delegate.encode("senha"))
+                .thenAnswer(invocation -> {
+                    iniciado.countDown();
+                    liberar.await();
+                    return "hash";
+                });
+
+        CompletableFuture<String> emExecucao = CompletableFuture.supplyAsync(() -> passwordEncoder.encode("senha"));
+        assertTrue(iniciado.await(5, TimeUnit.SECONDS));
+        CompletableFuture<String> naFila = CompletableFuture.supplyAsync(() -> passwordEncoder.encode("senha"));
+        while(passwordEncoder.getTamanhoFila() == 0) {
+            Thread.onSpinWait();
+        }
+
+        ServicoSobrecarregadoException exception = assertThrows(ServicoSobrecarregadoException.class,
+                () -> passwordEncoder.encode("senha"));
+        liberar.countDown();
+
+        assertEquals(HttpStatus.SERVICE_UNAVAILABLE, exception.getHttpStatusCode());
+        assertEquals("2", exception.getHeaders().getFirst(HttpHeaders.RETRY_AFTER));
+        assertEquals(1, passwordEncoder.getRejeicoes());
+        assertEquals("hash", emExecucao.get(5, TimeUnit.SECONDS));
+        assertEquals("hash", naFila.get(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    @DisplayName("#encodeLote SHOULD return hashes in order without rejections WHEN batch is larger than queue.")
+    public void encodeLoteShouldReturnHashesInOrderWithoutRejectionsWhenBatchIsLargerThanQueue() {
+        Mockito.when(delegate.encode(Mockito.anyString()))
+                .thenAnswer(invocation -> "hash-" + invocation.getArgument(0));
+
+        List<String> hashes = passwordEncoder.encodeLote(List.of("a", "b", "c", "d", "e"));
+
+        assertEquals(List.of("hash-a", "hash-b", "hash-c", "hash-d", "hash-e"), hashes);
+        assertEquals(5, passwordEncoder.getExecucoes());
+        assertEquals(0, passwordEncoder.getRejeicoes());
+    }
+
+    @Test
+    @DisplayName("#bindTo SHOULD register queue, wait time and rejection metrics WHEN called.")
+    public void bindToShouldRegisterQueueWaitTimeAndRejectionMetricsWhenCalled() {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        Mockito.when(delegate.matches("senha", "hash"))
+                .thenReturn(true);
+
+        passwordEncoder.bindTo(registry);
+        passwordEncoder.matches("senha", "hash");
+
+        assertEquals(0, registry.get("autenticacao.senha.executor.fila").gauge().value());
+        assertEquals(1, registry.get("autenticacao.senha.executor.espera").functionTimer().count());
+        assertEquals(0, registry.get("autenticacao.senha.executor.rejeicoes").functionCounter().count());
+    }
+}
@@ -1,11 +1,16 @@
 package com.vhp.autenticacao.api.configurations.security;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.vhp.autenticacao.api.configurations.property.AutenticacaoProperty;
+import com.vhp.autenticacao.api.configurations.property.ChaveJwtProperty;
 import com.vhp.autenticacao.api.configurations.property.JwtProperty;
+import com.vhp.autenticacao.api.controller.dto.JwksDTO;
 import com.vhp.autenticacao.api.document.Usuario;
+import com.vhp.autenticacao.api.document.UuidV7;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.SignatureAlgorithm;
 import io.jsonwebtoken.impl.TextCodec;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
@@ -14,13 +19,20 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.Mockito;
 import org.mockito.MockitoAnnotations;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
 
+import java.io.IOException;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
 import java.time.Clock;
 import java.time.Instant;
 import java.time.LocalDateTime;
 import java.time.ZoneId;
 import java.time.temporal.ChronoUnit;
+import java.util.Base64;
 import java.util.Date;
+import java.util.List;
+import java.util.Map;
 import java.util.UUID;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -192,6 +204,9 @@ class TokenServiceTest {
         Usuario usuario = new Usuario();
         usuario.setId(usuarioId);
 
+        Mockito.when(clock.instant())
+                .thenReturn(hoje);
+
         String myToken = gerarToken(usuario, hoje, dataExpiracao);
 
         assertFalse(tokenService.isTokenValido(myToken));
@@ -209,6 +224,9 @@ class TokenServiceTest {
         Usuario usuario = new Usuario();
         usuario.setId(usuarioId);
 
+        Mockito.when(clock.instant())
+                .thenReturn(hoje);
+
         String myToken = gerarToken(usuario, hoje, dataExpiracao);
 
         assertTrue(tokenService.isTokenValido(myToken));
@@ -238,6 +256,9 @@ class TokenServiceTest {
         Usuario usuario = new Usuario();
         usuario.setId(usuarioId);
 
+        Mockito.when(clock.instant())
+                .thenReturn(hoje);
+
         String myToken = gerarToken(usuario, hoje, dataExpiracao);
         assertTrue(tokenService.isTokenInvalido(myToken));
     }
@@ -254,6 +275,9 @@ class TokenServiceTest {
         Usuario usuario = new Usuario();
         usuario.setId(usuarioId);
 
+        Mockito.when(clock.instant())
+                .thenReturn(hoje);
+
         String myToken = gerarToken(usuario, hoje, dataExpiracao);
 
         assertFalse(tokenService.isTokenInvalido(myToken));
@@ -287,6 +311,9 @@ class TokenServiceTest {
         Usuario usuario = new Usuario();
         usuario.setId(usuarioId);
 
+        Mockito.when(clock.instant())
+                .thenReturn(hoje);
+
         String myToken = gerarToken(usuario, hoje, dataExpiracao);
         Throwable throwable = assertThrows(IllegalArgumentException.class,
                 () -> tokenService.getIdUsuario(myToken));
@@ -305,9 +332,559 @@ class TokenServiceTest {
         Usuario usuario = new Usuario();
         usuario.setId(usuarioId);
 
+        Mockito.when(clock.instant())
+                .thenReturn(hoje);
+
         String myToken = gerarToken(usuario, hoje, dataExpiracao);
         UUID idRetornado = tokenService.getIdUsuario(myToken);
 
         assertEquals(usuarioId, idRetornado);
     }
+
+    @Test
+    @DisplayName("#getIdUsuario SHOULD return user ID WHEN user ID is a version 7 UUID.")
+    public void getIdUsuarioShouldReturnUserIDWhenUserIdIsVersion7Uuid() {
+        Instant hoje = LocalDateTime.of(2023, 5, 6, 14, 45, 5)
+                .atZone(ZoneId.systemDefault())
+                .toInstant();
+
+        Usuario usuario = new Usuario();
+        usuario.setId(UuidV7.gerar());
+
+        Mockito.when(clock.instant())
+                .thenReturn(hoje);
+
+        String myToken = gerarToken(usuario, hoje, hoje.plusSeconds(60));
+
+        assertEquals(usuario.getId(), tokenService.getIdUsuario(myToken));
+    }
+
+    @Test
+    @DisplayName("#isTokenValido SHOULD return false WHEN jwt secret changes after token was generated.")
+    public void isTokenValidoShouldReturnFalseWhenSecretChangesAfterTokenWasGenerated() {
+        Instant hoje = LocalDateTime.of(2023, 5, 6, 14, 45, 5)
+                .atZone(ZoneId.systemDefault())
+                .toInstant();
+
+        Instant dataExpiracao = hoje.plus(jwtProperty.getRefreshTokenValiditySeconds(), ChronoUnit.SECONDS);
+
+        Usuario usuario = new Usuario();
+        usuario.setId(usuarioId);
+
+        Mockito.when(clock.instant())
+                .thenReturn(hoje);
+
+        String myToken = gerarToken(usuario, hoje, dataExpiracao);
+        assertTrue(tokenService.isTokenValido(myToken));
+
+        jwtProperty.setSecret("Yn2kjibddFAWtnPJ2AFlL8WXmohJMCvigQggaEypa5E=");
+
+        assertFalse(tokenService.isTokenValido(myToken));
+    }
+
+    @Test
+    @DisplayName("#verificarToken SHOULD return AUSENTE WHEN token is null.")
+    public void verificarTokenShouldReturnAusenteWhenTokenIsNull() {
+        ValidacaoToken validacao = tokenService.verificarToken(null);
+
+        assertEquals(StatusToken.AUSENTE, validacao.getStatus());
+        assertNull(validacao.getIdUsuario());
+    }
+
+    @Test
+    @DisplayName("#verificarToken SHOULD return MALFORMADO WHEN token is not a JWT.")
+    public void verificarTokenShouldReturnMalformadoWhenTokenIsNotJwt() {
+        ValidacaoToken validacao = tokenService.verificarToken("not-a-jwt");
+
+        assertEquals(StatusToken.MALFORMADO, validacao.getStatus());
+    }
+
+    @Test
+    @DisplayName("#verificarToken SHOULD return EXPIRADO WHEN token is expired.")
+    public void verificarTokenShouldReturnExpiradoWhenTokenExpired() {
+        Instant hoje = LocalDateTime.of(2023, 5, 6, 14, 45, 5)
+                .atZone(ZoneId.systemDefault())
+                .toInstant();
+
+        Usuario usuario = new Usuario();
+        usuario.setId(usuarioId);
+
+        Mockito.when(clock.instant())
+                .thenReturn(hoje);
+
+        String myToken = gerarToken(usuario, hoje.minusSeconds(120), hoje.minusSeconds(60));
+
+        assertEquals(StatusToken.EXPIRADO, tokenService.verificarToken(myToken).getStatus());
+    }
+
+    @Test
+    @DisplayName("#verificarToken SHOULD return ASSINATURA_INVALIDA WHEN token was signed with another key.")
+    public void verificarTokenShouldReturnAssinaturaInvalidaWhenSignedWithAnotherKey() {
+        Instant hoje = LocalDateTime.of(2023, 5, 6, 14, 45, 5)
+                .atZone(ZoneId.systemDefault())
+                .toInstant();
+
+        Usuario usuario = new Usuario();
+        usuario.setId(usuarioId);
+
+        Mockito.when(clock.instant())
+                .thenReturn(hoje);
+
+        String myToken = Jwts.builder()
+                .setIssuer(jwtProperty.getIssuer())
+                .setAudience(jwtProperty.getAudience())
+                .setSubject(usuario.getId().toString())
+                .setExpiration(Date.from(hoje.plusSeconds(60)))
+                .signWith(SignatureAlgorithm.HS256, TextCodec.BASE64.decode("Yn2kjibddFAWtnPJ2AFlL8WXmohJMCvigQggaEypa5E="))
+                .compact();
+
+        assertEquals(StatusToken.ASSINATURA_INVALIDA, tokenService.verificarToken(myToken).getStatus());
+    }
+
+    @Test
+    @DisplayName("#verificarToken SHOULD return CLAIMS_INVALIDAS WHEN audience does not match.")
+    public void verificarTokenShouldReturnClaimsInvalidasWhenAudienceDoesNotMatch() {
+        Instant hoje = LocalDateTime.of(2023, 5, 6, 14, 45, 5)
+                .atZone(ZoneId.systemDefault())
+                .toInstant();
+
+        Mockito.when(clock.instant())
+                .thenReturn(hoje);
+
+        String myToken = Jwts.builder()
+                .setIssuer(jwtProperty.getIssuer())
+                .setAudience("OUTRA.API")
+                .setSubject(usuarioId.toString())
+                .setExpiration(Date.from(hoje.plusSeconds(60)))
+                .signWith(SignatureAlgorithm.HS256, TextCodec.BASE64.decode(jwtProperty.getSecret()))
+                .compact();
+
+        assertEquals(StatusToken.CLAIMS_INVALIDAS, tokenService.verificarToken(myToken).getStatus());
+    }
+
+    @Test
+    @DisplayName("#verificarToken SHOULD return user ID, expiration and claims WHEN called with valid token.")
+    public void verificarTokenShouldReturnUserIdExpirationAndClaimsWhenCalledWithValidToken() {
+        Instant hoje = LocalDateTime.of(2023, 5, 6, 14, 45, 5)
+                .atZone(ZoneId.systemDefault())
+                .toInstant();
+
+        Instant dataExpiracao = hoje.plus(jwtProperty.getAccessTokenValiditySeconds(), ChronoUnit.SECONDS);
+
+        Usuario usuario = new Usuario();
+        usuario.setId(usuarioId);
+
+        Mockito.when(clock.instant())
+                .thenReturn(hoje);
+
+        String myToken = gerarToken(usuario, hoje, dataExpiracao);
+        ValidacaoToken validacao = tokenService.verificarToken(myToken);
+
+        assertTrue(validacao.isValido());
+        assertEquals(usuarioId, validacao.getIdUsuario());
+        assertEquals(dataExpiracao, validacao.getDataExpiracao());
+        assertEquals("test-name", validacao.getNome());
+    }
+
+    @Test
+    @DisplayName("#verificarToken SHOULD serve repeated verifications from cache WHEN cache is enabled.")
+    public void verificarTokenShouldServeRepeatedVerificationsFromCacheWhenCacheIsEnabled() {
+        Instant hoje = LocalDateTime.of(2023, 5, 6, 14, 45, 5)
+                .atZone(ZoneId.systemDefault())
+                .toInstant();
+
+        Usuario usuario = new Usuario();
+        usuario.setId(usuarioId);
+
+        Mockito.when(clock.instant())
+                .thenReturn(hoje);
+
+        jwtProperty.getCache().setHabilitado(true);
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        tokenService.bindTo(registry);
+
+        String myToken = gerarToken(usuario, hoje, hoje.plusSeconds(60));
+        ValidacaoToken primeira = tokenService.verificarToken(myToken);
+        ValidacaoToken segunda = tokenService.verificarToken(myToken);
+
+        assertSame(primeira, segunda);
+        assertEquals(1.0, registry.get("autenticacao.jwt.cache.requisicoes").tag("resultado", "acerto").functionCounter().count());
+        assertEquals(1.0, registry.get("autenticacao.jwt.cache.requisicoes").tag("resultado", "falha").functionCounter().count());
+    }
+
+    @Test
+    @DisplayName("#verificarToken SHOULD not serve cached verification WHEN token is expired.")
+    public void verificarTokenShouldNotServeCachedVerificationWhenTokenIsExpired() {
+        Instant hoje = LocalDateTime.of(2023, 5, 6, 14, 45, 5)
+                .atZone(ZoneId.systemDefault())
+                .toInstant();
+
+        Usuario usuario = new Usuario();
+        usuario.setId(usuarioId);
+
+        Mockito.when(clock.instant())
+                .thenReturn(hoje);
+
+        jwtProperty.getCache().setHabilitado(true);
+
+        String myToken = gerarToken(usuario, hoje, hoje.plusSeconds(60));
+        assertTrue(tokenService.verificarToken(myToken).isValido());
+
+        Mockito.when(clock.instant())
+                .thenReturn(hoje.plusSeconds(61));
+
+        assertEquals(StatusToken.EXPIRADO, tokenService.verificarToken(myToken).getStatus());
+    }
+
+    @Test
+    @DisplayName("#getUsuarioDasClaims SHOULD build user from access token claims WHEN stateless principal is enabled.")
+    public void getUsuarioDasClaimsShouldBuildUserFromClaimsWhenStatelessPrincipalIsEnabled() {
+        Instant hoje = LocalDateTime.of(2023, 5, 6, 14, 45, 5)
+                .atZone(ZoneId.systemDefault())
+                .toInstant();
+
+        Mockito.when(clock.getZone())
+                .thenReturn(ZoneId.systemDefault());
+        Mockito.when(clock.instant())
+                .thenReturn(hoje);
+
+        jwtProperty.setPrincipalSemEstado(true);
+
+        Usuario usuario = new Usuario();
+        usuario.setId(usuarioId);
+        usuario.setNome("test-name");
+        usuario.setEmail("test@email.com");
+        usuario.setAtivo(true);
+
+        ValidacaoToken validacao = tokenService.verificarToken(tokenService.gerarAccessToken(usuario));
+        Usuario usuarioDasClaims = tokenService.getUsuarioDasClaims(validacao);
+
+        assertEquals(usuarioId, usuarioDasClaims.getId());
+        assertEquals("test-name", usuarioDasClaims.getNome());
+        assertEquals("test@email.com", usuarioDasClaims.getEmail());
+        assertTrue(usuarioDasClaims.isAtivo());
+        assertNull(usuarioDasClaims.getSenha());
+        assertTrue(tokenService.getAuthoritiesDasClaims(validacao).isEmpty());
+    }
+
+    @Test
+    @DisplayName("#verificarToken SHOULD return cached result with immutable authorities WHEN token is served from cache.")
+    public void verificarTokenShouldReturnCachedResultWithImmutableAuthoritiesWhenTokenIsServedFromCache() {
+        Instant hoje = LocalDateTime.of(2023, 5, 6, 14, 45, 5)
+                .atZone(ZoneId.systemDefault())
+                .toInstant();
+
+        Mockito.when(clock.getZone())
+                .thenReturn(ZoneId.systemDefault());
+        Mockito.when(clock.instant())
+                .thenReturn(hoje);
+
+        jwtProperty.setPrincipalSemEstado(true);
+
+        Usuario usuario = new Usuario();
+        usuario.setId(usuarioId);
+        usuario.setNome("test-name");
+        usuario.setEmail("test@email.com");
+        usuario.setAtivo(true);
+        usuario.setPerfis(List.of("ADMIN"));
+        jwtProperty.getCache().setHabilitado(true);
+
+        String token = tokenService.gerarAccessToken(usuario);
+        ValidacaoToken primeira = tokenService.verificarToken(token);
+        ValidacaoToken cacheada = tokenService.verificarToken(token);
+
+        assertSame(primeira, cacheada);
+        assertEquals(List.of("ROLE_ADMIN"), cacheada.getAuthorities());
+        assertThrows(UnsupportedOperationException.class, () -> cacheada.getAuthorities().add("ROLE_USUARIO"));
+        assertEquals(List.of(new SimpleGrantedAuthority("ROLE_ADMIN")), tokenService.getAuthoritiesDasClaims(cacheada));
+    }
+
+    @Test
+    @DisplayName("#getUsuarioDasClaims SHOULD return null WHEN stateless principal is disabled.")
+    public void getUsuarioDasClaimsShouldReturnNullWhenStatelessPrincipalIsDisabled() {
+        Instant hoje = LocalDateTime.of(2023, 5, 6, 14, 45, 5)
+                .atZone(ZoneId.systemDefault())
+                .toInstant();
+
+        Mockito.when(clock.getZone())
+                .thenReturn(ZoneId.systemDefault());
+        Mockito.when(clock.instant())
+                .thenReturn(hoje);
+
+        Usuario usuario = new Usuario();
+        usuario.setId(usuarioId);
+        usuario.setNome("test-name");
+        usuario.setEmail("test@email.com");
+
+        ValidacaoToken validacao = tokenService.verificarToken(tokenService.gerarAccessToken(usuario));
+
+        assertTrue(validacao.isValido());
+        assertNull(tokenService.getUsuarioDasClaims(validacao));
+    }
+
+    @Test
+    @DisplayName("#getUsuarioDasClaims SHOULD return null WHEN token has no principal claims.")
+    public void getUsuarioDasClaimsShouldReturnNullWhenTokenHasNoPrincipalClaims() {
+        Instant hoje = LocalDateTime.of(2023, 5, 6, 14, 45, 5)
+                .atZone(ZoneId.systemDefault())
+                .toInstant();
+
+        Mockito.when(clock.getZone())
+                .thenReturn(ZoneId.systemDefault());
+        Mockito.when(clock.instant())
+                .thenReturn(hoje);
+
+        jwtProperty.setPrincipalSemEstado(true);
+
+        Usuario usuario = new Usuario();
+        usuario.setId(usuarioId);
+        usuario.setNome("test-name");
+
+        ValidacaoToken validacao = tokenService.verificarToken(tokenService.gerarRefreshToken(usuario));
+
+        assertTrue(validacao.isValido());
+        assertNull(tokenService.getUsuarioDasClaims(validacao));
+    }
+
+    @Test
+    @DisplayName("#verificarToken SHOULD validate token WHEN signed with RS256 key pair.")
+    public void verificarTokenShouldValidateTokenWhenSignedWithRs256KeyPair() throws Exception {
+        configurarParDeChaves("RS256", "RSA", 2048);
+        assertTokenAssinadoComAlgoritmo("RS256");
+    }
+
+    @Test
+    @DisplayName("#verificarToken SHOULD validate token WHEN signed with ES256 key pair.")
+    public void verificarTokenShouldValidateTokenWhenSignedWithEs256KeyPair() throws Exception {
+        configurarParDeChaves("ES256", "EC", 256);
+        assertTokenAssinadoComAlgoritmo("ES256");
+    }
+
+    @Test
+    @DisplayName("#verificarToken SHOULD keep validating tokens of retired key WHEN key is retired in configuration and until retirement date.")
+    public void verificarTokenShouldKeepValidatingTokensOfRetiredKeyWhenKeyIsRetiredInConfigurationAndUntilRetirementDate() {
+        Instant hoje = Instant.now();
+
+        Mockito.when(clock.getZone())
+                .thenReturn(ZoneId.systemDefault());
+        Mockito.when(clock.instant())
+                .thenReturn(hoje);
+
+        Usuario usuario = new Usuario();
+        usuario.setId(usuarioId);
+
+        ChaveJwtProperty chaveAntiga = criarChaveSimetrica("2024-01", "c2VncmVkby1kYS1jaGF2ZS0yMDI0LTAxLWNvbS0yNTYtYml0cw==");
+        jwtProperty.getChaves().add(chaveAntiga);
+        jwtProperty.setChaveAtiva("2024-01");
+        String token = tokenService.gerarAccessToken(usuario);
+
+        chaveAntiga.setAposentadaAte(hoje.plusSeconds(60));
+        jwtProperty.getChaves().add(criarChaveSimetrica("2024-02", "c2VncmVkby1kYS1jaGF2ZS0yMDI0LTAyLWNvbS0yNTYtYml0cw=="));
+        jwtProperty.setChaveAtiva("2024-02");
+        String tokenNovo = tokenService.gerarAccessToken(usuario);
+
+        assertEquals("2024-01", getCabecalho(token).get("kid"));
+        assertEquals("2024-02", getCabecalho(tokenNovo).get("kid"));
+        assertTrue(tokenService.verificarToken(token).isValido());
+        assertTrue(tokenService.verificarToken(tokenNovo).isValido());
+
+        Mockito.when(clock.instant())
+                .thenReturn(hoje.plusSeconds(60));
+
+        assertEquals(StatusToken.ASSINATURA_INVALIDA, tokenService.verificarToken(token).getStatus());
+        assertTrue(tokenService.verificarToken(tokenNovo).isValido());
+    }
+
+    @Test
+    @DisplayName("#verificarToken SHOULD not serve cached verification WHEN verifying key reaches retirement date before token expiration.")
+    public void verificarTokenShouldNotServeCachedVerificationWhenVerifyingKeyReachesRetirementDateBeforeTokenExpiration() {
+        Instant hoje = Instant.now();
+
+        Mockito.when(clock.getZone())
+                .thenReturn(ZoneId.systemDefault());
+        Mockito.when(clock.instant())
+                .thenReturn(hoje);
+
+        Usuario usuario = new Usuario();
+        usuario.setId(usuarioId);
+
+        jwtProperty.getCache().setHabilitado(true);
+        ChaveJwtProperty chaveAntiga = criarChaveSimetrica("2024-01", "c2VncmVkby1kYS1jaGF2ZS0yMDI0LTAxLWNvbS0yNTYtYml0cw==");
+        jwtProperty.getChaves().add(chaveAntiga);
+        jwtProperty.setChaveAtiva("2024-01");
+        String token = tokenService.gerarAccessToken(usuario);
+
+        chaveAntiga.setAposentadaAte(hoje.plusSeconds(60));
+        jwtProperty.getChaves().add(criarChaveSimetrica("2024-02", "c2VncmVkby1kYS1jaGF2ZS0yMDI0LTAyLWNvbS0yNTYtYml0cw=="));
+        jwtProperty.setChaveAtiva("2024-02");
+
+        ValidacaoToken primeira = tokenService.verificarToken(token);
+        assertTrue(primeira.isValido());
+        assertSame(primeira, tokenService.verificarToken(token));
+
+        Mockito.when(clock.instant())
+                .thenReturn(hoje.plusSeconds(60));
+
+        assertEquals(StatusToken.ASSINATURA_INVALIDA, tokenService.verificarToken(token).getStatus());
+    }
+
+    @Test
+    @DisplayName("#gerarAccessToken SHOULD throw exception WHEN active key is retired.")
+    public void gerarAccessTokenShouldThrowExceptionWhenActiveKeyIsRetired() {
+        Mockito.when(clock.instant())
+                .thenReturn(Instant.now());
+
+        Usuario usuario = new Usuario();
+        usuario.setId(usuarioId);
+
+        ChaveJwtProperty chave = criarChaveSimetrica("2024-01", "c2VncmVkby1kYS1jaGF2ZS0yMDI0LTAxLWNvbS0yNTYtYml0cw==");
+        chave.setAposentadaAte(Instant.now().plusSeconds(60));
+        jwtProperty.getChaves().add(chave);
+        jwtProperty.setChaveAtiva("2024-01");
+
+        Throwable throwable = assertThrows(IllegalStateException.class, () -> tokenService.gerarAccessToken(usuario));
+
+        assertEquals("Chave JWT ativa '2024-01' está aposentada.", throwable.getMessage());
+    }
+
+    @Test
+    @DisplayName("#gerarAccessToken SHOULD sign with active key and kid header WHEN key ring is configured.")
+    public void gerarAccessTokenShouldSignWithActiveKeyAndKidHeaderWhenKeyRingIsConfigured() {
+        Mockito.when(clock.getZone())
+                .thenReturn(ZoneId.systemDefault());
+        Mockito.when(clock.instant())
+                .thenReturn(Instant.now());
+
+        Usuario usuario = new Usuario();
+        usuario.setId(usuarioId);
+
+        String tokenSemKid = tokenService.gerarAccessToken(usuario);
+
+        jwtProperty.getChaves().add(criarChaveSimetrica("2024-01", "c2VncmVkby1kYS1jaGF2ZS0yMDI0LTAxLWNvbS0yNTYtYml0cw=="));
+        jwtProperty.getChaves().add(criarChaveSimetrica("2024-02", "c2VncmVkby1kYS1jaGF2ZS0yMDI0LTAyLWNvbS0yNTYtYml0cw=="));
+        jwtProperty.setChaveAtiva("2024-02");
+
+        String token = tokenService.gerarAccessToken(usuario);
+
+        assertEquals("2024-02", getCabecalho(token).get("kid"));
+        assertTrue(tokenService.verificarToken(token).isValido());
+        assertTrue(tokenService.verificarToken(tokenSemKid).isValido());
+        assertEquals("{\"keys\":[]}", tokenService.getJwks().getJson());
+    }
+
+    @Test
+    @DisplayName("#verificarToken SHOULD return ASSINATURA_INVALIDA WHEN kid header is unknown.")
+    public void verificarTokenShouldReturnInvalidSignatureWhenKidHeaderIsUnknown() {
+        Instant hoje = Instant.now();
+
+        Mockito.when(clock.getZone())
+                .thenReturn(ZoneId.systemDefault());
+        Mockito.when(clock.instant())
+                .thenReturn(hoje);
+
+        String token = Jwts.builder()
+                .setHeaderParam("kid", "desconhecida")
+                .setIssuer(jwtProperty.getIssuer())
+                .setAudience(jwtProperty.getAudience())
+                .setSubject(usuarioId.toString())
+                .setExpiration(Date.from(hoje.plusSeconds(60)))
+                .signWith(SignatureAlgorithm.HS256, TextCodec.BASE64.decode(jwtProperty.getSecret()))
+                .compact();
+
+        assertEquals(StatusToken.ASSINATURA_INVALIDA, tokenService.verificarToken(token).getStatus());
+    }
+
+    @Test
+    @DisplayName("#getJwks SHOULD return empty key set WHEN algorithm is HS256.")
+    public void getJwksShouldReturnEmptyKeySetWhenAlgorithmIsHs256() {
+        JwksDTO jwks = tokenService.getJwks();
+
+        assertEquals("{\"keys\":[]}", jwks.getJson());
+        assertNotNull(jwks.getEtag());
+    }
+
+    @Test
+    @DisplayName("#getJwks SHOULD publish public key with stable ETag WHEN algorithm is asymmetric.")
+    public void getJwksShouldPublishPublicKeyWithStableEtagWhenAlgorithmIsAsymmetric() throws Exception {
+        Mockito.when(clock.instant())
+                .thenReturn(Instant.now());
+
+        configurarParDeChaves("ES256", "EC", 256);
+
+        JwksDTO jwks = tokenService.getJwks();
+        Map<?, ?> chave = (Map<?, ?>) ((List<?>) new ObjectMapper().readValue(jwks.getJson(), Map.class).get("keys")).get(0);
+
+        assertEquals("EC", chave.get("kty"));
+        assertEquals("P-256", chave.get("crv"));
+        assertEquals("ES256", chave.get("alg"));
+        assertEquals("sig", chave.get("use"));
+        assertNotNull(chave.get("kid"));
+        assertFalse(chave.containsKey("d"));
+        assertSame(jwks, tokenService.getJwks());
+
+        ChaveJwtProperty chaveNova = criarChaveAssimetrica("ES256", "EC", 256);
+        chaveNova.setKid("2024-02");
+        jwtProperty.getChaves().add(chaveNova);
+        jwtProperty.setChaveAtiva("2024-02");
+
+        JwksDTO jwksRotacionado = tokenService.getJwks();
+        List<?> chavesRotacionadas = (List<?>) new ObjectMapper().readValue(jwksRotacionado.getJson(), Map.class).get("keys");
+
+        assertNotEquals(jwks.getEtag(), jwksRotacionado.getEtag());
+        assertEquals(2, chavesRotacionadas.size());
+    }
+
+    private void configurarParDeChaves(String algoritmo, String tipo, int tamanho) throws Exception {
+        ChaveJwtProperty chave = criarChaveAssimetrica(algoritmo, tipo, tamanho);
+
+        jwtProperty.setAlgoritmo(chave.getAlgoritmo());
+        jwtProperty.setChavePrivada(chave.getChavePrivada());
+        jwtProperty.setChavePublica(chave.getChavePublica());
+    }
+
+    private ChaveJwtProperty criarChaveAssimetrica(String algoritmo, String tipo, int tamanho) throws Exception {
+        KeyPairGenerator generator = KeyPairGenerator.getInstance(tipo);
+        generator.initialize(tamanho);
+        KeyPair keyPair = generator.generateKeyPair();
+
+        ChaveJwtProperty chave = new ChaveJwtProperty();
+        chave.setAlgoritmo(algoritmo);
+        chave.setChavePrivada(Base64.getEncoder().encodeToString(keyPair.getPrivate().getEncoded()));
+        chave.setChavePublica(Base64.getMimeEncoder().encodeToString(keyPair.getPublic().getEncoded()));
+        return chave;
+    }
+
+    private void assertTokenAssinadoComAlgoritmo(String algoritmo) {
+        Mockito.when(clock.getZone())
+                .thenReturn(ZoneId.systemDefault());
+        Mockito.when(clock.instant())
+                .thenReturn(Instant.now());
+
+        Usuario usuario = new Usuario();
+        usuario.setId(usuarioId);
+        usuario.setNome("test-name");
+
+        String token = tokenService.gerarAccessToken(usuario);
+        ValidacaoToken validacao = tokenService.verificarToken(token);
+
+        assertTrue(validacao.isValido());
+        assertEquals(usuarioId, validacao.getIdUsuario());
+        assertEquals(algoritmo, getCabecalho(token).get("alg"));
+        assertNotNull(getCabecalho(token).get("kid"));
+    }
+
+    private ChaveJwtProperty criarChaveSimetrica(String kid, String secret) {
+        ChaveJwtProperty chave = new ChaveJwtProperty();
+        chave.setKid(kid);
+        chave.setSecret(secret);
+        return chave;
+    }
+
+    private Map<?, ?> getCabecalho(String token) {
+        try {
+            return new ObjectMapper().readValue(Base64.getUrlDecoder().decode(token.substring(0, token.indexOf('.'))), Map.class);
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
 }
@@ -0,0 +1,39 @@
+package com.vhp.autenticacao.api.document;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class UuidV7Test {
+
+    @Test
+    @DisplayName("#gerar SHOULD generate version 7 UUID with timestamp WHEN called.")
+    public void gerarShouldGenerateVersion7UuidWithTimestampWhenCalled() {
+        // Instante posterior aos já utilizados na thread, já que o estado do gerador é mantido por thread
+        long agora = System.currentTimeMillis() + 86_400_000L;
+
+        UUID uuid = UuidV7.gerar(agora);
+
+        assertEquals(7, uuid.version());
+        assertEquals(2, uuid.variant());
+        assertEquals(agora, uuid.getMostSignificantBits() >>> 16);
+        assertEquals(uuid, UUID.fromString(uuid.toString()));
+    }
+
+    @Test
+    @DisplayName("#gerar SHOULD generate increasing UUIDs WHEN called many times in the same millisecond or after clock moves back.")
+    public void gerarShouldGenerateIncreasingUuidsWhenCalledManyTimesInTheSameMillisecond() {
+        long agora = 1683384306000L;
+        UUID anterior = UuidV7.gerar(agora);
+
+        for(int i = 0; i < 10_000; i++) {
+            UUID atual = UuidV7.gerar(i < 5_000 ? agora : agora - 1);
+            // Comparação sem sinal, como a ordenação binária do MongoDB
+            assertTrue(Long.compareUnsigned(atual.getMostSignificantBits(), anterior.getMostSignificantBits()) > 0);
+            anterior = atual;
+        }
+    }
+}
@@ -42,6 +42,7 @@ class UsuarioDocumentEventListenerTest {
 
         usuarioDocumentEventListener.onBeforeConvert(beforeConvertEvent);
         assertNotNull(mockedUsuario.getId());
+        assertEquals(7, mockedUsuario.getId().version());
     }
 
     @Test
@@ -57,4 +58,18 @@ class UsuarioDocumentEventListenerTest {
         usuarioDocumentEventListener.onBeforeConvert(beforeConvertEvent);
         assertEquals(UUID.fromString("e621e1f8-c36c-495a-93fc-0c247a3e6e5f"), mockedUsuario.getId());
     }
+
+    @Test
+    @DisplayName("#onBeforeConvert SHOULD set lowercased and trimmed email WHEN email is present.")
+    public void shouldSetNormalizedEmailWhenEmailIsPresent() {
+        Usuario mockedUsuario = new Usuario();
+        mockedUsuario.setNome("Test Name");
+        mockedUsuario.setEmail(" Test@Email.COM ");
+
+        BeforeConvertEvent<Usuario> beforeConvertEvent = new BeforeConvertEvent<>(mockedUsuario, "test-collection");
+
+        usuarioDocumentEventListener.onBeforeConvert(beforeConvertEvent);
+        assertEquals("test@email.com", mockedUsuario.getEmailNormalizado());
+        assertEquals(" Test@Email.COM ", mockedUsuario.getEmail());
+    }
 }
@@ -1,5 +1,6 @@
 package com.vhp.autenticacao.api.exceptionshandler;
 
+import com.vhp.autenticacao.api.exceptions.ServicoSobrecarregadoException;
 import com.vhp.autenticacao.api.exceptions.UsuarioNaoAutenticadoException;
 import com.vhp.autenticacao.api.messages.MessageService;
 import org.junit.jupiter.api.AfterEach;
@@ -10,6 +11,7 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.Mockito;
 import org.mockito.MockitoAnnotations;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 
@@ -53,4 +55,19 @@ class ApplicationExceptionHandlerTest {
         assertEquals("error.usuario-nao-autenticado", responseEntity.getBody().get(0).getMessage());
     }
 
+    @Test
+    @DisplayName("#handleException SHOULD add exception headers to response WHEN exception has headers.")
+    public void shouldAddExceptionHeadersToResponseWhenExceptionHasHeaders() {
+
+        Mockito.when(messageService.getMessage("error.servico-sobrecarregado"))
+                .thenReturn("error.servico-sobrecarregado");
+
+        ServicoSobrecarregadoException exception = new ServicoSobrecarregadoException(messageService, 1);
+
+        ResponseEntity<List<ApplicationExceptionMessage>> responseEntity = applicationExceptionHandler.handleException(exception);
+
+        assertEquals(HttpStatus.SERVICE_UNAVAILABLE, responseEntity.getStatusCode());
+        assertEquals("1", responseEntity.getHeaders().getFirst(HttpHeaders.RETRY_AFTER));
+        assertEquals("error.servico-sobrecarregado", responseEntity.getBody().get(0).getMessage());
+    }
 }
@@ -0,0 +1,116 @@
+package com.vhp.autenticacao.api.mail;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.mail.internet.InternetAddress;
+import jakarta.mail.internet.MimeMessage;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.mail.MailSendException;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class JavaMailSenderComPoolTest {
+
+    private ServidorSmtpFalso servidor;
+
+    private JavaMailSenderComPool mailSender;
+
+    @BeforeEach
+    public void beforeEach() throws Exception {
+        servidor = new ServidorSmtpFalso(0);
+        mailSender = new JavaMailSenderComPool(2, 30_000);
+        mailSender.setHost("localhost");
+        mailSender.setPort(servidor.getPorta());
+    }
+
+    @AfterEach
+    public void afterEach() throws Exception {
+        mailSender.close();
+        servidor.close();
+    }
+
+    private MimeMessage mensagem() throws Exception {
+        MimeMessage mensagem = mailSender.createMimeMessage();
+        mensagem.setFrom(new InternetAddress("remetente@email.com"));
+        mensagem.setRecipient(MimeMessage.RecipientType.TO, new InternetAddress("destinatario@email.com"));
+        mensagem.setSubject("Assunto");
+        mensagem.setText("Corpo");
+        return mensagem;
+    }
+
+    @Test
+    @DisplayName("#send SHOULD reuse the same SMTP connection WHEN messages are sent sequentially.")
+    public void sendShouldReuseTheSameSmtpConnectionWhenMessagesAreSentSequentially() throws Exception {
+        for(int i = 0; i < 5; i++) {
+            mailSender.send(mensagem());
+        }
+
+        assertEquals(5, servidor.getMensagensRecebidas());
+        assertEquals(1, servidor.getConexoesAceitas());
+        assertEquals(1, mailSender.getConexoesAbertas());
+    }
+
+    @Test
+    @DisplayName("#send SHOULD open at most the configured number of connections WHEN messages are sent concurrently.")
+    public void sendShouldOpenAtMostTheConfiguredNumberOfConnectionsWhenMessagesAreSentConcurrently() throws Exception {
+        CompletableFuture.allOf(IntStream.range(0, 8)
+                        .mapToObj(i -> CompletableFuture.runAsync(() -> {
+                            try {
+                                mailSender.send(mensagem());
+                            } catch (Exception e) {
+                                throw new IllegalStateException(e);
+                            }
+                        }))
+                        .toArray(CompletableFuture[]::new))
+                .get(10, TimeUnit.SECONDS);
+
+        assertEquals(8, servidor.getMensagensRecebidas());
+        assertTrue(servidor.getConexoesAceitas() <= 2);
+    }
+
+    @Test
+    @DisplayName("#send SHOULD discard connection and send on a new one WHEN idle connection closed by server is detected before sending.")
+    public void sendShouldDiscardConnectionAndSendOnANewOneWhenIdleConnectionClosedByServerIsDetectedBeforeSending() throws Exception {
+        mailSender.close();
+        mailSender = new JavaMailSenderComPool(2, 0);
+        mailSender.setHost("localhost");
+        mailSender.setPort(servidor.getPorta());
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        mailSender.bindTo(registry);
+        mailSender.send(mensagem());
+
+        servidor.encerrarConexoes();
+        Thread.sleep(1);
+        mailSender.send(mensagem());
+
+        assertEquals(2, servidor.getMensagensRecebidas());
+        assertEquals(2, registry.get("autenticacao.email.smtp.conexoes.abertas").functionCounter().count());
+        assertEquals(1, registry.get("autenticacao.email.smtp.conexoes.descartadas").functionCounter().count());
+        assertEquals(1, registry.get("autenticacao.email.smtp.conexoes.ociosas").gauge().value());
+    }
+
+    @Test
+    @DisplayName("#send SHOULD throw without resending WHEN connection is lost after the message was transmitted.")
+    public void sendShouldThrowWithoutResendingWhenConnectionIsLostAfterTheMessageWasTransmitted() throws Exception {
+        mailSender.send(mensagem());
+
+        servidor.encerrarAposProximaMensagem();
+        assertThrows(MailSendException.class, () -> mailSender.send(mensagem()));
+
+        assertEquals(2, servidor.getMensagensRecebidas());
+        assertEquals(1, servidor.getConexoesAceitas());
+        assertEquals(1, mailSender.getConexoesDescartadas());
+
+        mailSender.send(mensagem());
+        assertEquals(3, servidor.getMensagensRecebidas());
+        assertEquals(2, mailSender.getConexoesAbertas());
+    }
+}
@@ -0,0 +1,133 @@
+package com.vhp.autenticacao.api.mail;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketException;
+import java.nio.charset.StandardCharsets;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Servidor SMTP mínimo, em memória, que aceita qualquer mensagem. Utilizado nos testes e benchmarks de envio de email.
+ * O atraso de saudação simula o custo de abertura de conexão (TCP, STARTTLS e autenticação) de um servidor real.
+ */
+class ServidorSmtpFalso implements AutoCloseable {
+
+    private final ServerSocket serverSocket;
+    private final long atrasoSaudacaoMillis;
+    private final Set<Socket> conexoes = ConcurrentHashMap.newKeySet();
+    private final AtomicInteger conexoesAceitas = new AtomicInteger();
+    private final AtomicInteger mensagensRecebidas = new AtomicInteger();
+    private final AtomicBoolean encerrarAposProximaMensagem = new AtomicBoolean();
+
+    ServidorSmtpFalso(long atrasoSaudacaoMillis) throws IOException {
+        this.serverSocket = new ServerSocket(0, 50, InetAddress.getLoopbackAddress());
+        this.atrasoSaudacaoMillis = atrasoSaudacaoMillis;
+
+        Thread aceitador = new Thread(this::aceitar, "smtp-falso");
+        aceitador.setDaemon(true);
+        aceitador.start();
+    }
+
+    int getPorta() {
+        return serverSocket.getLocalPort();
+    }
+
+    int getConexoesAceitas() {
+        return conexoesAceitas.get();
+    }
+
+    int getMensagensRecebidas() {
+        return mensagensRecebidas.get();
+    }
+
+    /**
+     * Encerra as conexões abertas, como um servidor que encerra conexões ociosas.
+     */
+    void encerrarConexoes() throws IOException {
+        for(Socket socket : conexoes) {
+            socket.close();
+        }
+    }
+
+    /**
+     * Encerra a conexão após receber a próxima mensagem, sem responder à sua aceitação, como uma conexão perdida durante
+     * a leitura da resposta.
+     */
+    void encerrarAposProximaMensagem() {
+        encerrarAposProximaMensagem.set(true);
+    }
+
+    private void aceitar() {
+        while(!serverSocket.isClosed()) {
+            try {
+                Socket socket = serverSocket.accept();
+                conexoesAceitas.incrementAndGet();
+                conexoes.add(socket);
+                Thread sessao = new Thread(() -> atender(socket), "smtp-falso-sessao");
+                sessao.setDaemon(true);
+                sessao.start();
+            } catch (IOException e) {
+                return;
+            }
+        }
+    }
+
+    private void atender(Socket socket) {
+        try(socket) {
+            BufferedReader entrada = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.US_ASCII));
+            OutputStream saida = socket.getOutputStream();
+            Thread.sleep(atrasoSaudacaoMillis);
+            responder(saida, "220 localhost SMTP");
+
+            String comando;
+            while((comando = entrada.readLine()) != null) {
+                String verbo = comando.length() >= 4 ? comando.substring(0, 4).toUpperCase() : comando.toUpperCase();
+                switch(verbo) {
+                    case "EHLO", "HELO" -> responder(saida, "250 localhost");
+                    case "DATA" -> {
+                        responder(saida, "354 Fim com <CRLF>.<CRLF>");
+                        String linha;
+                        while((linha = entrada.readLine()) != null && !linha.equals(".")) {
+                            // Conteúdo da mensagem descartado.
+                        }
+                        mensagensRecebidas.incrementAndGet();
+                        if(encerrarAposProximaMensagem.compareAndSet(true, false)) {
+                            return;
+                        }
+                        responder(saida, "250 OK");
+                    }
+                    case "QUIT" -> {
+                        responder(saida, "221 Tchau");
+                        return;
+                    }
+                    default -> responder(saida, "250 OK");
+                }
+            }
+        } catch (SocketException e) {
+            // Conexão encerrada pelo cliente ou por encerrarConexoes.
+        } catch (IOException | InterruptedException e) {
+            throw new IllegalStateException(e);
+        } finally {
+            conexoes.remove(socket);
+        }
+    }
+
+    private static void responder(OutputStream saida, String resposta) throws IOException {
+        saida.write((resposta + "\r\n").getBytes(StandardCharsets.US_ASCII));
+        saida.flush();
+    }
+
+    @Override
+    public void close() throws IOException {
+        serverSocket.close();
+        encerrarConexoes();
+    }
+}
@@ -1,20 +1,30 @@
 package com.vhp.autenticacao.api.scheduler;
 
+import com.vhp.autenticacao.api.configurations.property.AutenticacaoProperty;
 import com.vhp.autenticacao.api.document.EmailDocument;
 import com.vhp.autenticacao.api.document.EmailStatus;
 import com.vhp.autenticacao.api.mail.Email;
 import com.vhp.autenticacao.api.mail.MailSender;
 import com.vhp.autenticacao.api.mapper.EmailMapper;
 import com.vhp.autenticacao.api.service.EmailService;
+import com.vhp.autenticacao.api.template.TemplateHelper;
+import com.sun.mail.smtp.SMTPAddressFailedException;
 import jakarta.mail.MessagingException;
+import jakarta.mail.SendFailedException;
+import jakarta.mail.internet.AddressException;
+import jakarta.mail.internet.InternetAddress;
+import io.micrometer.core.instrument.FunctionTimer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.bson.types.ObjectId;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.mockito.*;
+import org.springframework.mail.MailSendException;
 
 import java.io.UnsupportedEncodingException;
+import java.net.SocketTimeoutException;
 import java.time.Clock;
 import java.time.Instant;
 import java.time.LocalDateTime;
@@ -22,8 +32,12 @@ import java.time.ZoneId;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.Mockito.*;
 
@@ -38,10 +52,14 @@ class EmailSchedulerTest {
     @Mock
     private EmailMapper emailMapper;
 
+    @Mock
+    private TemplateHelper templateHelper;
+
     @Mock
     private Clock clock;
 
-    @InjectMocks
+    private AutenticacaoProperty autenticacaoProperty;
+
     private EmailScheduler emailScheduler;
 
     @Captor
@@ -52,22 +70,25 @@ class EmailSchedulerTest {
     @BeforeEach
     public void beforeEach() {
         autoCloseable = MockitoAnnotations.openMocks(this);
+        autenticacaoProperty = new AutenticacaoProperty();
+        emailScheduler = new EmailScheduler(emailService, mailSender, emailMapper, templateHelper, clock, autenticacaoProperty);
     }
 
     @AfterEach
     public void afterEach() throws Exception {
+        emailScheduler.close();
         autoCloseable.close();
     }
 
     @Test
     @DisplayName("#envioEmail SHOULD do nothing WHEN it has no unprocessed records.")
     public void shouldDoNothinWhenItHasNoUnprocessedRecords() {
-        when(emailService.buscarEmaisNaoProcessados()).thenReturn(new ArrayList<>());
+        when(emailService.reservarEmails(50)).thenReturn(new ArrayList<>());
 
         emailScheduler.envioEmail();
 
         verifyNoInteractions(mailSender);
-        verify(emailService, never()).salvarEmails(any());
+        verify(emailService, never()).atualizarEstados(any());
     }
 
     @Test
@@ -82,7 +103,7 @@ class EmailSchedulerTest {
         when(clock.getZone()).thenReturn(ZoneId.systemDefault());
         when(clock.instant()).thenReturn(instant);
 
-        when(emailService.buscarEmaisNaoProcessados())
+        when(emailService.reservarEmails(50))
             .thenReturn(unprocessedEmailsDocumentMock);
 
         when(emailMapper.toEmail(unprocessedEmailsDocumentMock.get(0)))
@@ -95,7 +116,7 @@ class EmailSchedulerTest {
 
         verify(mailSender).enviarEmail(unprocessedEmailsMock.get(0));
         verify(mailSender).enviarEmail(unprocessedEmailsMock.get(1));
-        verify(emailService).salvarEmails(emailDocumentListCaptor.capture());
+        verify(emailService).atualizarEstados(emailDocumentListCaptor.capture());
 
         List<EmailDocument> updatedList = emailDocumentListCaptor.getValue();
         EmailDocument updatedEmail1 = updatedList.get(0);
@@ -104,12 +125,13 @@ class EmailSchedulerTest {
 
         assertEquals(EmailStatus.PROCESSADO, updatedEmail1.getStatus());
         assertEquals(now, updatedEmail1.getDataProcessamento());
+        assertEquals("reserva", updatedEmail1.getReserva());
         assertEquals(EmailStatus.PROCESSADO, updatedEmail2.getStatus());
         assertEquals(now, updatedEmail2.getDataProcessamento());
     }
 
     @Test
-    @DisplayName("#envioEmail SHOULD update email status WHEN called and not send email.")
+    @DisplayName("#envioEmail SHOULD schedule a new attempt with backoff WHEN sending fails with transient error.")
     public void shouldUpdateEmailStatusWhenCalledAndNotSendEmail() throws MessagingException, UnsupportedEncodingException {
         List<EmailDocument> unprocessedEmailsDocumentMock = getUnprocessedEmailsDocumentMock();
         List<Email> unprocessedEmailsMock = getUnprocessedEmailsMock();
@@ -120,7 +142,7 @@ class EmailSchedulerTest {
         when(clock.getZone()).thenReturn(ZoneId.systemDefault());
         when(clock.instant()).thenReturn(instant);
 
-        when(emailService.buscarEmaisNaoProcessados())
+        when(emailService.reservarEmails(50))
                 .thenReturn(unprocessedEmailsDocumentMock);
 
         when(emailMapper.toEmail(unprocessedEmailsDocumentMock.get(0)))
@@ -137,25 +159,240 @@ class EmailSchedulerTest {
 
         emailScheduler.envioEmail();
 
-        verify(emailService).salvarEmails(emailDocumentListCaptor.capture());
+        verify(emailService).atualizarEstados(emailDocumentListCaptor.capture());
 
         List<EmailDocument> updatedList = emailDocumentListCaptor.getValue();
         EmailDocument updatedEmail1 = updatedList.get(0);
         EmailDocument updatedEmail2 = updatedList.get(1);
 
 
-        assertEquals(EmailStatus.ERRO, updatedEmail1.getStatus());
+        assertEquals(EmailStatus.NAO_PROCESSADO, updatedEmail1.getStatus());
         assertEquals(now, updatedEmail1.getDataProcessamento());
+        assertEquals(1, updatedEmail1.getTentativas());
+        assertFalse(updatedEmail1.getProximaTentativa().isBefore(now.plusSeconds(15)));
+        assertFalse(updatedEmail1.getProximaTentativa().isAfter(now.plusSeconds(30)));
         assertTrue(updatedEmail1.getMensagemErro().contains("test-exception-message"));
-        assertEquals(EmailStatus.ERRO, updatedEmail2.getStatus());
+        assertEquals(EmailStatus.NAO_PROCESSADO, updatedEmail2.getStatus());
         assertEquals(now, updatedEmail2.getDataProcessamento());
         assertTrue(updatedEmail2.getMensagemErro().contains("test-exception-message"));
     }
 
+    @Test
+    @DisplayName("#envioEmail SHOULD mark only the failed email as error WHEN SMTP rejects its recipient.")
+    public void envioEmailShouldMarkOnlyTheFailedEmailAsErrorWhenSmtpRejectsItsRecipient() throws MessagingException, UnsupportedEncodingException {
+        List<EmailDocument> emails = getUnprocessedEmailsDocumentMock();
+        List<Email> emailsMock = getUnprocessedEmailsMock();
+
+        when(clock.getZone()).thenReturn(ZoneId.systemDefault());
+        when(clock.instant()).thenReturn(Instant.now());
+        when(emailService.reservarEmails(50)).thenReturn(emails);
+        when(emailMapper.toEmail(emails.get(0))).thenReturn(emailsMock.get(0));
+        when(emailMapper.toEmail(emails.get(1))).thenReturn(emailsMock.get(1));
+        doThrow(new SMTPAddressFailedException(new InternetAddress("email_2_recipient@email.com"), "RCPT", 550, "destinatario-inexistente"))
+                .when(mailSender)
+                .enviarEmail(emailsMock.get(1));
+
+        emailScheduler.envioEmail();
+
+        verify(emailService).atualizarEstados(emails);
+        assertEquals(EmailStatus.PROCESSADO, emails.get(0).getStatus());
+        assertEquals(EmailStatus.ERRO, emails.get(1).getStatus());
+        assertTrue(emails.get(1).getMensagemErro().contains("destinatario-inexistente"));
+    }
+
+    @Test
+    @DisplayName("#envioEmail SHOULD update state of whole batch WHEN sending one email throws unexpected exception.")
+    public void envioEmailShouldUpdateStateOfWholeBatchWhenSendingOneEmailThrowsUnexpectedException() throws MessagingException, UnsupportedEncodingException {
+        List<EmailDocument> emails = getUnprocessedEmailsDocumentMock();
+        List<Email> emailsMock = getUnprocessedEmailsMock();
+
+        when(clock.getZone()).thenReturn(ZoneId.systemDefault());
+        when(clock.instant()).thenReturn(Instant.now());
+        when(emailService.reservarEmails(50)).thenReturn(emails);
+        when(emailMapper.toEmail(emails.get(0))).thenReturn(emailsMock.get(0));
+        when(emailMapper.toEmail(emails.get(1))).thenReturn(emailsMock.get(1));
+        doThrow(new IllegalStateException("falha-inesperada"))
+                .when(mailSender)
+                .enviarEmail(emailsMock.get(1));
+
+        emailScheduler.envioEmail();
+
+        verify(emailService).atualizarEstados(emails);
+        assertEquals(EmailStatus.PROCESSADO, emails.get(0).getStatus());
+        assertEquals(EmailStatus.NAO_PROCESSADO, emails.get(1).getStatus());
+        assertEquals(1, emails.get(1).getTentativas());
+        assertTrue(emails.get(1).getMensagemErro().contains("falha-inesperada"));
+    }
+
+    @Test
+    @DisplayName("#envioEmail SHOULD discard email WHEN transient errors exhaust the attempts.")
+    public void envioEmailShouldDiscardEmailWhenTransientErrorsExhaustTheAttempts() throws MessagingException, UnsupportedEncodingException {
+        autenticacaoProperty.getEnvioEmail().setTentativasMaximas(3);
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        List<EmailDocument> emails = getUnprocessedEmailsDocumentMock().subList(0, 1);
+        emails.get(0).setTentativas(2);
+
+        when(clock.getZone()).thenReturn(ZoneId.systemDefault());
+        when(clock.instant()).thenReturn(Instant.now());
+        when(emailService.reservarEmails(50)).thenReturn(emails);
+        doThrow(new MailSendException("conexao-perdida"))
+                .when(mailSender)
+                .enviarEmail(any());
+
+        emailScheduler.bindTo(registry);
+        emailScheduler.envioEmail();
+
+        assertEquals(EmailStatus.DESCARTADO, emails.get(0).getStatus());
+        assertEquals(3, emails.get(0).getTentativas());
+        assertEquals(1, registry.get("autenticacao.email.descartados").functionCounter().count());
+    }
+
+    @Test
+    @DisplayName("#isErroTransitorio SHOULD classify SMTP 5xx and invalid addresses as permanent WHEN called.")
+    public void isErroTransitorioShouldClassifySmtp5xxAndInvalidAddressesAsPermanentWhenCalled() throws AddressException {
+        InternetAddress endereco = new InternetAddress("email@email.com");
+        MessagingException recusado = new SendFailedException("Invalid Addresses",
+                new SMTPAddressFailedException(endereco, "RCPT", 550, "mailbox unavailable"));
+        MessagingException ocupado = new SendFailedException("Invalid Addresses",
+                new SMTPAddressFailedException(endereco, "RCPT", 451, "try again later"));
+
+        assertFalse(EmailScheduler.isErroTransitorio(recusado));
+        assertFalse(EmailScheduler.isErroTransitorio(new MailSendException("Falha", new AddressException("invalido"))));
+        assertFalse(EmailScheduler.isErroTransitorio(new MailSendException(Map.of(new Object(), recusado))));
+        assertTrue(EmailScheduler.isErroTransitorio(ocupado));
+        assertTrue(EmailScheduler.isErroTransitorio(new MessagingException("Falha", new SocketTimeoutException())));
+        assertTrue(EmailScheduler.isErroTransitorio(new MailSendException("Falha de conexão")));
+    }
+
+    @Test
+    @DisplayName("#atrasoNovaTentativa SHOULD double delay with jitter up to maximum WHEN attempts increase.")
+    public void atrasoNovaTentativaShouldDoubleDelayWithJitterUpToMaximumWhenAttemptsIncrease() {
+        autenticacaoProperty.getEnvioEmail().setIntervaloTentativaMillis(1000);
+        autenticacaoProperty.getEnvioEmail().setIntervaloMaximoTentativaMillis(5000);
+
+        for(int i = 0; i < 100; i++) {
+            long primeira = emailScheduler.atrasoNovaTentativa(1);
+            long terceira = emailScheduler.atrasoNovaTentativa(3);
+            long decima = emailScheduler.atrasoNovaTentativa(10);
+            assertTrue(primeira >= 500 && primeira <= 1000, "primeira: " + primeira);
+            assertTrue(terceira >= 2000 && terceira <= 4000, "terceira: " + terceira);
+            assertTrue(decima >= 2500 && decima <= 5000, "decima: " + decima);
+        }
+    }
+
+    @Test
+    @DisplayName("#envioEmail SHOULD render template body with registered locale WHEN email has template.")
+    public void envioEmailShouldRenderTemplateBodyWithRegisteredLocaleWhenEmailHasTemplate() throws MessagingException, UnsupportedEncodingException {
+        List<EmailDocument> emails = getUnprocessedEmailsDocumentMock().subList(0, 1);
+        EmailDocument emailDocument = emails.get(0);
+        emailDocument.setCorpo(null);
+        emailDocument.setTemplate("mail/recuperar-senha");
+        emailDocument.setLocale("pt-BR");
+        emailDocument.setVariaveis(Map.of("token", "T0k3n"));
+        Email email = getUnprocessedEmailsMock().get(0);
+        email.setCorpo(null);
+
+        when(clock.getZone()).thenReturn(ZoneId.systemDefault());
+        when(clock.instant()).thenReturn(Instant.now());
+        when(emailService.reservarEmails(50)).thenReturn(emails);
+        when(emailMapper.toEmail(emailDocument)).thenReturn(email);
+        when(templateHelper.getConteudoTemplate("mail/recuperar-senha", Locale.forLanguageTag("pt-BR"), Map.of("token", "T0k3n")))
+                .thenReturn("corpo renderizado");
+
+        emailScheduler.envioEmail();
+
+        ArgumentCaptor<Email> emailCaptor = ArgumentCaptor.forClass(Email.class);
+        verify(mailSender).enviarEmail(emailCaptor.capture());
+        assertEquals("corpo renderizado", emailCaptor.getValue().getCorpo());
+        assertEquals(EmailStatus.PROCESSADO, emailDocument.getStatus());
+    }
+
+    @Test
+    @DisplayName("#envioEmail SHOULD fetch next batch WHEN previous batch was full.")
+    public void envioEmailShouldFetchNextBatchWhenPreviousBatchWasFull() {
+        autenticacaoProperty.getEnvioEmail().setTamanhoLote(2);
+        List<EmailDocument> primeiroLote = getUnprocessedEmailsDocumentMock();
+        List<EmailDocument> segundoLote = getUnprocessedEmailsDocumentMock().subList(0, 1);
+
+        when(clock.getZone()).thenReturn(ZoneId.systemDefault());
+        when(clock.instant()).thenReturn(Instant.now());
+        when(emailService.reservarEmails(2))
+                .thenReturn(primeiroLote)
+                .thenReturn(segundoLote);
+
+        assertEquals(3, emailScheduler.envioEmail());
+
+        verify(emailService, times(2)).reservarEmails(2);
+        verify(emailService).atualizarEstados(primeiroLote);
+        verify(emailService).atualizarEstados(segundoLote);
+    }
+
+    @Test
+    @DisplayName("#iniciar SHOULD not create SMTP sending threads WHEN email sending is disabled.")
+    public void iniciarShouldNotCreateSmtpSendingThreadsWhenEmailSendingIsDisabled() {
+        autenticacaoProperty.getEnvioEmail().setHabilitado(false);
+
+        emailScheduler.iniciar();
+
+        assertFalse(emailScheduler.isExecutorEnvioCriado());
+        verifyNoInteractions(emailService);
+    }
+
+    @Test
+    @DisplayName("#envioEmail SHOULD create SMTP sending threads only on first parallel batch WHEN emails are sent.")
+    public void envioEmailShouldCreateSmtpSendingThreadsOnlyOnFirstParallelBatchWhenEmailsAreSent() {
+        when(clock.getZone()).thenReturn(ZoneId.systemDefault());
+        when(clock.instant()).thenReturn(Instant.now());
+        when(emailService.reservarEmails(50)).thenReturn(getUnprocessedEmailsDocumentMock());
+
+        assertFalse(emailScheduler.isExecutorEnvioCriado());
+        emailScheduler.envioEmail();
+
+        assertTrue(emailScheduler.isExecutorEnvioCriado());
+    }
+
+    @Test
+    @DisplayName("#proximoIntervalo SHOULD double interval up to maximum WHEN no emails are found.")
+    public void proximoIntervaloShouldDoubleIntervalUpToMaximumWhenNoEmailsAreFound() {
+        autenticacaoProperty.getEnvioEmail().setIntervaloMinimoMillis(100);
+        autenticacaoProperty.getEnvioEmail().setIntervaloMaximoMillis(500);
+
+        assertEquals(100, emailScheduler.proximoIntervalo(true));
+        assertEquals(200, emailScheduler.proximoIntervalo(false));
+        assertEquals(400, emailScheduler.proximoIntervalo(false));
+        assertEquals(500, emailScheduler.proximoIntervalo(false));
+        assertEquals(500, emailScheduler.proximoIntervalo(false));
+        assertEquals(100, emailScheduler.proximoIntervalo(true));
+    }
+
+    @Test
+    @DisplayName("#bindTo SHOULD register pending emails and latency from creation to sending WHEN emails are sent.")
+    public void bindToShouldRegisterPendingEmailsAndLatencyWhenEmailsAreSent() {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        List<EmailDocument> emails = getUnprocessedEmailsDocumentMock();
+        LocalDateTime now = LocalDateTime.of(2023, 4, 26, 21, 48, 56);
+        emails.forEach(email -> email.setDataCriacao(now.minusSeconds(3)));
+
+        when(clock.getZone()).thenReturn(ZoneId.systemDefault());
+        when(clock.instant()).thenReturn(now.atZone(ZoneId.systemDefault()).toInstant());
+        when(emailService.reservarEmails(50)).thenReturn(emails);
+        when(emailService.contarEmailsNaoProcessados()).thenReturn(7L);
+
+        emailScheduler.bindTo(registry);
+        emailScheduler.envioEmail();
+
+        assertEquals(7, registry.get("autenticacao.email.pendentes").gauge().value());
+        FunctionTimer latencia = registry.get("autenticacao.email.latencia").functionTimer();
+        assertEquals(2, latencia.count());
+        assertEquals(3000, latencia.mean(TimeUnit.MILLISECONDS));
+    }
+
     private List<EmailDocument> getUnprocessedEmailsDocumentMock() {
         EmailDocument e1 = new EmailDocument();
         e1.setId(new ObjectId());
-        e1.setStatus(EmailStatus.NAO_PROCESSADO);
+        e1.setStatus(EmailStatus.EM_PROCESSAMENTO);
+        e1.setReserva("reserva");
+        e1.setExpiracaoReserva(LocalDateTime.now().plusMinutes(5));
         e1.setCorpo("Email-1 body");
         e1.setAssunto("Email-1 Subject");
         e1.setRemetente("Email-1");
@@ -165,7 +402,9 @@ class EmailSchedulerTest {
 
         EmailDocument e2 = new EmailDocument();
         e2.setId(new ObjectId());
-        e2.setStatus(EmailStatus.NAO_PROCESSADO);
+        e2.setStatus(EmailStatus.EM_PROCESSAMENTO);
+        e2.setReserva("reserva");
+        e2.setExpiracaoReserva(LocalDateTime.now().plusMinutes(5));
         e2.setCorpo("Email-2 body");
         e2.setAssunto("Email-2 Subject");
         e2.setRemetente("Email-2");
@@ -0,0 +1,126 @@
+package com.vhp.autenticacao.api.service;
+
+import com.vhp.autenticacao.api.controller.dto.PaginaUsuariosDTO;
+import com.vhp.autenticacao.api.controller.dto.UsuarioDTO;
+import com.vhp.autenticacao.api.document.Usuario;
+import com.vhp.autenticacao.api.exceptions.CursorPaginacaoInvalidoException;
+import com.vhp.autenticacao.api.messages.MessageService;
+import org.bson.Document;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.MockitoAnnotations;
+import org.springframework.data.mongodb.core.MongoOperations;
+import org.springframework.data.mongodb.core.query.Query;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ConsultaUsuarioServiceTest {
+
+    @Mock
+    private MongoOperations mongoOperations;
+
+    @Mock
+    private MessageService messageService;
+
+    private ConsultaUsuarioService consultaUsuarioService;
+
+    private AutoCloseable autoCloseable;
+
+    @BeforeEach
+    public void beforeEach() {
+        autoCloseable = MockitoAnnotations.openMocks(this);
+        consultaUsuarioService = new ConsultaUsuarioService(mongoOperations, messageService);
+    }
+
+    @AfterEach
+    public void afterEach() throws Exception {
+        autoCloseable.close();
+    }
+
+    private static Usuario usuario(String email, LocalDateTime dataCriacao) {
+        Usuario usuario = new Usuario();
+        usuario.setId(UUID.randomUUID());
+        usuario.setEmail(email);
+        usuario.setDataCriacao(dataCriacao);
+        return usuario;
+    }
+
+    @Test
+    @DisplayName("#listar SHOULD return cursor of last user without reading password WHEN page is full.")
+    public void listarShouldReturnCursorOfLastUserWithoutReadingPasswordWhenPageIsFull() {
+        LocalDateTime dataCriacao = LocalDateTime.of(2024, 3, 10, 12, 30, 15, 123_000_000);
+        Usuario primeiro = usuario("primeiro@email.com", dataCriacao);
+        Usuario segundo = usuario("segundo@email.com", dataCriacao);
+        Mockito.when(mongoOperations.find(Mockito.any(Query.class), Mockito.eq(Usuario.class))).thenReturn(List.of(primeiro, segundo));
+
+        PaginaUsuariosDTO pagina = consultaUsuarioService.listar(null, 2);
+
+        ArgumentCaptor<Query> queryCaptor = ArgumentCaptor.forClass(Query.class);
+        Mockito.verify(mongoOperations).find(queryCaptor.capture(), Mockito.eq(Usuario.class));
+        Query query = queryCaptor.getValue();
+        assertTrue(query.getQueryObject().isEmpty());
+        assertEquals(new Document("dataCriacao", 1).append("_id", 1), query.getSortObject());
+        assertEquals(2, query.getLimit());
+        assertFalse(query.getFieldsObject().containsKey("senha"));
+        assertTrue(query.getFieldsObject().containsKey("email"));
+
+        assertEquals(List.of("primeiro@email.com", "segundo@email.com"),
+                pagina.getUsuarios().stream().map(UsuarioDTO::getEmail).toList());
+        assertEquals(ConsultaUsuarioService.codificarCursor(segundo), pagina.getProxima());
+    }
+
+    @Test
+    @DisplayName("#listar SHOULD search after cursor position and return null cursor WHEN page is the last one.")
+    public void listarShouldSearchAfterCursorPositionAndReturnNullCursorWhenPageIsTheLastOne() {
+        Usuario anterior = usuario("anterior@email.com", LocalDateTime.of(2024, 3, 10, 12, 30, 15, 123_000_000));
+        Mockito.when(mongoOperations.find(Mockito.any(Query.class), Mockito.eq(Usuario.class)))
+                .thenReturn(List.of(usuario("ultimo@email.com", LocalDateTime.now())));
+
+        PaginaUsuariosDTO pagina = consultaUsuarioService.listar(ConsultaUsuarioService.codificarCursor(anterior), 10);
+
+        ArgumentCaptor<Query> queryCaptor = ArgumentCaptor.forClass(Query.class);
+        Mockito.verify(mongoOperations).find(queryCaptor.capture(), Mockito.eq(Usuario.class));
+        Document esperado = new Document("$or", List.of(
+                new Document("dataCriacao", new Document("$gt", anterior.getDataCriacao())),
+                new Document("dataCriacao", anterior.getDataCriacao()).append("_id", new Document("$gt", anterior.getId()))));
+        assertEquals(esperado, queryCaptor.getValue().getQueryObject());
+        assertNull(pagina.getProxima());
+    }
+
+    @Test
+    @DisplayName("#listar SHOULD throw CursorPaginacaoInvalidoException WHEN cursor is not valid.")
+    public void listarShouldThrowCursorPaginacaoInvalidoExceptionWhenCursorIsNotValid() {
+        assertThrows(CursorPaginacaoInvalidoException.class, () -> consultaUsuarioService.listar("cursor-invalido", 10));
+        Mockito.verifyNoInteractions(mongoOperations);
+    }
+
+    @Test
+    @DisplayName("#exportar SHOULD send every user and close cursor WHEN called.")
+    public void exportarShouldSendEveryUserAndCloseCursorWhenCalled() {
+        AtomicBoolean fechado = new AtomicBoolean();
+        Stream<Usuario> usuarios = Stream.of(usuario("a@email.com", LocalDateTime.now()), usuario("b@email.com", LocalDateTime.now()))
+                .onClose(() -> fechado.set(true));
+        Mockito.when(mongoOperations.stream(Mockito.any(Query.class), Mockito.eq(Usuario.class))).thenReturn(usuarios);
+
+        List<UsuarioDTO> exportados = new ArrayList<>();
+        consultaUsuarioService.exportar(exportados::add);
+
+        assertEquals(List.of("a@email.com", "b@email.com"), exportados.stream().map(UsuarioDTO::getEmail).toList());
+        assertTrue(fechado.get());
+        ArgumentCaptor<Query> queryCaptor = ArgumentCaptor.forClass(Query.class);
+        Mockito.verify(mongoOperations).stream(queryCaptor.capture(), Mockito.eq(Usuario.class));
+        assertFalse(queryCaptor.getValue().getFieldsObject().containsKey("senha"));
+    }
+}
@@ -0,0 +1,179 @@
+package com.vhp.autenticacao.api.service;
+
+import com.mongodb.ConnectionString;
+import com.mongodb.ExplainVerbosity;
+import com.mongodb.MongoClientSettings;
+import com.mongodb.MongoException;
+import com.mongodb.client.MongoClient;
+import com.mongodb.client.MongoClients;
+import com.vhp.autenticacao.api.configurations.mongodb.IndicesMongoDBInitializer;
+import com.vhp.autenticacao.api.document.EmailDocument;
+import com.vhp.autenticacao.api.document.EmailStatus;
+import org.bson.Document;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Assumptions;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.convert.QueryMapper;
+import org.springframework.data.mongodb.core.mapping.MongoMappingContext;
+import org.springframework.data.mongodb.core.query.Query;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Verifica, pelo plano de execução (explain executionStats) em um MongoDB local, que as consultas executadas na reserva
+ * de emails para envio ({@link EmailService#reservarEmails(int)}) usam os índices {@code status_proximaTentativa_dataCriacao_id}
+ * e {@code status_dataCriacao_id} sem ordenação em memória, lendo um número de chaves e documentos proporcional ao lote
+ * e não à fila, mesmo com milhares de emails aguardando uma nova tentativa. A URI é definida pela propriedade {@code -Dmongodb.uri} (padrão:
+ * {@code mongodb://localhost:27017}); sem MongoDB disponível, os testes são ignorados.
+ */
+class EmailServiceExplainTest {
+
+    private static final String BANCO = "autenticacao-teste-explain";
+
+    private static final int EMAILS_POR_STATUS = 10_000;
+
+    private static final int EMAILS_AGUARDANDO_TENTATIVA = 5_000;
+
+    private static final int TAMANHO_LOTE = 50;
+
+    private static MongoClient mongoClient;
+
+    private static MongoTemplate mongoTemplate;
+
+    private static final LocalDateTime AGORA = LocalDateTime.of(2024, 6, 1, 0, 0);
+
+    private static List<EmailDocument> naoProcessados;
+
+    @BeforeAll
+    public static void beforeAll() {
+        String uri = System.getProperty("mongodb.uri", "mongodb://localhost:27017");
+        mongoClient = MongoClients.create(MongoClientSettings.builder()
+                .applyConnectionString(new ConnectionString(uri))
+                .applyToClusterSettings(cluster -> cluster.serverSelectionTimeout(500, TimeUnit.MILLISECONDS))
+                .build());
+        try {
+            mongoClient.getDatabase(BANCO).runCommand(new Document("ping", 1));
+        } catch (MongoException e) {
+            mongoClient.close();
+            mongoClient = null;
+            Assumptions.abort("MongoDB indisponível em " + uri);
+        }
+
+        mongoTemplate = new MongoTemplate(mongoClient, BANCO);
+        mongoTemplate.getDb().drop();
+        new IndicesMongoDBInitializer(mongoTemplate, (MongoMappingContext) mongoTemplate.getConverter().getMappingContext())
+                .criarIndices();
+
+        LocalDateTime inicio = LocalDateTime.of(2024, 1, 1, 0, 0);
+        List<EmailDocument> emails = new ArrayList<>();
+        for(int i = 0; i < EMAILS_POR_STATUS * 2; i++) {
+            EmailDocument email = new EmailDocument();
+            email.setDestinatario("usuario" + i + "@email.com");
+            email.setAssunto("Recuperação de senha");
+            email.setCorpo("corpo");
+            email.setStatus(i % 2 == 0 ? EmailStatus.NAO_PROCESSADO : EmailStatus.PROCESSADO);
+            email.setDataCriacao(inicio.plusSeconds(i / 4));
+            email.setProximaTentativa(email.getDataCriacao());
+            emails.add(email);
+        }
+        for(int i = 0; i < EMAILS_AGUARDANDO_TENTATIVA; i++) {
+            EmailDocument email = new EmailDocument();
+            email.setDestinatario("tentativa" + i + "@email.com");
+            email.setStatus(EmailStatus.NAO_PROCESSADO);
+            email.setDataCriacao(inicio.plusSeconds(i / 4));
+            email.setProximaTentativa(AGORA.plusHours(1));
+            emails.add(email);
+        }
+        for(int i = 0; i < TAMANHO_LOTE * 2; i++) {
+            EmailDocument email = new EmailDocument();
+            email.setDestinatario("reservado" + i + "@email.com");
+            email.setStatus(EmailStatus.EM_PROCESSAMENTO);
+            email.setDataCriacao(inicio.plusSeconds(i));
+            email.setExpiracaoReserva(i % 2 == 0 ? AGORA.minusMinutes(1) : AGORA.plusMinutes(1));
+            emails.add(email);
+        }
+        naoProcessados = mongoTemplate.insertAll(emails).stream()
+                .filter(email -> email.getStatus() == EmailStatus.NAO_PROCESSADO && !email.getProximaTentativa().isAfter(AGORA))
+                .toList();
+    }
+
+    @AfterAll
+    public static void afterAll() {
+        if(mongoClient != null) {
+            mongoTemplate.getDb().drop();
+            mongoClient.close();
+        }
+    }
+
+    private static Document explicar(Query query) {
+        QueryMapper queryMapper = new QueryMapper(mongoTemplate.getConverter());
+        Document filtro = queryMapper.getMappedObject(query.getQueryObject(),
+                mongoTemplate.getConverter().getMappingContext().getPersistentEntity(EmailDocument.class));
+        return mongoTemplate.getCollection("email")
+                .find(filtro)
+                .sort(query.getSortObject())
+                .limit(query.getLimit())
+                .explain(ExplainVerbosity.EXECUTION_STATS);
+    }
+
+    private static boolean possuiEstagio(Object plano, String estagio) {
+        if(plano instanceof Document documento) {
+            return estagio.equals(documento.getString("stage"))
+                    || documento.values().stream().anyMatch(valor -> possuiEstagio(valor, estagio));
+        }
+        if(plano instanceof List<?> lista) {
+            return lista.stream().anyMatch(valor -> possuiEstagio(valor, estagio));
+        }
+        return false;
+    }
+
+    private static Document assertLeituraPeloIndice(Document explain, String indice) {
+        Document plano = explain.get("queryPlanner", Document.class).get("winningPlan", Document.class);
+        Document estatisticas = explain.get("executionStats", Document.class);
+
+        assertTrue(plano.toJson().contains(indice), plano.toJson());
+        assertFalse(possuiEstagio(plano, "SORT"), plano.toJson());
+        return estatisticas;
+    }
+
+    @Test
+    @DisplayName("#reservarEmails SHOULD read only the batch from status_proximaTentativa_dataCriacao_id index WHEN thousands of emails are waiting for a new attempt.")
+    public void reservarEmailsShouldReadOnlyTheBatchFromIndexWhenThousandsOfEmailsAreWaitingForNewAttempt() {
+        Query query = EmailService.consultaEmailsPendentes(AGORA, TAMANHO_LOTE);
+
+        Document estatisticas = assertLeituraPeloIndice(explicar(query), "status_proximaTentativa_dataCriacao_id");
+        assertEquals(TAMANHO_LOTE, estatisticas.getInteger("nReturned"));
+        assertTrue(estatisticas.getInteger("totalKeysExamined") <= TAMANHO_LOTE * 2, estatisticas.toJson());
+        assertTrue(estatisticas.getInteger("totalDocsExamined") <= TAMANHO_LOTE, estatisticas.toJson());
+        assertEquals(naoProcessados.subList(0, TAMANHO_LOTE).stream().map(EmailDocument::getId).toList(),
+                mongoTemplate.find(query, EmailDocument.class).stream().map(EmailDocument::getId).toList());
+    }
+
+    @Test
+    @DisplayName("#reservarEmails SHOULD not read emails waiting for a new attempt WHEN no email is due.")
+    public void reservarEmailsShouldNotReadEmailsWaitingForNewAttemptWhenNoEmailIsDue() {
+        Query query = EmailService.consultaEmailsPendentes(naoProcessados.get(0).getDataCriacao().minusMinutes(1), TAMANHO_LOTE);
+
+        Document estatisticas = assertLeituraPeloIndice(explicar(query), "status_proximaTentativa_dataCriacao_id");
+        assertEquals(0, estatisticas.getInteger("nReturned"));
+        assertTrue(estatisticas.getInteger("totalKeysExamined") <= 1, estatisticas.toJson());
+        assertEquals(0, estatisticas.getInteger("totalDocsExamined"), estatisticas.toJson());
+    }
+
+    @Test
+    @DisplayName("#reservarEmails SHOULD read only emails in processing from status_dataCriacao_id index WHEN fetching expired reservations.")
+    public void reservarEmailsShouldReadOnlyEmailsInProcessingFromIndexWhenFetchingExpiredReservations() {
+        Document estatisticas = assertLeituraPeloIndice(explicar(EmailService.consultaReservasExpiradas(AGORA, TAMANHO_LOTE)),
+                "status_dataCriacao_id");
+        assertEquals(TAMANHO_LOTE, estatisticas.getInteger("nReturned"));
+        assertTrue(estatisticas.getInteger("totalKeysExamined") <= TAMANHO_LOTE * 2, estatisticas.toJson());
+    }
+}
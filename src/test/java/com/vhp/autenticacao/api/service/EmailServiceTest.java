@@ -1,13 +1,21 @@
 package com.vhp.autenticacao.api.service;
 
+import com.mongodb.bulk.BulkWriteResult;
 import com.vhp.autenticacao.api.configurations.property.AutenticacaoProperty;
+import com.vhp.autenticacao.api.configurations.property.EnvioEmailProperty;
 import com.vhp.autenticacao.api.configurations.property.MailProperty;
 import com.vhp.autenticacao.api.document.EmailDocument;
 import com.vhp.autenticacao.api.document.EmailStatus;
 import com.vhp.autenticacao.api.model.EnvioEmail;
 import com.vhp.autenticacao.api.repository.EmailRepository;
+import org.bson.Document;
+import org.bson.types.ObjectId;
 import org.junit.jupiter.api.*;
 import org.mockito.*;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoOperations;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
 
 import java.time.Clock;
 import java.time.Instant;
@@ -16,9 +24,18 @@ import java.time.ZoneId;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -27,6 +44,12 @@ class EmailServiceTest {
     @Mock
     private EmailRepository emailRepository;
 
+    @Mock
+    private MongoOperations mongoOperations;
+
+    @Mock
+    private BulkOperations bulkOperations;
+
     @Mock
     private AutenticacaoProperty carteiraProperty;
 
@@ -55,27 +78,92 @@ class EmailServiceTest {
     }
 
     @Test
-    @DisplayName("#buscarEmaisNaoProcessados SHOULD get 10 not processed emails with no skip WHEN called no arguments")
+    @DisplayName("#buscarEmaisNaoProcessados SHOULD get first 10 not processed emails sorted by creation date and id WHEN called no arguments")
     void shouldGet10EmailsNotProcessed_whenCalledWithoutArguments() {
         emailService.buscarEmaisNaoProcessados();
 
-        verify(emailRepository).findByStatus(EmailStatus.NAO_PROCESSADO, 0, 10);
+        ArgumentCaptor<Query> queryCaptor = ArgumentCaptor.forClass(Query.class);
+        verify(mongoOperations).find(queryCaptor.capture(), eq(EmailDocument.class));
+        Query query = queryCaptor.getValue();
+        assertEquals(new Document("status", EmailStatus.NAO_PROCESSADO), query.getQueryObject());
+        assertEquals(new Document("dataCriacao", 1).append("_id", 1), query.getSortObject());
+        assertEquals(10, query.getLimit());
     }
 
     @Test
-    @DisplayName("#buscarEmaisNaoProcessados SHOULD get 20 not processed emails with no skip WHEN called with skip 0 and limit 20")
-    void shouldGet20EmailsNotProcessed_whenCalledWith20Limit() {
-        emailService.buscarEmaisNaoProcessados(0, 20);
+    @DisplayName("#buscarEmaisNaoProcessados SHOULD get 20 not processed emails after last email position WHEN called with last email and limit 20")
+    void shouldGet20EmailsNotProcessedAfterLastEmail_whenCalledWithLastEmailAnd20Limit() {
+        EmailDocument ultimo = new EmailDocument();
+        ultimo.setId(new ObjectId());
+        ultimo.setDataCriacao(LocalDateTime.of(2024, 3, 10, 12, 30, 15));
+
+        emailService.buscarEmaisNaoProcessados(ultimo, 20);
+
+        ArgumentCaptor<Query> queryCaptor = ArgumentCaptor.forClass(Query.class);
+        verify(mongoOperations).find(queryCaptor.capture(), eq(EmailDocument.class));
+        Document esperado = new Document("status", EmailStatus.NAO_PROCESSADO)
+                .append("dataCriacao", new Document("$gte", ultimo.getDataCriacao()))
+                .append("$or", List.of(
+                        new Document("dataCriacao", new Document("$gt", ultimo.getDataCriacao())),
+                        new Document("_id", new Document("$gt", ultimo.getId()))));
+        assertEquals(esperado, queryCaptor.getValue().getQueryObject());
+        assertEquals(20, queryCaptor.getValue().getLimit());
+    }
 
-        verify(emailRepository).findByStatus(EmailStatus.NAO_PROCESSADO, 0, 20);
+    private static EmailDocument emailNaFila(LocalDateTime dataCriacao) {
+        EmailDocument emailDocument = new EmailDocument();
+        emailDocument.setId(new ObjectId());
+        emailDocument.setDataCriacao(dataCriacao);
+        return emailDocument;
     }
 
     @Test
-    @DisplayName("#buscarEmaisNaoProcessados SHOULD get 20 not processed emails with 20 skip WHEN called with skip 20 and limit 20")
-    void shouldGet20EmailsNotProcessedWith20Skips_whenCalledWith20SkipsAnd20Limit() {
-        emailService.buscarEmaisNaoProcessados(20, 20);
+    @DisplayName("#reservarEmails SHOULD reserve expired reservations and due pending emails and return the reserved ones WHEN there are available emails")
+    void shouldReserveAvailableEmailsAndReturnReservedOnes() {
+        LocalDateTime now = LocalDateTime.of(2023, 4, 26, 21, 48, 56);
+        when(clock.getZone()).thenReturn(ZoneId.systemDefault());
+        when(clock.instant()).thenReturn(now.atZone(ZoneId.systemDefault()).toInstant());
+        when(carteiraProperty.getEnvioEmail()).thenReturn(new EnvioEmailProperty());
+
+        EmailDocument expirado = emailNaFila(now.minusHours(1));
+        EmailDocument disponivel = emailNaFila(now.minusMinutes(1));
+        EmailDocument reservado = new EmailDocument();
+        when(mongoOperations.find(any(Query.class), eq(EmailDocument.class)))
+                .thenReturn(List.of(expirado))
+                .thenReturn(List.of(disponivel));
+        when(emailRepository.reservar(eq(List.of(expirado.getId(), disponivel.getId())), eq(now), anyString(), anyString(), eq(now.plusMinutes(5))))
+                .thenReturn(2L);
+        when(emailRepository.findByReservaOrderByDataCriacao(anyString())).thenReturn(List.of(reservado));
+
+        List<EmailDocument> reservados = emailService.reservarEmails(50);
+
+        ArgumentCaptor<Query> queryCaptor = ArgumentCaptor.forClass(Query.class);
+        verify(mongoOperations, times(2)).find(queryCaptor.capture(), eq(EmailDocument.class));
+        assertEquals(new Document("status", EmailStatus.EM_PROCESSAMENTO).append("expiracaoReserva", new Document("$lt", now)),
+                queryCaptor.getAllValues().get(0).getQueryObject());
+        assertEquals(50, queryCaptor.getAllValues().get(0).getLimit());
+        assertEquals(new Document("status", EmailStatus.NAO_PROCESSADO).append("proximaTentativa", new Document("$not", new Document("$gt", now))),
+                queryCaptor.getAllValues().get(1).getQueryObject());
+        assertEquals(new Document("proximaTentativa", 1).append("dataCriacao", 1).append("_id", 1),
+                queryCaptor.getAllValues().get(1).getSortObject());
+        assertEquals(49, queryCaptor.getAllValues().get(1).getLimit());
+
+        ArgumentCaptor<String> reservaCaptor = ArgumentCaptor.forClass(String.class);
+        verify(emailRepository).reservar(any(), any(), anyString(), reservaCaptor.capture(), any());
+        verify(emailRepository).findByReservaOrderByDataCriacao(reservaCaptor.getValue());
+        assertEquals(List.of(reservado), reservados);
+    }
 
-        verify(emailRepository).findByStatus(EmailStatus.NAO_PROCESSADO, 20, 20);
+    @Test
+    @DisplayName("#reservarEmails SHOULD return empty list without reserving WHEN there are no available emails")
+    void shouldReturnEmptyListWithoutReservingWhenThereAreNoAvailableEmails() {
+        when(clock.getZone()).thenReturn(ZoneId.systemDefault());
+        when(clock.instant()).thenReturn(Instant.now());
+        when(mongoOperations.find(any(Query.class), eq(EmailDocument.class))).thenReturn(List.of());
+
+        assertTrue(emailService.reservarEmails(50).isEmpty());
+
+        verify(emailRepository, never()).reservar(any(), any(), any(), any(), any());
     }
 
     @Test
@@ -105,6 +193,48 @@ class EmailServiceTest {
         assertEquals(emailDocument.getCorpo(), emailsCaptor.get(0).getCorpo());
     }
 
+    @Test
+    @DisplayName("#atualizarEstados SHOULD set only state fields guarded by reservation WHEN called")
+    void atualizarEstadosShouldSetOnlyStateFieldsGuardedByReservationWhenCalled() {
+        EmailDocument emailDocument = new EmailDocument();
+        emailDocument.setId(new ObjectId());
+        emailDocument.setReserva("reserva");
+        emailDocument.setResponsavel("instancia");
+        emailDocument.setStatus(EmailStatus.PROCESSADO);
+        emailDocument.setTentativas(1);
+        emailDocument.setDataProcessamento(LocalDateTime.now());
+        emailDocument.setCorpo("corpo teste");
+        emailDocument.setDestinatarios(List.of("destinatario_teste@email.com"));
+
+        when(mongoOperations.bulkOps(BulkOperations.BulkMode.UNORDERED, EmailDocument.class)).thenReturn(bulkOperations);
+        when(bulkOperations.execute()).thenReturn(BulkWriteResult.acknowledged(0, 1, 0, 1, List.of(), List.of()));
+
+        assertEquals(1, emailService.atualizarEstados(List.of(emailDocument)));
+
+        ArgumentCaptor<Query> queryCaptor = ArgumentCaptor.forClass(Query.class);
+        ArgumentCaptor<Update> updateCaptor = ArgumentCaptor.forClass(Update.class);
+        verify(bulkOperations).updateOne(queryCaptor.capture(), updateCaptor.capture());
+        verify(emailRepository, never()).saveAll(any());
+
+        assertEquals(new Document("_id", emailDocument.getId()).append("reserva", "reserva"), queryCaptor.getValue().getQueryObject());
+        Document set = (Document) updateCaptor.getValue().getUpdateObject().get("$set");
+        assertEquals(EmailStatus.PROCESSADO, set.get("status"));
+        assertEquals(1, set.get("tentativas"));
+        assertFalse(set.containsKey("corpo"));
+        assertFalse(set.containsKey("destinatarios"));
+        assertFalse(set.containsKey("mensagemErro"));
+        assertTrue(((Document) updateCaptor.getValue().getUpdateObject().get("$unset")).containsKey("reserva"));
+        assertNull(emailDocument.getReserva());
+        assertNull(emailDocument.getResponsavel());
+    }
+
+    @Test
+    @DisplayName("#atualizarEstados SHOULD throw exception WHEN is called with empty list")
+    void atualizarEstadosShouldThrowExceptionWhenIsCalledWithEmptyList() {
+        assertThrows(IllegalArgumentException.class, () -> emailService.atualizarEstados(List.of()));
+        verify(mongoOperations, never()).bulkOps(any(BulkOperations.BulkMode.class), eq(EmailDocument.class));
+    }
+
     @Test
     @DisplayName("#salvarEmails SHOULD throw exception WHEN is called with empty list")
     void shouldThrowException_whenTrySaveEmptyList() {
@@ -159,9 +289,35 @@ class EmailServiceTest {
         Assertions.assertEquals("fake-username", envioEmailSalvo.getRemetente());
         Assertions.assertEquals(EmailStatus.NAO_PROCESSADO, envioEmailSalvo.getStatus());
         Assertions.assertEquals(dataAtual, envioEmailSalvo.getDataCriacao());
+        Assertions.assertEquals(dataAtual, envioEmailSalvo.getProximaTentativa());
         Assertions.assertNull(envioEmailSalvo.getDataProcessamento());
     }
 
+    @Test
+    @DisplayName("#registrarEnvioEmail SHOULD register template reference without body WHEN called with template")
+    void shouldRegisterTemplateReferenceWithoutBody_whenCalledWithTemplate() {
+        MailProperty mailProperty = new MailProperty();
+        when(carteiraProperty.getMail()).thenReturn(mailProperty);
+        when(clock.getZone()).thenReturn(ZoneId.systemDefault());
+        when(clock.instant()).thenReturn(Instant.now());
+
+        EnvioEmail envioEmail = new EnvioEmail();
+        envioEmail.setAssunto("Email title");
+        envioEmail.setDestinatario("test@email.com");
+        envioEmail.setTemplate("mail/recuperar-senha");
+        envioEmail.setLocale("pt-BR");
+        envioEmail.setVariaveis(Map.of("token", "T0k3n"));
+
+        emailService.registrarEnvioEmail(envioEmail);
+
+        verify(emailRepository).save(emailCaptor.capture());
+        EmailDocument emailSalvo = emailCaptor.getValue();
+        Assertions.assertNull(emailSalvo.getCorpo());
+        assertEquals("mail/recuperar-senha", emailSalvo.getTemplate());
+        assertEquals("pt-BR", emailSalvo.getLocale());
+        assertEquals(Map.of("token", "T0k3n"), emailSalvo.getVariaveis());
+    }
+
     @Test
     @DisplayName("#registrarEnvioEmail SHOULD throw exception WHEN called with null value")
     void shouldThrowException_whenCalledWithNullValue() {
@@ -0,0 +1,108 @@
+package com.vhp.autenticacao.api.service;
+
+import com.vhp.autenticacao.api.configurations.property.AutenticacaoProperty;
+import com.vhp.autenticacao.api.repository.EmailUsuario;
+import com.vhp.autenticacao.api.repository.UsuarioRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.MockitoAnnotations;
+
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FiltroEmailServiceTest {
+
+    @Mock
+    private UsuarioRepository usuarioRepository;
+
+    private AutenticacaoProperty autenticacaoProperty;
+
+    private FiltroEmailService filtroEmailService;
+
+    private AutoCloseable autoCloseable;
+
+    @BeforeEach
+    public void beforeEach() {
+        autoCloseable = MockitoAnnotations.openMocks(this);
+        autenticacaoProperty = new AutenticacaoProperty();
+        autenticacaoProperty.getFiltroEmail().setCapacidade(1000);
+        filtroEmailService = new FiltroEmailService(usuarioRepository, autenticacaoProperty);
+    }
+
+    @AfterEach
+    public void afterEach() throws Exception {
+        filtroEmailService.close();
+        autoCloseable.close();
+    }
+
+    private static EmailUsuario email(String email) {
+        return () -> email;
+    }
+
+    @Test
+    @DisplayName("#podeEstarCadastrado SHOULD return true WHEN filter was not synchronized yet.")
+    public void podeEstarCadastradoShouldReturnTrueWhenFilterWasNotSynchronizedYet() {
+        assertTrue(filtroEmailService.podeEstarCadastrado("test@email.com"));
+    }
+
+    @Test
+    @DisplayName("#podeEstarCadastrado SHOULD recognize registered emails WHEN filter is synchronized and updated.")
+    public void podeEstarCadastradoShouldRecognizeRegisteredEmailsWhenFilterIsSynchronizedAndUpdated() {
+        Mockito.when(usuarioRepository.count()).thenReturn(2L);
+        Mockito.when(usuarioRepository.streamAllBy()).thenReturn(Stream.of(email("Test@Email.com"), email("outro@email.com")));
+
+        filtroEmailService.sincronizar();
+        filtroEmailService.adicionar("novo@email.com");
+
+        assertTrue(filtroEmailService.podeEstarCadastrado("test@email.com"));
+        assertTrue(filtroEmailService.podeEstarCadastrado(" OUTRO@email.com"));
+        assertTrue(filtroEmailService.podeEstarCadastrado("novo@email.com"));
+        assertFalse(filtroEmailService.podeEstarCadastrado("disponivel@email.com"));
+    }
+
+    @Test
+    @DisplayName("#iniciar SHOULD synchronize filter on dedicated thread WHEN application is ready.")
+    public void iniciarShouldSynchronizeFilterOnDedicatedThreadWhenApplicationIsReady() {
+        Thread[] threadSincronizacao = new Thread[1];
+        Mockito.when(usuarioRepository.count()).thenReturn(1L);
+        Mockito.when(usuarioRepository.streamAllBy()).thenAnswer(invocation -> {
+            threadSincronizacao[0] = Thread.currentThread();
+            return Stream.of(email("test@email.com"));
+        });
+
+        filtroEmailService.iniciar();
+
+        Mockito.verify(usuarioRepository, Mockito.timeout(5000)).streamAllBy();
+        assertEquals("sincronizacao-filtro-email", threadSincronizacao[0].getName());
+        assertTrue(threadSincronizacao[0].isDaemon());
+    }
+
+    @Test
+    @DisplayName("#sincronizar SHOULD keep false positive rate near configured rate WHEN filter is at capacity.")
+    public void sincronizarShouldKeepFalsePositiveRateNearConfiguredRateWhenFilterIsAtCapacity() {
+        Mockito.when(usuarioRepository.count()).thenReturn(1000L);
+        Mockito.when(usuarioRepository.streamAllBy())
+                .thenReturn(IntStream.range(0, 1000).mapToObj(i -> email("usuario" + i + "@email.com")));
+        autenticacaoProperty.getFiltroEmail().setCapacidade(2000);
+
+        filtroEmailService.sincronizar();
+
+        long falsosPositivos = IntStream.range(0, 10_000)
+                .filter(i -> filtroEmailService.podeEstarCadastrado("disponivel" + i + "@email.com"))
+                .count();
+        assertTrue(falsosPositivos < 300, "Falsos positivos: " + falsosPositivos);
+
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        filtroEmailService.bindTo(registry);
+        assertTrue(registry.get("autenticacao.filtro.email.memoria").gauge().value() > 0);
+        assertTrue(registry.get("autenticacao.filtro.email.taxa.falsos.positivos").gauge().value() < 0.01);
+        assertEquals(10_000, registry.get("autenticacao.filtro.email.consultas").functionCounter().count());
+    }
+}
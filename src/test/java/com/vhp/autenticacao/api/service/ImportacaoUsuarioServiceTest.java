@@ -0,0 +1,162 @@
+package com.vhp.autenticacao.api.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mongodb.MongoBulkWriteException;
+import com.mongodb.ServerAddress;
+import com.mongodb.bulk.BulkWriteError;
+import com.mongodb.bulk.BulkWriteResult;
+import com.vhp.autenticacao.api.configurations.property.AutenticacaoProperty;
+import com.vhp.autenticacao.api.configurations.security.PasswordEncoderLimitado;
+import com.vhp.autenticacao.api.controller.dto.ResultadoImportacaoDTO;
+import com.vhp.autenticacao.api.controller.dto.ResultadoImportacaoDTO.Status;
+import com.vhp.autenticacao.api.controller.dto.ResumoImportacaoDTO;
+import com.vhp.autenticacao.api.document.Usuario;
+import com.vhp.autenticacao.api.exceptions.ArquivoImportacaoInvalidoException;
+import com.vhp.autenticacao.api.messages.MessageService;
+import com.vhp.autenticacao.api.repository.EmailNormalizadoUsuario;
+import com.vhp.autenticacao.api.repository.UsuarioRepository;
+import jakarta.validation.Validation;
+import jakarta.validation.ValidatorFactory;
+import org.bson.BsonDocument;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.MockitoAnnotations;
+import org.springframework.data.mongodb.BulkOperationException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoOperations;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ImportacaoUsuarioServiceTest {
+
+    @Mock
+    private UsuarioRepository usuarioRepository;
+
+    @Mock
+    private MongoOperations mongoOperations;
+
+    @Mock
+    private BulkOperations bulkOperations;
+
+    @Mock
+    private PasswordEncoderLimitado passwordEncoder;
+
+    @Mock
+    private FiltroEmailService filtroEmailService;
+
+    @Mock
+    private MessageService messageService;
+
+    private ValidatorFactory validatorFactory;
+
+    private ImportacaoUsuarioService importacaoUsuarioService;
+
+    private AutoCloseable autoCloseable;
+
+    @BeforeEach
+    public void beforeEach() {
+        autoCloseable = MockitoAnnotations.openMocks(this);
+        validatorFactory = Validation.buildDefaultValidatorFactory();
+
+        AutenticacaoProperty autenticacaoProperty = new AutenticacaoProperty();
+        autenticacaoProperty.getImportacao().setTamanhoLote(10);
+        importacaoUsuarioService = new ImportacaoUsuarioService(usuarioRepository, mongoOperations, passwordEncoder,
+                filtroEmailService, validatorFactory.getValidator(), new ObjectMapper(), messageService, autenticacaoProperty);
+
+        Mockito.when(mongoOperations.bulkOps(BulkOperations.BulkMode.UNORDERED, Usuario.class)).thenReturn(bulkOperations);
+        Mockito.when(passwordEncoder.encodeLote(Mockito.anyList()))
+                .thenAnswer(invocation -> ((List<?>) invocation.getArgument(0)).stream().map(senha -> "hash-" + senha).toList());
+        Mockito.when(messageService.getMessage(Mockito.anyString(), Mockito.any()))
+                .thenAnswer(invocation -> invocation.getArgument(0));
+    }
+
+    @AfterEach
+    public void afterEach() throws Exception {
+        validatorFactory.close();
+        autoCloseable.close();
+    }
+
+    private List<ResultadoImportacaoDTO> importar(String conteudo, ImportacaoUsuarioService.Formato formato) throws IOException {
+        List<ResultadoImportacaoDTO> resultados = new ArrayList<>();
+        ImportacaoUsuarioService.LeitorImportacao leitor = importacaoUsuarioService.abrir(
+                new ByteArrayInputStream(conteudo.getBytes(StandardCharsets.UTF_8)), formato);
+        ResumoImportacaoDTO resumo = importacaoUsuarioService.importar(leitor, resultados::addAll);
+        assertEquals(resultados.size(), resumo.getLinhas());
+        return resultados;
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    @DisplayName("#importar SHOULD insert only valid and new users WHEN NDJSON has invalid and repeated emails.")
+    public void importarShouldInsertOnlyValidAndNewUsersWhenNdjsonHasInvalidAndRepeatedEmails() throws IOException {
+        EmailNormalizadoUsuario cadastrado = () -> "cadastrado@email.com";
+        Mockito.when(usuarioRepository.findEmailNormalizadoByEmailNormalizadoIn(Mockito.anyCollection()))
+                .thenReturn(List.of(cadastrado));
+
+        List<ResultadoImportacaoDTO> resultados = importar("""
+                {"name":"Novo","email":"novo@email.com","password":"senha1"}
+                {"name":"Repetido","email":"NOVO@email.com","password":"senha2"}
+
+                {"name":"Cadastrado","email":"Cadastrado@email.com","password":"senha3"}
+                {"name":"Sem email","password":"senha4"}
+                nao e json
+                """, ImportacaoUsuarioService.Formato.NDJSON);
+
+        assertEquals(List.of(1L, 2L, 4L, 5L, 6L), resultados.stream().map(ResultadoImportacaoDTO::getLinha).toList());
+        assertEquals(List.of(Status.CRIADO, Status.DUPLICADO, Status.DUPLICADO, Status.INVALIDO, Status.INVALIDO),
+                resultados.stream().map(ResultadoImportacaoDTO::getStatus).toList());
+        assertTrue(resultados.get(3).getMensagem().startsWith("email: "));
+
+        ArgumentCaptor<List<Usuario>> usuariosCaptor = ArgumentCaptor.forClass(List.class);
+        Mockito.verify(bulkOperations).insert(usuariosCaptor.capture());
+        assertEquals(1, usuariosCaptor.getValue().size());
+        assertEquals("hash-senha1", usuariosCaptor.getValue().get(0).getSenha());
+        Mockito.verify(filtroEmailService).adicionar("novo@email.com");
+    }
+
+    @Test
+    @DisplayName("#importar SHOULD report duplicated user WHEN CSV insert violates unique email index.")
+    public void importarShouldReportDuplicatedUserWhenCsvInsertViolatesUniqueEmailIndex() throws IOException {
+        BulkWriteResult resultado = BulkWriteResult.acknowledged(1, 0, 0, 0, Collections.emptyList(), Collections.emptyList());
+        BulkWriteError erro = new BulkWriteError(ImportacaoUsuarioService.CODIGO_CHAVE_DUPLICADA, "E11000 duplicate key error", new BsonDocument(), 1);
+        Mockito.when(bulkOperations.execute()).thenThrow(new BulkOperationException("Erro",
+                new MongoBulkWriteException(resultado, List.of(erro), null, new ServerAddress(), Set.of())));
+
+        List<ResultadoImportacaoDTO> resultados = importar("\uFEFFemail,Name,password\n"
+                + "primeiro@email.com,\"Silva, João\",senha1\n"
+                + "concorrente@email.com,\"Ana \"\"Aninha\"\"\",senha2\n", ImportacaoUsuarioService.Formato.CSV);
+
+        assertEquals(List.of(Status.CRIADO, Status.DUPLICADO),
+                resultados.stream().map(ResultadoImportacaoDTO::getStatus).toList());
+        assertEquals(2L, resultados.get(0).getLinha());
+        Mockito.verify(filtroEmailService).adicionar("primeiro@email.com");
+        Mockito.verify(filtroEmailService, Mockito.never()).adicionar("concorrente@email.com");
+    }
+
+    @Test
+    @DisplayName("#abrir SHOULD throw ArquivoImportacaoInvalidoException WHEN CSV header lacks required columns.")
+    public void abrirShouldThrowArquivoImportacaoInvalidoExceptionWhenCsvHeaderLacksRequiredColumns() {
+        assertThrows(ArquivoImportacaoInvalidoException.class, () -> importacaoUsuarioService.abrir(
+                new ByteArrayInputStream("nome,email\n".getBytes(StandardCharsets.UTF_8)), ImportacaoUsuarioService.Formato.CSV));
+    }
+
+    @Test
+    @DisplayName("#separarCampos SHOULD split quoted fields WHEN they contain commas and escaped quotes.")
+    public void separarCamposShouldSplitQuotedFieldsWhenTheyContainCommasAndEscapedQuotes() {
+        assertEquals(List.of("a", "b, c", "d \"e\"", ""), ImportacaoUsuarioService.separarCampos("a,\"b, c\",\"d \"\"e\"\"\","));
+        assertNull(ImportacaoUsuarioService.separarCampos("a,\"b"));
+    }
+}
@@ -3,9 +3,13 @@ package com.vhp.autenticacao.api.service;
 import com.vhp.autenticacao.api.configurations.property.AutenticacaoProperty;
 import com.vhp.autenticacao.api.configurations.property.JwtProperty;
 import com.vhp.autenticacao.api.configurations.security.AutenticacaoService;
+import com.vhp.autenticacao.api.configurations.security.LimitadorTentativasLogin;
+import com.vhp.autenticacao.api.configurations.security.StatusToken;
 import com.vhp.autenticacao.api.configurations.security.TokenService;
+import com.vhp.autenticacao.api.configurations.security.ValidacaoToken;
 import com.vhp.autenticacao.api.controller.dto.TokenDTO;
 import com.vhp.autenticacao.api.controller.form.LoginForm;
+import com.vhp.autenticacao.api.exceptions.MuitasTentativasLoginException;
 import com.vhp.autenticacao.api.exceptions.UsuarioNaoAutenticadoException;
 import com.vhp.autenticacao.api.document.Usuario;
 import com.vhp.autenticacao.api.messages.MessageService;
@@ -18,9 +22,11 @@ import org.mockito.MockitoAnnotations;
 import org.springframework.mock.web.MockHttpServletRequest;
 import org.springframework.mock.web.MockHttpServletResponse;
 import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.security.authentication.BadCredentialsException;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
 
+import java.time.Instant;
 import java.util.UUID;
 
 class OauthServiceTest {
@@ -40,6 +46,9 @@ class OauthServiceTest {
     @Mock
     private MessageService messageService;
 
+    @Mock
+    private LimitadorTentativasLogin limitadorTentativasLogin;
+
     @InjectMocks
     private OauthService oauthService;
 
@@ -103,6 +112,48 @@ class OauthServiceTest {
         Assertions.assertEquals("/test-context/oauth/refresh-token", cookie.getPath());
         Assertions.assertTrue(cookie.getSecure());
         Assertions.assertEquals(20000, cookie.getMaxAge());
+        Mockito.verify(limitadorTentativasLogin, Mockito.never()).registrarFalha(Mockito.any(), Mockito.any());
+    }
+
+    @Test
+    @DisplayName("#logarUsuario SHOULD not authenticate user WHEN login attempt limit is reached")
+    public void shouldNotAuthenticateUserWhenLoginAttemptLimitIsReached() {
+
+        LoginForm form = new LoginForm();
+        form.setEmail("teste@email.com");
+        form.setPassword("p4$$w0rd");
+
+        MockHttpServletRequest req = new MockHttpServletRequest();
+        req.setRemoteAddr("10.0.0.1");
+
+        MockHttpServletResponse res = new MockHttpServletResponse();
+
+        Mockito.doThrow(new MuitasTentativasLoginException(messageService, 60))
+                .when(limitadorTentativasLogin).verificarTentativa("teste@email.com", "10.0.0.1");
+
+        Assertions.assertThrows(MuitasTentativasLoginException.class, () -> oauthService.logarUsuario(form, req, res));
+        Mockito.verifyNoInteractions(authManager);
+    }
+
+    @Test
+    @DisplayName("#logarUsuario SHOULD register failed attempt WHEN credentials are invalid")
+    public void shouldRegisterFailedAttemptWhenCredentialsAreInvalid() {
+
+        LoginForm form = new LoginForm();
+        form.setEmail("teste@email.com");
+        form.setPassword("senha-errada");
+
+        MockHttpServletRequest req = new MockHttpServletRequest();
+        req.setRemoteAddr("10.0.0.1");
+
+        MockHttpServletResponse res = new MockHttpServletResponse();
+
+        Mockito.when(authManager.authenticate(Mockito.any()))
+                .thenThrow(new BadCredentialsException("Credenciais inválidas"));
+
+        Assertions.assertThrows(BadCredentialsException.class, () -> oauthService.logarUsuario(form, req, res));
+        Mockito.verify(limitadorTentativasLogin).verificarTentativa("teste@email.com", "10.0.0.1");
+        Mockito.verify(limitadorTentativasLogin).registrarFalha("teste@email.com", "10.0.0.1");
     }
 
     @Test
@@ -129,8 +180,8 @@ class OauthServiceTest {
         req.setAttribute("refreshToken", "");
         MockHttpServletResponse res = new MockHttpServletResponse();
 
-        Mockito.when(tokenService.isTokenInvalido(""))
-                .thenReturn(true);
+        Mockito.when(tokenService.verificarToken(""))
+                .thenReturn(ValidacaoToken.invalido(StatusToken.AUSENTE));
 
         Mockito.when(messageService.getMessage(Mockito.eq("error.usuario-nao-autenticado"), Mockito.any()))
                         .thenReturn("error.usuario-nao-autenticado");
@@ -162,8 +213,8 @@ class OauthServiceTest {
         jwtProperty.setSecure(true);
         jwtProperty.setRefreshTokenValiditySeconds(20000);
 
-        Mockito.when(tokenService.getIdUsuario("F4k3-R3fr3sh-T0k3n"))
-                        .thenReturn(userId);
+        Mockito.when(tokenService.verificarToken("F4k3-R3fr3sh-T0k3n"))
+                        .thenReturn(ValidacaoToken.valido(userId, Instant.now().plusSeconds(20000)));
 
         Mockito.when(autenticacaoService.loadUserById(userId))
                 .thenReturn(usuarioMock);
@@ -13,17 +13,20 @@ import com.vhp.autenticacao.api.exceptions.TokenRedefinicaoSenhaExpiradoExceptio
 import com.vhp.autenticacao.api.exceptions.UsuarioInvalidoException;
 import com.vhp.autenticacao.api.messages.MessageService;
 import com.vhp.autenticacao.api.model.EnvioEmail;
+import com.vhp.autenticacao.api.repository.ResumoUsuario;
 import com.vhp.autenticacao.api.repository.UsuarioRepository;
-import com.vhp.autenticacao.api.template.TemplateHelper;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.mockito.*;
+import org.springframework.context.i18n.LocaleContextHolder;
+import org.springframework.dao.DuplicateKeyException;
 import org.springframework.http.HttpStatus;
 import org.springframework.security.crypto.password.PasswordEncoder;
 
 import java.time.LocalDateTime;
+import java.util.Locale;
 import java.util.Map;
 import java.util.Optional;
 import java.util.UUID;
@@ -44,15 +47,15 @@ class UsuarioServiceTest {
     @Mock
     private EmailService emailService;
 
-    @Mock
-    private TemplateHelper templateService;
-
     @Mock
     private PasswordEncoder passwordEncoder;
 
     @Mock
     private MessageService messageService;
 
+    @Mock
+    private FiltroEmailService filtroEmailService;
+
     @InjectMocks
     private UsuarioService usuarioService;
 
@@ -62,14 +65,13 @@ class UsuarioServiceTest {
     @Captor
     private ArgumentCaptor<EnvioEmail> envioEmailCaptor;
 
-    @Captor
-    private ArgumentCaptor<Map<String, Object>> variaveisTemplateCaptor;
 
     private AutoCloseable autoCloseable;
 
     @BeforeEach
     public void beforeEach() {
         autoCloseable = MockitoAnnotations.openMocks(this);
+        Mockito.when(filtroEmailService.podeEstarCadastrado(Mockito.any())).thenReturn(true);
     }
 
     @AfterEach
@@ -82,7 +84,7 @@ class UsuarioServiceTest {
     public void shouldReturnFalseWhenUnavailableEmail() {
         String email = "unavailable@email.com";
 
-        Mockito.when(usuarioRepository.findByEmail(email)).thenReturn(Optional.of(new Usuario()));
+        Mockito.when(usuarioRepository.existsByEmail(email)).thenReturn(true);
         boolean emailDisponivel = usuarioService.isEmailDisponivel(email);
         assertFalse(emailDisponivel);
     }
@@ -92,9 +94,21 @@ class UsuarioServiceTest {
     public void shouldReturnTrueWhenAvailableEmail() {
         String email = "unavailable@email.com";
 
-        Mockito.when(usuarioRepository.findByEmail(email)).thenReturn(Optional.empty());
+        Mockito.when(usuarioRepository.existsByEmail(email)).thenReturn(false);
+        boolean emailDisponivel = usuarioService.isEmailDisponivel(email);
+        assertTrue(emailDisponivel);
+        Mockito.verify(filtroEmailService).registrarFalsoPositivo();
+    }
+
+    @Test
+    @DisplayName("#isEmailDisponivel SHOULD return true without querying repository WHEN email is not in registered emails filter")
+    public void shouldReturnTrueWithoutQueryingRepositoryWhenEmailIsNotInRegisteredEmailsFilter() {
+        String email = "available@email.com";
+
+        Mockito.when(filtroEmailService.podeEstarCadastrado(email)).thenReturn(false);
         boolean emailDisponivel = usuarioService.isEmailDisponivel(email);
         assertTrue(emailDisponivel);
+        Mockito.verifyNoInteractions(usuarioRepository);
     }
 
     @Test
@@ -106,11 +120,12 @@ class UsuarioServiceTest {
         form.setPassword("strongpassword");
 
         Mockito.when(passwordEncoder.encode("strongpassword")).thenReturn("$tr0ngpa$$w0rd");
-        Mockito.when(usuarioRepository.findByEmail("test@email.com")).thenReturn(Optional.empty());
+        Mockito.when(usuarioRepository.existsByEmail("test@email.com")).thenReturn(false);
 
         usuarioService.novoUsuario(form);
 
         Mockito.verify(usuarioRepository).save(usuarioCaptor.capture());
+        Mockito.verify(filtroEmailService).adicionar("test@email.com");
 
         Usuario usuario = usuarioCaptor.getValue();
         assertEquals(form.getName(), usuario.getNome());
@@ -127,7 +142,7 @@ class UsuarioServiceTest {
         form.setPassword("strongpassword");
 
         Mockito.when(passwordEncoder.encode("strongpassword")).thenReturn("$tr0ngpa$$w0rd");
-        Mockito.when(usuarioRepository.findByEmail("test@email.com")).thenReturn(Optional.of(new Usuario()));
+        Mockito.when(usuarioRepository.existsByEmail("test@email.com")).thenReturn(true);
         Mockito.when(messageService.getMessage("error.email-x-ja-foi-cadastrado", "test@email.com"))
                 .thenReturn("error.email-x-ja-foi-cadastrado");
 
@@ -137,13 +152,44 @@ class UsuarioServiceTest {
         assertEquals("error.email-x-ja-foi-cadastrado", throwable.getMensagens().get(0).getMessage());
     }
 
+    @Test
+    @DisplayName("#novoUsuario SHOULD throw exception WHEN email is registered but absent from stale registered emails filter")
+    public void shouldThrowExceptionWhenEmailIsRegisteredButAbsentFromStaleRegisteredEmailsFilter() {
+        NovoUsuarioForm form = new NovoUsuarioForm();
+        form.setName("Test");
+        form.setEmail("test@email.com");
+        form.setPassword("strongpassword");
+
+        Mockito.when(filtroEmailService.podeEstarCadastrado("test@email.com")).thenReturn(false);
+        Mockito.when(usuarioRepository.existsByEmail("test@email.com")).thenReturn(true);
+
+        assertThrows(EmailJaCadastradoException.class, () -> usuarioService.novoUsuario(form));
+        Mockito.verify(usuarioRepository, Mockito.never()).save(Mockito.any());
+    }
+
+    @Test
+    @DisplayName("#novoUsuario SHOULD throw exception WHEN concurrent registration saves the same email first")
+    public void shouldThrowExceptionWhenConcurrentRegistrationSavesTheSameEmailFirst() {
+        NovoUsuarioForm form = new NovoUsuarioForm();
+        form.setName("Test");
+        form.setEmail("test@email.com");
+        form.setPassword("strongpassword");
+
+        Mockito.when(passwordEncoder.encode("strongpassword")).thenReturn("$tr0ngpa$$w0rd");
+        Mockito.when(usuarioRepository.existsByEmail("test@email.com")).thenReturn(false);
+        Mockito.when(usuarioRepository.save(Mockito.any())).thenThrow(new DuplicateKeyException("E11000 duplicate key"));
+
+        assertThrows(EmailJaCadastradoException.class, () -> usuarioService.novoUsuario(form));
+        Mockito.verify(filtroEmailService, Mockito.never()).adicionar(Mockito.any());
+    }
+
     @Test
     @DisplayName("#recuperarSenha SHOULD throw exception WHEN called with email not registered")
     public void shouldThrowExceptionWhenCalledWithEmailNotRegistered() {
         RecuperarSenhaForm form = new RecuperarSenhaForm();
         form.setEmail("not_registered@email.com");
 
-        Mockito.when(usuarioRepository.findByEmail(Mockito.any())).thenReturn(Optional.empty());
+        Mockito.when(usuarioRepository.findResumoByEmail(Mockito.any())).thenReturn(Optional.empty());
         Mockito.when(messageService.getMessage("error.email-x-nao-possui-cadastrado", "not_registered@email.com"))
                 .thenReturn("error.email-x-nao-possui-cadastrado");
 
@@ -171,33 +217,43 @@ class UsuarioServiceTest {
         RecuperacaoSenhaProperty mockedRecuperacaoSenhaProperty = new RecuperacaoSenhaProperty();
         mockedRecuperacaoSenhaProperty.setUrl("https://fake-url-recovery-password/");
 
-        Mockito.when(usuarioRepository.findByEmail(Mockito.any()))
-                .thenReturn(Optional.of(mockedUser));
-        Mockito.when(recuperacaoSenhaService.salvarRecuperacaoSenhaToken(Mockito.eq(mockedUser), Mockito.any()))
+        ResumoUsuario mockedResumo = Mockito.mock(ResumoUsuario.class);
+        Mockito.when(mockedResumo.getId()).thenReturn(UUID.fromString("e621e1f8-c36c-495a-93fc-0c247a3e6e5f"));
+        Mockito.when(mockedResumo.getNome()).thenReturn("Test name");
+        Mockito.when(mockedResumo.getEmail()).thenReturn("registered@email.com");
+
+        Mockito.when(usuarioRepository.findResumoByEmail(Mockito.any()))
+                .thenReturn(Optional.of(mockedResumo));
+        Mockito.when(recuperacaoSenhaService.salvarRecuperacaoSenhaToken(usuarioCaptor.capture(), Mockito.any()))
                 .thenReturn(mockedRecuperacaoSenha);
         Mockito.when(messageService.getMessage(Mockito.any()))
                 .thenReturn("Recovery password");
         Mockito.when(carteiraProperty.getRecuperacaoSenha())
                 .thenReturn(mockedRecuperacaoSenhaProperty);
-        Mockito.when(templateService.getConteudoTemplate(Mockito.eq("mail/recuperar-senha"), Mockito.any()))
-                .thenReturn("This is email body");
+        LocaleContextHolder.setLocale(Locale.forLanguageTag("pt-BR"));
 
-        usuarioService.recuperarSenha(form);
+        try {
+            usuarioService.recuperarSenha(form);
+        } finally {
+            LocaleContextHolder.resetLocaleContext();
+        }
 
-        Mockito.verify(templateService)
-                .getConteudoTemplate(Mockito.eq("mail/recuperar-senha"), variaveisTemplateCaptor.capture());
         Mockito.verify(emailService)
                 .registrarEnvioEmail(envioEmailCaptor.capture());
 
-        Map<String, Object> variaveisTemplate = variaveisTemplateCaptor.getValue();
         EnvioEmail envioEmail = envioEmailCaptor.getValue();
+        Map<String, String> variaveisTemplate = envioEmail.getVariaveis();
 
         assertEquals("Test name", variaveisTemplate.get("nomeUsuario"));
         assertEquals("T0k3n", variaveisTemplate.get("token"));
         assertEquals("https://fake-url-recovery-password/", variaveisTemplate.get("urlRecuperacao"));
         assertEquals("registered@email.com", envioEmail.getPrimeiroDestinatario());
+        assertEquals(UUID.fromString("e621e1f8-c36c-495a-93fc-0c247a3e6e5f"), usuarioCaptor.getValue().getId());
+        assertNull(usuarioCaptor.getValue().getSenha());
         assertEquals("Recovery password", envioEmail.getAssunto());
-        assertEquals("This is email body", envioEmail.getCorpo());
+        assertNull(envioEmail.getCorpo());
+        assertEquals("mail/recuperar-senha", envioEmail.getTemplate());
+        assertEquals("pt-BR", envioEmail.getLocale());
     }
 
     @Test
@@ -369,4 +425,62 @@ class UsuarioServiceTest {
         Optional<Usuario> usuario = usuarioService.find(null);
         assertTrue(usuario.isEmpty());
     }
+
+    @Test
+    @DisplayName("#atualizarHashSenha SHOULD update only the password hash of the stored one WHEN called.")
+    public void shouldUpdateOnlyPasswordHashWhenAtualizarHashSenhaIsCalled() {
+        Usuario usuario = new Usuario();
+        usuario.setId(UUID.randomUUID());
+        usuario.setEmail("test@email.com");
+        usuario.setSenha("$2a$10$hash-antigo");
+
+        Mockito.when(usuarioRepository.atualizarHashSenha(usuario.getId(), "$2a$10$hash-antigo", "$2a$12$hash-novo"))
+                .thenReturn(1L);
+
+        Usuario usuarioAtualizado = usuarioService.atualizarHashSenha(usuario, "$2a$12$hash-novo");
+
+        assertEquals("$2a$12$hash-novo", usuarioAtualizado.getSenha());
+        Mockito.verify(usuarioRepository, Mockito.never()).save(Mockito.any());
+    }
+
+    @Test
+    @DisplayName("#atualizarHashSenha SHOULD not save the user loaded on authentication WHEN user was deactivated concurrently.")
+    public void shouldNotSaveLoadedUserWhenUserWasDeactivatedConcurrently() {
+        Usuario carregado = new Usuario();
+        carregado.setId(UUID.randomUUID());
+        carregado.setEmail("test@email.com");
+        carregado.setSenha("$2a$10$hash-antigo");
+        carregado.setAtivo(true);
+
+        Usuario armazenado = new Usuario();
+        armazenado.setId(carregado.getId());
+        armazenado.setSenha(carregado.getSenha());
+        armazenado.setAtivo(false);
+        Mockito.when(usuarioRepository.atualizarHashSenha(carregado.getId(), "$2a$10$hash-antigo", "$2a$12$hash-novo"))
+                .thenAnswer(invocation -> {
+                    armazenado.setSenha(invocation.getArgument(2));
+                    return 1L;
+                });
+
+        usuarioService.atualizarHashSenha(carregado, "$2a$12$hash-novo");
+
+        Mockito.verify(usuarioRepository, Mockito.never()).save(Mockito.any());
+        assertFalse(armazenado.isAtivo());
+        assertEquals("$2a$12$hash-novo", armazenado.getSenha());
+    }
+
+    @Test
+    @DisplayName("#atualizarHashSenha SHOULD keep the loaded hash WHEN password was changed concurrently.")
+    public void shouldKeepLoadedHashWhenPasswordWasChangedConcurrently() {
+        Usuario usuario = new Usuario();
+        usuario.setId(UUID.randomUUID());
+        usuario.setSenha("$2a$10$hash-antigo");
+
+        Mockito.when(usuarioRepository.atualizarHashSenha(Mockito.any(), Mockito.any(), Mockito.any())).thenReturn(0L);
+
+        Usuario usuarioAtualizado = usuarioService.atualizarHashSenha(usuario, "$2a$12$hash-novo");
+
+        assertEquals("$2a$10$hash-antigo", usuarioAtualizado.getSenha());
+        Mockito.verify(usuarioRepository, Mockito.never()).save(Mockito.any());
+    }
 }
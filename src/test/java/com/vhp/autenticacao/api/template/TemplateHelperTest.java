@@ -7,8 +7,11 @@ import org.junit.jupiter.api.Test;
 import org.mockito.*;
 import org.thymeleaf.ITemplateEngine;
 import org.thymeleaf.context.Context;
+import org.thymeleaf.exceptions.TemplateInputException;
 
 import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertThrows;
@@ -78,4 +81,29 @@ class TemplateHelperTest {
         assertEquals("value-1", context.getVariable("test-1"));
         assertEquals("value-2", context.getVariable("test-2"));
     }
+
+    @Test
+    @DisplayName("#getConteudoTemplate SHOULD process template with informed locale WHEN called with locale.")
+    public void shouldProcessTemplateWithInformedLocaleWhenCalledWithLocale() {
+        Mockito.when(thymeleaf.process(Mockito.eq("fake-template-name"), contextCaptor.capture()))
+                .thenReturn("my-content");
+
+        String conteudoTemplate = templateHelper.getConteudoTemplate("fake-template-name", Locale.forLanguageTag("pt-BR"), Map.of("token", "T0k3n"));
+
+        assertEquals("my-content", conteudoTemplate);
+        assertEquals(Locale.forLanguageTag("pt-BR"), contextCaptor.getValue().getLocale());
+        assertEquals("T0k3n", contextCaptor.getValue().getVariable("token"));
+    }
+
+    @Test
+    @DisplayName("#aquecerCache SHOULD process every email template WHEN called.")
+    public void aquecerCacheShouldProcessEveryEmailTemplateWhenCalled() {
+        Mockito.when(thymeleaf.process(Mockito.anyString(), Mockito.any(Context.class)))
+                .thenThrow(new TemplateInputException("falha"));
+
+        templateHelper.aquecerCache();
+
+        TemplateHelper.TEMPLATES_EMAIL.forEach(template ->
+                Mockito.verify(thymeleaf).process(Mockito.eq(template), Mockito.any(Context.class)));
+    }
 }